@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for getConsentResource under contention, resolving the DAO through ConsentStoreInitializer on every
+ * call. Compares a lookup behind a class level lock, as the lookup was before it was made lock free
+ * (synchronizedLookup), against the lock free lookup (lockFreeLookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class ConsentCoreDAOLookupBenchmark {
+
+    private final Object monitor = new Object();
+    private String consentID;
+
+    @Setup
+    public void setup() throws Exception {
+
+        BenchmarkEnvironment.initialize();
+        consentID = BenchmarkEnvironment.seedConsents(1, 1, 1).get(0).getConsentID();
+    }
+
+    /**
+     * Database connection held by each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadConnection {
+
+        private Connection connection;
+
+        @Setup(Level.Trial)
+        public void open() throws Exception {
+
+            connection = BenchmarkEnvironment.getConnection();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public ConsentResource synchronizedLookup(ThreadConnection threadConnection) throws Exception {
+
+        ConsentCoreDAO consentCoreDAO;
+        synchronized (monitor) {
+            consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+        }
+        return consentCoreDAO.getConsentResource(threadConnection.connection, consentID);
+    }
+
+    @Benchmark
+    public ConsentResource lockFreeLookup(ThreadConnection threadConnection) throws Exception {
+
+        return ConsentStoreInitializer.getInitializedConsentCoreDAOImpl()
+                .getConsentResource(threadConnection.connection, consentID);
+    }
+}
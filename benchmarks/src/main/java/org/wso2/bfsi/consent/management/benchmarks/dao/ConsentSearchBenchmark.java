@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment.SeededConsent;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for ConsentCoreDAOImpl.searchConsents with different filter combinations and page sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConsentSearchBenchmark {
+
+    /**
+     * Search filter combinations.
+     */
+    public enum SearchFilter {
+        NONE,
+        CONSENT_IDS,
+        CLIENT,
+        CLIENT_TYPE_STATUS,
+        USER,
+        TIME_RANGE
+    }
+
+    @Param({"10000"})
+    public int consentCount;
+
+    @Param({"NONE", "CONSENT_IDS", "CLIENT", "CLIENT_TYPE_STATUS", "USER", "TIME_RANGE"})
+    public SearchFilter filter;
+
+    @Param({"10", "100", "500"})
+    public int pageSize;
+
+    private ConsentCoreDAO consentCoreDAO;
+    private List<SeededConsent> seededConsents;
+
+    @Setup
+    public void setup() throws Exception {
+
+        BenchmarkEnvironment.initialize();
+        consentCoreDAO = BenchmarkEnvironment.getConsentCoreDAO();
+        seededConsents = BenchmarkEnvironment.seedConsents(consentCount, 100, 2);
+    }
+
+    @Benchmark
+    public ArrayList<DetailedConsentResource> searchConsents() throws Exception {
+
+        SeededConsent sample = seededConsents.get(ThreadLocalRandom.current().nextInt(seededConsents.size()));
+        ArrayList<String> consentIDs = null;
+        ArrayList<String> clientIDs = null;
+        ArrayList<String> consentTypes = null;
+        ArrayList<String> consentStatuses = null;
+        ArrayList<String> userIDs = null;
+        Long fromTime = null;
+        Long toTime = null;
+
+        switch (filter) {
+            case CONSENT_IDS:
+                consentIDs = new ArrayList<>();
+                for (int i = 0; i < pageSize; i++) {
+                    consentIDs.add(seededConsents.get(ThreadLocalRandom.current()
+                            .nextInt(seededConsents.size())).getConsentID());
+                }
+                break;
+            case CLIENT:
+                clientIDs = new ArrayList<>(Collections.singletonList(sample.getClientID()));
+                break;
+            case CLIENT_TYPE_STATUS:
+                clientIDs = new ArrayList<>(Collections.singletonList(sample.getClientID()));
+                consentTypes = new ArrayList<>(Collections.singletonList(BenchmarkEnvironment.ACCOUNTS_CONSENT_TYPE));
+                consentStatuses = new ArrayList<>(Collections.singletonList(BenchmarkEnvironment.AUTHORIZED_STATUS));
+                break;
+            case USER:
+                userIDs = new ArrayList<>(Collections.singletonList(sample.getUserID()));
+                break;
+            case TIME_RANGE:
+                long now = System.currentTimeMillis() / 1000;
+                fromTime = now - TimeUnit.DAYS.toSeconds(1);
+                toTime = now + TimeUnit.DAYS.toSeconds(1);
+                break;
+            default:
+                break;
+        }
+
+        try (Connection connection = BenchmarkEnvironment.getConnection()) {
+            return consentCoreDAO.searchConsents(connection, consentIDs, clientIDs, consentTypes, consentStatuses,
+                    userIDs, fromTime, toTime, pageSize, 0);
+        }
+    }
+}
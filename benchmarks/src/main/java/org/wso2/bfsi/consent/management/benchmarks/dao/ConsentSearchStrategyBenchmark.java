@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment.SeededConsent;
+import org.wso2.bfsi.consent.management.common.util.ConsentManagementConstants;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing the grouped consent search query with the two-phase consent search for growing consent
+ * tables. Each parameter combination runs in its own fork and seeds its own in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConsentSearchStrategyBenchmark {
+
+    /**
+     * Search filter combinations.
+     */
+    public enum SearchFilter {
+        NONE,
+        CLIENT,
+        USER
+    }
+
+    @Param({"10000", "100000", "1000000"})
+    public int consentCount;
+
+    @Param({ConsentManagementConstants.GROUPED_CONSENT_SEARCH_STRATEGY,
+            ConsentManagementConstants.TWO_PHASE_CONSENT_SEARCH_STRATEGY})
+    public String strategy;
+
+    @Param({"NONE", "CLIENT", "USER"})
+    public SearchFilter filter;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConsentCoreDAO consentCoreDAO;
+    private List<SeededConsent> seededConsents;
+
+    @Setup
+    public void setup() throws Exception {
+
+        BenchmarkEnvironment.initialize();
+        consentCoreDAO = ConsentStoreInitializer.getConsentCoreDAO("H2 JDBC Driver",
+                ConsentManagementConstants.TWO_PHASE_CONSENT_SEARCH_STRATEGY.equals(strategy));
+        seededConsents = BenchmarkEnvironment.seedConsents(consentCount, 100, 2);
+    }
+
+    @Benchmark
+    public ArrayList<DetailedConsentResource> searchConsents() throws Exception {
+
+        SeededConsent sample = seededConsents.get(ThreadLocalRandom.current().nextInt(seededConsents.size()));
+        ArrayList<String> clientIDs = null;
+        ArrayList<String> userIDs = null;
+
+        if (filter == SearchFilter.CLIENT) {
+            clientIDs = new ArrayList<>(Collections.singletonList(sample.getClientID()));
+        } else if (filter == SearchFilter.USER) {
+            userIDs = new ArrayList<>(Collections.singletonList(sample.getUserID()));
+        }
+
+        try (Connection connection = BenchmarkEnvironment.getConnection()) {
+            return consentCoreDAO.searchConsents(connection, null, clientIDs, null, null, userIDs, null, null,
+                    pageSize, 0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment.SeededConsent;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for ConsentCoreDAOImpl.getDetailedConsentResource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DetailedConsentRetrievalBenchmark {
+
+    @Param({"1000"})
+    public int consentCount;
+
+    @Param({"1", "10"})
+    public int accountsPerConsent;
+
+    private ConsentCoreDAO consentCoreDAO;
+    private List<SeededConsent> seededConsents;
+
+    @Setup
+    public void setup() throws Exception {
+
+        BenchmarkEnvironment.initialize();
+        consentCoreDAO = BenchmarkEnvironment.getConsentCoreDAO();
+        seededConsents = BenchmarkEnvironment.seedConsents(consentCount, 100, accountsPerConsent);
+    }
+
+    @Benchmark
+    public DetailedConsentResource getDetailedConsentResource() throws Exception {
+
+        String consentID = seededConsents.get(ThreadLocalRandom.current().nextInt(seededConsents.size()))
+                .getConsentID();
+        try (Connection connection = BenchmarkEnvironment.getConnection()) {
+            return consentCoreDAO.getDetailedConsentResource(connection, consentID);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.idempotency;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment.SeededConsent;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyConstants;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidationResult;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidator;
+import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
+import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentManageData;
+import org.wso2.bfsi.consent.management.service.impl.ConsentCoreServiceImpl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for IdempotencyValidator.validateIdempotency against consents stored in H2.
+ * <p>
+ * NEW_KEY measures the common path of a request carrying an idempotency key that has not been seen before.
+ * REPLAY measures a replayed request whose key, client and payload match a stored consent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdempotencyValidationBenchmark {
+
+    private static final String REQUEST_PATH = "/account-access-consents";
+
+    /**
+     * Idempotency scenarios.
+     */
+    public enum Scenario {
+        NEW_KEY,
+        REPLAY
+    }
+
+    @Param({"10000"})
+    public int consentCount;
+
+    @Param({"NEW_KEY", "REPLAY"})
+    public Scenario scenario;
+
+    private IdempotencyValidator idempotencyValidator;
+    private List<SeededConsent> seededConsents;
+    private JSONObject payload;
+
+    @Setup
+    public void setup() throws Exception {
+
+        BenchmarkEnvironment.initialize();
+        // The validator resolves the consent core service from the data holder when the class is loaded
+        ConsentExtensionsDataHolder.getInstance().setConsentCoreService(new ConsentCoreServiceImpl());
+        seededConsents = BenchmarkEnvironment.seedConsents(consentCount, 100, 1);
+        idempotencyValidator = new IdempotencyValidator();
+        payload = new JSONObject(BenchmarkEnvironment.getSampleAccountsReceipt());
+    }
+
+    @Benchmark
+    public IdempotencyValidationResult validateIdempotency() throws Exception {
+
+        SeededConsent consent = seededConsents.get(ThreadLocalRandom.current().nextInt(seededConsents.size()));
+        String idempotencyKey = scenario == Scenario.REPLAY ? consent.getIdempotencyKey() :
+                UUID.randomUUID().toString();
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(IdempotencyConstants.X_IDEMPOTENCY_KEY, idempotencyKey);
+        ConsentManageData consentManageData = new ConsentManageData(headers, payload, new HashMap<>(),
+                REQUEST_PATH, null, null);
+        consentManageData.setClientId(consent.getClientID());
+        return idempotencyValidator.validateIdempotency(consentManageData);
+    }
+}
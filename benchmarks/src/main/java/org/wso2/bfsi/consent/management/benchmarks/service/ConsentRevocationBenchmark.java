@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment.SeededConsent;
+import org.wso2.bfsi.consent.management.service.ConsentCoreService;
+import org.wso2.bfsi.consent.management.service.impl.ConsentCoreServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark for ConsentCoreServiceImpl.revokeConsentWithReason.
+ * <p>
+ * Token revocation requires the identity server OAuth2 service and is disabled here, so the benchmark measures the
+ * consent lookup, status update, account mapping deactivation and audit record insert. Consents are revoked in a
+ * round robin manner; revoking an already revoked consent performs the same database work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConsentRevocationBenchmark {
+
+    private static final String REVOCATION_REASON = "Revoked by benchmark";
+
+    @Param({"5000"})
+    public int consentCount;
+
+    @Param({"1", "10"})
+    public int accountsPerConsent;
+
+    private ConsentCoreService consentCoreService;
+    private List<SeededConsent> seededConsents;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Setup
+    public void setup() throws Exception {
+
+        BenchmarkEnvironment.initialize();
+        consentCoreService = new ConsentCoreServiceImpl();
+        seededConsents = BenchmarkEnvironment.seedConsents(consentCount, 100, accountsPerConsent);
+    }
+
+    @Benchmark
+    public boolean revokeConsentWithReason() throws Exception {
+
+        SeededConsent consent = seededConsents.get(Math.floorMod(cursor.getAndIncrement(), seededConsents.size()));
+        return consentCoreService.revokeConsentWithReason(consent.getConsentID(),
+                BenchmarkEnvironment.REVOKED_STATUS, consent.getUserID(), false, REVOCATION_REASON);
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.util;
+
+import org.apache.commons.dbcp.BasicDataSource;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentAttributes;
+import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.naming.Context;
+
+/**
+ * Sets up the embedded H2 database, configuration and JNDI binding shared by all benchmarks, and seeds
+ * consent data.
+ * <p>
+ * The schema is the one used by the DAO unit tests (dbScripts/h2.sql). The configuration is written to a temporary
+ * directory and exposed through the carbon.config.dir.path system property, so that ConsentManagementConfigParser
+ * and JDBCPersistenceManager initialize as they do in the server.
+ * <p>
+ * The secondary index migration (migrations/v1.0.1/h2.sql) is applied on top of the schema unless the
+ * bfsi.benchmark.indexes system property is set to false, which allows comparing the query paths with and without
+ * the indexes.
+ */
+public class BenchmarkEnvironment {
+
+    public static final String DATA_SOURCE_NAME = "jdbc/WSO2BFSI_DB";
+    public static final String ACCOUNTS_CONSENT_TYPE = "accounts";
+    public static final String AUTHORIZED_STATUS = "Authorised";
+    public static final String AWAITING_AUTHORIZATION_STATUS = "AwaitingAuthorisation";
+    public static final String REVOKED_STATUS = "Revoked";
+    public static final String AUTHORIZATION_TYPE = "authorisation";
+    public static final String ACTIVE_MAPPING_STATUS = "active";
+    public static final String IDEMPOTENCY_KEY_NAME = "IdempotencyKey";
+
+    private static final String DB_URL = "jdbc:h2:mem:bfsi_consent_benchmark;DB_CLOSE_DELAY=-1";
+    private static final String CONFIG_RESOURCE = "repository/conf/bfsi-consent-management.xml";
+    private static final String SCHEMA_RESOURCE = "dbScripts/h2.sql";
+    private static final String INDEX_MIGRATION_RESOURCE = "migrations/v1.0.1/h2.sql";
+    private static final String INDEXES_ENABLED_PROPERTY = "bfsi.benchmark.indexes";
+    private static final int MAX_ACTIVE_CONNECTIONS = 128;
+    private static final int SEED_COMMIT_INTERVAL = 10000;
+    private static final String SAMPLE_ACCOUNTS_RECEIPT = "{\"Data\":{\"Permissions\":[\"ReadAccountsDetail\"," +
+            "\"ReadBalances\",\"ReadTransactionsDetail\"]," +
+            "\"ExpirationDateTime\":\"" + OffsetDateTime.now().plusDays(30) + "\"," +
+            "\"TransactionFromDateTime\":\"" + OffsetDateTime.now().minusDays(30) + "\"," +
+            "\"TransactionToDateTime\":\"" + OffsetDateTime.now().plusDays(30) + "\"},\"Risk\":{}}";
+
+    private static BasicDataSource dataSource;
+
+    /**
+     * Initialize the benchmark environment once per JVM.
+     *
+     * @throws Exception if the environment cannot be initialized
+     */
+    public static synchronized void initialize() throws Exception {
+
+        if (dataSource != null) {
+            return;
+        }
+
+        Path configDir = Files.createTempDirectory("bfsi-consent-benchmark-conf");
+        copyResource(CONFIG_RESOURCE, configDir.resolve("bfsi-consent-management.xml"));
+        System.setProperty("carbon.config.dir.path", configDir.toString());
+        System.setProperty("carbon.home", configDir.toString());
+
+        BasicDataSource h2DataSource = new BasicDataSource();
+        h2DataSource.setDriverClassName("org.h2.Driver");
+        h2DataSource.setUsername("username");
+        h2DataSource.setPassword("password");
+        h2DataSource.setUrl(DB_URL);
+        h2DataSource.setMaxActive(MAX_ACTIVE_CONNECTIONS);
+        h2DataSource.setMaxIdle(MAX_ACTIVE_CONNECTIONS);
+
+        Path schema = Files.createTempFile("bfsi-consent-benchmark", ".sql");
+        copyResource(SCHEMA_RESOURCE, schema);
+        try (Connection connection = h2DataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("RUNSCRIPT FROM '" + schema.toAbsolutePath() + "'");
+            if (Boolean.parseBoolean(System.getProperty(INDEXES_ENABLED_PROPERTY, "true"))) {
+                Path indexMigration = Files.createTempFile("bfsi-consent-benchmark-indexes", ".sql");
+                copyResource(INDEX_MIGRATION_RESOURCE, indexMigration);
+                statement.executeUpdate("RUNSCRIPT FROM '" + indexMigration.toAbsolutePath() + "'");
+            }
+        }
+
+        BenchmarkInitialContextFactory.bind(DATA_SOURCE_NAME, h2DataSource);
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, BenchmarkInitialContextFactory.class.getName());
+        ConsentStoreInitializer.initializeConsentCoreDAO();
+
+        dataSource = h2DataSource;
+    }
+
+    /**
+     * Get a connection from the benchmark data source.
+     *
+     * @return database connection
+     * @throws SQLException if a connection cannot be obtained
+     */
+    public static Connection getConnection() throws SQLException {
+
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Get the DAO implementation resolved for the benchmark database.
+     *
+     * @return consent core DAO
+     * @throws Exception if the DAO cannot be resolved
+     */
+    public static ConsentCoreDAO getConsentCoreDAO() throws Exception {
+
+        return ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+    }
+
+    /**
+     * Seed authorized account consents, each with an authorization resource, account mappings, attributes and an
+     * audit record, spread across the given number of clients.
+     *
+     * @param consentCount     number of consents to seed
+     * @param clientCount      number of distinct client IDs
+     * @param accountsPerConsent number of accounts mapped to each consent
+     * @return seeded consents
+     * @throws Exception if the data cannot be stored
+     */
+    public static List<SeededConsent> seedConsents(int consentCount, int clientCount, int accountsPerConsent)
+            throws Exception {
+
+        return seedConsents(consentCount, clientCount, 0, 1, accountsPerConsent);
+    }
+
+    /**
+     * Seed authorized account consents with the given number of child records, spread across the given number of
+     * clients. Each consent gets the idempotency key and benchmark attributes in addition to the extra attributes.
+     *
+     * @param consentCount              number of consents to seed
+     * @param clientCount               number of distinct client IDs
+     * @param extraAttributesPerConsent number of additional attributes stored for each consent
+     * @param authorizationsPerConsent  number of authorization resources of each consent
+     * @param accountsPerAuthorization  number of accounts mapped to each authorization resource
+     * @return seeded consents
+     * @throws Exception if the data cannot be stored
+     */
+    public static List<SeededConsent> seedConsents(int consentCount, int clientCount, int extraAttributesPerConsent,
+                                                   int authorizationsPerConsent, int accountsPerAuthorization)
+            throws Exception {
+
+        ConsentCoreDAO consentCoreDAO = getConsentCoreDAO();
+        List<SeededConsent> seededConsents = new ArrayList<>(consentCount);
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < consentCount; i++) {
+                String clientID = "benchmark-client-" + (i % clientCount);
+                String userID = "psu" + (i % clientCount) + "@wso2.com@carbon.super";
+
+                ConsentResource consentResource = getSampleConsentResource(clientID, AUTHORIZED_STATUS);
+                ConsentResource storedConsent = consentCoreDAO.storeConsentResource(connection, consentResource);
+                String consentID = storedConsent.getConsentID();
+
+                for (int k = 0; k < authorizationsPerConsent; k++) {
+                    AuthorizationResource authorizationResource = new AuthorizationResource(consentID, userID,
+                            AUTHORIZED_STATUS, AUTHORIZATION_TYPE, System.currentTimeMillis() / 1000);
+                    AuthorizationResource storedAuthorization = consentCoreDAO
+                            .storeAuthorizationResource(connection, authorizationResource);
+
+                    for (int j = 0; j < accountsPerAuthorization; j++) {
+                        ConsentMappingResource mappingResource = new ConsentMappingResource();
+                        mappingResource.setAuthorizationID(storedAuthorization.getAuthorizationID());
+                        mappingResource.setAccountID("account-" + i + "-" + j);
+                        mappingResource.setPermission("primary");
+                        mappingResource.setMappingStatus(ACTIVE_MAPPING_STATUS);
+                        consentCoreDAO.storeConsentMappingResource(connection, mappingResource);
+                    }
+                }
+
+                String idempotencyKey = UUID.randomUUID().toString();
+                Map<String, String> attributes = new HashMap<>();
+                attributes.put(IDEMPOTENCY_KEY_NAME, idempotencyKey);
+                attributes.put("benchmark-attribute", "value-" + i);
+                for (int j = 0; j < extraAttributesPerConsent; j++) {
+                    attributes.put("benchmark-attribute-" + j, "value-" + i + "-" + j);
+                }
+                consentCoreDAO.storeConsentAttributes(connection, new ConsentAttributes(consentID, attributes));
+
+                consentCoreDAO.storeConsentStatusAuditRecord(connection, new ConsentStatusAuditRecord(consentID,
+                        AUTHORIZED_STATUS, 0, "Consent authorized", userID, AWAITING_AUTHORIZATION_STATUS));
+
+                seededConsents.add(new SeededConsent(consentID, clientID, userID, idempotencyKey));
+                if ((i + 1) % SEED_COMMIT_INTERVAL == 0) {
+                    connection.commit();
+                }
+            }
+            connection.commit();
+        }
+        return seededConsents;
+    }
+
+    /**
+     * Build a sample account consent resource.
+     *
+     * @param clientID      client ID
+     * @param currentStatus current status
+     * @return consent resource
+     */
+    public static ConsentResource getSampleConsentResource(String clientID, String currentStatus) {
+
+        ConsentResource consentResource = new ConsentResource();
+        consentResource.setClientID(clientID);
+        consentResource.setReceipt(getSampleAccountsReceipt());
+        consentResource.setConsentType(ACCOUNTS_CONSENT_TYPE);
+        consentResource.setCurrentStatus(currentStatus);
+        consentResource.setConsentFrequency(1);
+        consentResource.setValidityPeriod(OffsetDateTime.now().plusDays(30).toEpochSecond());
+        consentResource.setRecurringIndicator(true);
+        return consentResource;
+    }
+
+    /**
+     * Get the sample account access consent receipt. The same receipt is used for every seeded consent, so that a
+     * replayed request payload matches any stored consent.
+     *
+     * @return receipt JSON string
+     */
+    public static String getSampleAccountsReceipt() {
+
+        return SAMPLE_ACCOUNTS_RECEIPT;
+    }
+
+    private static void copyResource(String resource, Path target) throws IOException {
+
+        try (InputStream inputStream = BenchmarkEnvironment.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IOException("Benchmark resource not found: " + resource);
+            }
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Identifiers of a seeded consent.
+     */
+    public static class SeededConsent {
+
+        private final String consentID;
+        private final String clientID;
+        private final String userID;
+        private final String idempotencyKey;
+
+        public SeededConsent(String consentID, String clientID, String userID, String idempotencyKey) {
+
+            this.consentID = consentID;
+            this.clientID = clientID;
+            this.userID = userID;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        public String getConsentID() {
+
+            return consentID;
+        }
+
+        public String getClientID() {
+
+            return clientID;
+        }
+
+        public String getUserID() {
+
+            return userID;
+        }
+
+        public String getIdempotencyKey() {
+
+            return idempotencyKey;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.util;
+
+import java.lang.reflect.Proxy;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.spi.InitialContextFactory;
+
+/**
+ * Minimal JNDI initial context factory used to expose the embedded H2 data source to the
+ * JDBCPersistenceManager, in the same way the carbon data source component does in the server.
+ */
+public class BenchmarkInitialContextFactory implements InitialContextFactory {
+
+    private static final Map<String, Object> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * Bind an object to the given JNDI name.
+     *
+     * @param name   JNDI name
+     * @param object object to bind
+     */
+    public static void bind(String name, Object object) {
+
+        bindings.put(name, object);
+    }
+
+    @Override
+    public Context getInitialContext(Hashtable<?, ?> environment) {
+
+        return (Context) Proxy.newProxyInstance(BenchmarkInitialContextFactory.class.getClassLoader(),
+                new Class<?>[]{Context.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "lookup":
+                            String name = String.valueOf(args[0]);
+                            Object bound = bindings.get(name);
+                            if (bound == null) {
+                                throw new NameNotFoundException(name);
+                            }
+                            return bound;
+                        case "close":
+                            return null;
+                        case "getEnvironment":
+                            return new Hashtable<>(environment);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.validate;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.dao.models.ConsentReceipt;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for reading the validated members of a consent receipt. Compares parsing the receipt JSON on every
+ * validation with the parsed receipt kept with the consent. Run with {@code -prof gc} to report the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsentReceiptBenchmark {
+
+    private DetailedConsentResource detailedConsentResource;
+
+    @Setup
+    public void setup() {
+
+        detailedConsentResource = new DetailedConsentResource();
+        detailedConsentResource.setReceipt(BenchmarkEnvironment.getSampleAccountsReceipt());
+    }
+
+    @Benchmark
+    public void parsePerValidation(Blackhole blackhole) {
+
+        JSONObject data = new JSONObject(detailedConsentResource.getReceipt()).getJSONObject("Data");
+        blackhole.consume(data.getJSONArray("Permissions"));
+        blackhole.consume(data.getString("ExpirationDateTime"));
+    }
+
+    @Benchmark
+    public void cachedParsedReceipt(Blackhole blackhole) {
+
+        ConsentReceipt consentReceipt = detailedConsentResource.getParsedReceipt();
+        blackhole.consume(consentReceipt.getPermissions());
+        blackhole.consume(consentReceipt.getExpirationDateTime());
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.validate;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.benchmarks.util.BenchmarkEnvironment;
+import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.extensions.validate.impl.DefaultConsentValidator;
+import org.wso2.bfsi.consent.management.extensions.validate.model.ConsentValidateData;
+import org.wso2.bfsi.consent.management.extensions.validate.model.ConsentValidationResult;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for DefaultConsentValidator.validate on account, payment and funds confirmation requests. The validator
+ * does not access the database, so the consents are built in memory.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsentValidatorBenchmark {
+
+    private static final String CLIENT_ID = "benchmark-client";
+    private static final String USER_ID = "psu@wso2.com@carbon.super";
+    private static final String PAYMENTS_CONSENT_TYPE = "payments";
+    private static final String FUNDS_CONFIRMATIONS_CONSENT_TYPE = "fundsconfirmations";
+    private static final String INITIATION = "{\"InstructionIdentification\":\"ACME412\"," +
+            "\"EndToEndIdentification\":\"FRESCO.21302.GFX.20\",\"InstructedAmount\":{\"Amount\":\"165.88\"," +
+            "\"Currency\":\"GBP\"},\"CreditorAccount\":{\"SchemeName\":\"UK.OBIE.SortCodeAccountNumber\"," +
+            "\"Identification\":\"08080021325698\",\"Name\":\"ACME Inc\"}}";
+
+    /**
+     * Account resource requests.
+     */
+    @State(Scope.Benchmark)
+    public static class AccountsState {
+
+        @Param({"/accounts/account-1", "/accounts/account-1/transactions", "/accounts/account-1/balances",
+                "/invalid/path"})
+        public String requestPath;
+
+        private final DefaultConsentValidator consentValidator = new DefaultConsentValidator();
+        private ConsentValidateData consentValidateData;
+
+        @Setup
+        public void setup() {
+
+            consentValidateData = buildValidateData(BenchmarkEnvironment.ACCOUNTS_CONSENT_TYPE,
+                    BenchmarkEnvironment.getSampleAccountsReceipt(), requestPath, new JSONObject());
+        }
+    }
+
+    /**
+     * Payment submission requests.
+     */
+    @State(Scope.Benchmark)
+    public static class PaymentsState {
+
+        private final DefaultConsentValidator consentValidator = new DefaultConsentValidator();
+        private ConsentValidateData consentValidateData;
+
+        @Setup
+        public void setup() {
+
+            String receipt = "{\"Data\":{\"Initiation\":" + INITIATION + "}}";
+            JSONObject payload = new JSONObject().put("Data", new JSONObject()
+                    .put("Initiation", new JSONObject(INITIATION)));
+            consentValidateData = buildValidateData(PAYMENTS_CONSENT_TYPE, receipt, "/payments", payload);
+        }
+    }
+
+    /**
+     * Funds confirmation requests.
+     */
+    @State(Scope.Benchmark)
+    public static class FundsConfirmationState {
+
+        private final DefaultConsentValidator consentValidator = new DefaultConsentValidator();
+        private ConsentValidateData consentValidateData;
+
+        @Setup
+        public void setup() {
+
+            String receipt = "{\"Data\":{\"ExpirationDateTime\":\"" + OffsetDateTime.now().plusDays(30) +
+                    "\",\"DebtorAccount\":{\"SchemeName\":\"UK.OBIE.SortCodeAccountNumber\"," +
+                    "\"Identification\":\"08080021325698\"}}}";
+            JSONObject payload = new JSONObject().put("Data", new JSONObject()
+                    .put("Reference", "Purchase01")
+                    .put("InstructedAmount", new JSONObject().put("Amount", "20.00").put("Currency", "GBP")));
+            consentValidateData = buildValidateData(FUNDS_CONFIRMATIONS_CONSENT_TYPE, receipt,
+                    "/funds-confirmations", payload);
+        }
+    }
+
+    @Benchmark
+    public ConsentValidationResult validateAccounts(AccountsState state) {
+
+        ConsentValidationResult consentValidationResult = new ConsentValidationResult();
+        state.consentValidator.validate(state.consentValidateData, consentValidationResult);
+        return consentValidationResult;
+    }
+
+    @Benchmark
+    public ConsentValidationResult validatePayments(PaymentsState state) {
+
+        ConsentValidationResult consentValidationResult = new ConsentValidationResult();
+        state.consentValidator.validate(state.consentValidateData, consentValidationResult);
+        return consentValidationResult;
+    }
+
+    @Benchmark
+    public ConsentValidationResult validateFundsConfirmation(FundsConfirmationState state) {
+
+        ConsentValidationResult consentValidationResult = new ConsentValidationResult();
+        state.consentValidator.validate(state.consentValidateData, consentValidationResult);
+        return consentValidationResult;
+    }
+
+    private static ConsentValidateData buildValidateData(String consentType, String receipt, String requestPath,
+                                                         JSONObject payload) {
+
+        String consentID = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis() / 1000;
+
+        ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
+        AuthorizationResource authorizationResource = new AuthorizationResource(consentID, USER_ID,
+                BenchmarkEnvironment.AUTHORIZED_STATUS, BenchmarkEnvironment.AUTHORIZATION_TYPE, now);
+        authorizationResource.setAuthorizationID(UUID.randomUUID().toString());
+        authorizationResources.add(authorizationResource);
+
+        ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+        ConsentMappingResource consentMappingResource = new ConsentMappingResource();
+        consentMappingResource.setMappingID(UUID.randomUUID().toString());
+        consentMappingResource.setAuthorizationID(authorizationResource.getAuthorizationID());
+        consentMappingResource.setAccountID("account-1");
+        consentMappingResource.setPermission("primary");
+        consentMappingResource.setMappingStatus(BenchmarkEnvironment.ACTIVE_MAPPING_STATUS);
+        consentMappingResources.add(consentMappingResource);
+
+        DetailedConsentResource detailedConsentResource = new DetailedConsentResource(consentID, CLIENT_ID,
+                receipt, consentType, BenchmarkEnvironment.AUTHORIZED_STATUS, 1,
+                now + TimeUnit.DAYS.toSeconds(30), now, now, true, new HashMap<>(), authorizationResources,
+                consentMappingResources);
+
+        if (payload.has("Data")) {
+            payload.getJSONObject("Data").put("ConsentId", consentID);
+        }
+        ConsentValidateData consentValidateData = new ConsentValidateData(new JSONObject(), payload, requestPath,
+                consentID, USER_ID, CLIENT_ID, new HashMap<>());
+        consentValidateData.setComprehensiveConsent(detailedConsentResource);
+        return consentValidateData;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.benchmarks.validate;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.bfsi.consent.management.common.util.CommonUtils;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the JWT handling of the consent validation endpoint when the JWT payload validation is enabled.
+ * <p>
+ * uncachedVerifier reproduces the previous flow, which looked up the certificate and built a verifier for every
+ * request, and decoded the payload twice after parsing it for the signature validation. cachedVerifier is the
+ * current flow, which parses the JWT once and uses the verifier cached for the alias.
+ * <p>
+ * A truststore holding a generated RSA key pair is created with the keytool of the running JVM and configured
+ * through the javax.net.ssl.trustStore system properties, as in the server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationRequestJWTBenchmark {
+
+    private static final String ALIAS = "benchmark";
+    private static final String TRUST_STORE_PASSWORD = "benchmark";
+
+    private String requestJWT;
+
+    @Setup
+    public void setup() throws Exception {
+
+        Path trustStoreDirectory = Files.createTempDirectory("bfsi-benchmark-truststore");
+        File trustStoreFile = trustStoreDirectory.resolve("client-truststore.p12").toFile();
+        trustStoreFile.deleteOnExit();
+        trustStoreDirectory.toFile().deleteOnExit();
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-keyalg", "RSA", "-keysize", "2048",
+                "-alias", ALIAS, "-dname", "CN=benchmark", "-validity", "1", "-storetype", "PKCS12",
+                "-keystore", trustStoreFile.getAbsolutePath(), "-storepass", TRUST_STORE_PASSWORD,
+                "-keypass", TRUST_STORE_PASSWORD).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Unable to generate the benchmark truststore with " + keytool);
+        }
+
+        KeyStore trustStore = KeyStore.getInstance("PKCS12");
+        try (InputStream trustStoreStream = new FileInputStream(trustStoreFile)) {
+            trustStore.load(trustStoreStream, TRUST_STORE_PASSWORD.toCharArray());
+        }
+        System.setProperty("javax.net.ssl.trustStore", trustStoreFile.getAbsolutePath());
+        System.setProperty("javax.net.ssl.trustStorePassword", TRUST_STORE_PASSWORD);
+        System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("x-fapi-financial-id", "open-bank");
+        headers.put("Authorization", "Bearer " + UUID.randomUUID());
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .claim(ConsentExtensionConstants.HEADERS, headers)
+                .claim(ConsentExtensionConstants.ELECTED_RESOURCE, "/accounts/account-1/transactions")
+                .claim(ConsentExtensionConstants.CC_CONSENT_ID, UUID.randomUUID().toString())
+                .claim(ConsentExtensionConstants.USER_ID, "psu@wso2.com@carbon.super")
+                .claim(ConsentExtensionConstants.CLIENT_ID, "benchmark-client")
+                .claim(ConsentExtensionConstants.RESOURCE_PARAMS, new HashMap<String, Object>())
+                .build();
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        signedJWT.sign(new RSASSASigner((PrivateKey) trustStore.getKey(ALIAS, TRUST_STORE_PASSWORD.toCharArray())));
+        requestJWT = signedJWT.serialize();
+    }
+
+    @Benchmark
+    public JSONObject uncachedVerifier() throws Exception {
+
+        JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) ConsentExtensionUtils.getCertificateFromAlias(ALIAS)
+                .getPublicKey());
+        if (!SignedJWT.parse(requestJWT).verify(verifier)) {
+            throw new IllegalStateException("Invalid JWT signature");
+        }
+        String decodedRequest = CommonUtils.decodeRequestJWT(requestJWT, ConsentExtensionConstants.BODY) != null ?
+                CommonUtils.decodeRequestJWT(requestJWT, ConsentExtensionConstants.BODY).toJSONString() : null;
+        return new JSONObject(decodedRequest);
+    }
+
+    @Benchmark
+    public JSONObject cachedVerifier() throws Exception {
+
+        SignedJWT signedJWT = SignedJWT.parse(requestJWT);
+        if (!ConsentExtensionUtils.validateJWTSignatureWithPublicKey(signedJWT, ALIAS)) {
+            throw new IllegalStateException("Invalid JWT signature");
+        }
+        return new JSONObject(signedJWT.getPayload().toString());
+    }
+}
@@ -22,6 +22,10 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.cache.Cache;
@@ -29,9 +33,15 @@ import javax.cache.CacheBuilder;
 import javax.cache.CacheConfiguration;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
+import javax.cache.Status;
 
 /**
  * Abstract cache manager for Consent Management.
+ * <p>
+ * The cache is resolved from the BFSI base cache manager on first use and the handle is kept until the cache is
+ * stopped, e.g. when the cache manager shuts down, after which it is resolved again. Concurrent misses of the same
+ * key are retrieved once, the other callers wait for the retrieval in progress. Removing an entry invalidates a
+ * retrieval in progress for it, so that a retrieval started before the removal does not cache what it read.
  *
  * @param <K>   Extended Cache Key
  * @param <V>   Cache Value
@@ -39,7 +49,12 @@ import javax.cache.Caching;
 public abstract class ConsentManagementBaseCache<K extends ConsentManagementBaseCacheKey, V> {
 
     private static final String BASE_CACHE_KEY = "CONSENT_MGT_BASE_CACHE";
+    private static final String LOCAL_CACHE_PREFIX = "$__local__$.";
     private final String cacheName;
+    private final String localCacheName;
+    private final ConcurrentMap<K, Retrieval<V>> inFlightRetrievals = new ConcurrentHashMap<>();
+    private final ConsentManagementCacheStatistics statistics = new ConsentManagementCacheStatistics();
+    private volatile Cache<K, V> baseCache;
 
     private static final Log log = LogFactory.getLog(ConsentManagementBaseCache.class);
 
@@ -59,6 +74,7 @@ public abstract class ConsentManagementBaseCache<K extends ConsentManagementBase
     public ConsentManagementBaseCache(String cacheName) {
 
         this.cacheName = cacheName;
+        this.localCacheName = LOCAL_CACHE_PREFIX + cacheName;
 
         if (log.isDebugEnabled()) {
             log.debug(String.format("Base Cache initialized for %s", cacheName.replaceAll("[\r\n]", "")));
@@ -66,7 +82,8 @@ public abstract class ConsentManagementBaseCache<K extends ConsentManagementBase
     }
 
     /**
-     * Get from cache or invoke ondemand retriever and store.
+     * Get from cache or invoke ondemand retriever and store. If the entry is already being retrieved by another
+     * thread, waits for that retrieval instead of retrieving it again.
      *
      * @param key                  cache key.
      * @param onDemandRetriever    on demand retriever.
@@ -77,32 +94,64 @@ public abstract class ConsentManagementBaseCache<K extends ConsentManagementBase
 
         Cache<K, V> cache = getBaseCache();
 
-        if (cache.containsKey(key)) {
-
+        V value = cache.get(key);
+        if (value != null) {
+            statistics.recordHit();
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Found cache entry `%s` in cache %s",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
-            return getFromCache(key);
-        } else {
-
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Cache Entry `%s` not available in cache %s",
-                        key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
-            }
+            return value;
+        }
 
-            V value = (V) onDemandRetriever.get();
+        statistics.recordMiss();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Cache Entry `%s` not available in cache %s",
+                    key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+        }
 
+        Retrieval<V> retrieval = new Retrieval<>();
+        Retrieval<V> inFlightRetrieval = inFlightRetrievals.putIfAbsent(key, retrieval);
+        if (inFlightRetrieval != null) {
             if (log.isDebugEnabled()) {
-                log.debug(String.format("On demand retrieved `%s` for %s",
+                log.debug(String.format("Waiting for the retrieval of `%s` in progress for %s",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
+            return awaitRetrieval(inFlightRetrieval.result);
+        }
 
-            removeFromCache(key);
-            addToCache(key, value);
+        long startTime = System.nanoTime();
+        boolean isRetrieved = false;
+        try {
+            // The entry may have been added by a retrieval which completed after the lookup above
+            value = cache.get(key);
+            if (value == null) {
+                value = (V) onDemandRetriever.get();
+
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("On demand retrieved `%s` for %s",
+                            key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+                }
+                if (value != null && !retrieval.invalidated) {
+                    addToCache(key, value);
+                    // The entry was removed while it was being cached, the retrieved value may be stale
+                    if (retrieval.invalidated) {
+                        cache.remove(key);
+                    }
+                }
+                isRetrieved = true;
+            }
+            retrieval.result.complete(value);
             return value;
+        } catch (Throwable e) {
+            retrieval.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRetrievals.remove(key, retrieval);
+            if (isRetrieved || retrieval.result.isCompletedExceptionally()) {
+                statistics.recordLoad(System.nanoTime() - startTime, isRetrieved);
+            }
         }
-
     }
 
     /**
@@ -113,19 +162,18 @@ public abstract class ConsentManagementBaseCache<K extends ConsentManagementBase
      */
     public V getFromCache(K key) {
 
-        Cache<K, V> cache = getBaseCache();
-
-        if (cache.containsKey(key)) {
-
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Found cache entry `%s` in cache %s",
-                        key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
-            }
-            return cache.get(key);
-        } else {
-
+        V value = getBaseCache().get(key);
+        if (value == null) {
+            statistics.recordMiss();
             return null;
         }
+
+        statistics.recordHit();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Found cache entry `%s` in cache %s",
+                    key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+        }
+        return value;
     }
 
     /**
@@ -157,23 +205,106 @@ public abstract class ConsentManagementBaseCache<K extends ConsentManagementBase
                     cacheName.replaceAll("[\r\n]", "")));
         }
 
+        Retrieval<V> inFlightRetrieval = inFlightRetrievals.remove(key);
+        if (inFlightRetrieval != null) {
+            inFlightRetrieval.invalidated = true;
+        }
         Cache<K, V> cache = getBaseCache();
         cache.remove(key);
     }
 
     /**
-     * Get Cache for instance.
+     * Remove all Objects from Cache.
+     */
+    public void removeAllFromCache() {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("All entries removed from cache %s", cacheName.replaceAll("[\r\n]", "")));
+        }
+
+        inFlightRetrievals.keySet().forEach(key -> {
+            Retrieval<V> inFlightRetrieval = inFlightRetrievals.remove(key);
+            if (inFlightRetrieval != null) {
+                inFlightRetrieval.invalidated = true;
+            }
+        });
+        Cache<K, V> cache = getBaseCache();
+        cache.removeAll();
+    }
+
+    /**
+     * Get the hit, miss and load statistics of the cache on this node.
+     *
+     * @return cache statistics
+     */
+    public ConsentManagementCacheStatistics getStatistics() {
+
+        return statistics;
+    }
+
+    /**
+     * Wait for a retrieval in progress by another thread.
+     *
+     * @param retrieval  retrieval in progress
+     * @return retrieved object
+     * @throws ConsentManagementException if the retrieval failed or the thread was interrupted
+     */
+    private V awaitRetrieval(CompletableFuture<V> retrieval) throws ConsentManagementException {
+
+        try {
+            return retrieval.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsentManagementException("Interrupted while waiting for the retrieval of the cache entry", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConsentManagementException) {
+                throw (ConsentManagementException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ConsentManagementException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Get Cache for instance. The cache is resolved once and resolved again only if it is no longer started.
      *
-     * @return
+     * @return cache of this instance
      */
     private Cache<K, V> getBaseCache() {
 
+        Cache<K, V> cache = baseCache;
+        if (cache != null && cache.getStatus() == Status.STARTED) {
+            return cache;
+        }
+        synchronized (this) {
+            cache = baseCache;
+            if (cache == null || cache.getStatus() != Status.STARTED) {
+                cache = resolveBaseCache();
+                baseCache = cache;
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Resolve the cache of this instance from the BFSI base cache manager, building it with the configured expiry
+     * if it does not exist yet.
+     *
+     * @return cache of this instance
+     */
+    private Cache<K, V> resolveBaseCache() {
+
         CacheManager cacheManager = Caching.getCacheManager(BASE_CACHE_KEY);
 
         Iterable<Cache<?, ?>> availableCaches = cacheManager.getCaches();
-        for (Cache cache : availableCaches) {
-            if (cache.getName().equals(cache.getName().startsWith("$__local__$.") ? "$__local__$." +
-                    cacheName : cacheName)) {
+        for (Cache<?, ?> cache : availableCaches) {
+            if (cacheName.equals(cache.getName()) || localCacheName.equals(cache.getName())) {
                 return cacheManager.getCache(cacheName);
             }
         }
@@ -187,11 +318,25 @@ public abstract class ConsentManagementBaseCache<K extends ConsentManagementBase
         // Build Cache on BFSI base cache.
         CacheBuilder<K, V> cacheBuilder = cacheManager.createCacheBuilder(cacheName);
 
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Building cache %s", cacheName.replaceAll("[\r\n]", "")));
+        }
         return cacheBuilder.setExpiry(CacheConfiguration.ExpiryType.ACCESSED, accessExpiry)
                 .setExpiry(CacheConfiguration.ExpiryType.MODIFIED, modifiedExpiry)
                 .build();
     }
 
+    /**
+     * A retrieval in progress. It is invalidated when its entry is removed from the cache while it is running.
+     *
+     * @param <V>   Cache Value
+     */
+    private static final class Retrieval<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+
     /**
      * Get Cache expiry time upon access in minutes.
      *
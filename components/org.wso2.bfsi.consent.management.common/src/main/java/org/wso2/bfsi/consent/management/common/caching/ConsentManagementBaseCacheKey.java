@@ -18,6 +18,8 @@
 
 package org.wso2.bfsi.consent.management.common.caching;
 
+import java.util.Objects;
+
 /**
  * Abstract class for Consent Management Cache Key.
  */
@@ -38,4 +40,28 @@ public class ConsentManagementBaseCacheKey {
         return cacheKey;
     }
 
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConsentManagementBaseCacheKey that = (ConsentManagementBaseCacheKey) o;
+        return Objects.equals(cacheKey, that.cacheKey);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(cacheKey);
+    }
+
+    @Override
+    public String toString() {
+
+        return cacheKey;
+    }
 }
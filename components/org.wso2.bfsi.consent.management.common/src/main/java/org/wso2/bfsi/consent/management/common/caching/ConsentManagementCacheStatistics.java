@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.common.caching;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and load statistics of a consent management cache on this node.
+ */
+public class ConsentManagementCacheStatistics {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    void recordHit() {
+
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+
+        missCount.increment();
+    }
+
+    /**
+     * Record an on demand retrieval of a cache entry.
+     *
+     * @param loadTime    duration of the retrieval in nanoseconds
+     * @param successful  whether the retrieval completed without an error
+     */
+    void recordLoad(long loadTime, boolean successful) {
+
+        loadCount.increment();
+        totalLoadTime.add(loadTime);
+        if (!successful) {
+            loadFailureCount.increment();
+        }
+    }
+
+    /**
+     * Get the number of lookups which found the entry in the cache.
+     *
+     * @return cache hit count
+     */
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the number of lookups which did not find the entry in the cache.
+     *
+     * @return cache miss count
+     */
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    /**
+     * Get the ratio of the lookups which found the entry in the cache.
+     *
+     * @return hit ratio between 0 and 1, 0 if there was no lookup
+     */
+    public double getHitRatio() {
+
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Get the number of on demand retrievals. Concurrent misses of the same entry are retrieved once.
+     *
+     * @return load count
+     */
+    public long getLoadCount() {
+
+        return loadCount.sum();
+    }
+
+    /**
+     * Get the number of on demand retrievals which failed.
+     *
+     * @return load failure count
+     */
+    public long getLoadFailureCount() {
+
+        return loadFailureCount.sum();
+    }
+
+    /**
+     * Get the total time spent on on demand retrievals in milliseconds.
+     *
+     * @return total load time
+     */
+    public long getTotalLoadTime() {
+
+        return TimeUnit.NANOSECONDS.toMillis(totalLoadTime.sum());
+    }
+
+    /**
+     * Get the average time of an on demand retrieval in milliseconds.
+     *
+     * @return average load time, 0 if nothing was retrieved
+     */
+    public double getAverageLoadTime() {
+
+        long loads = loadCount.sum();
+        return loads == 0 ? 0 : (double) totalLoadTime.sum() / loads / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -19,6 +19,7 @@
 package org.wso2.bfsi.consent.management.common.config;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.axiom.om.OMAttribute;
 import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.OMException;
 import org.apache.axiom.om.impl.builder.StAXOMBuilder;
@@ -36,6 +37,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Stack;
@@ -57,6 +59,8 @@ public class ConsentManagementConfigParser {
     private static volatile ConsentManagementConfigParser parser;
     private static final Map<String, Object> configuration = new HashMap<>();
     private static final Map<String, Map<Integer, String>> authorizeSteps = new HashMap<>();
+    private static final Map<String, Map<Integer, String>> authorizeStepGroups = new HashMap<>();
+    private static final List<Map<String, String>> accountRetrievers = new ArrayList<>();
 
     /**
      * Private Constructor of config parser.
@@ -101,6 +105,7 @@ public class ConsentManagementConfigParser {
                 Stack<String> nameStack = new Stack<>();
                 readChildElements(rootElement, nameStack);
                 buildConsentAuthSteps(rootElement);
+                buildAccountRetrievers(rootElement);
             } catch (IOException | XMLStreamException | OMException e) {
                 throw new ConsentManagementRuntimeException("Error occurred while building configuration from" +
                         " bfsi-consent-management.xml", e);
@@ -220,6 +225,7 @@ public class ConsentManagementConfigParser {
                     OMElement stepType = (OMElement) stepTypeElement.next();
                     String consentTypeName = stepType.getLocalName();
                     Map<Integer, String> executors = new HashMap<>();
+                    Map<Integer, String> executorGroups = new HashMap<>();
                     //obtaining each step under each consent type
                     Iterator<OMElement> obExecutor = stepType.getChildrenWithName(
                             new QName(ConsentManagementConstants.OB_CONFIG_QNAME,
@@ -230,6 +236,7 @@ public class ConsentManagementConfigParser {
                             //Retrieve class name and priority from executor config
                             String obExecutorClass = executorElement.getAttributeValue(new QName("class"));
                             String obExecutorPriority = executorElement.getAttributeValue(new QName("priority"));
+                            String obExecutorGroup = executorElement.getAttributeValue(new QName("group"));
 
                             if (StringUtils.isEmpty(obExecutorClass)) {
                                 //Throwing exceptions since we cannot proceed without invalid executor names
@@ -241,6 +248,9 @@ public class ConsentManagementConfigParser {
                                 priority = Integer.parseInt(obExecutorPriority);
                             }
                             executors.put(priority, obExecutorClass);
+                            if (!StringUtils.isBlank(obExecutorGroup)) {
+                                executorGroups.put(priority, obExecutorGroup.trim());
+                            }
                         }
                     }
                     //Ordering the executors based on the priority number
@@ -250,11 +260,51 @@ public class ConsentManagementConfigParser {
                             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e2,
                                     LinkedHashMap::new));
                     authorizeSteps.put(consentTypeName, priorityMap);
+                    authorizeStepGroups.put(consentTypeName, executorGroups);
                 }
             }
         }
     }
 
+    private void buildAccountRetrievers(OMElement rootElement) {
+
+        OMElement consentElement = rootElement.getFirstChildWithName(
+                new QName(ConsentManagementConstants.OB_CONFIG_QNAME,
+                        ConsentManagementConstants.CONSENT_CONFIG_TAG));
+        if (consentElement == null) {
+            return;
+        }
+        OMElement accountRetrievalElement = consentElement.getFirstChildWithName(
+                new QName(ConsentManagementConstants.OB_CONFIG_QNAME,
+                        ConsentManagementConstants.ACCOUNT_RETRIEVAL_CONFIG_TAG));
+        if (accountRetrievalElement == null) {
+            return;
+        }
+        OMElement retrieversElement = accountRetrievalElement.getFirstChildWithName(
+                new QName(ConsentManagementConstants.OB_CONFIG_QNAME,
+                        ConsentManagementConstants.ACCOUNT_RETRIEVERS_CONFIG_TAG));
+        if (retrieversElement == null) {
+            return;
+        }
+        //obtaining each retriever in the configured order, the attributes are passed to the retriever as properties
+        Iterator<OMElement> retrieverElements = retrieversElement.getChildrenWithName(
+                new QName(ConsentManagementConstants.OB_CONFIG_QNAME,
+                        ConsentManagementConstants.ACCOUNT_RETRIEVER_CONFIG_TAG));
+        while (retrieverElements.hasNext()) {
+            OMElement retrieverElement = retrieverElements.next();
+            Map<String, String> properties = new LinkedHashMap<>();
+            for (Iterator attributes = retrieverElement.getAllAttributes(); attributes.hasNext(); ) {
+                OMAttribute attribute = (OMAttribute) attributes.next();
+                properties.put(attribute.getLocalName(), replaceSystemProperty(attribute.getAttributeValue()));
+            }
+            if (StringUtils.isEmpty(properties.get("class"))) {
+                throw new ConsentManagementRuntimeException("Account retriever class is not defined " +
+                        "correctly in bfsi-consent-management.xml");
+            }
+            accountRetrievers.add(properties);
+        }
+    }
+
     /**
      * Method to obtain map of configs.
      *
@@ -296,6 +346,42 @@ public class ConsentManagementConfigParser {
         return authorizeSteps;
     }
 
+    /**
+     * Get the parallel groups of the authorize steps, keyed by the step type and the priority of the step. Steps
+     * without a group attribute are not included.
+     *
+     * @return empty map if no step declares a group
+     */
+    public Map<String, Map<Integer, String>> getConsentAuthorizeStepGroups() {
+
+        return authorizeStepGroups;
+    }
+
+    /**
+     * Get the number of threads used to execute the authorize steps of parallel groups.
+     *
+     * @return 10 if nothing is configured
+     */
+    public int getAuthorizeStepsPoolSize() {
+
+        Optional<String> poolSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.AUTHORIZE_STEPS_POOL_SIZE);
+        return poolSize.map(String::trim).map(Integer::parseInt).orElse(10);
+    }
+
+    /**
+     * Get the maximum number of authorize steps waiting for a thread. Steps which do not fit in the queue are
+     * executed on the request thread.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getAuthorizeStepsQueueSize() {
+
+        Optional<String> queueSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.AUTHORIZE_STEPS_QUEUE_SIZE);
+        return queueSize.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
     public String getConsentValidationConfig() {
 
         Optional<String> source =
@@ -303,6 +389,42 @@ public class ConsentManagementConfigParser {
         return source.map(String::trim).orElse("");
     }
 
+    /**
+     * Method to check whether the signed consent information of the validation responses is cached.
+     *
+     * @return false if nothing is configured
+     */
+    public boolean isSignedConsentInformationCacheEnabled() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.SIGNED_CONSENT_INFO_CACHE_ENABLED);
+        return config.map(String::trim).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Get the time in seconds a signed consent information is reused for.
+     *
+     * @return 30 if nothing is configured
+     */
+    public long getSignedConsentInformationCacheExpiry() {
+
+        Optional<String> expiryTime =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.SIGNED_CONSENT_INFO_CACHE_EXPIRY);
+        return expiryTime.map(String::trim).map(Long::parseLong).orElse(30L);
+    }
+
+    /**
+     * Get the maximum number of signed consent information cached.
+     *
+     * @return 10000 if nothing is configured
+     */
+    public int getSignedConsentInformationCacheMaxEntries() {
+
+        Optional<String> maxEntries =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.SIGNED_CONSENT_INFO_CACHE_MAX_ENTRIES);
+        return maxEntries.map(String::trim).map(Integer::parseInt).orElse(10000);
+    }
+
     public int getConsentCacheAccessExpiry() {
 
         Optional<String> expiryTime = getConfigurationFromKeyAsString(ConsentManagementConstants.CACHE_ACCESS_EXPIRY);
@@ -315,6 +437,461 @@ public class ConsentManagementConfigParser {
         return expiryTime.map(Integer::parseInt).orElse(60);
     }
 
+    /**
+     * Method to check whether the detailed consent cache is enabled.
+     *
+     * @return Whether the detailed consent cache is enabled or not
+     */
+    public boolean isDetailedConsentCacheEnabled() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.DETAILED_CONSENT_CACHE_ENABLED);
+        return config.map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Get the detailed consent cache expiry time upon access in minutes.
+     *
+     * @return 1 if nothing is configured
+     */
+    public int getDetailedConsentCacheAccessExpiry() {
+
+        Optional<String> expiryTime =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.DETAILED_CONSENT_CACHE_ACCESS_EXPIRY);
+        return expiryTime.map(String::trim).map(Integer::parseInt).orElse(1);
+    }
+
+    /**
+     * Get the detailed consent cache expiry time upon modification in minutes.
+     *
+     * @return 1 if nothing is configured
+     */
+    public int getDetailedConsentCacheModifiedExpiry() {
+
+        Optional<String> expiryTime =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.DETAILED_CONSENT_CACHE_MODIFIED_EXPIRY);
+        return expiryTime.map(String::trim).map(Integer::parseInt).orElse(1);
+    }
+
+    /**
+     * Get the number of rows fetched from the database at a time when streaming consent search results.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getConsentSearchStreamFetchSize() {
+
+        Optional<String> fetchSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_SEARCH_STREAM_FETCH_SIZE);
+        return fetchSize.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
+    /**
+     * Get the strategy used to search consents. The "Grouped" strategy aggregates the consent data in a single query,
+     * while the "TwoPhase" strategy selects the page of consents first and then loads their data in batches.
+     *
+     * @return Grouped if nothing is configured
+     */
+    public String getConsentSearchStrategy() {
+
+        Optional<String> strategy = getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_SEARCH_STRATEGY);
+        return strategy.map(String::trim).orElse(ConsentManagementConstants.GROUPED_CONSENT_SEARCH_STRATEGY);
+    }
+
+    /**
+     * Get the maximum number of rows sent to the database per JDBC batch execution when storing account mappings,
+     * status audit records and amendment history in bulk.
+     *
+     * @return 500 if nothing is configured
+     */
+    public int getPersistenceBatchSize() {
+
+        Optional<String> batchSize = getConfigurationFromKeyAsString(ConsentManagementConstants.PERSISTENCE_BATCH_SIZE);
+        return batchSize.map(String::trim).map(Integer::parseInt).orElse(500);
+    }
+
+    /**
+     * Method to check whether the scheduled consent expiry service is enabled.
+     *
+     * @return Whether the consent expiry service is enabled or not
+     */
+    public boolean isConsentExpiryEnabled() {
+
+        Optional<String> config = getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_ENABLED);
+        return config.map(String::trim).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Get the interval between two consent expiry runs in seconds.
+     *
+     * @return 3600 if nothing is configured
+     */
+    public long getConsentExpiryInterval() {
+
+        Optional<String> interval = getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_INTERVAL);
+        return interval.map(String::trim).map(Long::parseLong).orElse(3600L);
+    }
+
+    /**
+     * Get the number of consents expired in a single database transaction.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getConsentExpiryBatchSize() {
+
+        Optional<String> batchSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_BATCH_SIZE);
+        return batchSize.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
+    /**
+     * Get the comma separated consent statuses which are eligible for expiration.
+     *
+     * @return Authorised if nothing is configured
+     */
+    public String getConsentExpiryEligibleStatuses() {
+
+        Optional<String> statuses =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_ELIGIBLE_STATUSES);
+        return statuses.map(String::trim).orElse("Authorised");
+    }
+
+    /**
+     * Get the status an expired consent is moved to.
+     *
+     * @return Expired if nothing is configured
+     */
+    public String getConsentExpiryExpiredStatus() {
+
+        Optional<String> status =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_EXPIRED_STATUS);
+        return status.map(String::trim).orElse("Expired");
+    }
+
+    /**
+     * Method to check whether the tokens bound to an expired consent should be revoked.
+     *
+     * @return true if nothing is configured
+     */
+    public boolean isConsentExpiryTokenRevocationEnabled() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_REVOKE_TOKENS);
+        return config.map(String::trim).map(Boolean::parseBoolean).orElse(true);
+    }
+
+    /**
+     * Get the duration in seconds a node holds the consent expiry lease for before another node can take it over.
+     *
+     * @return 300 if nothing is configured
+     */
+    public long getConsentExpiryLeaseDuration() {
+
+        Optional<String> duration =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.CONSENT_EXPIRY_LEASE_DURATION);
+        return duration.map(String::trim).map(Long::parseLong).orElse(300L);
+    }
+
+    /**
+     * Get the number of threads used to revoke the tokens of revoked and expired consents.
+     *
+     * @return 2 if nothing is configured
+     */
+    public int getTokenRevocationPoolSize() {
+
+        Optional<String> poolSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.TOKEN_REVOCATION_POOL_SIZE);
+        return poolSize.map(String::trim).map(Integer::parseInt).orElse(2);
+    }
+
+    /**
+     * Get the maximum number of token revocations queued in memory for the revocation threads.
+     *
+     * @return 1000 if nothing is configured
+     */
+    public int getTokenRevocationQueueSize() {
+
+        Optional<String> queueSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.TOKEN_REVOCATION_QUEUE_SIZE);
+        return queueSize.map(String::trim).map(Integer::parseInt).orElse(1000);
+    }
+
+    /**
+     * Get the number of attempts made to revoke the tokens of a consent before the revocation is abandoned.
+     *
+     * @return 5 if nothing is configured
+     */
+    public int getTokenRevocationMaxAttempts() {
+
+        Optional<String> maxAttempts =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.TOKEN_REVOCATION_MAX_ATTEMPTS);
+        return maxAttempts.map(String::trim).map(Integer::parseInt).orElse(5);
+    }
+
+    /**
+     * Get the delay in seconds before the first retry of a failed token revocation. The delay doubles on every
+     * subsequent retry.
+     *
+     * @return 60 if nothing is configured
+     */
+    public long getTokenRevocationRetryInterval() {
+
+        Optional<String> retryInterval =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.TOKEN_REVOCATION_RETRY_INTERVAL);
+        return retryInterval.map(String::trim).map(Long::parseLong).orElse(60L);
+    }
+
+    /**
+     * Get the interval in seconds the token revocation outbox is polled for due revocations.
+     *
+     * @return 60 if nothing is configured
+     */
+    public long getTokenRevocationPollInterval() {
+
+        Optional<String> pollInterval =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.TOKEN_REVOCATION_POLL_INTERVAL);
+        return pollInterval.map(String::trim).map(Long::parseLong).orElse(60L);
+    }
+
+    /**
+     * Get the maximum number of due token revocations read from the outbox per poll.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getTokenRevocationBatchSize() {
+
+        Optional<String> batchSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.TOKEN_REVOCATION_BATCH_SIZE);
+        return batchSize.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
+    /**
+     * Get the account retrievers configured under AccountRetrieval in the configured order. Each retriever is
+     * described by the attributes of its element, including the fully qualified class name.
+     *
+     * @return empty list if nothing is configured
+     */
+    public List<Map<String, String>> getAccountRetrievers() {
+
+        return accountRetrievers;
+    }
+
+    /**
+     * Get the number of threads used to call the account retrievers of an authorization.
+     *
+     * @return 10 if nothing is configured
+     */
+    public int getAccountRetrievalPoolSize() {
+
+        Optional<String> poolSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.ACCOUNT_RETRIEVAL_POOL_SIZE);
+        return poolSize.map(String::trim).map(Integer::parseInt).orElse(10);
+    }
+
+    /**
+     * Get the maximum number of account retriever calls waiting for a thread.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getAccountRetrievalQueueSize() {
+
+        Optional<String> queueSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.ACCOUNT_RETRIEVAL_QUEUE_SIZE);
+        return queueSize.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
+    /**
+     * Get the time in milliseconds the account retrievers of an authorization are waited for.
+     *
+     * @return 2000 if nothing is configured
+     */
+    public long getAccountRetrievalTimeout() {
+
+        Optional<String> timeout =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.ACCOUNT_RETRIEVAL_TIMEOUT);
+        return timeout.map(String::trim).map(Long::parseLong).orElse(2000L);
+    }
+
+    /**
+     * Get the time in seconds the accounts retrieved for a user are reused for. Caching is disabled with 0.
+     *
+     * @return 30 if nothing is configured
+     */
+    public long getAccountRetrievalCacheExpiry() {
+
+        Optional<String> expiryTime =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.ACCOUNT_RETRIEVAL_CACHE_EXPIRY);
+        return expiryTime.map(String::trim).map(Long::parseLong).orElse(30L);
+    }
+
+    /**
+     * Get the maximum number of retrieved account lists cached, one per user and account retriever.
+     *
+     * @return 1000 if nothing is configured
+     */
+    public int getAccountRetrievalCacheMaxEntries() {
+
+        Optional<String> maxEntries =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.ACCOUNT_RETRIEVAL_CACHE_MAX_ENTRIES);
+        return maxEntries.map(String::trim).map(Integer::parseInt).orElse(1000);
+    }
+
+    /**
+     * Method to check whether the consent state change listeners are executed synchronously. The audit records are
+     * stored within the transaction which changes the consent in the synchronous mode.
+     *
+     * @return false if nothing is configured
+     */
+    public boolean isStateChangeEventsSynchronous() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.STATE_CHANGE_EVENTS_SYNCHRONOUS);
+        return config.map(String::trim).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Get the maximum number of consent state change events waiting for the listeners.
+     *
+     * @return 10000 if nothing is configured
+     */
+    public int getStateChangeEventsQueueSize() {
+
+        Optional<String> queueSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.STATE_CHANGE_EVENTS_QUEUE_SIZE);
+        return queueSize.map(String::trim).map(Integer::parseInt).orElse(10000);
+    }
+
+    /**
+     * Get the maximum number of consent state change events delivered to the listeners at once.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getStateChangeEventsBatchSize() {
+
+        Optional<String> batchSize =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.STATE_CHANGE_EVENTS_BATCH_SIZE);
+        return batchSize.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
+    /**
+     * Get the action taken when a consent state change event is published while the event queue is full. One of
+     * Block, CallerRuns or Drop.
+     *
+     * @return Block if nothing is configured
+     */
+    public String getStateChangeEventsBackPressure() {
+
+        Optional<String> backPressure =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.STATE_CHANGE_EVENTS_BACK_PRESSURE);
+        return backPressure.map(String::trim).orElse(ConsentManagementConstants.BLOCK_BACK_PRESSURE);
+    }
+
+    /**
+     * Method to check whether the consent amendment history is stored on consent state changes.
+     *
+     * @return false if nothing is configured
+     */
+    public boolean isStateChangeAmendmentHistoryEnabled() {
+
+        Optional<String> config = getConfigurationFromKeyAsString(
+                ConsentManagementConstants.STATE_CHANGE_EVENTS_AMENDMENT_HISTORY_ENABLED);
+        return config.map(String::trim).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Get the URL to which the consent state change events are posted.
+     *
+     * @return empty if nothing is configured, in which case the events are not posted
+     */
+    public Optional<String> getStateChangeEventsNotifierURL() {
+
+        return getConfigurationFromKeyAsString(ConsentManagementConstants.STATE_CHANGE_EVENTS_NOTIFIER_URL)
+                .map(String::trim).filter(url -> !url.isEmpty());
+    }
+
+    /**
+     * Get the maximum number of connections of the pooled HTTP client.
+     *
+     * @return 100 if nothing is configured
+     */
+    public int getHttpClientMaxConnections() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_MAX_CONNECTIONS);
+        return config.map(String::trim).map(Integer::parseInt).orElse(100);
+    }
+
+    /**
+     * Get the maximum number of connections per route of the pooled HTTP client.
+     *
+     * @return 20 if nothing is configured
+     */
+    public int getHttpClientMaxConnectionsPerRoute() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE);
+        return config.map(String::trim).map(Integer::parseInt).orElse(20);
+    }
+
+    /**
+     * Get the maximum time in milliseconds a connection of the pooled HTTP client is kept alive.
+     *
+     * @return 30000 if nothing is configured
+     */
+    public int getHttpClientKeepAlive() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_KEEP_ALIVE);
+        return config.map(String::trim).map(Integer::parseInt).orElse(30000);
+    }
+
+    /**
+     * Get the connect timeout of the pooled HTTP client in milliseconds.
+     *
+     * @return 5000 if nothing is configured
+     */
+    public int getHttpClientConnectTimeout() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_CONNECT_TIMEOUT);
+        return config.map(String::trim).map(Integer::parseInt).orElse(5000);
+    }
+
+    /**
+     * Get the read timeout of the pooled HTTP client in milliseconds.
+     *
+     * @return 30000 if nothing is configured
+     */
+    public int getHttpClientReadTimeout() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_READ_TIMEOUT);
+        return config.map(String::trim).map(Integer::parseInt).orElse(30000);
+    }
+
+    /**
+     * Get the time in milliseconds to wait for a connection from the pool of the pooled HTTP client.
+     *
+     * @return 5000 if nothing is configured
+     */
+    public int getHttpClientConnectionRequestTimeout() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_CONNECTION_REQUEST_TIMEOUT);
+        return config.map(String::trim).map(Integer::parseInt).orElse(5000);
+    }
+
+    /**
+     * Get the time in milliseconds after which idle connections of the pooled HTTP client are evicted.
+     *
+     * @return 60000 if nothing is configured
+     */
+    public int getHttpClientIdleConnectionTimeout() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.HTTP_CLIENT_IDLE_CONNECTION_TIMEOUT);
+        return config.map(String::trim).map(Integer::parseInt).orElse(60000);
+    }
+
     public String getPreserveConsent() {
 
         Optional<String> source = getConfigurationFromKeyAsString(ConsentManagementConstants.PRESERVE_CONSENT);
@@ -350,11 +927,48 @@ public class ConsentManagementConfigParser {
 
     /**
      * Method to get the value Idempotency allowed time configuration.
-     * @return  Idempotency allowed time
+     * @return  Idempotency allowed time, 1440 if nothing is configured
      */
     public String getIdempotencyAllowedTime() {
         Optional<String> config = getConfigurationFromKeyAsString(ConsentManagementConstants.IDEMPOTENCY_ALLOWED_TIME);
-        return config.map(String::trim).orElse("1440");
+        return config.map(String::trim).filter(StringUtils::isNotEmpty).orElse("1440");
+    }
+
+    /**
+     * Method to get the value Idempotency key store enable configuration. When enabled, idempotency keys are
+     * stored in a dedicated table keyed by the client ID and the idempotency key instead of consent attributes.
+     *
+     * @return Whether the idempotency key store is enabled or not, false if nothing is configured
+     */
+    public boolean isIdempotencyStoreEnabled() {
+
+        Optional<String> config = getConfigurationFromKeyAsString(ConsentManagementConstants.IDEMPOTENCY_STORE_ENABLED);
+        return config.map(String::trim).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Method to get the interval in seconds between two runs of the expired idempotency key cleanup.
+     *
+     * @return cleanup interval in seconds, 3600 if nothing is configured
+     */
+    public long getIdempotencyStoreCleanupInterval() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.IDEMPOTENCY_STORE_CLEANUP_INTERVAL);
+        return config.map(String::trim).map(Long::parseLong).orElse(3600L);
+    }
+
+    /**
+     * Method to get the time in hours for which the idempotency keys are kept in the idempotency key store. Keys are
+     * kept for at least the idempotency allowed time.
+     *
+     * @return retention time in hours, 8760 if nothing is configured
+     */
+    public long getIdempotencyStoreRetentionTime() {
+
+        Optional<String> config =
+                getConfigurationFromKeyAsString(ConsentManagementConstants.IDEMPOTENCY_STORE_RETENTION_TIME);
+        return config.map(String::trim).map(Long::parseLong).orElse(8760L);
     }
 
     /**
@@ -28,4 +28,6 @@ public interface ConsentManagementConfigurationService {
     Map<String, Object> getConfigurations();
 
     Map<String, Map<Integer, String>> getConsentAuthorizeSteps();
+
+    Map<String, Map<Integer, String>> getConsentAuthorizeStepGroups();
 }
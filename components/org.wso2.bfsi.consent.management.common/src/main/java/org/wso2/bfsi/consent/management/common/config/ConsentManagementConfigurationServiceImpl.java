@@ -37,4 +37,9 @@ public class ConsentManagementConfigurationServiceImpl implements ConsentManagem
         return configParser.getConsentAuthorizeSteps();
     }
 
+    @Override
+    public Map<String, Map<Integer, String>> getConsentAuthorizeStepGroups() {
+        return configParser.getConsentAuthorizeStepGroups();
+    }
+
 }
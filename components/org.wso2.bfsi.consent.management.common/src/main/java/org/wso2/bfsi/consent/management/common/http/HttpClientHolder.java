@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.common.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holder of the pooled HTTP client used by the consent management components and the authentication endpoint webapp
+ * to call external services.
+ *
+ * The client is shared by all the components. Each component acquires it when it is started, or in init() for a
+ * servlet, and releases it when it is stopped, and the client is closed once the last component releases it. The pool is configured under
+ * ConsentManagement.HTTPClient.
+ */
+public class HttpClientHolder {
+
+    private static final Log log = LogFactory.getLog(HttpClientHolder.class);
+
+    private static HttpClientHolder instance;
+    private static int referenceCount;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    private HttpClientHolder() {
+
+        ConsentManagementConfigParser configParser = ConsentManagementConfigParser.getInstance();
+        int maxConnections = configParser.getHttpClientMaxConnections();
+        int maxConnectionsPerRoute = configParser.getHttpClientMaxConnectionsPerRoute();
+        long keepAlive = configParser.getHttpClientKeepAlive();
+
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(configParser.getHttpClientConnectTimeout())
+                .setSocketTimeout(configParser.getHttpClientReadTimeout())
+                .setConnectionRequestTimeout(configParser.getHttpClientConnectionRequestTimeout())
+                .build();
+
+        // Keep connections alive for the duration sent by the server, capped at the configured keep alive
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+        };
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(configParser.getHttpClientIdleConnectionTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Created the pooled HTTP client with %d maximum connections and %d maximum " +
+                    "connections per route", maxConnections, maxConnectionsPerRoute));
+        }
+    }
+
+    /**
+     * Acquire the shared HTTP client holder, creating it if this is the first component to acquire it.
+     *
+     * @return shared HTTP client holder
+     */
+    public static synchronized HttpClientHolder acquire() {
+
+        if (instance == null) {
+            instance = new HttpClientHolder();
+        }
+        referenceCount++;
+        return instance;
+    }
+
+    /**
+     * Release the shared HTTP client holder. The client is closed once all the components have released it.
+     */
+    public static synchronized void release() {
+
+        if (instance == null) {
+            return;
+        }
+        referenceCount--;
+        if (referenceCount <= 0) {
+            try {
+                instance.httpClient.close();
+                log.debug("Closed the pooled HTTP client");
+            } catch (IOException e) {
+                log.error("Error while closing the pooled HTTP client", e);
+            }
+            instance = null;
+            referenceCount = 0;
+        }
+    }
+
+    public CloseableHttpClient getHttpClient() {
+
+        return httpClient;
+    }
+
+    /**
+     * Get the statistics of the connection pool.
+     *
+     * @return total statistics of the connection pool
+     */
+    public PoolStats getPoolStats() {
+
+        return connectionManager.getTotalStats();
+    }
+}
@@ -117,6 +117,27 @@ public class JDBCPersistenceManager {
         }
     }
 
+    /**
+     * Returns a read-only, auto-commit database connection for Consent Management data source. Statements on the
+     * connection do not need a commit.
+     *
+     * @return Database connection.
+     * @throws ConsentManagementRuntimeException Exception occurred when getting the data source.
+     */
+    public Connection getReadOnlyDBConnection() throws ConsentManagementRuntimeException {
+
+        try {
+            Connection dbConnection = dataSource.getConnection();
+            dbConnection.setAutoCommit(true);
+            dbConnection.setReadOnly(true);
+            log.debug("Returning read-only database connection for Consent Management data source");
+            return dbConnection;
+        } catch (SQLException e) {
+            throw new ConsentManagementRuntimeException("Error when getting a database connection object from the " +
+                    "consent management data source.", e);
+        }
+    }
+
     /**
      * Returns Consent Management data source.
      *
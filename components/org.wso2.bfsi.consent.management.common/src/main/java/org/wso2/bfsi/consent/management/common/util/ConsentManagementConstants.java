@@ -33,12 +33,72 @@ public class ConsentManagementConstants {
     public static final String MANAGE_HANDLER = "ConsentManagement.ManageHandler";
     public static final String AUTHORIZE_STEPS_CONFIG_TAG = "AuthorizeSteps";
     public static final String STEP_CONFIG_TAG = "Step";
+    public static final String AUTHORIZE_STEPS_POOL_SIZE = "ConsentManagement.AuthorizeStepsExecution.PoolSize";
+    public static final String AUTHORIZE_STEPS_QUEUE_SIZE = "ConsentManagement.AuthorizeStepsExecution.QueueSize";
     public static final String CONSENT_JWT_PAYLOAD_VALIDATION = "ConsentManagement.Validation.JWTPayloadValidation";
     public static final String SIGNATURE_ALIAS = "ConsentManagement.Validation.RequestSignatureAlias";
     public static final String CONSENT_VALIDATOR = "ConsentManagement.Validation.Validator";
+    public static final String SIGNED_CONSENT_INFO_CACHE_ENABLED =
+            "ConsentManagement.Validation.SignedConsentInformationCache.Enabled";
+    public static final String SIGNED_CONSENT_INFO_CACHE_EXPIRY =
+            "ConsentManagement.Validation.SignedConsentInformationCache.ExpiryTime";
+    public static final String SIGNED_CONSENT_INFO_CACHE_MAX_ENTRIES =
+            "ConsentManagement.Validation.SignedConsentInformationCache.MaxEntries";
     public static final String ADMIN_HANDLER = "ConsentManagement.AdminHandler";
     public static final String CACHE_MODIFY_EXPIRY = "ConsentManagement.CacheModifiedExpiry";
     public static final String CACHE_ACCESS_EXPIRY = "ConsentManagement.CacheAccessExpiry";
+    public static final String DETAILED_CONSENT_CACHE_ENABLED = "ConsentManagement.DetailedConsentCache.Enabled";
+    public static final String DETAILED_CONSENT_CACHE_ACCESS_EXPIRY =
+            "ConsentManagement.DetailedConsentCache.AccessExpiry";
+    public static final String DETAILED_CONSENT_CACHE_MODIFIED_EXPIRY =
+            "ConsentManagement.DetailedConsentCache.ModifiedExpiry";
+    public static final String CONSENT_SEARCH_STREAM_FETCH_SIZE = "ConsentManagement.Search.StreamFetchSize";
+    public static final String CONSENT_SEARCH_STRATEGY = "ConsentManagement.Search.Strategy";
+    public static final String GROUPED_CONSENT_SEARCH_STRATEGY = "Grouped";
+    public static final String TWO_PHASE_CONSENT_SEARCH_STRATEGY = "TwoPhase";
+    public static final String PERSISTENCE_BATCH_SIZE = "ConsentManagement.Persistence.BatchSize";
+    public static final String CONSENT_EXPIRY_ENABLED = "ConsentManagement.ConsentExpiry.Enabled";
+    public static final String CONSENT_EXPIRY_INTERVAL = "ConsentManagement.ConsentExpiry.Interval";
+    public static final String CONSENT_EXPIRY_BATCH_SIZE = "ConsentManagement.ConsentExpiry.BatchSize";
+    public static final String CONSENT_EXPIRY_ELIGIBLE_STATUSES = "ConsentManagement.ConsentExpiry.EligibleStatuses";
+    public static final String CONSENT_EXPIRY_EXPIRED_STATUS = "ConsentManagement.ConsentExpiry.ExpiredStatus";
+    public static final String CONSENT_EXPIRY_REVOKE_TOKENS = "ConsentManagement.ConsentExpiry.RevokeTokens";
+    public static final String CONSENT_EXPIRY_LEASE_DURATION = "ConsentManagement.ConsentExpiry.LeaseDuration";
+    public static final String TOKEN_REVOCATION_POOL_SIZE = "ConsentManagement.TokenRevocation.PoolSize";
+    public static final String TOKEN_REVOCATION_QUEUE_SIZE = "ConsentManagement.TokenRevocation.QueueSize";
+    public static final String TOKEN_REVOCATION_MAX_ATTEMPTS = "ConsentManagement.TokenRevocation.MaxAttempts";
+    public static final String TOKEN_REVOCATION_RETRY_INTERVAL = "ConsentManagement.TokenRevocation.RetryInterval";
+    public static final String TOKEN_REVOCATION_POLL_INTERVAL = "ConsentManagement.TokenRevocation.PollInterval";
+    public static final String TOKEN_REVOCATION_BATCH_SIZE = "ConsentManagement.TokenRevocation.BatchSize";
+    public static final String ACCOUNT_RETRIEVAL_CONFIG_TAG = "AccountRetrieval";
+    public static final String ACCOUNT_RETRIEVERS_CONFIG_TAG = "Retrievers";
+    public static final String ACCOUNT_RETRIEVER_CONFIG_TAG = "Retriever";
+    public static final String ACCOUNT_RETRIEVAL_POOL_SIZE = "ConsentManagement.AccountRetrieval.PoolSize";
+    public static final String ACCOUNT_RETRIEVAL_QUEUE_SIZE = "ConsentManagement.AccountRetrieval.QueueSize";
+    public static final String ACCOUNT_RETRIEVAL_TIMEOUT = "ConsentManagement.AccountRetrieval.Timeout";
+    public static final String ACCOUNT_RETRIEVAL_CACHE_EXPIRY = "ConsentManagement.AccountRetrieval.Cache.ExpiryTime";
+    public static final String ACCOUNT_RETRIEVAL_CACHE_MAX_ENTRIES =
+            "ConsentManagement.AccountRetrieval.Cache.MaxEntries";
+    public static final String STATE_CHANGE_EVENTS_SYNCHRONOUS = "ConsentManagement.StateChangeEvents.Synchronous";
+    public static final String STATE_CHANGE_EVENTS_QUEUE_SIZE = "ConsentManagement.StateChangeEvents.QueueSize";
+    public static final String STATE_CHANGE_EVENTS_BATCH_SIZE = "ConsentManagement.StateChangeEvents.BatchSize";
+    public static final String STATE_CHANGE_EVENTS_BACK_PRESSURE = "ConsentManagement.StateChangeEvents.BackPressure";
+    public static final String STATE_CHANGE_EVENTS_AMENDMENT_HISTORY_ENABLED =
+            "ConsentManagement.StateChangeEvents.AmendmentHistory.Enabled";
+    public static final String STATE_CHANGE_EVENTS_NOTIFIER_URL = "ConsentManagement.StateChangeEvents.Notifier.URL";
+    public static final String HTTP_CLIENT_MAX_CONNECTIONS = "ConsentManagement.HTTPClient.MaxConnections";
+    public static final String HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE =
+            "ConsentManagement.HTTPClient.MaxConnectionsPerRoute";
+    public static final String HTTP_CLIENT_KEEP_ALIVE = "ConsentManagement.HTTPClient.KeepAlive";
+    public static final String HTTP_CLIENT_CONNECT_TIMEOUT = "ConsentManagement.HTTPClient.ConnectTimeout";
+    public static final String HTTP_CLIENT_READ_TIMEOUT = "ConsentManagement.HTTPClient.ReadTimeout";
+    public static final String HTTP_CLIENT_CONNECTION_REQUEST_TIMEOUT =
+            "ConsentManagement.HTTPClient.ConnectionRequestTimeout";
+    public static final String HTTP_CLIENT_IDLE_CONNECTION_TIMEOUT =
+            "ConsentManagement.HTTPClient.IdleConnectionTimeout";
+    public static final String BLOCK_BACK_PRESSURE = "Block";
+    public static final String CALLER_RUNS_BACK_PRESSURE = "CallerRuns";
+    public static final String DROP_BACK_PRESSURE = "Drop";
     public static final String PRESERVE_CONSENT = "ConsentManagement.PreserveConsentLink";
     public static final String AUTH_SERVLET_EXTENSION = "AuthenticationWebApp.ServletExtension";
     public static final String CONSENT_API_USERNAME = "ConsentManagement.ConsentAPICredentials.Username";
@@ -48,6 +108,10 @@ public class ConsentManagementConstants {
 
     public static final String IDEMPOTENCY_IS_ENABLED = "ConsentManagement.Idempotency.Enabled";
     public static final String IDEMPOTENCY_ALLOWED_TIME = "ConsentManagement.Idempotency.AllowedTimeDuration";
+    public static final String IDEMPOTENCY_STORE_ENABLED = "ConsentManagement.Idempotency.Store.Enabled";
+    public static final String IDEMPOTENCY_STORE_CLEANUP_INTERVAL =
+            "ConsentManagement.Idempotency.Store.CleanupInterval";
+    public static final String IDEMPOTENCY_STORE_RETENTION_TIME = "ConsentManagement.Idempotency.Store.RetentionTime";
     public static final String REQUEST_VALIDATOR = "Identity.Extensions.RequestObjectValidator";
     public static final String RESPONSE_HANDLER = "Identity.Extensions.ResponseTypeHandler";
     public static final String CLAIM_PROVIDER = "Identity.Extensions.ClaimProvider";
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.common;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.caching.ConsentManagementBaseCache;
+import org.wso2.bfsi.consent.management.common.caching.ConsentManagementBaseCacheKey;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.CacheBuilder;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.Status;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Test for the consent management base cache.
+ */
+public class ConsentManagementBaseCacheTests {
+
+    private static final String SAMPLE_VALUE = "sampleValue";
+
+    private MockedStatic<Caching> cachingMockedStatic;
+    private CacheManager cacheManagerMock;
+    private Cache<ConsentManagementBaseCacheKey, String> cacheMock;
+    private Map<ConsentManagementBaseCacheKey, String> cacheEntries;
+    private TestCache testCache;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+
+        cacheEntries = new ConcurrentHashMap<>();
+        cacheMock = mock(Cache.class);
+        doReturn(Status.STARTED).when(cacheMock).getStatus();
+        doAnswer(invocation -> cacheEntries.get(invocation.getArgument(0))).when(cacheMock).get(any());
+        doAnswer(invocation -> cacheEntries.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(cacheMock).put(any(), any());
+        doAnswer(invocation -> cacheEntries.remove(invocation.getArgument(0)) != null).when(cacheMock).remove(any());
+        doAnswer(invocation -> {
+            cacheEntries.clear();
+            return null;
+        }).when(cacheMock).removeAll();
+
+        CacheBuilder<ConsentManagementBaseCacheKey, String> cacheBuilderMock =
+                mock(CacheBuilder.class, Mockito.RETURNS_SELF);
+        doReturn(cacheMock).when(cacheBuilderMock).build();
+
+        cacheManagerMock = mock(CacheManager.class);
+        doReturn(new ArrayList<Cache<?, ?>>()).when(cacheManagerMock).getCaches();
+        doReturn(cacheBuilderMock).when(cacheManagerMock).createCacheBuilder(anyString());
+
+        cachingMockedStatic = mockStatic(Caching.class);
+        cachingMockedStatic.when(() -> Caching.getCacheManager(anyString())).thenReturn(cacheManagerMock);
+
+        testCache = new TestCache();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        cachingMockedStatic.close();
+    }
+
+    @Test
+    public void testCacheIsResolvedOnce() {
+
+        ConsentManagementBaseCacheKey key = ConsentManagementBaseCacheKey.of("key");
+        testCache.addToCache(key, SAMPLE_VALUE);
+        Assert.assertEquals(testCache.getFromCache(key), SAMPLE_VALUE);
+        testCache.removeFromCache(key);
+
+        cachingMockedStatic.verify(() -> Caching.getCacheManager(anyString()), Mockito.times(1));
+        Mockito.verify(cacheManagerMock, Mockito.times(1)).getCaches();
+    }
+
+    @Test
+    public void testCacheIsResolvedAgainAfterStopped() {
+
+        ConsentManagementBaseCacheKey key = ConsentManagementBaseCacheKey.of("key");
+        testCache.getFromCache(key);
+        doReturn(Status.STOPPED).when(cacheMock).getStatus();
+        testCache.getFromCache(key);
+
+        cachingMockedStatic.verify(() -> Caching.getCacheManager(anyString()), Mockito.times(2));
+    }
+
+    @Test
+    public void testGetFromCacheOrRetrieve() throws ConsentManagementException {
+
+        ConsentManagementBaseCacheKey key = ConsentManagementBaseCacheKey.of("key");
+        AtomicInteger retrievalCount = new AtomicInteger();
+        ConsentManagementBaseCache.OnDemandRetriever retriever = () -> {
+            retrievalCount.incrementAndGet();
+            return SAMPLE_VALUE;
+        };
+
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, retriever), SAMPLE_VALUE);
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, retriever), SAMPLE_VALUE);
+
+        Assert.assertEquals(retrievalCount.get(), 1);
+        Assert.assertEquals(testCache.getStatistics().getHitCount(), 1);
+        Assert.assertEquals(testCache.getStatistics().getMissCount(), 1);
+        Assert.assertEquals(testCache.getStatistics().getLoadCount(), 1);
+        Assert.assertEquals(testCache.getStatistics().getHitRatio(), 0.5);
+    }
+
+    @Test
+    public void testConcurrentMissesAreRetrievedOnce() throws Exception {
+
+        // Resolve the cache on this thread, the static mock of the cache manager is not visible to other threads
+        testCache.getFromCache(ConsentManagementBaseCacheKey.of("key"));
+
+        AtomicInteger retrievalCount = new AtomicInteger();
+        CountDownLatch retrievalStarted = new CountDownLatch(1);
+        CountDownLatch callersStarted = new CountDownLatch(3);
+        CountDownLatch retrievalReleased = new CountDownLatch(1);
+        ConsentManagementBaseCache.OnDemandRetriever retriever = () -> {
+            retrievalCount.incrementAndGet();
+            retrievalStarted.countDown();
+            try {
+                retrievalReleased.await();
+            } catch (InterruptedException e) {
+                throw new ConsentManagementException("Interrupted", e);
+            }
+            return SAMPLE_VALUE;
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            // Every caller looks up a distinct but equal key
+            results.add(executorService.submit(() -> testCache.getFromCacheOrRetrieve(
+                    ConsentManagementBaseCacheKey.of("key"), retriever)));
+            Assert.assertTrue(retrievalStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executorService.submit(() -> {
+                    callersStarted.countDown();
+                    return testCache.getFromCacheOrRetrieve(ConsentManagementBaseCacheKey.of("key"), retriever);
+                }));
+            }
+            // Release the retrieval in progress once the other callers are looking up the key
+            Assert.assertTrue(callersStarted.await(5, TimeUnit.SECONDS));
+            retrievalReleased.countDown();
+
+            for (Future<String> result : results) {
+                Assert.assertEquals(result.get(5, TimeUnit.SECONDS), SAMPLE_VALUE);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(retrievalCount.get(), 1);
+        Assert.assertEquals(testCache.getStatistics().getLoadCount(), 1);
+    }
+
+    @Test
+    public void testFailedRetrievalIsNotCached() throws ConsentManagementException {
+
+        ConsentManagementBaseCacheKey key = ConsentManagementBaseCacheKey.of("key");
+        try {
+            testCache.getFromCacheOrRetrieve(key, () -> {
+                throw new ConsentManagementException("Retrieval failed");
+            });
+            Assert.fail("Retrieval failure is not propagated");
+        } catch (ConsentManagementException e) {
+            Assert.assertEquals(e.getMessage(), "Retrieval failed");
+        }
+
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> SAMPLE_VALUE), SAMPLE_VALUE);
+        Assert.assertEquals(testCache.getStatistics().getLoadCount(), 2);
+        Assert.assertEquals(testCache.getStatistics().getLoadFailureCount(), 1);
+    }
+
+    @Test
+    public void testEntryRemovedDuringRetrievalIsNotCached() throws ConsentManagementException {
+
+        ConsentManagementBaseCacheKey key = ConsentManagementBaseCacheKey.of("key");
+        AtomicInteger retrievalCount = new AtomicInteger();
+        ConsentManagementBaseCache.OnDemandRetriever staleRetriever = () -> {
+            retrievalCount.incrementAndGet();
+            // The entry is updated and evicted while it is being retrieved
+            testCache.removeFromCache(key);
+            return "staleValue";
+        };
+
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, staleRetriever), "staleValue");
+        Assert.assertNull(cacheEntries.get(key));
+
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> SAMPLE_VALUE), SAMPLE_VALUE);
+        Assert.assertEquals(cacheEntries.get(key), SAMPLE_VALUE);
+        Assert.assertEquals(retrievalCount.get(), 1);
+    }
+
+    @Test
+    public void testCacheClearedDuringRetrievalIsNotCached() throws ConsentManagementException {
+
+        ConsentManagementBaseCacheKey key = ConsentManagementBaseCacheKey.of("key");
+        testCache.getFromCacheOrRetrieve(key, () -> {
+            testCache.removeAllFromCache();
+            return "staleValue";
+        });
+
+        Assert.assertTrue(cacheEntries.isEmpty());
+    }
+
+    /**
+     * Cache used to test the base cache.
+     */
+    private static class TestCache extends ConsentManagementBaseCache<ConsentManagementBaseCacheKey, String> {
+
+        TestCache() {
+
+            super("TEST_CACHE");
+        }
+
+        @Override
+        public int getCacheAccessExpiryMinutes() {
+            return 15;
+        }
+
+        @Override
+        public int getCacheModifiedExpiryMinutes() {
+            return 60;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRunti
 import org.wso2.bfsi.consent.management.common.util.CarbonUtils;
 
 import java.io.File;
+import java.util.Map;
 
 /**
  * Tests for ConsentManagementConfigParser.
@@ -166,4 +167,31 @@ public class ConsentManagementConfigParserTests {
 
         Assert.assertEquals(ConsentManagementConfigParser.getInstance().getFederatedIDPName(), "");
     }
+
+    @Test(priority = 19)
+    public void testGetAccountRetrievers() {
+
+        ConsentManagementConfigParser parser = ConsentManagementConfigParser.getInstance();
+        Assert.assertEquals(parser.getAccountRetrievers().size(), 1);
+        Map<String, String> retriever = parser.getAccountRetrievers().get(0);
+        Assert.assertEquals(retriever.get("class"),
+                "org.wso2.bfsi.consent.management.extensions.authorize.account.HttpAccountRetriever");
+        Assert.assertEquals(retriever.get("name"), "core-banking");
+        Assert.assertEquals(retriever.get("url"), "http://localhost/property.value/accounts");
+        Assert.assertEquals(parser.getAccountRetrievalTimeout(), 500L);
+        Assert.assertEquals(parser.getAccountRetrievalPoolSize(), 10);
+    }
+
+    @Test(priority = 20)
+    public void testGetConsentAuthorizeStepGroups() {
+
+        Map<String, Map<Integer, String>> stepGroups =
+                ConsentManagementConfigParser.getInstance().getConsentAuthorizeStepGroups();
+        Map<Integer, String> retrievalStepGroups = stepGroups.get("Retrieval");
+        Assert.assertEquals(retrievalStepGroups.size(), 2);
+        Assert.assertEquals(retrievalStepGroups.get(2), "page");
+        Assert.assertEquals(retrievalStepGroups.get(3), "page");
+        Assert.assertTrue(stepGroups.get("Persist").isEmpty());
+        Assert.assertEquals(ConsentManagementConfigParser.getInstance().getAuthorizeStepsPoolSize(), 10);
+    }
 }
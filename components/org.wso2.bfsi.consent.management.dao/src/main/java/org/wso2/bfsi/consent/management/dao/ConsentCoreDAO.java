@@ -28,13 +28,19 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
 
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * This interface access the data storage layer to retrieve, store, delete and update consent management related
@@ -186,6 +192,19 @@ public interface ConsentCoreDAO {
                                                        ConsentMappingResource consentMappingResource)
             throws ConsentDataInsertionException;
 
+    /**
+     * This method is used to store a list of consent mapping resources in the database using batched inserts. The
+     * consent mapping ID will be generated for the mapping resources which do not contain one.
+     *
+     * @param connection                connection object
+     * @param consentMappingResources   list of consent mapping resources with all required data
+     * @return returns the consent mapping resources if the insertion is successful
+     * @throws ConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    ArrayList<ConsentMappingResource> storeConsentMappingResources(Connection connection,
+                                                   ArrayList<ConsentMappingResource> consentMappingResources)
+            throws ConsentDataInsertionException;
+
     /**
      * This method is used to retrieve consent mapping resources for a given authorization ID.
      *
@@ -210,6 +229,17 @@ public interface ConsentCoreDAO {
                                        String mappingStatus)
             throws ConsentDataUpdationException;
 
+    /**
+     * This method is used to retrieve the IDs of the consents which own the given consent mapping resources.
+     *
+     * @param connection    connection object
+     * @param mappingIDs    a list of mapping IDs
+     * @return the distinct consent IDs of the given mapping resources
+     * @throws ConsentDataRetrievalException thrown if a database error occurs
+     */
+    Set<String> getConsentIDsByMappingIDs(Connection connection, List<String> mappingIDs)
+            throws ConsentDataRetrievalException;
+
     /**
      * This method is used to store the consent attributes in the database. The request consent attributes object
      * must be set with a consent ID and consent attribute map.
@@ -344,6 +374,79 @@ public interface ConsentCoreDAO {
                                                       Long fromTime, Long toTime, Integer limit, Integer offset)
             throws ConsentDataRetrievalException;
 
+    /**
+     * This method is used to count the consents matching the given lists of parameters. The same conditions as the
+     * consent search are applied, but only the number of distinct matching consents is retrieved.
+     *
+     * @param connection        connection object
+     * @param consentIDs        consent IDs optional list
+     * @param clientIDs         client IDs optional list
+     * @param consentTypes      consent types optional list
+     * @param consentStatuses   consent statuses optional list
+     * @param userIDs           user IDs optional list
+     * @param fromTime          from time
+     * @param toTime            to time
+     * @return the number of consents matching the provided parameters
+     * @throws ConsentDataRetrievalException thrown if any error occur
+     */
+    int countConsents(Connection connection, ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                      ArrayList<String> consentTypes, ArrayList<String> consentStatuses, ArrayList<String> userIDs,
+                      Long fromTime, Long toTime)
+            throws ConsentDataRetrievalException;
+
+    /**
+     * This method is used to search detailed consents page by page using keyset pagination. The same conditions as
+     * searchConsents are applied and the results are ordered by the updated time and consent ID in descending
+     * order. Unlike offset pagination, the cost of retrieving a page does not depend on its position and the pages do
+     * not drift when consents are added or updated concurrently.
+     *
+     * @param connection        connection object
+     * @param consentIDs        consent IDs optional list
+     * @param clientIDs         client IDs optional list
+     * @param consentTypes      consent types optional list
+     * @param consentStatuses   consent statuses optional list
+     * @param userIDs           user IDs optional list
+     * @param fromTime          from time
+     * @param toTime            to time
+     * @param limit             maximum number of consents in the page
+     * @param cursor            cursor of the page to retrieve, null for the first page
+     * @return page of detailed consent resources with the cursor of the next page
+     * @throws ConsentDataRetrievalException thrown if any error occur
+     */
+    ConsentSearchPage<DetailedConsentResource> searchConsentsByCursor(Connection connection,
+                                                                      ArrayList<String> consentIDs,
+                                                                      ArrayList<String> clientIDs,
+                                                                      ArrayList<String> consentTypes,
+                                                                      ArrayList<String> consentStatuses,
+                                                                      ArrayList<String> userIDs, Long fromTime,
+                                                                      Long toTime, int limit,
+                                                                      ConsentSearchCursor cursor)
+            throws ConsentDataRetrievalException;
+
+    /**
+     * This method is used to stream the detailed consents matching the same search conditions as searchConsents to
+     * the given consumer. The consents are read from a forward only result set row by row, so the whole result is not
+     * held in memory. The consumer is invoked while the result set is open, hence it should not use the same
+     * connection.
+     *
+     * @param connection        connection object
+     * @param consentIDs        consent IDs optional list
+     * @param clientIDs         client IDs optional list
+     * @param consentTypes      consent types optional list
+     * @param consentStatuses   consent statuses optional list
+     * @param userIDs           user IDs optional list
+     * @param fromTime          from time
+     * @param toTime            to time
+     * @param fetchSize         number of rows to fetch from the database at a time, driver default if not positive
+     * @param consumer          consumer of the detailed consent resources
+     * @return the number of consents streamed to the consumer
+     * @throws ConsentDataRetrievalException thrown if any error occur
+     */
+    int streamConsents(Connection connection, ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                       ArrayList<String> consentTypes, ArrayList<String> consentStatuses,
+                       ArrayList<String> userIDs, Long fromTime, Long toTime, int fetchSize,
+                       Consumer<DetailedConsentResource> consumer)
+            throws ConsentDataRetrievalException;
 
     /**
      * This method is used to search authorization resources using following optional parameters. If all the input
@@ -374,6 +477,19 @@ public interface ConsentCoreDAO {
                                                            ConsentStatusAuditRecord consentStatusAuditRecord)
             throws ConsentDataInsertionException;
 
+    /**
+     * This method is used to store a list of consent status audit records in the database using batched inserts.
+     * The status audit ID and actionTime will be generated for the records which do not contain them.
+     *
+     * @param connection connection object
+     * @param consentStatusAuditRecords list of consent status audit records with all required data
+     * @return returns the consent status audit records if the insertion is successful
+     * @throws ConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    ArrayList<ConsentStatusAuditRecord> storeConsentStatusAuditRecords(Connection connection,
+                                                    ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords)
+            throws ConsentDataInsertionException;
+
 
     /**
      * This method is used to retrieve consent status audit records. It queries the consent audit records by the
@@ -409,6 +525,23 @@ public interface ConsentCoreDAO {
                                                                                 Integer limit, Integer offset)
             throws ConsentDataRetrievalException;
 
+    /**
+     * This method is used to retrieve consent status audit records by consent IDs page by page using keyset
+     * pagination. The records are ordered by the action time and status audit ID in descending order.
+     *
+     * @param connection    connection object
+     * @param consentIDs    consent IDs optional list
+     * @param limit         maximum number of records in the page
+     * @param cursor        cursor of the page to retrieve, null for the first page
+     * @return page of consent status audit records with the cursor of the next page
+     * @throws ConsentDataRetrievalException thrown if a database error occurs
+     */
+    ConsentSearchPage<ConsentStatusAuditRecord> getConsentStatusAuditRecordsByCursor(Connection connection,
+                                                                                     ArrayList<String> consentIDs,
+                                                                                     int limit,
+                                                                                     ConsentSearchCursor cursor)
+            throws ConsentDataRetrievalException;
+
     /**
      * This method is used to store the changed attribute values of the consent into consent history when an
      * amendment happens to the consent.
@@ -429,6 +562,24 @@ public interface ConsentCoreDAO {
                              String consentDataType, String changedAttributesJsonString, String amendmentReason)
             throws ConsentDataInsertionException;
 
+    /**
+     * This method is used to store the changed attribute values of several records of the same consent data type
+     * into consent history using batched inserts.
+     *
+     * @param connection connection object
+     * @param historyID An identifier for consent history uniquely assigned per consent amendment
+     * @param timestamp The timestamp at which the consent amendment happened
+     * @param consentDataType The consent data type stored in the history records
+     * @param changedAttributesJsonStrings Map of record ID (ConsentID, MappingID or AuthorizationID) to the key-value
+     *                                     pair json string that represents the changes relevant to the record
+     * @param amendmentReason A string that indicates the reason that caused the amendment of the consent
+     * @return true if insertion successful
+     * @throws ConsentDataInsertionException thrown if any error occurs in the process
+     */
+    boolean storeConsentAmendmentHistoryBatch(Connection connection, String historyID, long timestamp,
+                              String consentDataType, Map<String, String> changedAttributesJsonStrings,
+                              String amendmentReason) throws ConsentDataInsertionException;
+
     /**
      * This method is used to retrieve consent amendment history for a given consentID provided with its mappingIDs,
      * AuthorizationIDs.
@@ -450,4 +601,176 @@ public interface ConsentCoreDAO {
                                                            String statusesEligibleForExpiration)
             throws ConsentDataRetrievalException;
 
+    /**
+     * This method is used to fetch a bounded batch of consents which has a expiring time as a consent attribute
+     * (eligible for expiration). The batch is ordered by the consent ID and starts after the given consent ID, so
+     * that the whole set can be walked through by passing the largest consent ID of the previous batch. Consents whose
+     * expiring time is later than the given time are filtered out by the database, however a consent whose expiring
+     * time is near the given time can still be returned, hence the expiring time needs to be checked by the caller.
+     *
+     * @param connection connection object
+     * @param statusesEligibleForExpiration comma separated statuses eligible for expiration
+     * @param expiryTime time in epoch seconds, before which the expiring time of the consents should be
+     * @param afterConsentID consent ID to continue after, null for the first batch
+     * @param limit maximum number of consents to return
+     * @return a list of detailed consent resources eligible for expiration
+     * @throws ConsentDataRetrievalException thrown if any error occurs in the process
+     */
+    ArrayList<DetailedConsentResource> getExpiringConsents(Connection connection,
+                                                           String statusesEligibleForExpiration, long expiryTime,
+                                                           String afterConsentID, int limit)
+            throws ConsentDataRetrievalException;
+
+    /**
+     * This method is used to update the status of a list of consents using a single batch. A consent is only updated
+     * if its status is still the current status of the given consent resource, so that consents which were changed
+     * concurrently are left untouched.
+     *
+     * @param connection connection object
+     * @param consentResources list of consents with their current statuses
+     * @param newConsentStatus the status that should be updated with
+     * @return the list of consent IDs which were updated
+     * @throws ConsentDataUpdationException thrown if a database error occur or an update failure
+     */
+    ArrayList<String> updateConsentStatuses(Connection connection, ArrayList<DetailedConsentResource> consentResources,
+                                            String newConsentStatus)
+            throws ConsentDataUpdationException;
+
+    /**
+     * This method is used to acquire or renew a named lease for the given owner. The lease is granted if it does not
+     * exist yet, if it is already held by the same owner or if the previous holder's lease has expired.
+     *
+     * @param connection connection object
+     * @param leaseName name of the lease
+     * @param ownerID identifier of the lease owner
+     * @param expiryTime time the lease expires at in seconds
+     * @return true if the lease was acquired
+     * @throws ConsentDataUpdationException thrown if a database error occurs
+     */
+    boolean acquireConsentLease(Connection connection, String leaseName, String ownerID, long expiryTime)
+            throws ConsentDataUpdationException;
+
+    /**
+     * This method is used to release a named lease held by the given owner.
+     *
+     * @param connection connection object
+     * @param leaseName name of the lease
+     * @param ownerID identifier of the lease owner
+     * @throws ConsentDataUpdationException thrown if a database error occurs
+     */
+    void releaseConsentLease(Connection connection, String leaseName, String ownerID)
+            throws ConsentDataUpdationException;
+
+    /**
+     * This method is used to store token revocations in the token revocation outbox using batched inserts. The
+     * revocation ID is generated for the records which do not contain one, and the records are due for an attempt
+     * immediately.
+     *
+     * @param connection connection object
+     * @param tokenRevocationRecords token revocations to store
+     * @return returns the token revocation records if the insertion is successful
+     * @throws ConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    ArrayList<TokenRevocationRecord> storeTokenRevocationRecords(
+            Connection connection, ArrayList<TokenRevocationRecord> tokenRevocationRecords)
+            throws ConsentDataInsertionException;
+
+    /**
+     * This method is used to retrieve the token revocations which are due for an attempt, ordered by their next
+     * attempt time.
+     *
+     * @param connection connection object
+     * @param currentTime current time in seconds
+     * @param maxAttempts maximum number of attempts of a token revocation, records which reached it are skipped
+     * @param limit maximum number of records to retrieve
+     * @return list of token revocation records
+     * @throws ConsentDataRetrievalException thrown if a database error occurs
+     */
+    ArrayList<TokenRevocationRecord> getDueTokenRevocationRecords(Connection connection, long currentTime,
+                                                                  int maxAttempts, int limit)
+            throws ConsentDataRetrievalException;
+
+    /**
+     * This method is used to claim a token revocation for an attempt by moving its next attempt time forward. The
+     * claim only succeeds if the record was not claimed by someone else since it was read.
+     *
+     * @param connection connection object
+     * @param tokenRevocationRecord token revocation record as read from the database
+     * @param nextAttemptTime time in seconds the record is due again if the attempt does not complete
+     * @return true if the record was claimed
+     * @throws ConsentDataUpdationException thrown if a database error occurs
+     */
+    boolean claimTokenRevocationRecord(Connection connection, TokenRevocationRecord tokenRevocationRecord,
+                                       long nextAttemptTime) throws ConsentDataUpdationException;
+
+    /**
+     * This method is used to record a failed attempt of a token revocation.
+     *
+     * @param connection connection object
+     * @param revocationID token revocation ID
+     * @param attemptCount number of attempts made so far
+     * @param nextAttemptTime time in seconds the record is due for the next attempt
+     * @param lastError error of the failed attempt
+     * @throws ConsentDataUpdationException thrown if a database error occurs
+     */
+    void updateTokenRevocationRecordAttempt(Connection connection, String revocationID, int attemptCount,
+                                            long nextAttemptTime, String lastError)
+            throws ConsentDataUpdationException;
+
+    /**
+     * This method is used to delete a completed token revocation from the outbox.
+     *
+     * @param connection connection object
+     * @param revocationID token revocation ID
+     * @throws ConsentDataDeletionException thrown if a database error occurs
+     */
+    void deleteTokenRevocationRecord(Connection connection, String revocationID)
+            throws ConsentDataDeletionException;
+
+    /**
+     * This method is used to count the token revocations in the outbox which have not reached the maximum number of
+     * attempts.
+     *
+     * @param connection connection object
+     * @param maxAttempts maximum number of attempts of a token revocation
+     * @return number of pending token revocations
+     * @throws ConsentDataRetrievalException thrown if a database error occurs
+     */
+    int countPendingTokenRevocationRecords(Connection connection, int maxAttempts)
+            throws ConsentDataRetrievalException;
+
+    /**
+     * This method is used to store the idempotency key of a request. The created time is set to the current time.
+     *
+     * @param connection connection object
+     * @param idempotencyKeyRecord idempotency key record to store
+     * @return returns the idempotency key record if the insertion is successful
+     * @throws ConsentDataInsertionException thrown if a database error occur or the key is already used by the client
+     */
+    IdempotencyKeyRecord storeIdempotencyKeyRecord(Connection connection, IdempotencyKeyRecord idempotencyKeyRecord)
+            throws ConsentDataInsertionException;
+
+    /**
+     * This method is used to retrieve the idempotency key record of a client.
+     *
+     * @param connection connection object
+     * @param clientID client ID
+     * @param idempotencyKey idempotency key
+     * @return the idempotency key record, or null if the client has not used the key
+     * @throws ConsentDataRetrievalException thrown if a database error occurs
+     */
+    IdempotencyKeyRecord getIdempotencyKeyRecord(Connection connection, String clientID, String idempotencyKey)
+            throws ConsentDataRetrievalException;
+
+    /**
+     * This method is used to delete the idempotency key records created before the given time.
+     *
+     * @param connection connection object
+     * @param createdBefore time in seconds, records created before it are deleted
+     * @return number of deleted records
+     * @throws ConsentDataDeletionException thrown if a database error occurs
+     */
+    int deleteExpiredIdempotencyKeyRecords(Connection connection, long createdBefore)
+            throws ConsentDataDeletionException;
+
 }
@@ -58,9 +58,16 @@ public class ConsentMgtDAOConstants {
     public static final String REASON = "REASON";
     public static final String RECORD_ID = "RECORD_ID";
     public static final String EFFECTIVE_TIMESTAMP = "EFFECTIVE_TIMESTAMP";
+    public static final String CONSENT_COUNT = "CONSENT_COUNT";
     public static final String TABLE_ID = "TABLE_ID";
     public static final String HISTORY_ID = "HISTORY_ID";
     public static final String CHANGED_VALUES = "CHANGED_VALUES";
+    public static final String REVOCATION_ID = "REVOCATION_ID";
+    public static final String ATTEMPT_COUNT = "ATTEMPT_COUNT";
+    public static final String NEXT_ATTEMPT_TIME = "NEXT_ATTEMPT_TIME";
+    public static final String LAST_ERROR = "LAST_ERROR";
+    public static final String IDEMPOTENCY_KEY = "IDEMPOTENCY_KEY";
+    public static final String PAYLOAD_HASH = "PAYLOAD_HASH";
     public static final String CONSENT_EXPIRY_TIME_ATTRIBUTE = "ExpirationDateTime";
 
     public static final String TYPE_CONSENT_BASIC_DATA = "ConsentData";
@@ -79,6 +86,13 @@ public class ConsentMgtDAOConstants {
     public static final String PLACEHOLDER = "placeholder";
     public static final String PLAIN_PLACEHOLDER = "plainPlaceholder";
     public static final String EQUALS = "equals";
+    // Oracle only allows 1000 values in a SQL "IN" clause, hence the consents of a search result page are loaded in
+    // batches of at most 1000 in the second phase of the two-phase consent search
+    public static final int TWO_PHASE_SEARCH_BATCH_SIZE = 1000;
+    // Default number of rows sent to the database per JDBC batch execution in the bulk insert operations
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    // Maximum number of compiled consent search queries kept per DAO, one for each shape of the search conditions
+    public static final int SEARCH_QUERY_REGISTRY_SIZE = 256;
     // Consent Database Table Identifiers
     public static final String TABLE_OB_CONSENT = "OB_CONSENT";
     public static final String TABLE_OB_CONSENT_AUTH_RESOURCE = "OB_CONSENT_AUTH_RESOURCE";
@@ -147,11 +161,30 @@ public class ConsentMgtDAOConstants {
     public static final String CONSENT_FILE_RETRIEVE_ERROR_MSG = "Error occurred while retrieving consent file " +
             "resource from the database";
     public static final String CONSENT_SEARCH_ERROR_MSG = "Error occurred while searching consents";
+    public static final String CONSENT_COUNT_ERROR_MSG = "Error occurred while counting consents";
     public static final String AUDIT_RECORD_STORE_ERROR_MSG = "Error occurred while storing consent status audit " +
             "record in the database";
     public static final String AUDIT_RECORDS_RETRIEVE_ERROR_MSG = "Error occurred while retrieving consent status " +
             "audit records";
     public static final String CONSENT_AMENDMENT_HISTORY_RETRIEVE_ERROR_MSG = "Error occurred while retrieving " +
             "consent amendment history records from the database for the given consent ID";
+    public static final String EXPIRING_CONSENT_SEARCH_ERROR_MSG = "Error occurred while searching consents " +
+            "eligible for expiration";
+    public static final String CONSENT_LEASE_UPDATE_ERROR_MSG = "Error occurred while updating the consent lease " +
+            "in the database";
+    public static final String TOKEN_REVOCATION_STORE_ERROR_MSG = "Error occurred while storing token revocations " +
+            "in the database";
+    public static final String TOKEN_REVOCATION_RETRIEVE_ERROR_MSG = "Error occurred while retrieving token " +
+            "revocations from the database";
+    public static final String TOKEN_REVOCATION_UPDATE_ERROR_MSG = "Error occurred while updating the token " +
+            "revocation in the database";
+    public static final String TOKEN_REVOCATION_DELETE_ERROR_MSG = "Error occurred while deleting the token " +
+            "revocation from the database";
+    public static final String IDEMPOTENCY_KEY_STORE_ERROR_MSG = "Error occurred while storing the idempotency key " +
+            "in the database";
+    public static final String IDEMPOTENCY_KEY_RETRIEVE_ERROR_MSG = "Error occurred while retrieving the " +
+            "idempotency key from the database";
+    public static final String IDEMPOTENCY_KEY_DELETE_ERROR_MSG = "Error occurred while deleting expired " +
+            "idempotency keys from the database";
 
 }
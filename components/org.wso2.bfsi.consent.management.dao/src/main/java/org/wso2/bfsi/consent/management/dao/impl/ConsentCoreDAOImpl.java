@@ -35,9 +35,15 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtCommonDBQueries;
+import org.wso2.bfsi.consent.management.dao.queries.ConsentSearchQuery;
+import org.wso2.bfsi.consent.management.dao.queries.ConsentSearchQueryRegistry;
 import org.wso2.bfsi.consent.management.dao.util.ConsentManagementDAOUtil;
 
 import java.sql.Connection;
@@ -50,10 +56,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -68,12 +77,49 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
     private static final Log log = LogFactory.getLog(ConsentCoreDAOImpl.class);
     private static final String GROUP_BY_SEPARATOR = "\\|\\|";
     ConsentMgtCommonDBQueries sqlStatements;
+    final ConsentSearchQueryRegistry searchQueryRegistry =
+            new ConsentSearchQueryRegistry(ConsentMgtDAOConstants.SEARCH_QUERY_REGISTRY_SIZE);
+    private boolean twoPhaseSearchEnabled;
+    private int batchSize = ConsentMgtDAOConstants.DEFAULT_BATCH_SIZE;
 
     public ConsentCoreDAOImpl(ConsentMgtCommonDBQueries sqlStatements) {
 
         this.sqlStatements = sqlStatements;
     }
 
+    /**
+     * Set whether the consent search should use the two-phase search, which first selects the page of consents and
+     * then loads their attributes, authorization resources and account mappings in batches, instead of the single
+     * query aggregating them per consent.
+     *
+     * @param twoPhaseSearchEnabled whether the two-phase consent search is enabled
+     */
+    public void setTwoPhaseSearchEnabled(boolean twoPhaseSearchEnabled) {
+
+        this.twoPhaseSearchEnabled = twoPhaseSearchEnabled;
+    }
+
+    public boolean isTwoPhaseSearchEnabled() {
+
+        return twoPhaseSearchEnabled;
+    }
+
+    /**
+     * Set the maximum number of rows sent to the database per JDBC batch execution in the bulk insert operations.
+     * Larger inputs are executed in several chunks of this size within the same transaction.
+     *
+     * @param batchSize maximum number of rows per batch execution
+     */
+    public void setBatchSize(int batchSize) {
+
+        this.batchSize = batchSize > 0 ? batchSize : ConsentMgtDAOConstants.DEFAULT_BATCH_SIZE;
+    }
+
+    public int getBatchSize() {
+
+        return batchSize;
+    }
+
     @Override
     public ConsentResource storeConsentResource(Connection connection, ConsentResource consentResource)
             throws ConsentDataInsertionException {
@@ -203,37 +249,98 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
     public DetailedConsentResource getDetailedConsentResource(Connection connection, String consentID)
             throws ConsentDataRetrievalException {
 
-        String getDetailedConsentResourcePrepStatement = sqlStatements.getGetDetailedConsentPreparedStatement();
+        String getDetailedConsentDataPrepStatement = sqlStatements.getGetDetailedConsentDataPreparedStatement();
+        DetailedConsentResource detailedConsentResource;
 
-        try (PreparedStatement getDetailedConsentResourcePreparedStmt = connection
-                .prepareStatement(getDetailedConsentResourcePrepStatement)) {
+        try (PreparedStatement getDetailedConsentDataPreparedStmt = connection
+                .prepareStatement(getDetailedConsentDataPrepStatement)) {
 
             log.debug("Setting parameters to prepared statement to retrieve detailed consent resource");
 
-            getDetailedConsentResourcePreparedStmt.setString(1, consentID);
+            getDetailedConsentDataPreparedStmt.setString(1, consentID);
 
-            try (ResultSet resultSet = getDetailedConsentResourcePreparedStmt.executeQuery()) {
-                if (resultSet.isBeforeFirst()) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Retrieved the detailed consent resource for consent ID : %s",
-                                consentID.replaceAll("[\r\n]", "")));
-                    }
-                    return ConsentManagementDAOUtil.setDataToDetailedConsentResource(resultSet);
+            try (ResultSet resultSet = getDetailedConsentDataPreparedStmt.executeQuery()) {
+                if (resultSet.next()) {
+                    detailedConsentResource = ConsentManagementDAOUtil
+                            .setConsentDataToDetailedConsentResource(resultSet);
                 } else {
                     log.error(String.format("No records are found for consent ID : %s",
                             consentID.replaceAll("[\r\n]", "")));
                     throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.NO_RECORDS_FOUND_ERROR_MSG);
                 }
-            } catch (SQLException e) {
-                log.error("Error occurred while reading detailed consent resource", e);
-                throw new ConsentDataRetrievalException(String.format("Error occurred while retrieving " +
-                        "detailed consent resource for consent ID : %s", consentID), e);
             }
+
+            // Load the attributes, authorization resources and account mappings with a query per table, since joining
+            // them multiplies the rows to read by the number of records in each table
+            loadDetailedConsentData(connection, detailedConsentResource);
         } catch (SQLException e) {
             log.error(ConsentMgtDAOConstants.DETAILED_CONSENT_RESOURCE_RETRIEVE_ERROR_MSG, e);
             throw new ConsentDataRetrievalException(ConsentMgtDAOConstants
                     .DETAILED_CONSENT_RESOURCE_RETRIEVE_ERROR_MSG, e);
         }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Retrieved the detailed consent resource for consent ID : %s",
+                    consentID.replaceAll("[\r\n]", "")));
+        }
+        return detailedConsentResource;
+    }
+
+    /**
+     * Load the attributes, authorization resources and account mappings of a consent and set them on the detailed
+     * consent resource. Each table is read once, so the number of rows read is the sum of the records of the consent
+     * rather than their product.
+     *
+     * @param connection                connection object
+     * @param detailedConsentResource   detailed consent resource to load the data of
+     * @throws SQLException thrown if an error occurs when loading the data
+     */
+    private void loadDetailedConsentData(Connection connection, DetailedConsentResource detailedConsentResource)
+            throws SQLException {
+
+        String consentID = detailedConsentResource.getConsentID();
+
+        try (PreparedStatement attributesPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getGetConsentAttributesPreparedStatement())) {
+            attributesPreparedStmt.setString(1, consentID);
+            try (ResultSet resultSet = attributesPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    String attributeValue = resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE);
+                    // skip adding all temporary session data to consent attributes
+                    if (!ConsentManagementDAOUtil.isSessionDataAttribute(attributeValue)) {
+                        detailedConsentResource.getConsentAttributes()
+                                .put(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY), attributeValue);
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement authorizationResourcesPreparedStmt = connection
+                .prepareStatement(sqlStatements.getGetDetailedConsentAuthorizationResourcesPreparedStatement())) {
+            authorizationResourcesPreparedStmt.setString(1, consentID);
+            try (ResultSet resultSet = authorizationResourcesPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    detailedConsentResource.getAuthorizationResources().add(ConsentManagementDAOUtil
+                            .setAuthorizationData(resultSet, ConsentMgtDAOConstants.UPDATED_TIME));
+                }
+            }
+        }
+
+        if (detailedConsentResource.getAuthorizationResources().isEmpty()) {
+            // Account mappings are only created for authorization resources
+            return;
+        }
+
+        try (PreparedStatement mappingResourcesPreparedStmt = connection
+                .prepareStatement(sqlStatements.getGetDetailedConsentMappingResourcesPreparedStatement())) {
+            mappingResourcesPreparedStmt.setString(1, consentID);
+            try (ResultSet resultSet = mappingResourcesPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    detailedConsentResource.getConsentMappingResources()
+                            .add(ConsentManagementDAOUtil.getConsentMappingResourceWithData(resultSet));
+                }
+            }
+        }
     }
 
     @Override
@@ -513,6 +620,50 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    public ArrayList<ConsentMappingResource> storeConsentMappingResources(Connection connection,
+                                                  ArrayList<ConsentMappingResource> consentMappingResources)
+            throws ConsentDataInsertionException {
+
+        int[] result;
+        String storeConsentMappingPrepStatement = sqlStatements.getStoreConsentMappingPreparedStatement();
+
+        try (PreparedStatement storeConsentMappingPreparedStmt =
+                     connection.prepareStatement(storeConsentMappingPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to store consent mapping resources");
+
+            List<int[]> batchResults = new ArrayList<>();
+            int batchedRows = 0;
+            for (ConsentMappingResource consentMappingResource : consentMappingResources) {
+                if (StringUtils.isEmpty(consentMappingResource.getMappingID())) {
+                    consentMappingResource.setMappingID(UUID.randomUUID().toString());
+                }
+                storeConsentMappingPreparedStmt.setString(1, consentMappingResource.getMappingID());
+                storeConsentMappingPreparedStmt.setString(2, consentMappingResource.getAuthorizationID());
+                storeConsentMappingPreparedStmt.setString(3, consentMappingResource.getAccountID());
+                storeConsentMappingPreparedStmt.setString(4, consentMappingResource.getPermission());
+                storeConsentMappingPreparedStmt.setString(5, consentMappingResource.getMappingStatus());
+                addToBatch(storeConsentMappingPreparedStmt, ++batchedRows, batchResults);
+            }
+
+            // with result, we can determine whether the insertion was successful or not
+            result = executeRemainingBatch(storeConsentMappingPreparedStmt, batchedRows, batchResults);
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_MAPPING_RESOURCE_STORE_ERROR_MSG, e);
+            throw new ConsentDataInsertionException(ConsentMgtDAOConstants.CONSENT_MAPPING_RESOURCE_STORE_ERROR_MSG,
+                    e);
+        }
+
+        // An empty array or an array with value -3 means the batch execution is failed
+        if (result.length != 0 && IntStream.of(result).noneMatch(value -> value == -3)) {
+            log.debug("Stored the consent mapping resources successfully");
+            return consentMappingResources;
+        } else {
+            throw new ConsentDataInsertionException("Failed to store consent mapping resources data properly.");
+        }
+    }
+
     @Override
     public ArrayList<ConsentMappingResource> getConsentMappingResources(Connection connection, String authorizationID)
             throws ConsentDataRetrievalException {
@@ -587,6 +738,32 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    public Set<String> getConsentIDsByMappingIDs(Connection connection, List<String> mappingIDs)
+            throws ConsentDataRetrievalException {
+
+        Set<String> consentIDs = new HashSet<>();
+        String getConsentIDPrepStatement = sqlStatements.getGetConsentIDByMappingIDPreparedStatement();
+
+        try (PreparedStatement getConsentIDPreparedStmt = connection.prepareStatement(getConsentIDPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to retrieve consent IDs of consent mappings");
+
+            for (String mappingID : mappingIDs) {
+                getConsentIDPreparedStmt.setString(1, mappingID);
+                try (ResultSet resultSet = getConsentIDPreparedStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        consentIDs.add(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_MAPPING_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_MAPPING_RETRIEVE_ERROR_MSG, e);
+        }
+        return consentIDs;
+    }
+
     @Override
     public boolean storeConsentAttributes(Connection connection, ConsentAttributes consentAttributes)
             throws ConsentDataInsertionException {
@@ -946,7 +1123,7 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
     @Override
     @SuppressFBWarnings("SQL_INJECTION_JDBC")
     // Suppressed content - connection.prepareStatement(searchConsentsPreparedStatement,
-    //                  ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_UPDATABLE)
+    //                  ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
     // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
     // Suppressed warning count - 1
     public ArrayList<DetailedConsentResource> searchConsents(Connection connection, ArrayList<String> consentIDs,
@@ -957,61 +1134,39 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
                                                              Integer limit, Integer offset)
             throws ConsentDataRetrievalException {
 
-        boolean shouldLimit = true;
-        boolean shouldOffset = true;
+        if (isTwoPhaseSearchEnabled()) {
+            return searchConsentsInTwoPhases(connection, consentIDs, clientIDs, consentTypes, consentStatuses,
+                    userIDs, fromTime, toTime, limit, offset);
+        }
+
+        // Don't limit if either of limit or offset is null
+        boolean shouldLimit = limit != null;
+        boolean shouldOffset = offset != null;
         int parameterIndex = 0;
         Map<String, ArrayList<String>> applicableConditionsMap = new HashMap<>();
 
         validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
 
-        // Don't limit if either of limit or offset is null
-        if (limit == null) {
-            shouldLimit = false;
-        }
-        if (offset == null) {
-            shouldOffset = false;
-        }
-
-        // logic to set the prepared statement
-        log.debug("Constructing the prepared statement");
-        String constructedConditions =
-                ConsentManagementDAOUtil.constructConsentSearchPreparedStatement(applicableConditionsMap);
-
-        String userIDFilterCondition = "";
         Map<String, ArrayList<String>> userIdMap = new HashMap<>();
         if (CollectionUtils.isNotEmpty(userIDs)) {
             userIdMap.put(ConsentMgtDAOConstants.COLUMNS_MAP.get(ConsentMgtDAOConstants.USER_IDS), userIDs);
-            userIDFilterCondition = ConsentManagementDAOUtil.constructUserIdListFilterCondition(userIdMap);
         }
 
-        String searchConsentsPreparedStatement =
-                sqlStatements.getSearchConsentsPreparedStatement(constructedConditions, shouldLimit, shouldOffset,
-                        userIDFilterCondition);
+        // logic to set the prepared statement
+        log.debug("Constructing the prepared statement");
+        ConsentSearchQuery searchQuery = getConsentSearchQuery("searchConsents:" + shouldLimit + ":" + shouldOffset,
+                applicableConditionsMap, userIdMap, (constructedConditions, userIDFilterCondition) ->
+                        sqlStatements.getSearchConsentsPreparedStatement(constructedConditions, shouldLimit,
+                                shouldOffset, userIDFilterCondition));
 
         try (PreparedStatement searchConsentsPreparedStmt =
-                     connection.prepareStatement(searchConsentsPreparedStatement, ResultSet.TYPE_SCROLL_INSENSITIVE,
-                             ResultSet.CONCUR_UPDATABLE)) {
-
-            /* Since we don't know the order of the set condition clauses, have to determine the order of them to set
-               the actual values to the  prepared statement */
-            Map<Integer, ArrayList<String>> orderedParamsMap = ConsentManagementDAOUtil.determineOrderOfParamsToSet(
-                    constructedConditions, applicableConditionsMap, ConsentMgtDAOConstants.COLUMNS_MAP);
+                     connection.prepareStatement(searchQuery.getQuery(), ResultSet.TYPE_FORWARD_ONLY,
+                             ResultSet.CONCUR_READ_ONLY)) {
 
             log.debug("Setting parameters to prepared statement to search consents");
 
-            parameterIndex = ConsentManagementDAOUtil.setDynamicConsentSearchParameters(searchConsentsPreparedStmt,
-                    orderedParamsMap, ++parameterIndex);
-            parameterIndex = parameterIndex - 1;
-
-            //determine order of user Ids to set
-            if (CollectionUtils.isNotEmpty(userIDs)) {
-                Map<Integer, ArrayList<String>> orderedUserIdsMap = ConsentManagementDAOUtil
-                        .determineOrderOfParamsToSet(userIDFilterCondition, userIdMap,
-                                ConsentMgtDAOConstants.COLUMNS_MAP);
-                parameterIndex = ConsentManagementDAOUtil.setDynamicConsentSearchParameters(searchConsentsPreparedStmt,
-                        orderedUserIdsMap, ++parameterIndex);
-                parameterIndex = parameterIndex - 1;
-            }
+            parameterIndex = setConditionAndUserIDParameters(searchConsentsPreparedStmt, searchQuery,
+                    applicableConditionsMap, userIdMap, parameterIndex);
 
             if (fromTime != null) {
                 searchConsentsPreparedStmt.setLong(++parameterIndex, fromTime);
@@ -1034,10 +1189,7 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
             ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
 
             try (ResultSet resultSet = searchConsentsPreparedStmt.executeQuery()) {
-                if (resultSet.isBeforeFirst()) {
-                    int resultSetSize = ConsentManagementDAOUtil.getResultSetSize(resultSet);
-                    detailedConsentResources = constructDetailedConsentsSearchResult(resultSet, resultSetSize);
-                }
+                detailedConsentResources = constructDetailedConsentsSearchResult(resultSet);
                 return detailedConsentResources;
             } catch (SQLException e) {
                 log.error("Error occurred while searching detailed consent resources", e);
@@ -1050,141 +1202,591 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
-    @Override
+    /**
+     * Search consents in two phases. The first phase selects the page of consents matching the search conditions,
+     * and the second phase loads the attributes, authorization resources and account mappings of the consents in the
+     * page with batched "IN" queries, which are then assembled in memory. Unlike the single aggregating search query,
+     * this does not depend on a separator which may be part of the values, or on the aggregated value length limits
+     * of the database.
+     *
+     * @param connection        connection object
+     * @param consentIDs        consent IDs optional list
+     * @param clientIDs         client IDs optional list
+     * @param consentTypes      consent types optional list
+     * @param consentStatuses   consent statuses optional list
+     * @param userIDs           user IDs optional list
+     * @param fromTime          from time optional value
+     * @param toTime            to time optional value
+     * @param limit             limit optional value
+     * @param offset            offset optional value
+     * @return a list of detailed consent resources according to the provided parameters
+     * @throws ConsentDataRetrievalException thrown if a database error occurs
+     */
     @SuppressFBWarnings("SQL_INJECTION_JDBC")
-    // Suppressed content - connection.prepareStatement(searchAuthorizationResourcesPrepStatement)
+    // Suppressed content - connection.prepareStatement(searchConsentPagePreparedStatement,
+    //                  ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
     // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
     // Suppressed warning count - 1
-    public ArrayList<AuthorizationResource> searchConsentAuthorizations(Connection connection, String consentID,
-                                                                        String userID)
+    ArrayList<DetailedConsentResource> searchConsentsInTwoPhases(Connection connection, ArrayList<String> consentIDs,
+                                                                 ArrayList<String> clientIDs,
+                                                                 ArrayList<String> consentTypes,
+                                                                 ArrayList<String> consentStatuses,
+                                                                 ArrayList<String> userIDs, Long fromTime,
+                                                                 Long toTime, Integer limit, Integer offset)
             throws ConsentDataRetrievalException {
 
-        ArrayList<AuthorizationResource> retrievedAuthorizationResources = new ArrayList<>();
-        Map<String, String> conditions = new HashMap<>();
-        if (StringUtils.trimToNull(consentID) != null) {
-            conditions.put("CONSENT_ID", consentID);
-        }
-        if (StringUtils.trimToNull(userID) != null) {
-            conditions.put("USER_ID", userID);
+        int parameterIndex = 0;
+        Map<String, ArrayList<String>> applicableConditionsMap = new HashMap<>();
+
+        validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
+
+        Map<String, ArrayList<String>> userIdMap = new HashMap<>();
+        if (CollectionUtils.isNotEmpty(userIDs)) {
+            userIdMap.put(getSearchColumnsMap().get(ConsentMgtDAOConstants.USER_IDS), userIDs);
         }
-        String whereClause = ConsentManagementDAOUtil.constructAuthSearchPreparedStatement(conditions);
-        String searchAuthorizationResourcesPrepStatement =
-                sqlStatements.getSearchAuthorizationResourcesPreparedStatement(whereClause);
 
-        try (PreparedStatement getSearchAuthorizationResourcesPreparedStmt =
-                     connection.prepareStatement(searchAuthorizationResourcesPrepStatement)) {
+        boolean shouldLimit = limit != null;
+        boolean shouldOffset = offset != null;
+        ConsentSearchQuery searchQuery = getConsentSearchQuery("searchConsentPage:" + shouldLimit + ":" +
+                shouldOffset, applicableConditionsMap, userIdMap, (constructedConditions, userIDFilterCondition) ->
+                        sqlStatements.getSearchConsentPagePreparedStatement(constructedConditions,
+                                userIDFilterCondition, shouldLimit, shouldOffset));
 
-            if (log.isDebugEnabled()) {
-                log.debug("Setting parameters to prepared statement to search authorization resources");
-            }
+        Map<String, DetailedConsentResource> detailedConsentResources = new LinkedHashMap<>();
 
-            Iterator<Map.Entry<String, String>> conditionIterator = conditions.entrySet().iterator();
+        try (PreparedStatement searchConsentPagePreparedStmt =
+                     connection.prepareStatement(searchQuery.getQuery(), ResultSet.TYPE_FORWARD_ONLY,
+                             ResultSet.CONCUR_READ_ONLY)) {
 
-            for (int count = 1; count <= conditions.size(); count++) {
-                getSearchAuthorizationResourcesPreparedStmt.setString(count, conditionIterator.next().getValue());
+            log.debug("Setting parameters to prepared statement to search the page of consents");
+
+            // The consent search conditions precede the user ID filter in the query for all databases
+            parameterIndex = setConditionAndUserIDParameters(searchConsentPagePreparedStmt, searchQuery,
+                    applicableConditionsMap, userIdMap, parameterIndex);
+
+            if (fromTime != null) {
+                searchConsentPagePreparedStmt.setLong(++parameterIndex, fromTime);
+            } else {
+                searchConsentPagePreparedStmt.setNull(++parameterIndex, Types.BIGINT);
             }
 
-            try (ResultSet resultSet = getSearchAuthorizationResourcesPreparedStmt.executeQuery()) {
-                if (resultSet.isBeforeFirst()) {
-                    while (resultSet.next()) {
-                        AuthorizationResource authorizationResource = new AuthorizationResource();
-                        authorizationResource
-                                .setAuthorizationID(resultSet.getString(ConsentMgtDAOConstants.AUTH_ID));
-                        authorizationResource.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
-                        authorizationResource
-                                .setUserID(resultSet.getString(ConsentMgtDAOConstants.USER_ID));
-                        authorizationResource.setAuthorizationStatus(resultSet
-                                .getString(ConsentMgtDAOConstants.AUTH_STATUS));
-                        authorizationResource
-                                .setAuthorizationType(resultSet.getString(ConsentMgtDAOConstants.AUTH_TYPE));
-                        authorizationResource.setUpdatedTime(resultSet.getLong(ConsentMgtDAOConstants.UPDATED_TIME));
-                        retrievedAuthorizationResources.add(authorizationResource);
-                    }
+            if (toTime != null) {
+                searchConsentPagePreparedStmt.setLong(++parameterIndex, toTime);
+            } else {
+                searchConsentPagePreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            if (limit != null && offset != null) {
+                if (sqlStatements.isLimitBeforeThanOffset()) {
+                    searchConsentPagePreparedStmt.setInt(++parameterIndex, limit);
+                    searchConsentPagePreparedStmt.setInt(++parameterIndex, offset);
                 } else {
-                    log.error("No records are found for the provided inputs");
-                    throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.NO_RECORDS_FOUND_ERROR_MSG);
+                    searchConsentPagePreparedStmt.setInt(++parameterIndex, offset);
+                    searchConsentPagePreparedStmt.setInt(++parameterIndex, limit);
                 }
-            } catch (SQLException e) {
-                log.error("Error occurred while searching authorization resources", e);
-                throw new ConsentDataRetrievalException(ConsentMgtDAOConstants
-                        .CONSENT_AUTHORIZATION_RESOURCE_RETRIEVE_ERROR_MSG, e);
+            } else if (limit != null) {
+                searchConsentPagePreparedStmt.setInt(++parameterIndex, limit);
+            }
+
+            try (ResultSet resultSet = searchConsentPagePreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    DetailedConsentResource detailedConsentResource = ConsentManagementDAOUtil
+                            .setConsentDataToDetailedConsentResource(resultSet);
+                    detailedConsentResources.put(detailedConsentResource.getConsentID(), detailedConsentResource);
+                }
+            }
+
+            if (!detailedConsentResources.isEmpty()) {
+                loadSearchResultData(connection, detailedConsentResources);
             }
-            log.debug("Retrieved the authorization resources successfully");
         } catch (SQLException e) {
-            log.error(ConsentMgtDAOConstants.CONSENT_AUTHORIZATION_RESOURCE_RETRIEVE_ERROR_MSG, e);
-            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants
-                    .CONSENT_AUTHORIZATION_RESOURCE_RETRIEVE_ERROR_MSG, e);
+            log.error(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
         }
-        return retrievedAuthorizationResources;
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Retrieved %s consents with the two-phase consent search",
+                    detailedConsentResources.size()));
+        }
+        return new ArrayList<>(detailedConsentResources.values());
     }
 
-    @Override
-    public ConsentStatusAuditRecord storeConsentStatusAuditRecord(Connection connection,
-                                                                  ConsentStatusAuditRecord consentStatusAuditRecord)
-            throws ConsentDataInsertionException {
+    /**
+     * Load the attributes, authorization resources and account mappings of the given consents in batches and set
+     * them on the consents.
+     *
+     * @param connection                connection object
+     * @param detailedConsentResources  detailed consent resources of the search result page, keyed by consent ID
+     * @throws SQLException thrown if an error occurs when loading the data
+     */
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(attributesPreparedStatement)
+    //                      connection.prepareStatement(authorizationResourcesPreparedStatement)
+    //                      connection.prepareStatement(mappingResourcesPreparedStatement)
+    // Suppression reason - False Positive : Only the number of placeholders of the query varies
+    // Suppressed warning count - 3
+    private void loadSearchResultData(Connection connection,
+                                      Map<String, DetailedConsentResource> detailedConsentResources)
+            throws SQLException {
 
-        int result;
-        String statusAuditID = StringUtils.isEmpty(consentStatusAuditRecord.getStatusAuditID()) ?
-                UUID.randomUUID().toString() : consentStatusAuditRecord.getStatusAuditID();
-        // Unix time in seconds
-        long actionTime = (consentStatusAuditRecord.getActionTime() == 0) ? System.currentTimeMillis() / 1000 :
-                consentStatusAuditRecord.getActionTime();
+        List<String> consentIDs = new ArrayList<>(detailedConsentResources.keySet());
 
-        String storeConsentStatusAuditRecordPrepStatement =
-                sqlStatements.getStoreConsentStatusAuditRecordPreparedStatement();
+        for (int fromIndex = 0; fromIndex < consentIDs.size();
+             fromIndex += ConsentMgtDAOConstants.TWO_PHASE_SEARCH_BATCH_SIZE) {
 
-        try (PreparedStatement storeConsentStatusAuditRecordPreparedStmt =
-                     connection.prepareStatement(storeConsentStatusAuditRecordPrepStatement)) {
+            List<String> batch = consentIDs.subList(fromIndex,
+                    Math.min(fromIndex + ConsentMgtDAOConstants.TWO_PHASE_SEARCH_BATCH_SIZE, consentIDs.size()));
+            String placeholders = ConsentManagementDAOUtil.constructPlaceholders(batch.size());
 
-            log.debug("Setting parameters to prepared statement to store consent audit record");
+            String attributesPreparedStatement =
+                    sqlStatements.getSearchConsentAttributesPreparedStatement(placeholders);
+            try (PreparedStatement attributesPreparedStmt = connection.prepareStatement(attributesPreparedStatement)) {
+                setConsentIDParameters(attributesPreparedStmt, batch);
+                try (ResultSet resultSet = attributesPreparedStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        detailedConsentResources.get(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID))
+                                .getConsentAttributes().put(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY),
+                                        resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE));
+                    }
+                }
+            }
 
-            storeConsentStatusAuditRecordPreparedStmt.setString(1, statusAuditID);
-            storeConsentStatusAuditRecordPreparedStmt.setString(2, consentStatusAuditRecord
-                    .getConsentID());
-            storeConsentStatusAuditRecordPreparedStmt.setString(3, consentStatusAuditRecord
-                    .getCurrentStatus());
-            storeConsentStatusAuditRecordPreparedStmt.setLong(4, actionTime);
-            storeConsentStatusAuditRecordPreparedStmt.setString(5, consentStatusAuditRecord.getReason());
-            storeConsentStatusAuditRecordPreparedStmt.setString(6, consentStatusAuditRecord
-                    .getActionBy());
-            storeConsentStatusAuditRecordPreparedStmt.setString(7, consentStatusAuditRecord
-                    .getPreviousStatus());
+            String authorizationResourcesPreparedStatement =
+                    sqlStatements.getSearchConsentAuthorizationResourcesPreparedStatement(placeholders);
+            try (PreparedStatement authorizationResourcesPreparedStmt =
+                         connection.prepareStatement(authorizationResourcesPreparedStatement)) {
+                setConsentIDParameters(authorizationResourcesPreparedStmt, batch);
+                try (ResultSet resultSet = authorizationResourcesPreparedStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        AuthorizationResource authorizationResource = ConsentManagementDAOUtil
+                                .setAuthorizationData(resultSet, ConsentMgtDAOConstants.UPDATED_TIME);
+                        detailedConsentResources.get(authorizationResource.getConsentID())
+                                .getAuthorizationResources().add(authorizationResource);
+                    }
+                }
+            }
 
-            // with result, we can determine whether the insertion was successful or not
-            result = storeConsentStatusAuditRecordPreparedStmt.executeUpdate();
-        } catch (SQLException e) {
-            log.error(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
-            throw new ConsentDataInsertionException(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+            String mappingResourcesPreparedStatement =
+                    sqlStatements.getSearchConsentMappingResourcesPreparedStatement(placeholders);
+            try (PreparedStatement mappingResourcesPreparedStmt =
+                         connection.prepareStatement(mappingResourcesPreparedStatement)) {
+                setConsentIDParameters(mappingResourcesPreparedStmt, batch);
+                try (ResultSet resultSet = mappingResourcesPreparedStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        detailedConsentResources.get(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID))
+                                .getConsentMappingResources()
+                                .add(ConsentManagementDAOUtil.getConsentMappingResourceWithData(resultSet));
+                    }
+                }
+            }
         }
+    }
 
-        // Confirm that the data are inserted successfully
-        if (result > 0) {
-            log.debug("Stored the consent status audit record successfully");
-            consentStatusAuditRecord.setStatusAuditID(statusAuditID);
-            consentStatusAuditRecord.setActionTime(actionTime);
-            return consentStatusAuditRecord;
-        } else {
-            throw new ConsentDataInsertionException("Failed to store consent status audit record data properly.");
+    private void setConsentIDParameters(PreparedStatement preparedStatement, List<String> consentIDs)
+            throws SQLException {
+
+        int parameterIndex = 0;
+        for (String consentID : consentIDs) {
+            preparedStatement.setString(++parameterIndex, consentID);
         }
     }
 
     @Override
-    public ArrayList<ConsentStatusAuditRecord> getConsentStatusAuditRecords(Connection connection, String consentID,
-                                                                            String currentStatus, String actionBy,
-                                                                            Long fromTime, Long toTime,
-                                                                            String statusAuditID)
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(countConsentsPreparedStatement)
+    // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
+    // Suppressed warning count - 1
+    public int countConsents(Connection connection, ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                             ArrayList<String> consentTypes, ArrayList<String> consentStatuses,
+                             ArrayList<String> userIDs, Long fromTime, Long toTime)
             throws ConsentDataRetrievalException {
 
-        ArrayList<ConsentStatusAuditRecord> retrievedAuditRecords = new ArrayList<>();
-        String getConsentStatusAuditRecordsPrepStatement =
-                sqlStatements.getGetConsentStatusAuditRecordsPreparedStatement();
+        int parameterIndex = 0;
+        Map<String, ArrayList<String>> applicableConditionsMap = new HashMap<>();
+        Map<String, String> searchColumnsMap = getSearchColumnsMap();
 
-        try (PreparedStatement getConsentStatusAuditRecordPreparedStmt =
-                     connection.prepareStatement(getConsentStatusAuditRecordsPrepStatement)) {
+        validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
 
-            if (log.isDebugEnabled()) {
-                log.debug("Setting parameters to prepared statement to retrieve consent status audit records");
-            }
+        Map<String, ArrayList<String>> userIdMap = new HashMap<>();
+        if (CollectionUtils.isNotEmpty(userIDs)) {
+            userIdMap.put(searchColumnsMap.get(ConsentMgtDAOConstants.USER_IDS), userIDs);
+        }
+
+        log.debug("Constructing the prepared statement to count consents");
+        ConsentSearchQuery countQuery = getConsentSearchQuery("countConsents", applicableConditionsMap, userIdMap,
+                sqlStatements::getCountConsentsPreparedStatement);
+
+        try (PreparedStatement countConsentsPreparedStmt = connection.prepareStatement(countQuery.getQuery())) {
+
+            log.debug("Setting parameters to prepared statement to count consents");
+
+            // The consent table conditions are always placed before the user ID filter in the count query
+            parameterIndex = setConditionAndUserIDParameters(countConsentsPreparedStmt, countQuery,
+                    applicableConditionsMap, userIdMap, parameterIndex);
+
+            if (fromTime != null) {
+                countConsentsPreparedStmt.setLong(++parameterIndex, fromTime);
+            } else {
+                countConsentsPreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            if (toTime != null) {
+                countConsentsPreparedStmt.setLong(++parameterIndex, toTime);
+            } else {
+                countConsentsPreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            try (ResultSet resultSet = countConsentsPreparedStmt.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(ConsentMgtDAOConstants.CONSENT_COUNT);
+                }
+                return 0;
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_COUNT_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_COUNT_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(searchConsentsPreparedStatement,
+    //                  ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+    // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
+    // Suppressed warning count - 1
+    public ConsentSearchPage<DetailedConsentResource> searchConsentsByCursor(Connection connection,
+                                                                             ArrayList<String> consentIDs,
+                                                                             ArrayList<String> clientIDs,
+                                                                             ArrayList<String> consentTypes,
+                                                                             ArrayList<String> consentStatuses,
+                                                                             ArrayList<String> userIDs,
+                                                                             Long fromTime, Long toTime, int limit,
+                                                                             ConsentSearchCursor cursor)
+            throws ConsentDataRetrievalException {
+
+        int parameterIndex = 0;
+        Map<String, ArrayList<String>> applicableConditionsMap = new HashMap<>();
+
+        validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
+
+        Map<String, ArrayList<String>> userIdMap = new HashMap<>();
+        if (CollectionUtils.isNotEmpty(userIDs)) {
+            userIdMap.put(getSearchColumnsMap().get(ConsentMgtDAOConstants.USER_IDS), userIDs);
+        }
+
+        log.debug("Constructing the prepared statement to search consents by cursor");
+        boolean hasCursor = cursor != null;
+        ConsentSearchQuery searchQuery = getConsentSearchQuery("searchConsentsByCursor:" + hasCursor,
+                applicableConditionsMap, userIdMap, (constructedConditions, userIDFilterCondition) ->
+                        sqlStatements.getSearchConsentsByCursorPreparedStatement(constructedConditions,
+                                userIDFilterCondition, hasCursor));
+
+        try (PreparedStatement searchConsentsPreparedStmt =
+                     connection.prepareStatement(searchQuery.getQuery(), ResultSet.TYPE_FORWARD_ONLY,
+                             ResultSet.CONCUR_READ_ONLY)) {
+
+            log.debug("Setting parameters to prepared statement to search consents by cursor");
+
+            parameterIndex = setSearchConditionParameters(searchConsentsPreparedStmt, searchQuery,
+                    applicableConditionsMap, userIdMap, parameterIndex);
+
+            if (fromTime != null) {
+                searchConsentsPreparedStmt.setLong(++parameterIndex, fromTime);
+            } else {
+                searchConsentsPreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            if (toTime != null) {
+                searchConsentsPreparedStmt.setLong(++parameterIndex, toTime);
+            } else {
+                searchConsentsPreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            if (cursor != null) {
+                searchConsentsPreparedStmt.setLong(++parameterIndex, cursor.getTimestamp());
+                searchConsentsPreparedStmt.setLong(++parameterIndex, cursor.getTimestamp());
+                searchConsentsPreparedStmt.setString(++parameterIndex, cursor.getId());
+            }
+
+            // Fetch one additional consent to determine whether there is a next page
+            searchConsentsPreparedStmt.setInt(++parameterIndex, limit + 1);
+
+            ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
+
+            try (ResultSet resultSet = searchConsentsPreparedStmt.executeQuery()) {
+                detailedConsentResources = constructDetailedConsentsSearchResult(resultSet);
+            }
+
+            ConsentSearchCursor nextCursor = null;
+            if (detailedConsentResources.size() > limit) {
+                detailedConsentResources = new ArrayList<>(detailedConsentResources.subList(0, limit));
+                DetailedConsentResource lastConsent = detailedConsentResources.get(limit - 1);
+                nextCursor = new ConsentSearchCursor(lastConsent.getUpdatedTime(), lastConsent.getConsentID());
+            }
+            return new ConsentSearchPage<>(detailedConsentResources, nextCursor);
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(searchConsentsPreparedStatement,
+    //                  ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+    // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
+    // Suppressed warning count - 1
+    public int streamConsents(Connection connection, ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                              ArrayList<String> consentTypes, ArrayList<String> consentStatuses,
+                              ArrayList<String> userIDs, Long fromTime, Long toTime, int fetchSize,
+                              Consumer<DetailedConsentResource> consumer)
+            throws ConsentDataRetrievalException {
+
+        int parameterIndex = 0;
+        int streamedConsentCount = 0;
+        Map<String, ArrayList<String>> applicableConditionsMap = new HashMap<>();
+
+        validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
+
+        Map<String, ArrayList<String>> userIdMap = new HashMap<>();
+        if (CollectionUtils.isNotEmpty(userIDs)) {
+            userIdMap.put(getSearchColumnsMap().get(ConsentMgtDAOConstants.USER_IDS), userIDs);
+        }
+
+        log.debug("Constructing the prepared statement to stream consents");
+        ConsentSearchQuery searchQuery = getConsentSearchQuery("searchConsents:false:false", applicableConditionsMap,
+                userIdMap, (constructedConditions, userIDFilterCondition) ->
+                        sqlStatements.getSearchConsentsPreparedStatement(constructedConditions, false, false,
+                                userIDFilterCondition));
+
+        try (PreparedStatement searchConsentsPreparedStmt =
+                     connection.prepareStatement(searchQuery.getQuery(), ResultSet.TYPE_FORWARD_ONLY,
+                             ResultSet.CONCUR_READ_ONLY)) {
+
+            log.debug("Setting parameters to prepared statement to stream consents");
+
+            parameterIndex = setSearchConditionParameters(searchConsentsPreparedStmt, searchQuery,
+                    applicableConditionsMap, userIdMap, parameterIndex);
+
+            if (fromTime != null) {
+                searchConsentsPreparedStmt.setLong(++parameterIndex, fromTime);
+            } else {
+                searchConsentsPreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            if (toTime != null) {
+                searchConsentsPreparedStmt.setLong(++parameterIndex, toTime);
+            } else {
+                searchConsentsPreparedStmt.setNull(++parameterIndex, Types.BIGINT);
+            }
+
+            if (fetchSize > 0) {
+                searchConsentsPreparedStmt.setFetchSize(sqlStatements.getStreamingFetchSize(fetchSize));
+            }
+
+            try (ResultSet resultSet = searchConsentsPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(constructDetailedConsentSearchResult(resultSet));
+                    streamedConsentCount++;
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Streamed %d consents", streamedConsentCount));
+        }
+        return streamedConsentCount;
+    }
+
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(searchAuthorizationResourcesPrepStatement)
+    // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
+    // Suppressed warning count - 1
+    public ArrayList<AuthorizationResource> searchConsentAuthorizations(Connection connection, String consentID,
+                                                                        String userID)
+            throws ConsentDataRetrievalException {
+
+        ArrayList<AuthorizationResource> retrievedAuthorizationResources = new ArrayList<>();
+        Map<String, String> conditions = new HashMap<>();
+        if (StringUtils.trimToNull(consentID) != null) {
+            conditions.put("CONSENT_ID", consentID);
+        }
+        if (StringUtils.trimToNull(userID) != null) {
+            conditions.put("USER_ID", userID);
+        }
+        String whereClause = ConsentManagementDAOUtil.constructAuthSearchPreparedStatement(conditions);
+        String searchAuthorizationResourcesPrepStatement =
+                sqlStatements.getSearchAuthorizationResourcesPreparedStatement(whereClause);
+
+        try (PreparedStatement getSearchAuthorizationResourcesPreparedStmt =
+                     connection.prepareStatement(searchAuthorizationResourcesPrepStatement)) {
+
+            if (log.isDebugEnabled()) {
+                log.debug("Setting parameters to prepared statement to search authorization resources");
+            }
+
+            Iterator<Map.Entry<String, String>> conditionIterator = conditions.entrySet().iterator();
+
+            for (int count = 1; count <= conditions.size(); count++) {
+                getSearchAuthorizationResourcesPreparedStmt.setString(count, conditionIterator.next().getValue());
+            }
+
+            try (ResultSet resultSet = getSearchAuthorizationResourcesPreparedStmt.executeQuery()) {
+                if (resultSet.isBeforeFirst()) {
+                    while (resultSet.next()) {
+                        AuthorizationResource authorizationResource = new AuthorizationResource();
+                        authorizationResource
+                                .setAuthorizationID(resultSet.getString(ConsentMgtDAOConstants.AUTH_ID));
+                        authorizationResource.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                        authorizationResource
+                                .setUserID(resultSet.getString(ConsentMgtDAOConstants.USER_ID));
+                        authorizationResource.setAuthorizationStatus(resultSet
+                                .getString(ConsentMgtDAOConstants.AUTH_STATUS));
+                        authorizationResource
+                                .setAuthorizationType(resultSet.getString(ConsentMgtDAOConstants.AUTH_TYPE));
+                        authorizationResource.setUpdatedTime(resultSet.getLong(ConsentMgtDAOConstants.UPDATED_TIME));
+                        retrievedAuthorizationResources.add(authorizationResource);
+                    }
+                } else {
+                    log.error("No records are found for the provided inputs");
+                    throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.NO_RECORDS_FOUND_ERROR_MSG);
+                }
+            } catch (SQLException e) {
+                log.error("Error occurred while searching authorization resources", e);
+                throw new ConsentDataRetrievalException(ConsentMgtDAOConstants
+                        .CONSENT_AUTHORIZATION_RESOURCE_RETRIEVE_ERROR_MSG, e);
+            }
+            log.debug("Retrieved the authorization resources successfully");
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_AUTHORIZATION_RESOURCE_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants
+                    .CONSENT_AUTHORIZATION_RESOURCE_RETRIEVE_ERROR_MSG, e);
+        }
+        return retrievedAuthorizationResources;
+    }
+
+    @Override
+    public ConsentStatusAuditRecord storeConsentStatusAuditRecord(Connection connection,
+                                                                  ConsentStatusAuditRecord consentStatusAuditRecord)
+            throws ConsentDataInsertionException {
+
+        int result;
+        String statusAuditID = StringUtils.isEmpty(consentStatusAuditRecord.getStatusAuditID()) ?
+                UUID.randomUUID().toString() : consentStatusAuditRecord.getStatusAuditID();
+        // Unix time in seconds
+        long actionTime = (consentStatusAuditRecord.getActionTime() == 0) ? System.currentTimeMillis() / 1000 :
+                consentStatusAuditRecord.getActionTime();
+
+        String storeConsentStatusAuditRecordPrepStatement =
+                sqlStatements.getStoreConsentStatusAuditRecordPreparedStatement();
+
+        try (PreparedStatement storeConsentStatusAuditRecordPreparedStmt =
+                     connection.prepareStatement(storeConsentStatusAuditRecordPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to store consent audit record");
+
+            storeConsentStatusAuditRecordPreparedStmt.setString(1, statusAuditID);
+            storeConsentStatusAuditRecordPreparedStmt.setString(2, consentStatusAuditRecord
+                    .getConsentID());
+            storeConsentStatusAuditRecordPreparedStmt.setString(3, consentStatusAuditRecord
+                    .getCurrentStatus());
+            storeConsentStatusAuditRecordPreparedStmt.setLong(4, actionTime);
+            storeConsentStatusAuditRecordPreparedStmt.setString(5, consentStatusAuditRecord.getReason());
+            storeConsentStatusAuditRecordPreparedStmt.setString(6, consentStatusAuditRecord
+                    .getActionBy());
+            storeConsentStatusAuditRecordPreparedStmt.setString(7, consentStatusAuditRecord
+                    .getPreviousStatus());
+
+            // with result, we can determine whether the insertion was successful or not
+            result = storeConsentStatusAuditRecordPreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+            throw new ConsentDataInsertionException(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+        }
+
+        // Confirm that the data are inserted successfully
+        if (result > 0) {
+            log.debug("Stored the consent status audit record successfully");
+            consentStatusAuditRecord.setStatusAuditID(statusAuditID);
+            consentStatusAuditRecord.setActionTime(actionTime);
+            return consentStatusAuditRecord;
+        } else {
+            throw new ConsentDataInsertionException("Failed to store consent status audit record data properly.");
+        }
+    }
+
+    @Override
+    public ArrayList<ConsentStatusAuditRecord> storeConsentStatusAuditRecords(Connection connection,
+                                                   ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords)
+            throws ConsentDataInsertionException {
+
+        int[] result;
+        // Unix time in seconds
+        long currentTime = System.currentTimeMillis() / 1000;
+        String storeConsentStatusAuditRecordPrepStatement =
+                sqlStatements.getStoreConsentStatusAuditRecordPreparedStatement();
+
+        try (PreparedStatement storeConsentStatusAuditRecordPreparedStmt =
+                     connection.prepareStatement(storeConsentStatusAuditRecordPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to store consent audit records");
+
+            List<int[]> batchResults = new ArrayList<>();
+            int batchedRows = 0;
+            for (ConsentStatusAuditRecord consentStatusAuditRecord : consentStatusAuditRecords) {
+                if (StringUtils.isEmpty(consentStatusAuditRecord.getStatusAuditID())) {
+                    consentStatusAuditRecord.setStatusAuditID(UUID.randomUUID().toString());
+                }
+                if (consentStatusAuditRecord.getActionTime() == 0) {
+                    consentStatusAuditRecord.setActionTime(currentTime);
+                }
+                storeConsentStatusAuditRecordPreparedStmt.setString(1, consentStatusAuditRecord.getStatusAuditID());
+                storeConsentStatusAuditRecordPreparedStmt.setString(2, consentStatusAuditRecord.getConsentID());
+                storeConsentStatusAuditRecordPreparedStmt.setString(3, consentStatusAuditRecord.getCurrentStatus());
+                storeConsentStatusAuditRecordPreparedStmt.setLong(4, consentStatusAuditRecord.getActionTime());
+                storeConsentStatusAuditRecordPreparedStmt.setString(5, consentStatusAuditRecord.getReason());
+                storeConsentStatusAuditRecordPreparedStmt.setString(6, consentStatusAuditRecord.getActionBy());
+                storeConsentStatusAuditRecordPreparedStmt.setString(7, consentStatusAuditRecord.getPreviousStatus());
+                addToBatch(storeConsentStatusAuditRecordPreparedStmt, ++batchedRows, batchResults);
+            }
+
+            // with result, we can determine whether the insertion was successful or not
+            result = executeRemainingBatch(storeConsentStatusAuditRecordPreparedStmt, batchedRows, batchResults);
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+            throw new ConsentDataInsertionException(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+        }
+
+        // An empty array or an array with value -3 means the batch execution is failed
+        if (result.length != 0 && IntStream.of(result).noneMatch(value -> value == -3)) {
+            log.debug("Stored the consent status audit records successfully");
+            return consentStatusAuditRecords;
+        } else {
+            throw new ConsentDataInsertionException("Failed to store consent status audit records properly.");
+        }
+    }
+
+    @Override
+    public ArrayList<ConsentStatusAuditRecord> getConsentStatusAuditRecords(Connection connection, String consentID,
+                                                                            String currentStatus, String actionBy,
+                                                                            Long fromTime, Long toTime,
+                                                                            String statusAuditID)
+            throws ConsentDataRetrievalException {
+
+        ArrayList<ConsentStatusAuditRecord> retrievedAuditRecords = new ArrayList<>();
+        String getConsentStatusAuditRecordsPrepStatement =
+                sqlStatements.getGetConsentStatusAuditRecordsPreparedStatement();
+
+        try (PreparedStatement getConsentStatusAuditRecordPreparedStmt =
+                     connection.prepareStatement(getConsentStatusAuditRecordsPrepStatement)) {
+
+            if (log.isDebugEnabled()) {
+                log.debug("Setting parameters to prepared statement to retrieve consent status audit records");
+            }
 
             // consentID
             if (StringUtils.trimToNull(consentID) != null) {
@@ -1339,7 +1941,64 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
             log.error(ConsentMgtDAOConstants.AUDIT_RECORDS_RETRIEVE_ERROR_MSG, e);
             throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.AUDIT_RECORDS_RETRIEVE_ERROR_MSG, e);
         }
-        return retrievedAuditRecords;
+        return retrievedAuditRecords;
+    }
+
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(getConsentStatusAuditRecordsPrepStatement)
+    // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
+    // Suppressed warning count - 1
+    public ConsentSearchPage<ConsentStatusAuditRecord> getConsentStatusAuditRecordsByCursor(Connection connection,
+                                                                                            ArrayList<String>
+                                                                                                    consentIDs,
+                                                                                            int limit,
+                                                                                            ConsentSearchCursor cursor)
+            throws ConsentDataRetrievalException {
+
+        int parameterIndex = 0;
+        ArrayList<ConsentStatusAuditRecord> retrievedAuditRecords = new ArrayList<>();
+        String constructedConditions =
+                ConsentManagementDAOUtil.constructConsentAuditRecordSearchPreparedStatement(consentIDs);
+
+        String getConsentStatusAuditRecordsPrepStatement =
+                sqlStatements.getConsentStatusAuditRecordsByCursorPreparedStatement(constructedConditions,
+                        cursor != null);
+
+        try (PreparedStatement getConsentStatusAuditRecordPreparedStmt =
+                     connection.prepareStatement(getConsentStatusAuditRecordsPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to retrieve consent status audit records by cursor");
+            if (!CollectionUtils.isEmpty(consentIDs)) {
+                for (String consentId : consentIDs) {
+                    getConsentStatusAuditRecordPreparedStmt.setString(++parameterIndex, consentId);
+                }
+            }
+            if (cursor != null) {
+                getConsentStatusAuditRecordPreparedStmt.setLong(++parameterIndex, cursor.getTimestamp());
+                getConsentStatusAuditRecordPreparedStmt.setLong(++parameterIndex, cursor.getTimestamp());
+                getConsentStatusAuditRecordPreparedStmt.setString(++parameterIndex, cursor.getId());
+            }
+            // Fetch one additional record to determine whether there is a next page
+            getConsentStatusAuditRecordPreparedStmt.setInt(++parameterIndex, limit + 1);
+
+            try (ResultSet resultSet = getConsentStatusAuditRecordPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    retrievedAuditRecords.add(ConsentManagementDAOUtil.getConsentStatusAuditRecordWithData(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.AUDIT_RECORDS_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.AUDIT_RECORDS_RETRIEVE_ERROR_MSG, e);
+        }
+
+        ConsentSearchCursor nextCursor = null;
+        if (retrievedAuditRecords.size() > limit) {
+            retrievedAuditRecords = new ArrayList<>(retrievedAuditRecords.subList(0, limit));
+            ConsentStatusAuditRecord lastRecord = retrievedAuditRecords.get(limit - 1);
+            nextCursor = new ConsentSearchCursor(lastRecord.getActionTime(), lastRecord.getStatusAuditID());
+        }
+        return new ConsentSearchPage<>(retrievedAuditRecords, nextCursor);
     }
 
     @Override
@@ -1385,6 +2044,54 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
     }
 
 
+    @Override
+    public boolean storeConsentAmendmentHistoryBatch(Connection connection, String historyID, long timestamp,
+                             String consentDataType, Map<String, String> changedAttributesJsonStrings,
+                             String amendmentReason) throws ConsentDataInsertionException {
+
+        String tableID = ConsentManagementDAOUtil.generateConsentTableId(consentDataType.replaceAll("[\r\n]", ""));
+
+        int[] result;
+        String insertConsentHistoryPrepStatement = sqlStatements.getInsertConsentHistoryPreparedStatement();
+
+        try (PreparedStatement insertConsentHistoryPreparedStmt =
+                     connection.prepareStatement(insertConsentHistoryPrepStatement)) {
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Setting parameters to prepared statement to store consent amendment history " +
+                        "of %s for %d records", consentDataType.replaceAll("[\r\n]", ""),
+                        changedAttributesJsonStrings.size()));
+            }
+
+            List<int[]> batchResults = new ArrayList<>();
+            int batchedRows = 0;
+            for (Map.Entry<String, String> changedAttributesJsonString : changedAttributesJsonStrings.entrySet()) {
+                insertConsentHistoryPreparedStmt.setString(1, tableID);
+                insertConsentHistoryPreparedStmt.setString(2, changedAttributesJsonString.getKey());
+                insertConsentHistoryPreparedStmt.setString(3, historyID);
+                insertConsentHistoryPreparedStmt.setString(4, changedAttributesJsonString.getValue());
+                insertConsentHistoryPreparedStmt.setString(5, amendmentReason);
+                insertConsentHistoryPreparedStmt.setLong(6, timestamp);
+                addToBatch(insertConsentHistoryPreparedStmt, ++batchedRows, batchResults);
+            }
+
+            // with result, we can determine whether the insertion was successful or not
+            result = executeRemainingBatch(insertConsentHistoryPreparedStmt, batchedRows, batchResults);
+        } catch (SQLException e) {
+            log.error("Error while storing consent amendment history", e);
+            throw new ConsentDataInsertionException(String.format("Error while storing consent amendment history of" +
+                    " %s", consentDataType), e);
+        }
+
+        // An empty array or an array with value -3 means the batch execution is failed
+        if (result.length != 0 && IntStream.of(result).noneMatch(value -> value == -3)) {
+            return true;
+        } else {
+            log.error("Failed to store consent amendment history data.");
+            throw new ConsentDataInsertionException("Failed to store consent amendment history data properly.");
+        }
+    }
+
     @Override
     @SuppressFBWarnings("SQL_INJECTION_JDBC")
     // Suppressed content - connection.prepareStatement(getConsentHistoryPrepStatement)
@@ -1485,6 +2192,496 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_JDBC")
+    // Suppressed content - connection.prepareStatement(expiringConsentStatement)
+    // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
+    // Suppressed warning count - 1
+    public ArrayList<DetailedConsentResource> getExpiringConsents(Connection connection,
+                                                                  String statusesEligibleForExpiration,
+                                                                  long expiryTime, String afterConsentID, int limit)
+            throws ConsentDataRetrievalException {
+
+        List<String> statusesEligibleForExpirationList = Arrays.stream(statusesEligibleForExpiration
+                        .split(",")).filter(status -> !status.isEmpty())
+                .collect(Collectors.toList());
+
+        boolean hasCursor = StringUtils.isNotEmpty(afterConsentID);
+        String statusesEligibleForExpirationCondition = ConsentManagementDAOUtil
+                .constructStatusesEligibleForExpirationCondition(statusesEligibleForExpirationList);
+        String expiringConsentStatement = sqlStatements.getSearchExpiringConsentBatchPreparedStatement(
+                statusesEligibleForExpirationCondition, hasCursor);
+
+        ArrayList<String> consentIdList = new ArrayList<>();
+        try (PreparedStatement preparedStatement =
+                     connection.prepareStatement(expiringConsentStatement)) {
+
+            log.debug("Setting parameters to prepared statement to fetch a batch of consents eligible for expiration");
+
+            int parameterIndex = 0;
+            preparedStatement.setString(++parameterIndex, ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE);
+            for (String status : statusesEligibleForExpirationList) {
+                preparedStatement.setString(++parameterIndex, status);
+            }
+            preparedStatement.setString(++parameterIndex, String.valueOf(expiryTime));
+            preparedStatement.setString(++parameterIndex,
+                    ConsentManagementDAOUtil.getDateTimeExpirationTimeUpperBound(expiryTime));
+            if (hasCursor) {
+                preparedStatement.setString(++parameterIndex, afterConsentID);
+            }
+            preparedStatement.setInt(++parameterIndex, limit);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    consentIdList.add(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.EXPIRING_CONSENT_SEARCH_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.EXPIRING_CONSENT_SEARCH_ERROR_MSG, e);
+        }
+
+        if (consentIdList.isEmpty()) {
+            log.debug("No consents found for expiration check eligibility.");
+            return new ArrayList<>();
+        }
+        return searchConsents(connection, consentIdList, null, null, null, null, null, null, null, null);
+    }
+
+    @Override
+    public ArrayList<String> updateConsentStatuses(Connection connection,
+                                                   ArrayList<DetailedConsentResource> consentResources,
+                                                   String newConsentStatus)
+            throws ConsentDataUpdationException {
+
+        int[] result;
+        // Unix time in seconds
+        long updatedTime = System.currentTimeMillis() / 1000;
+        String updateConsentStatusesPrepStatement = sqlStatements.getUpdateConsentStatusesPreparedStatement();
+
+        try (PreparedStatement updateConsentStatusesPreparedStmt =
+                     connection.prepareStatement(updateConsentStatusesPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to update consent statuses");
+
+            for (DetailedConsentResource consentResource : consentResources) {
+                updateConsentStatusesPreparedStmt.setString(1, newConsentStatus);
+                updateConsentStatusesPreparedStmt.setLong(2, updatedTime);
+                updateConsentStatusesPreparedStmt.setString(3, consentResource.getConsentID());
+                updateConsentStatusesPreparedStmt.setString(4, consentResource.getCurrentStatus());
+                updateConsentStatusesPreparedStmt.addBatch();
+            }
+
+            // with result, we can determine whether the updating was successful or not
+            result = updateConsentStatusesPreparedStmt.executeBatch();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_STATUS_UPDATE_ERROR_MSG, e);
+            throw new ConsentDataUpdationException(ConsentMgtDAOConstants.CONSENT_STATUS_UPDATE_ERROR_MSG, e);
+        }
+
+        // An empty array or an array with value -3 means the batch execution is failed
+        if (result.length != consentResources.size() || IntStream.of(result).anyMatch(value -> value == -3)) {
+            throw new ConsentDataUpdationException("Failed to update consent statuses properly.");
+        }
+
+        // A value of -2 means the driver does not report the update count, the consent is considered as updated
+        ArrayList<String> updatedConsentIDs = new ArrayList<>();
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != 0) {
+                updatedConsentIDs.add(consentResources.get(i).getConsentID());
+            }
+        }
+        log.debug("Updated the consent statuses of matching records successfully");
+        return updatedConsentIDs;
+    }
+
+    @Override
+    public boolean acquireConsentLease(Connection connection, String leaseName, String ownerID, long expiryTime)
+            throws ConsentDataUpdationException {
+
+        // Unix time in seconds
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        try (PreparedStatement updateConsentLeasePreparedStmt =
+                     connection.prepareStatement(sqlStatements.getUpdateConsentLeasePreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to acquire consent lease");
+
+            updateConsentLeasePreparedStmt.setString(1, ownerID);
+            updateConsentLeasePreparedStmt.setLong(2, expiryTime);
+            updateConsentLeasePreparedStmt.setString(3, leaseName);
+            updateConsentLeasePreparedStmt.setString(4, ownerID);
+            updateConsentLeasePreparedStmt.setLong(5, currentTime);
+
+            if (updateConsentLeasePreparedStmt.executeUpdate() > 0) {
+                return true;
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_LEASE_UPDATE_ERROR_MSG, e);
+            throw new ConsentDataUpdationException(ConsentMgtDAOConstants.CONSENT_LEASE_UPDATE_ERROR_MSG, e);
+        }
+
+        // The lease is either held by another owner or does not exist yet, so try to create it
+        try (PreparedStatement storeConsentLeasePreparedStmt =
+                     connection.prepareStatement(sqlStatements.getStoreConsentLeasePreparedStatement())) {
+
+            storeConsentLeasePreparedStmt.setString(1, leaseName);
+            storeConsentLeasePreparedStmt.setString(2, ownerID);
+            storeConsentLeasePreparedStmt.setLong(3, expiryTime);
+            return storeConsentLeasePreparedStmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            // Integrity constraint violations mean that the lease is already created and held by another owner
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                log.debug("Consent lease is held by another owner");
+                return false;
+            }
+            log.error(ConsentMgtDAOConstants.CONSENT_LEASE_UPDATE_ERROR_MSG, e);
+            throw new ConsentDataUpdationException(ConsentMgtDAOConstants.CONSENT_LEASE_UPDATE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public void releaseConsentLease(Connection connection, String leaseName, String ownerID)
+            throws ConsentDataUpdationException {
+
+        try (PreparedStatement releaseConsentLeasePreparedStmt =
+                     connection.prepareStatement(sqlStatements.getReleaseConsentLeasePreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to release consent lease");
+
+            releaseConsentLeasePreparedStmt.setString(1, leaseName);
+            releaseConsentLeasePreparedStmt.setString(2, ownerID);
+            releaseConsentLeasePreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_LEASE_UPDATE_ERROR_MSG, e);
+            throw new ConsentDataUpdationException(ConsentMgtDAOConstants.CONSENT_LEASE_UPDATE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public ArrayList<TokenRevocationRecord> storeTokenRevocationRecords(Connection connection,
+                                                    ArrayList<TokenRevocationRecord> tokenRevocationRecords)
+            throws ConsentDataInsertionException {
+
+        int[] result;
+        // Unix time in seconds
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        try (PreparedStatement storeTokenRevocationPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getStoreTokenRevocationRecordPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to store token revocations");
+
+            List<int[]> batchResults = new ArrayList<>();
+            int batchedRows = 0;
+            for (TokenRevocationRecord tokenRevocationRecord : tokenRevocationRecords) {
+                if (StringUtils.isEmpty(tokenRevocationRecord.getRevocationID())) {
+                    tokenRevocationRecord.setRevocationID(UUID.randomUUID().toString());
+                }
+                tokenRevocationRecord.setAttemptCount(0);
+                tokenRevocationRecord.setNextAttemptTime(currentTime);
+                tokenRevocationRecord.setCreatedTime(currentTime);
+                storeTokenRevocationPreparedStmt.setString(1, tokenRevocationRecord.getRevocationID());
+                storeTokenRevocationPreparedStmt.setString(2, tokenRevocationRecord.getConsentID());
+                storeTokenRevocationPreparedStmt.setString(3, tokenRevocationRecord.getClientID());
+                storeTokenRevocationPreparedStmt.setString(4, tokenRevocationRecord.getUserID());
+                storeTokenRevocationPreparedStmt.setInt(5, tokenRevocationRecord.getAttemptCount());
+                storeTokenRevocationPreparedStmt.setLong(6, tokenRevocationRecord.getNextAttemptTime());
+                storeTokenRevocationPreparedStmt.setLong(7, tokenRevocationRecord.getCreatedTime());
+                addToBatch(storeTokenRevocationPreparedStmt, ++batchedRows, batchResults);
+            }
+
+            // with result, we can determine whether the insertion was successful or not
+            result = executeRemainingBatch(storeTokenRevocationPreparedStmt, batchedRows, batchResults);
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.TOKEN_REVOCATION_STORE_ERROR_MSG, e);
+            throw new ConsentDataInsertionException(ConsentMgtDAOConstants.TOKEN_REVOCATION_STORE_ERROR_MSG, e);
+        }
+
+        // An empty array or an array with value -3 means the batch execution is failed
+        if (result.length != 0 && IntStream.of(result).noneMatch(value -> value == -3)) {
+            log.debug("Stored the token revocations successfully");
+            return tokenRevocationRecords;
+        } else {
+            throw new ConsentDataInsertionException("Failed to store token revocations properly.");
+        }
+    }
+
+    @Override
+    public ArrayList<TokenRevocationRecord> getDueTokenRevocationRecords(Connection connection, long currentTime,
+                                                                         int maxAttempts, int limit)
+            throws ConsentDataRetrievalException {
+
+        ArrayList<TokenRevocationRecord> tokenRevocationRecords = new ArrayList<>();
+
+        try (PreparedStatement getDueTokenRevocationsPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getSearchDueTokenRevocationRecordsPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to retrieve due token revocations");
+
+            getDueTokenRevocationsPreparedStmt.setLong(1, currentTime);
+            getDueTokenRevocationsPreparedStmt.setInt(2, maxAttempts);
+            getDueTokenRevocationsPreparedStmt.setInt(3, limit);
+
+            try (ResultSet resultSet = getDueTokenRevocationsPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    TokenRevocationRecord tokenRevocationRecord = new TokenRevocationRecord();
+                    tokenRevocationRecord.setRevocationID(resultSet.getString(ConsentMgtDAOConstants.REVOCATION_ID));
+                    tokenRevocationRecord.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                    tokenRevocationRecord.setClientID(resultSet.getString(ConsentMgtDAOConstants.CLIENT_ID));
+                    tokenRevocationRecord.setUserID(resultSet.getString(ConsentMgtDAOConstants.USER_ID));
+                    tokenRevocationRecord.setAttemptCount(resultSet.getInt(ConsentMgtDAOConstants.ATTEMPT_COUNT));
+                    tokenRevocationRecord.setNextAttemptTime(
+                            resultSet.getLong(ConsentMgtDAOConstants.NEXT_ATTEMPT_TIME));
+                    tokenRevocationRecord.setCreatedTime(resultSet.getLong(ConsentMgtDAOConstants.CREATED_TIME));
+                    tokenRevocationRecord.setLastError(resultSet.getString(ConsentMgtDAOConstants.LAST_ERROR));
+                    tokenRevocationRecords.add(tokenRevocationRecord);
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.TOKEN_REVOCATION_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.TOKEN_REVOCATION_RETRIEVE_ERROR_MSG, e);
+        }
+        return tokenRevocationRecords;
+    }
+
+    @Override
+    public boolean claimTokenRevocationRecord(Connection connection, TokenRevocationRecord tokenRevocationRecord,
+                                              long nextAttemptTime) throws ConsentDataUpdationException {
+
+        try (PreparedStatement claimTokenRevocationPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getClaimTokenRevocationRecordPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to claim token revocation");
+
+            claimTokenRevocationPreparedStmt.setLong(1, nextAttemptTime);
+            claimTokenRevocationPreparedStmt.setString(2, tokenRevocationRecord.getRevocationID());
+            claimTokenRevocationPreparedStmt.setLong(3, tokenRevocationRecord.getNextAttemptTime());
+
+            if (claimTokenRevocationPreparedStmt.executeUpdate() > 0) {
+                tokenRevocationRecord.setNextAttemptTime(nextAttemptTime);
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.TOKEN_REVOCATION_UPDATE_ERROR_MSG, e);
+            throw new ConsentDataUpdationException(ConsentMgtDAOConstants.TOKEN_REVOCATION_UPDATE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public void updateTokenRevocationRecordAttempt(Connection connection, String revocationID, int attemptCount,
+                                                   long nextAttemptTime, String lastError)
+            throws ConsentDataUpdationException {
+
+        try (PreparedStatement updateTokenRevocationPreparedStmt = connection.prepareStatement(
+                sqlStatements.getUpdateTokenRevocationRecordAttemptPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to update token revocation attempt");
+
+            updateTokenRevocationPreparedStmt.setInt(1, attemptCount);
+            updateTokenRevocationPreparedStmt.setLong(2, nextAttemptTime);
+            updateTokenRevocationPreparedStmt.setString(3, StringUtils.abbreviate(lastError, 1024));
+            updateTokenRevocationPreparedStmt.setString(4, revocationID);
+            updateTokenRevocationPreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.TOKEN_REVOCATION_UPDATE_ERROR_MSG, e);
+            throw new ConsentDataUpdationException(ConsentMgtDAOConstants.TOKEN_REVOCATION_UPDATE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public void deleteTokenRevocationRecord(Connection connection, String revocationID)
+            throws ConsentDataDeletionException {
+
+        try (PreparedStatement deleteTokenRevocationPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getDeleteTokenRevocationRecordPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to delete token revocation");
+
+            deleteTokenRevocationPreparedStmt.setString(1, revocationID);
+            deleteTokenRevocationPreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.TOKEN_REVOCATION_DELETE_ERROR_MSG, e);
+            throw new ConsentDataDeletionException(ConsentMgtDAOConstants.TOKEN_REVOCATION_DELETE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public int countPendingTokenRevocationRecords(Connection connection, int maxAttempts)
+            throws ConsentDataRetrievalException {
+
+        try (PreparedStatement countTokenRevocationsPreparedStmt = connection.prepareStatement(
+                sqlStatements.getCountPendingTokenRevocationRecordsPreparedStatement())) {
+
+            countTokenRevocationsPreparedStmt.setInt(1, maxAttempts);
+            try (ResultSet resultSet = countTokenRevocationsPreparedStmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.TOKEN_REVOCATION_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.TOKEN_REVOCATION_RETRIEVE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public IdempotencyKeyRecord storeIdempotencyKeyRecord(Connection connection,
+                                                          IdempotencyKeyRecord idempotencyKeyRecord)
+            throws ConsentDataInsertionException {
+
+        int result;
+        // Unix time in seconds
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        try (PreparedStatement storeIdempotencyKeyPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getStoreIdempotencyKeyRecordPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to store idempotency key");
+
+            storeIdempotencyKeyPreparedStmt.setString(1, idempotencyKeyRecord.getClientID());
+            storeIdempotencyKeyPreparedStmt.setString(2, idempotencyKeyRecord.getIdempotencyKey());
+            storeIdempotencyKeyPreparedStmt.setString(3, idempotencyKeyRecord.getConsentID());
+            storeIdempotencyKeyPreparedStmt.setString(4, idempotencyKeyRecord.getPayloadHash());
+            storeIdempotencyKeyPreparedStmt.setLong(5, currentTime);
+
+            // with result, we can determine whether the insertion was successful or not
+            result = storeIdempotencyKeyPreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_STORE_ERROR_MSG, e);
+            throw new ConsentDataInsertionException(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_STORE_ERROR_MSG, e);
+        }
+
+        if (result > 0) {
+            log.debug("Stored the idempotency key successfully");
+            idempotencyKeyRecord.setCreatedTime(currentTime);
+            return idempotencyKeyRecord;
+        } else {
+            throw new ConsentDataInsertionException("Failed to store the idempotency key properly.");
+        }
+    }
+
+    @Override
+    public IdempotencyKeyRecord getIdempotencyKeyRecord(Connection connection, String clientID,
+                                                        String idempotencyKey)
+            throws ConsentDataRetrievalException {
+
+        try (PreparedStatement getIdempotencyKeyPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getGetIdempotencyKeyRecordPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to retrieve idempotency key");
+
+            getIdempotencyKeyPreparedStmt.setString(1, clientID);
+            getIdempotencyKeyPreparedStmt.setString(2, idempotencyKey);
+
+            try (ResultSet resultSet = getIdempotencyKeyPreparedStmt.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                IdempotencyKeyRecord idempotencyKeyRecord = new IdempotencyKeyRecord();
+                idempotencyKeyRecord.setClientID(resultSet.getString(ConsentMgtDAOConstants.CLIENT_ID));
+                idempotencyKeyRecord.setIdempotencyKey(resultSet.getString(ConsentMgtDAOConstants.IDEMPOTENCY_KEY));
+                idempotencyKeyRecord.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                idempotencyKeyRecord.setPayloadHash(resultSet.getString(ConsentMgtDAOConstants.PAYLOAD_HASH));
+                idempotencyKeyRecord.setCreatedTime(resultSet.getLong(ConsentMgtDAOConstants.CREATED_TIME));
+                return idempotencyKeyRecord;
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentDataRetrievalException(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_RETRIEVE_ERROR_MSG, e);
+        }
+    }
+
+    @Override
+    public int deleteExpiredIdempotencyKeyRecords(Connection connection, long createdBefore)
+            throws ConsentDataDeletionException {
+
+        try (PreparedStatement deleteIdempotencyKeysPreparedStmt = connection.prepareStatement(
+                sqlStatements.getDeleteExpiredIdempotencyKeyRecordsPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to delete expired idempotency keys");
+
+            deleteIdempotencyKeysPreparedStmt.setLong(1, createdBefore);
+            return deleteIdempotencyKeysPreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_DELETE_ERROR_MSG, e);
+            throw new ConsentDataDeletionException(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_DELETE_ERROR_MSG, e);
+        }
+    }
+
+    /**
+     * Get the compiled consent search query for the shape of the search conditions from the search query registry
+     * of the DAO, constructing it with the given query builder on the first search of the shape.
+     *
+     * @param queryName                 name of the query, including the options which change the query text
+     * @param applicableConditionsMap   applicable consent search conditions
+     * @param userIdMap                 user IDs to filter by
+     * @param queryBuilder              builds the query from the search conditions and the user ID filter condition
+     * @return compiled consent search query
+     */
+    ConsentSearchQuery getConsentSearchQuery(String queryName, Map<String, ArrayList<String>> applicableConditionsMap,
+                                             Map<String, ArrayList<String>> userIdMap,
+                                             BiFunction<String, String, String> queryBuilder) {
+
+        return searchQueryRegistry.getQuery(queryName, applicableConditionsMap, userIdMap,
+                sqlStatements.getConsentIDSetBinding(), queryBuilder);
+    }
+
+    /**
+     * Set the consent search condition and user ID filter parameters to the prepared statement, in the order they
+     * appear in the consent search query of the database.
+     *
+     * @param preparedStatement         prepared statement
+     * @param searchQuery               compiled consent search query
+     * @param applicableConditionsMap   applicable consent search conditions
+     * @param userIdMap                 user IDs to filter by
+     * @param parameterIndex            index of the last parameter set
+     * @return index of the last parameter set
+     * @throws SQLException thrown if an error occurs when setting the parameters
+     */
+    int setSearchConditionParameters(PreparedStatement preparedStatement, ConsentSearchQuery searchQuery,
+                                     Map<String, ArrayList<String>> applicableConditionsMap,
+                                     Map<String, ArrayList<String>> userIdMap, int parameterIndex)
+            throws SQLException {
+
+        return setConditionAndUserIDParameters(preparedStatement, searchQuery, applicableConditionsMap, userIdMap,
+                parameterIndex);
+    }
+
+    /**
+     * Set the consent search condition parameters followed by the user ID filter parameters to the prepared
+     * statement.
+     *
+     * @param preparedStatement         prepared statement
+     * @param searchQuery               compiled consent search query
+     * @param applicableConditionsMap   applicable consent search conditions
+     * @param userIdMap                 user IDs to filter by
+     * @param parameterIndex            index of the last parameter set
+     * @return index of the last parameter set
+     * @throws SQLException thrown if an error occurs when setting the parameters
+     */
+    final int setConditionAndUserIDParameters(PreparedStatement preparedStatement, ConsentSearchQuery searchQuery,
+                                              Map<String, ArrayList<String>> applicableConditionsMap,
+                                              Map<String, ArrayList<String>> userIdMap, int parameterIndex)
+            throws SQLException {
+
+        parameterIndex = ConsentManagementDAOUtil.setConsentSearchParameters(preparedStatement,
+                searchQuery.getConditionColumns(), applicableConditionsMap, ++parameterIndex,
+                sqlStatements.getConsentIDSetBinding());
+        parameterIndex = ConsentManagementDAOUtil.setConsentSearchParameters(preparedStatement,
+                searchQuery.getUserIDColumns(), userIdMap, parameterIndex, sqlStatements.getConsentIDSetBinding());
+        return parameterIndex - 1;
+    }
+
+    /**
+     * Get the column names used for the consent search conditions of the database.
+     *
+     * @return map of search parameters to column names
+     */
+    Map<String, String> getSearchColumnsMap() {
+
+        return ConsentMgtDAOConstants.COLUMNS_MAP;
+    }
+
     void validateAndSetSearchConditions(Map<String, ArrayList<String>> applicableConditionsMap,
                                         ArrayList<String> consentIDs, ArrayList<String> clientIDs,
                                         ArrayList<String> consentTypes, ArrayList<String> consentStatuses) {
@@ -1509,48 +2706,59 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
-    ArrayList<DetailedConsentResource> constructDetailedConsentsSearchResult(ResultSet resultSet, int resultSetSize)
+    ArrayList<DetailedConsentResource> constructDetailedConsentsSearchResult(ResultSet resultSet)
             throws SQLException {
 
         ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
 
         while (resultSet.next()) {
+            detailedConsentResources.add(constructDetailedConsentSearchResult(resultSet));
+        }
+        return detailedConsentResources;
+    }
 
-            Map<String, String> consentAttributesMap = new HashMap<>();
-            ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
-            ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
-            DetailedConsentResource detailedConsentResource = ConsentManagementDAOUtil
-                    .setConsentDataToDetailedConsentResource(resultSet);
-
-            // Set consent attributes to map if available
-            if (resultSet.getString(ConsentMgtDAOConstants.ATT_KEY) != null &&
-                    StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY))
-                    && StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE))) {
-                // fetch attribute keys and values from group_concat
-                String[] attributeKeys = resultSet.getString(ConsentMgtDAOConstants.ATT_KEY).split(GROUP_BY_SEPARATOR);
-                String[] attributeValues = resultSet
-                        .getString(ConsentMgtDAOConstants.ATT_VALUE).split(GROUP_BY_SEPARATOR);
-                // check if all attribute keys has values
-                if (attributeKeys.length == attributeValues.length) {
-                    for (int index = 0; index < attributeKeys.length; index++) {
-                        consentAttributesMap.put(attributeKeys[index], attributeValues[index]);
-                    }
+    /**
+     * Construct the detailed consent resource from the current row of the consent search result set. The result set
+     * is only read at its current position, so it can be a forward only result set.
+     *
+     * @param resultSet consent search result set positioned on a row
+     * @return the detailed consent resource
+     * @throws SQLException thrown if an error occurs when reading the result set
+     */
+    DetailedConsentResource constructDetailedConsentSearchResult(ResultSet resultSet) throws SQLException {
+
+        Map<String, String> consentAttributesMap = new HashMap<>();
+        ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+        ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
+        DetailedConsentResource detailedConsentResource = ConsentManagementDAOUtil
+                .setConsentDataToDetailedConsentResource(resultSet);
+
+        // Set consent attributes to map if available
+        if (resultSet.getString(ConsentMgtDAOConstants.ATT_KEY) != null &&
+                StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY))
+                && StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE))) {
+            // fetch attribute keys and values from group_concat
+            String[] attributeKeys = resultSet.getString(ConsentMgtDAOConstants.ATT_KEY).split(GROUP_BY_SEPARATOR);
+            String[] attributeValues = resultSet
+                    .getString(ConsentMgtDAOConstants.ATT_VALUE).split(GROUP_BY_SEPARATOR);
+            // check if all attribute keys has values
+            if (attributeKeys.length == attributeValues.length) {
+                for (int index = 0; index < attributeKeys.length; index++) {
+                    consentAttributesMap.put(attributeKeys[index], attributeValues[index]);
                 }
             }
-            // Set authorization data
-            setAuthorizationDataInResponseForGroupedQuery(authorizationResources, resultSet,
-                    detailedConsentResource.getConsentID());
-            // Set consent account mapping data if available
-            setAccountConsentMappingDataInResponse(consentMappingResources, resultSet);
-
-            detailedConsentResource.setConsentAttributes(consentAttributesMap);
-            detailedConsentResource.setAuthorizationResources(authorizationResources);
-            detailedConsentResource.setConsentMappingResources(consentMappingResources);
+        }
+        // Set authorization data
+        setAuthorizationDataInResponseForGroupedQuery(authorizationResources, resultSet,
+                detailedConsentResource.getConsentID());
+        // Set consent account mapping data if available
+        setAccountConsentMappingDataInResponse(consentMappingResources, resultSet);
 
-            detailedConsentResources.add(detailedConsentResource);
+        detailedConsentResource.setConsentAttributes(consentAttributesMap);
+        detailedConsentResource.setAuthorizationResources(authorizationResources);
+        detailedConsentResource.setConsentMappingResources(consentMappingResources);
 
-        }
-        return detailedConsentResources;
+        return detailedConsentResource;
     }
 
     protected void setAuthorizationDataInResponseForGroupedQuery(ArrayList<AuthorizationResource>
@@ -1636,4 +2844,41 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
             }
         }
     }
+
+    /**
+     * Add the current set of parameters of the prepared statement to its batch and execute the batch once it holds
+     * the configured batch size of rows.
+     *
+     * @param preparedStatement prepared statement
+     * @param batchedRows       number of rows added to the batch so far, including the current row
+     * @param batchResults      update counts of the executed batches
+     * @throws SQLException thrown if a database error occurs
+     */
+    private void addToBatch(PreparedStatement preparedStatement, int batchedRows, List<int[]> batchResults)
+            throws SQLException {
+
+        preparedStatement.addBatch();
+        if (batchedRows % batchSize == 0) {
+            batchResults.add(preparedStatement.executeBatch());
+        }
+    }
+
+    /**
+     * Execute the rows left in the batch of the prepared statement and return the update counts of all the
+     * executed batches.
+     *
+     * @param preparedStatement prepared statement
+     * @param batchedRows       total number of rows added to the batch
+     * @param batchResults      update counts of the batches executed so far
+     * @return update counts of all the batched rows
+     * @throws SQLException thrown if a database error occurs
+     */
+    private int[] executeRemainingBatch(PreparedStatement preparedStatement, int batchedRows,
+                                        List<int[]> batchResults) throws SQLException {
+
+        if (batchedRows % batchSize != 0) {
+            batchResults.add(preparedStatement.executeBatch());
+        }
+        return batchResults.stream().flatMapToInt(IntStream::of).toArray();
+    }
 }
@@ -29,6 +29,7 @@ import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtMssqlDBQueries;
+import org.wso2.bfsi.consent.management.dao.queries.ConsentSearchQuery;
 import org.wso2.bfsi.consent.management.dao.util.ConsentManagementDAOUtil;
 
 import java.sql.Connection;
@@ -70,7 +71,7 @@ public class MssqlConsentCoreDAOImpl extends ConsentCoreDAOImpl {
     @Override
     @SuppressFBWarnings("SQL_INJECTION_JDBC")
     // Suppressed content - connection.prepareStatement(searchConsentsPreparedStatement,
-    //                  ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_UPDATABLE)
+    //                  ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
     // Suppression reason - False Positive : Cannot bind variables separately as the query is complex
     // Suppressed warning count - 1
     public ArrayList<DetailedConsentResource> searchConsents(Connection connection, ArrayList<String> consentIDs,
@@ -81,57 +82,38 @@ public class MssqlConsentCoreDAOImpl extends ConsentCoreDAOImpl {
                                                              Long toTime, Integer limit, Integer offset)
             throws ConsentDataRetrievalException {
 
-        boolean shouldLimit = true;
-        boolean shouldOffset = true;
+        if (isTwoPhaseSearchEnabled()) {
+            return searchConsentsInTwoPhases(connection, consentIDs, clientIDs, consentTypes, consentStatuses,
+                    userIDs, fromTime, toTime, limit, offset);
+        }
+
+        // Don't limit if either of limit or offset is null
+        boolean shouldLimit = limit != null;
+        boolean shouldOffset = offset != null;
         int parameterIndex = 0;
         Map<String, ArrayList<String>> applicableConditionsMap = new HashMap<>();
 
         validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
 
-        if (limit == null) {
-            shouldLimit = false;
-        }
-        if (offset == null) {
-            shouldOffset = false;
-        }
-
-        // logic to set the prepared statement
-        String constructedConditions = ConsentManagementDAOUtil
-                .constructConsentSearchPreparedStatement(applicableConditionsMap);
-
-        String userIDFilterCondition = "";
         Map<String, ArrayList<String>> userIdMap = new HashMap<>();
         if (CollectionUtils.isNotEmpty(userIDs)) {
             userIdMap.put(COLUMNS_MAP.get(ConsentMgtDAOConstants.USER_IDS), userIDs);
-            userIDFilterCondition = ConsentManagementDAOUtil.constructUserIdListFilterCondition(userIdMap);
         }
-        String searchConsentsPreparedStatement =
-                sqlStatements.getSearchConsentsPreparedStatement(constructedConditions, shouldLimit,
-                        shouldOffset, userIDFilterCondition);
+
+        // logic to set the prepared statement
+        ConsentSearchQuery searchQuery = getConsentSearchQuery("searchConsents:" + shouldLimit + ":" + shouldOffset,
+                applicableConditionsMap, userIdMap, (constructedConditions, userIDFilterCondition) ->
+                        sqlStatements.getSearchConsentsPreparedStatement(constructedConditions, shouldLimit,
+                                shouldOffset, userIDFilterCondition));
 
         try (PreparedStatement searchConsentsPreparedStmt =
-                     connection.prepareStatement(searchConsentsPreparedStatement, ResultSet.TYPE_SCROLL_INSENSITIVE,
+                     connection.prepareStatement(searchQuery.getQuery(), ResultSet.TYPE_FORWARD_ONLY,
                              ResultSet.CONCUR_READ_ONLY)) {
 
-            /* Since we don't know the order of the set condition clauses, have to determine the order of them to set
-               the actual values to the  prepared statement */
-            Map<Integer, ArrayList<String>> orderedParamsMap = ConsentManagementDAOUtil
-                    .determineOrderOfParamsToSet(constructedConditions, applicableConditionsMap, COLUMNS_MAP);
-
             log.debug("Setting parameters to prepared statement to search consents");
 
-            //determine order of user Ids to set
-            if (CollectionUtils.isNotEmpty(userIDs)) {
-                Map<Integer, ArrayList<String>> orderedUserIdsMap = ConsentManagementDAOUtil
-                        .determineOrderOfParamsToSet(userIDFilterCondition, userIdMap, COLUMNS_MAP);
-                parameterIndex = ConsentManagementDAOUtil.setDynamicConsentSearchParameters(searchConsentsPreparedStmt,
-                        orderedUserIdsMap, ++parameterIndex);
-                parameterIndex = parameterIndex - 1;
-            }
-
-            parameterIndex = ConsentManagementDAOUtil.setDynamicConsentSearchParameters(searchConsentsPreparedStmt,
-                    orderedParamsMap, ++parameterIndex);
-            parameterIndex = parameterIndex - 1;
+            parameterIndex = setSearchConditionParameters(searchConsentsPreparedStmt, searchQuery,
+                    applicableConditionsMap, userIdMap, parameterIndex);
 
             if (fromTime != null) {
                 searchConsentsPreparedStmt.setLong(++parameterIndex, fromTime);
@@ -155,10 +137,7 @@ public class MssqlConsentCoreDAOImpl extends ConsentCoreDAOImpl {
             ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
 
             try (ResultSet resultSet = searchConsentsPreparedStmt.executeQuery()) {
-                if (resultSet.isBeforeFirst()) {
-                    int resultSetSize = ConsentManagementDAOUtil.getResultSetSize(resultSet);
-                    detailedConsentResources = constructDetailedConsentsSearchResult(resultSet, resultSetSize);
-                }
+                detailedConsentResources = constructDetailedConsentsSearchResult(resultSet);
                 return detailedConsentResources;
             } catch (SQLException e) {
                 log.error("Error occurred while searching detailed consent resources", e);
@@ -171,49 +150,42 @@ public class MssqlConsentCoreDAOImpl extends ConsentCoreDAOImpl {
         }
     }
 
-    ArrayList<DetailedConsentResource> constructDetailedConsentsSearchResult(ResultSet resultSet, int resultSetSize)
-            throws SQLException {
-
-        ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
-
-        while (resultSet.next()) {
-
-            Map<String, String> consentAttributesMap = new HashMap<>();
-            ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
-            ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
-            DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
-
-            setConsentDataToDetailedConsentInSearchResponse(resultSet, detailedConsentResource);
-
-            // Set consent attributes to map if available
-            if (resultSet.getString(ConsentMgtDAOConstants.ATT_KEY) != null &&
-                    StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY))) {
-                // fetch attribute keys and values from group_concat
-                String[] attKeys = resultSet.getString(ConsentMgtDAOConstants.ATT_KEY).split(GROUP_BY_SEPARATOR);
-                String[] attValues = resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE).split(GROUP_BY_SEPARATOR);
-                // check if all attribute keys has values
-                if (attKeys.length == attValues.length) {
-                    for (int index = 0; index < attKeys.length; index++) {
-                        if (!attKeys[index].isEmpty()) {
-                            consentAttributesMap.put(attKeys[index], attValues[index]);
-                        }
+    @Override
+    DetailedConsentResource constructDetailedConsentSearchResult(ResultSet resultSet) throws SQLException {
+
+        Map<String, String> consentAttributesMap = new HashMap<>();
+        ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+        ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
+        DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
+
+        setConsentDataToDetailedConsentInSearchResponse(resultSet, detailedConsentResource);
+
+        // Set consent attributes to map if available
+        if (resultSet.getString(ConsentMgtDAOConstants.ATT_KEY) != null &&
+                StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY))) {
+            // fetch attribute keys and values from group_concat
+            String[] attKeys = resultSet.getString(ConsentMgtDAOConstants.ATT_KEY).split(GROUP_BY_SEPARATOR);
+            String[] attValues = resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE).split(GROUP_BY_SEPARATOR);
+            // check if all attribute keys has values
+            if (attKeys.length == attValues.length) {
+                for (int index = 0; index < attKeys.length; index++) {
+                    if (!attKeys[index].isEmpty()) {
+                        consentAttributesMap.put(attKeys[index], attValues[index]);
                     }
                 }
             }
-            // Set authorization data
-            setAuthorizationDataInResponseForGroupedQuery(authorizationResources, resultSet,
-                    detailedConsentResource.getConsentID());
-            // Set consent account mapping data if available
-            setAccountConsentMappingDataInResponse(consentMappingResources, resultSet);
-
-            detailedConsentResource.setConsentAttributes(consentAttributesMap);
-            detailedConsentResource.setAuthorizationResources(authorizationResources);
-            detailedConsentResource.setConsentMappingResources(consentMappingResources);
+        }
+        // Set authorization data
+        setAuthorizationDataInResponseForGroupedQuery(authorizationResources, resultSet,
+                detailedConsentResource.getConsentID());
+        // Set consent account mapping data if available
+        setAccountConsentMappingDataInResponse(consentMappingResources, resultSet);
 
-            detailedConsentResources.add(detailedConsentResource);
+        detailedConsentResource.setConsentAttributes(consentAttributesMap);
+        detailedConsentResource.setAuthorizationResources(authorizationResources);
+        detailedConsentResource.setConsentMappingResources(consentMappingResources);
 
-        }
-        return detailedConsentResources;
+        return detailedConsentResource;
     }
 
     void setConsentDataToDetailedConsentInSearchResponse(ResultSet resultSet,
@@ -344,6 +316,27 @@ public class MssqlConsentCoreDAOImpl extends ConsentCoreDAOImpl {
 
     }
 
+    @Override
+    int setSearchConditionParameters(PreparedStatement preparedStatement, ConsentSearchQuery searchQuery,
+                                     Map<String, ArrayList<String>> applicableConditionsMap,
+                                     Map<String, ArrayList<String>> userIdMap, int parameterIndex)
+            throws SQLException {
+
+        // The user ID filter is part of the join, which precedes the consent search conditions
+        parameterIndex = ConsentManagementDAOUtil.setConsentSearchParameters(preparedStatement,
+                searchQuery.getUserIDColumns(), userIdMap, ++parameterIndex, sqlStatements.getConsentIDSetBinding());
+        parameterIndex = ConsentManagementDAOUtil.setConsentSearchParameters(preparedStatement,
+                searchQuery.getConditionColumns(), applicableConditionsMap, parameterIndex,
+                sqlStatements.getConsentIDSetBinding());
+        return parameterIndex - 1;
+    }
+
+    @Override
+    Map<String, String> getSearchColumnsMap() {
+
+        return COLUMNS_MAP;
+    }
+
     void validateAndSetSearchConditions(Map<String, ArrayList<String>> applicableConditionsMap,
                                         ArrayList<String> consentIDs, ArrayList<String> clientIDs,
                                         ArrayList<String> consentTypes, ArrayList<String> consentStatuses) {
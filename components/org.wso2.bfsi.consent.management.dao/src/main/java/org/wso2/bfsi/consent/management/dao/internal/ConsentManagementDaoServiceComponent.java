@@ -24,6 +24,9 @@ import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
 
 /**
  * Consent Management Common Service Component.
@@ -37,12 +40,20 @@ public class ConsentManagementDaoServiceComponent {
     @Activate
     protected void activate(ComponentContext context) {
 
+        // Resolve the DAO implementation for the configured database once, so that lookups do not contend
+        try {
+            ConsentStoreInitializer.initializeConsentCoreDAO();
+        } catch (ConsentManagementException | ConsentManagementRuntimeException e) {
+            log.warn("Unable to resolve the Consent Management DAO at activation. It will be resolved on first use.",
+                    e);
+        }
         log.debug("Consent Management DAO is registered successfully.");
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        ConsentStoreInitializer.clearConsentCoreDAO();
         log.debug("Consent Management DAO is deactivated");
     }
 
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Account access permissions which can be granted by an accounts consent.
+ */
+public enum AccountPermission {
+
+    READ_ACCOUNTS_BASIC("ReadAccountsBasic"),
+    READ_ACCOUNTS_DETAIL("ReadAccountsDetail"),
+    READ_BALANCES("ReadBalances"),
+    READ_TRANSACTIONS_BASIC("ReadTransactionsBasic"),
+    READ_TRANSACTIONS_CREDITS("ReadTransactionsCredits"),
+    READ_TRANSACTIONS_DEBITS("ReadTransactionsDebits"),
+    READ_TRANSACTIONS_DETAIL("ReadTransactionsDetail");
+
+    private static final Map<String, AccountPermission> permissionsByValue = new HashMap<>();
+
+    static {
+        for (AccountPermission permission : values()) {
+            permissionsByValue.put(permission.value, permission);
+        }
+    }
+
+    private final String value;
+
+    AccountPermission(String value) {
+
+        this.value = value;
+    }
+
+    public String getValue() {
+
+        return value;
+    }
+
+    /**
+     * Get the permission of a permission value in a consent receipt.
+     *
+     * @param value permission value
+     * @return the permission or null if the value is not a known permission
+     */
+    public static AccountPermission fromValue(String value) {
+
+        return permissionsByValue.get(value);
+    }
+
+    /**
+     * Get the known permissions of the permission values in a consent receipt. Unknown values are ignored.
+     *
+     * @param permissionValues permission values
+     * @return set of permissions
+     */
+    public static EnumSet<AccountPermission> fromValues(Collection<String> permissionValues) {
+
+        EnumSet<AccountPermission> permissions = EnumSet.noneOf(AccountPermission.class);
+        for (String permissionValue : permissionValues) {
+            AccountPermission permission = fromValue(permissionValue);
+            if (permission != null) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+}
@@ -43,6 +43,16 @@ public class AuthorizationResource {
         this.updatedTime = updatedTime;
 
     }
+
+    public AuthorizationResource(AuthorizationResource authorizationResource) {
+        this.authorizationID = authorizationResource.authorizationID;
+        this.consentID = authorizationResource.consentID;
+        this.userID = authorizationResource.userID;
+        this.authorizationStatus = authorizationResource.authorizationStatus;
+        this.authorizationType = authorizationResource.authorizationType;
+        this.updatedTime = authorizationResource.updatedTime;
+    }
+
     public String getAuthorizationID() {
 
         return authorizationID;
@@ -41,6 +41,14 @@ public class ConsentMappingResource {
         this.mappingStatus = mappingStatus;
     }
 
+    public ConsentMappingResource(ConsentMappingResource consentMappingResource) {
+        this.mappingID = consentMappingResource.mappingID;
+        this.authorizationID = consentMappingResource.authorizationID;
+        this.accountID = consentMappingResource.accountID;
+        this.permission = consentMappingResource.permission;
+        this.mappingStatus = consentMappingResource.mappingStatus;
+    }
+
     public String getMappingID() {
 
         return mappingID;
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable parsed form of a consent receipt. The receipt is parsed once and the commonly validated members of the
+ * receipt data, i.e. the permissions, the expiration date time and the initiation, are extracted up front so that
+ * the receipt can be validated repeatedly without parsing or walking the JSON again. The account permissions of the
+ * receipt are computed once here as well, so they live as long as the parsed receipt kept with the consent.
+ */
+public final class ConsentReceipt {
+
+    private static final String DATA = "Data";
+    private static final String PERMISSIONS = "Permissions";
+    private static final String EXPIRATION_DATE_TIME = "ExpirationDateTime";
+    private static final String INITIATION = "Initiation";
+    private static final ConsentReceipt INVALID_RECEIPT = new ConsentReceipt(false, null);
+
+    private final boolean valid;
+    private final Map<String, Object> data;
+    private final List<String> permissions;
+    private final Set<AccountPermission> accountPermissions;
+    private final String expirationDateTime;
+    private final Map<String, Object> initiation;
+
+    @SuppressWarnings("unchecked")
+    private ConsentReceipt(boolean valid, Map<String, Object> receipt) {
+
+        this.valid = valid;
+        Object dataValue = receipt == null ? null : receipt.get(DATA);
+        this.data = dataValue instanceof Map ? (Map<String, Object>) dataValue : null;
+        if (data == null) {
+            this.permissions = Collections.emptyList();
+            this.accountPermissions = Collections.emptySet();
+            this.expirationDateTime = null;
+            this.initiation = null;
+            return;
+        }
+
+        Object permissionsValue = data.get(PERMISSIONS);
+        List<String> permissionList = new ArrayList<>();
+        if (permissionsValue instanceof List) {
+            for (Object permission : (List<Object>) permissionsValue) {
+                if (permission != null) {
+                    permissionList.add(permission.toString());
+                }
+            }
+        }
+        this.permissions = Collections.unmodifiableList(permissionList);
+        this.accountPermissions = Collections.unmodifiableSet(AccountPermission.fromValues(permissionList));
+
+        Object expirationValue = data.get(EXPIRATION_DATE_TIME);
+        this.expirationDateTime = expirationValue == null ? null : expirationValue.toString();
+
+        Object initiationValue = data.get(INITIATION);
+        this.initiation = initiationValue instanceof Map ? (Map<String, Object>) initiationValue : null;
+    }
+
+    /**
+     * Parse a consent receipt.
+     *
+     * @param receipt consent receipt
+     * @return the parsed receipt, which is not valid if the receipt is not a JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public static ConsentReceipt parse(String receipt) {
+
+        Object parsedReceipt = parseJSON(receipt);
+        if (!(parsedReceipt instanceof Map)) {
+            return INVALID_RECEIPT;
+        }
+        return new ConsentReceipt(true, (Map<String, Object>) parsedReceipt);
+    }
+
+    /**
+     * Parse a JSON value into unmodifiable maps and lists. Values parsed by this method compare equal with
+     * {@link Object#equals(Object)} when they are structurally equal, regardless of the member order.
+     *
+     * @param json JSON string
+     * @return the parsed value, or null if the string is not valid JSON
+     */
+    public static Object parseJSON(String json) {
+
+        if (json == null) {
+            return null;
+        }
+        try {
+            return toUnmodifiable(new JSONParser(JSONParser.MODE_PERMISSIVE).parse(json));
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toUnmodifiable(Object value) {
+
+        if (value instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) value;
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                entry.setValue(toUnmodifiable(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            list.replaceAll(ConsentReceipt::toUnmodifiable);
+            return Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+
+    /**
+     * Whether the receipt is a JSON object.
+     *
+     * @return true if the receipt could be parsed
+     */
+    public boolean isValid() {
+
+        return valid;
+    }
+
+    /**
+     * Get the receipt data.
+     *
+     * @return unmodifiable receipt data, or null if the receipt has no data object
+     */
+    public Map<String, Object> getData() {
+
+        return data;
+    }
+
+    /**
+     * Get the permissions of the receipt data.
+     *
+     * @return unmodifiable list of permissions, empty if the receipt has no permissions
+     */
+    public List<String> getPermissions() {
+
+        return permissions;
+    }
+
+    /**
+     * Get the known account permissions of the receipt data. Unknown permission values are ignored.
+     *
+     * @return unmodifiable set of account permissions, empty if the receipt has no known permissions
+     */
+    public Set<AccountPermission> getAccountPermissions() {
+
+        return accountPermissions;
+    }
+
+    /**
+     * Get the expiration date time of the receipt data.
+     *
+     * @return expiration date time, or null if the receipt has no expiration date time
+     */
+    public String getExpirationDateTime() {
+
+        return expirationDateTime;
+    }
+
+    /**
+     * Get the initiation of the receipt data.
+     *
+     * @return unmodifiable initiation, or null if the receipt has no initiation object
+     */
+    public Map<String, Object> getInitiation() {
+
+        return initiation;
+    }
+}
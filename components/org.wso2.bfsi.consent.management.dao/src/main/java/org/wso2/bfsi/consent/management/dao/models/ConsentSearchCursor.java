@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Model for the position of a keyset paginated search. The cursor holds the sort key of the last returned row,
+ * i.e. the updated time and consent ID for consent search, or the action time and status audit ID for status audit
+ * search, and is exchanged with clients as an opaque continuation token.
+ */
+public class ConsentSearchCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final long timestamp;
+    private final String id;
+
+    public ConsentSearchCursor(long timestamp, String id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public long getTimestamp() {
+
+        return timestamp;
+    }
+
+    public String getId() {
+
+        return id;
+    }
+
+    /**
+     * Encode the cursor as a continuation token.
+     *
+     * @return URL safe continuation token
+     */
+    public String toContinuationToken() {
+
+        String cursor = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token issued by {@link #toContinuationToken()}.
+     *
+     * @param continuationToken continuation token
+     * @return the decoded cursor, or null if the token is blank
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ConsentSearchCursor fromContinuationToken(String continuationToken) {
+
+        if (StringUtils.isBlank(continuationToken)) {
+            return null;
+        }
+
+        String cursor = new String(Base64.getUrlDecoder().decode(continuationToken.trim()), StandardCharsets.UTF_8);
+        int separatorIndex = cursor.indexOf(SEPARATOR);
+        if (separatorIndex <= 0 || separatorIndex == cursor.length() - 1) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+        try {
+            return new ConsentSearchCursor(Long.parseLong(cursor.substring(0, separatorIndex)),
+                    cursor.substring(separatorIndex + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
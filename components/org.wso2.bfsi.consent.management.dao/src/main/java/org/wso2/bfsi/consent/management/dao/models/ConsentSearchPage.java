@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+import java.util.ArrayList;
+
+/**
+ * Model for a page of a keyset paginated search.
+ *
+ * @param <T> type of the search results
+ */
+public class ConsentSearchPage<T> {
+
+    private final ArrayList<T> results;
+    private final ConsentSearchCursor nextCursor;
+
+    public ConsentSearchPage(ArrayList<T> results, ConsentSearchCursor nextCursor) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+    }
+
+    public ArrayList<T> getResults() {
+
+        return results;
+    }
+
+    /**
+     * Get the cursor of the next page.
+     *
+     * @return cursor of the next page, or null if this is the last page
+     */
+    public ConsentSearchCursor getNextCursor() {
+
+        return nextCursor;
+    }
+
+    /**
+     * Get the continuation token of the next page.
+     *
+     * @return continuation token of the next page, or null if this is the last page
+     */
+    public String getNextContinuationToken() {
+
+        return nextCursor == null ? null : nextCursor.toContinuationToken();
+    }
+}
@@ -19,7 +19,9 @@
 package org.wso2.bfsi.consent.management.dao.models;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Model for Detailed Consent Resource.
@@ -39,6 +41,7 @@ public class DetailedConsentResource {
     private Map<String, String> consentAttributes;
     private ArrayList<AuthorizationResource> authorizationResources;
     private ArrayList<ConsentMappingResource> consentMappingResources;
+    private transient volatile ConsentReceipt parsedReceipt;
 
     public DetailedConsentResource() {
 
@@ -66,6 +69,39 @@ public class DetailedConsentResource {
 
     }
 
+    /**
+     * Create a copy of the given detailed consent. The attribute map and the authorization and mapping resources are
+     * copied as well, so that changes to the copy do not reach the original.
+     *
+     * @param detailedConsentResource detailed consent to copy
+     */
+    public DetailedConsentResource(DetailedConsentResource detailedConsentResource) {
+        this.consentID = detailedConsentResource.consentID;
+        this.clientID = detailedConsentResource.clientID;
+        this.receipt = detailedConsentResource.receipt;
+        this.consentType = detailedConsentResource.consentType;
+        this.currentStatus = detailedConsentResource.currentStatus;
+        this.consentFrequency = detailedConsentResource.consentFrequency;
+        this.validityPeriod = detailedConsentResource.validityPeriod;
+        this.createdTime = detailedConsentResource.createdTime;
+        this.updatedTime = detailedConsentResource.updatedTime;
+        this.recurringIndicator = detailedConsentResource.recurringIndicator;
+        this.parsedReceipt = detailedConsentResource.parsedReceipt;
+        if (detailedConsentResource.consentAttributes != null) {
+            this.consentAttributes = new HashMap<>(detailedConsentResource.consentAttributes);
+        }
+        if (detailedConsentResource.authorizationResources != null) {
+            this.authorizationResources = detailedConsentResource.authorizationResources.stream()
+                    .map(AuthorizationResource::new)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        if (detailedConsentResource.consentMappingResources != null) {
+            this.consentMappingResources = detailedConsentResource.consentMappingResources.stream()
+                    .map(ConsentMappingResource::new)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
     public long getUpdatedTime() {
 
         return updatedTime;
@@ -104,6 +140,24 @@ public class DetailedConsentResource {
     public void setReceipt(String receipt) {
 
         this.receipt = receipt;
+        this.parsedReceipt = null;
+    }
+
+    /**
+     * Get the parsed consent receipt. The receipt is parsed on first access and kept with the consent. Copies share
+     * the receipt parsed before they were created, hence the detailed consent cache parses the receipt before caching
+     * the consent so that the validations of a cached consent do not parse the receipt again.
+     *
+     * @return parsed consent receipt
+     */
+    public ConsentReceipt getParsedReceipt() {
+
+        ConsentReceipt consentReceipt = parsedReceipt;
+        if (consentReceipt == null) {
+            consentReceipt = ConsentReceipt.parse(receipt);
+            parsedReceipt = consentReceipt;
+        }
+        return consentReceipt;
     }
 
     public String getConsentType() {
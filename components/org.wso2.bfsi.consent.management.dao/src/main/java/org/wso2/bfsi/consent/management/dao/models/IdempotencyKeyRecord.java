@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+/**
+ * Model for an idempotency key used by a client, holding the consent created by the request and a hash of the
+ * request payload.
+ */
+public class IdempotencyKeyRecord {
+
+    private String clientID;
+    private String idempotencyKey;
+    private String consentID;
+    private String payloadHash;
+    private long createdTime;
+
+    public IdempotencyKeyRecord() {
+
+    }
+
+    public IdempotencyKeyRecord(String clientID, String idempotencyKey, String consentID, String payloadHash) {
+
+        this.clientID = clientID;
+        this.idempotencyKey = idempotencyKey;
+        this.consentID = consentID;
+        this.payloadHash = payloadHash;
+    }
+
+    public String getClientID() {
+
+        return clientID;
+    }
+
+    public void setClientID(String clientID) {
+
+        this.clientID = clientID;
+    }
+
+    public String getIdempotencyKey() {
+
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getConsentID() {
+
+        return consentID;
+    }
+
+    public void setConsentID(String consentID) {
+
+        this.consentID = consentID;
+    }
+
+    public String getPayloadHash() {
+
+        return payloadHash;
+    }
+
+    public void setPayloadHash(String payloadHash) {
+
+        this.payloadHash = payloadHash;
+    }
+
+    public long getCreatedTime() {
+
+        return createdTime;
+    }
+
+    public void setCreatedTime(long createdTime) {
+
+        this.createdTime = createdTime;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+/**
+ * Model for a token revocation of a consent stored in the token revocation outbox.
+ */
+public class TokenRevocationRecord {
+
+    private String revocationID;
+    private String consentID;
+    private String clientID;
+    private String userID;
+    private int attemptCount;
+    private long nextAttemptTime;
+    private long createdTime;
+    private String lastError;
+
+    public TokenRevocationRecord() {
+
+    }
+
+    public TokenRevocationRecord(String consentID, String clientID, String userID) {
+
+        this.consentID = consentID;
+        this.clientID = clientID;
+        this.userID = userID;
+    }
+
+    public String getRevocationID() {
+
+        return revocationID;
+    }
+
+    public void setRevocationID(String revocationID) {
+
+        this.revocationID = revocationID;
+    }
+
+    public String getConsentID() {
+
+        return consentID;
+    }
+
+    public void setConsentID(String consentID) {
+
+        this.consentID = consentID;
+    }
+
+    public String getClientID() {
+
+        return clientID;
+    }
+
+    public void setClientID(String clientID) {
+
+        this.clientID = clientID;
+    }
+
+    public String getUserID() {
+
+        return userID;
+    }
+
+    public void setUserID(String userID) {
+
+        this.userID = userID;
+    }
+
+    public int getAttemptCount() {
+
+        return attemptCount;
+    }
+
+    public void setAttemptCount(int attemptCount) {
+
+        this.attemptCount = attemptCount;
+    }
+
+    public long getNextAttemptTime() {
+
+        return nextAttemptTime;
+    }
+
+    public void setNextAttemptTime(long nextAttemptTime) {
+
+        this.nextAttemptTime = nextAttemptTime;
+    }
+
+    public long getCreatedTime() {
+
+        return createdTime;
+    }
+
+    public void setCreatedTime(long createdTime) {
+
+        this.createdTime = createdTime;
+    }
+
+    public String getLastError() {
+
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+
+        this.lastError = lastError;
+    }
+}
@@ -18,22 +18,30 @@
 
 package org.wso2.bfsi.consent.management.dao.persistence;
 
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 import org.wso2.bfsi.consent.management.common.persistence.JDBCPersistenceManager;
+import org.wso2.bfsi.consent.management.common.util.ConsentManagementConstants;
 import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
 import org.wso2.bfsi.consent.management.dao.impl.ConsentCoreDAOImpl;
 import org.wso2.bfsi.consent.management.dao.impl.MssqlConsentCoreDAOImpl;
 import org.wso2.bfsi.consent.management.dao.impl.OracleConsentCoreDAOImpl;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtCommonDBQueries;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtMssqlDBQueries;
+import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtMysqlDBQueries;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtOracleDBQueries;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtPostgresDBQueries;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class handles consent DAO layer initiation with the relevant SQL statements per database types.
+ * <p>
+ * The DAO implementation is resolved once, when the DAO bundle is activated, and published through an atomic
+ * reference. Lookups are lock free. If the resolution at activation fails (e.g. the data source is not yet
+ * available), the first lookup resolves it and concurrent first lookups converge on a single instance.
  */
 public class ConsentStoreInitializer {
 
@@ -43,7 +51,7 @@ public class ConsentStoreInitializer {
     private static final String MS_SQL = "MSSQL";
     private static final String POSTGRE = "PostgreSQL";
     private static final String ORACLE = "Oracle";
-    private static ConsentCoreDAO consentCoreDAO = null;
+    private static final AtomicReference<ConsentCoreDAO> consentCoreDAO = new AtomicReference<>();
 
     /**
      * Return the DAO implementation initialized for the relevant database type.
@@ -51,38 +59,99 @@ public class ConsentStoreInitializer {
      * @return the dao implementation
      * @throws ConsentManagementException thrown if an error occurs when getting the database connection
      */
-    public static synchronized ConsentCoreDAO getInitializedConsentCoreDAOImpl() throws ConsentManagementException {
+    public static ConsentCoreDAO getInitializedConsentCoreDAOImpl() throws ConsentManagementException {
+
+        ConsentCoreDAO dao = consentCoreDAO.get();
+        if (dao == null) {
+            initializeConsentCoreDAO();
+            dao = consentCoreDAO.get();
+        }
+        return dao;
+    }
+
+    /**
+     * Resolve the DAO implementation for the configured database, if it has not been resolved already.
+     *
+     * @throws ConsentManagementException thrown if an error occurs when getting the database connection
+     */
+    public static void initializeConsentCoreDAO() throws ConsentManagementException {
 
-        if (consentCoreDAO == null) {
-            consentCoreDAO = getDaoInstance();
+        if (consentCoreDAO.get() == null) {
+            consentCoreDAO.compareAndSet(null, getDaoInstance());
         }
-        return consentCoreDAO;
+    }
+
+    /**
+     * Clear the resolved DAO implementation. Invoked when the DAO bundle is deactivated.
+     */
+    public static void clearConsentCoreDAO() {
+
+        consentCoreDAO.set(null);
+    }
+
+    /**
+     * Return the DAO implementation for the given JDBC driver name.
+     *
+     * @param driverName JDBC driver name
+     * @return the dao implementation
+     * @throws ConsentManagementException thrown if the driver is not supported
+     */
+    public static ConsentCoreDAO getConsentCoreDAO(String driverName) throws ConsentManagementException {
+
+        return getConsentCoreDAO(driverName, false);
+    }
+
+    /**
+     * Return the DAO implementation for the given JDBC driver name.
+     *
+     * @param driverName            JDBC driver name
+     * @param twoPhaseSearchEnabled whether consents should be searched with the two-phase search
+     * @return the dao implementation
+     * @throws ConsentManagementException thrown if the driver is not supported
+     */
+    public static ConsentCoreDAO getConsentCoreDAO(String driverName, boolean twoPhaseSearchEnabled)
+            throws ConsentManagementException {
+
+        return createConsentCoreDAO(driverName, twoPhaseSearchEnabled);
+    }
+
+    private static ConsentCoreDAOImpl createConsentCoreDAO(String driverName, boolean twoPhaseSearchEnabled)
+            throws ConsentManagementException {
+
+        ConsentCoreDAOImpl dao;
+        if (driverName.contains(MYSQL)) {
+            dao = new ConsentCoreDAOImpl(new ConsentMgtMysqlDBQueries());
+        } else if (driverName.contains(H2)) {
+            dao = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        } else if (driverName.contains(MS_SQL) || driverName.contains(MICROSOFT)) {
+            dao = new MssqlConsentCoreDAOImpl(new ConsentMgtMssqlDBQueries());
+        } else if (driverName.contains(POSTGRE)) {
+            dao = new ConsentCoreDAOImpl(new ConsentMgtPostgresDBQueries());
+        } else if (driverName.contains(ORACLE)) {
+            dao = new OracleConsentCoreDAOImpl(new ConsentMgtOracleDBQueries());
+        } else {
+            throw new ConsentManagementException("Unhandled DB driver: " + driverName + " detected : ");
+        }
+        dao.setTwoPhaseSearchEnabled(twoPhaseSearchEnabled);
+        return dao;
     }
 
     private static ConsentCoreDAO getDaoInstance()
             throws ConsentManagementException {
 
-        try {
-            Connection connection = JDBCPersistenceManager.getInstance().getDBConnection();
-            String driverName = connection.getMetaData().getDriverName();
-
-            ConsentCoreDAO dao;
-            if (driverName.contains(MYSQL)) {
-                dao = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
-            } else if (driverName.contains(H2)) {
-                dao = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
-            } else if (driverName.contains(MS_SQL) || driverName.contains(MICROSOFT)) {
-                dao = new MssqlConsentCoreDAOImpl(new ConsentMgtMssqlDBQueries());
-            } else if (driverName.contains(POSTGRE)) {
-                dao = new ConsentCoreDAOImpl(new ConsentMgtPostgresDBQueries());
-            } else if (driverName.contains(ORACLE)) {
-                dao = new OracleConsentCoreDAOImpl(new ConsentMgtOracleDBQueries());
-            } else {
-                throw new ConsentManagementException("Unhandled DB driver: " + driverName + " detected : ");
-            }
+        try (Connection connection = JDBCPersistenceManager.getInstance().getDBConnection()) {
+            ConsentCoreDAOImpl dao = createConsentCoreDAO(connection.getMetaData().getDriverName(),
+                    isTwoPhaseSearchEnabled());
+            dao.setBatchSize(ConsentManagementConfigParser.getInstance().getPersistenceBatchSize());
             return dao;
         } catch (SQLException e) {
             throw new ConsentManagementException("Error while getting the database connection : ", e);
         }
     }
+
+    private static boolean isTwoPhaseSearchEnabled() {
+
+        return ConsentManagementConstants.TWO_PHASE_CONSENT_SEARCH_STRATEGY
+                .equalsIgnoreCase(ConsentManagementConfigParser.getInstance().getConsentSearchStrategy());
+    }
 }
@@ -19,12 +19,35 @@
 package org.wso2.bfsi.consent.management.dao.queries;
 
 import org.apache.commons.lang3.StringUtils;
+import org.wso2.bfsi.consent.management.dao.util.ConsentIDSetBinding;
+import org.wso2.bfsi.consent.management.dao.util.PaddedInListConsentIDSetBinding;
 
 /**
  * The common database queries used by the consent management DAO layer.
  */
 public class ConsentMgtCommonDBQueries {
 
+    /**
+     * Keyset condition of the consent search, applied with the updated time, updated time and consent ID of the
+     * cursor as parameters.
+     */
+    protected static final String CONSENT_SEARCH_CURSOR_CONDITION = "AND (OBC.UPDATED_TIME < ? OR " +
+            "(OBC.UPDATED_TIME = ? AND OBC.CONSENT_ID < ?)) ";
+
+    /**
+     * Binding of the consent IDs of a consent search. The IN lists are capped at 1000 values, the largest list
+     * accepted by Oracle.
+     */
+    private static final ConsentIDSetBinding CONSENT_ID_SET_BINDING = new PaddedInListConsentIDSetBinding(1000);
+
+    /**
+     * Due token revocation search without the row limit, completed with the row limit clause of the database.
+     */
+    protected static final String SEARCH_DUE_TOKEN_REVOCATION_RECORDS_QUERY = "SELECT REVOCATION_ID, CONSENT_ID, " +
+            "CLIENT_ID, USER_ID, ATTEMPT_COUNT, NEXT_ATTEMPT_TIME, CREATED_TIME, LAST_ERROR FROM " +
+            "BFSI_CONSENT_TOKEN_REVOCATION WHERE NEXT_ATTEMPT_TIME <= ? AND ATTEMPT_COUNT < ? ORDER BY " +
+            "NEXT_ATTEMPT_TIME ";
+
     public String getStoreConsentPreparedStatement() {
 
         return "INSERT INTO BFSI_CONSENT (CONSENT_ID, RECEIPT, CREATED_TIME, UPDATED_TIME, CLIENT_ID, CONSENT_TYPE, " +
@@ -76,6 +99,51 @@ public class ConsentMgtCommonDBQueries {
                 "WHERE obc.CONSENT_ID = ?";
     }
 
+    /**
+     * SQL query for loading the consent of a detailed consent without any of its attributes, authorization resources
+     * or account mappings, which are loaded with a query per table.
+     *
+     * @return SQL query for retrieving the consent data of a detailed consent
+     */
+    public String getGetDetailedConsentDataPreparedStatement() {
+
+        return "SELECT CONSENT_ID, " +
+                "RECEIPT, " +
+                "CLIENT_ID, " +
+                "CONSENT_TYPE, " +
+                "CURRENT_STATUS, " +
+                "CONSENT_FREQUENCY, " +
+                "VALIDITY_TIME, " +
+                "RECURRING_INDICATOR, " +
+                "CREATED_TIME AS CONSENT_CREATED_TIME, " +
+                "UPDATED_TIME AS CONSENT_UPDATED_TIME " +
+                "FROM BFSI_CONSENT WHERE CONSENT_ID = ?";
+    }
+
+    /**
+     * SQL query for loading the authorization resources of a detailed consent.
+     *
+     * @return SQL query for retrieving the authorization resources of a consent
+     */
+    public String getGetDetailedConsentAuthorizationResourcesPreparedStatement() {
+
+        return "SELECT AUTH_ID, CONSENT_ID, AUTH_TYPE, USER_ID, AUTH_STATUS, UPDATED_TIME " +
+                "FROM BFSI_CONSENT_AUTH_RESOURCE WHERE CONSENT_ID = ?";
+    }
+
+    /**
+     * SQL query for loading the account mappings of a detailed consent.
+     *
+     * @return SQL query for retrieving the account mappings of all authorization resources of a consent
+     */
+    public String getGetDetailedConsentMappingResourcesPreparedStatement() {
+
+        return "SELECT OCM.MAPPING_ID, OCM.AUTH_ID, OCM.ACCOUNT_ID, OCM.PERMISSION, OCM.MAPPING_STATUS " +
+                "FROM BFSI_CONSENT_AUTH_RESOURCE OCAR " +
+                "INNER JOIN BFSI_CONSENT_MAPPING OCM ON OCAR.AUTH_ID = OCM.AUTH_ID " +
+                "WHERE OCAR.CONSENT_ID = ?";
+    }
+
     public String getUpdateConsentStatusPreparedStatement() {
 
         return "UPDATE BFSI_CONSENT SET CURRENT_STATUS = ?, UPDATED_TIME = ? WHERE CONSENT_ID = ?";
@@ -128,6 +196,12 @@ public class ConsentMgtCommonDBQueries {
         return "UPDATE BFSI_CONSENT_MAPPING SET MAPPING_STATUS = ? WHERE MAPPING_ID = ?";
     }
 
+    public String getGetConsentIDByMappingIDPreparedStatement() {
+
+        return "SELECT OCAR.CONSENT_ID FROM BFSI_CONSENT_AUTH_RESOURCE OCAR INNER JOIN BFSI_CONSENT_MAPPING OCM " +
+                "ON OCAR.AUTH_ID = OCM.AUTH_ID WHERE OCM.MAPPING_ID = ?";
+    }
+
     public String getStoreConsentAttributesPreparedStatement() {
 
         return "INSERT INTO BFSI_CONSENT_ATTRIBUTE (CONSENT_ID, ATT_KEY, ATT_VALUE) VALUES (?, ?, ?)";
@@ -170,6 +244,38 @@ public class ConsentMgtCommonDBQueries {
     public String getSearchConsentsPreparedStatement(String whereClause, boolean shouldLimit, boolean shouldOffset,
                                                      String userIdFilterClause) {
 
+        StringBuilder query = new StringBuilder(constructSearchConsentsQuery(whereClause, userIdFilterClause, "",
+                "ORDER BY OBC.UPDATED_TIME DESC "));
+
+        if (shouldLimit && shouldOffset) {
+            query.append(" LIMIT ? OFFSET ? ");
+        } else if (shouldLimit) {
+            query.append(" LIMIT ? ");
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for keyset paginated consent search. The results are ordered by the updated time and consent ID,
+     * and when a cursor is given only the consents after the cursor position are returned.
+     *
+     * @param whereClause           the pre-constructed where clause
+     * @param userIdFilterClause    the pre-constructed user id filter condition
+     * @param hasCursor             whether the cursor condition should be applied
+     * @return SQL query for keyset paginated consent search
+     */
+    public String getSearchConsentsByCursorPreparedStatement(String whereClause, String userIdFilterClause,
+                                                             boolean hasCursor) {
+
+        return constructSearchConsentsQuery(whereClause, userIdFilterClause,
+                hasCursor ? CONSENT_SEARCH_CURSOR_CONDITION : "",
+                "ORDER BY OBC.UPDATED_TIME DESC, OBC.CONSENT_ID DESC ") + " LIMIT ? ";
+    }
+
+    private String constructSearchConsentsQuery(String whereClause, String userIdFilterClause,
+                                                String cursorCondition, String orderByClause) {
+
         String selectClause = "(SELECT * FROM BFSI_CONSENT " + whereClause + ")";
         String joinType = "LEFT ";
         if (StringUtils.isNotEmpty(userIdFilterClause)) {
@@ -251,7 +357,52 @@ public class ConsentMgtCommonDBQueries {
                 "LEFT JOIN BFSI_CONSENT_MAPPING OCM ON OCAR.AUTH_ID=OCM.AUTH_ID WHERE " +
                 "(OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
                 "AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) " +
-                "group by OBC.CONSENT_ID ORDER BY OBC.UPDATED_TIME DESC ");
+                cursorCondition +
+                "group by OBC.CONSENT_ID " + orderByClause);
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for counting the consents matching the consent search conditions. The conditions on the consent
+     * table are applied on a derived table so that the same query works across all supported databases, with both
+     * plain and OBC qualified column names. The authorization resources are only joined when filtering by user IDs.
+     *
+     * @param whereClause           the pre-constructed where clause on the consent table
+     * @param userIdFilterClause    the pre-constructed user id filter condition
+     * @return SQL query for counting consents
+     */
+    public String getCountConsentsPreparedStatement(String whereClause, String userIdFilterClause) {
+
+        StringBuilder query = new StringBuilder("SELECT COUNT(DISTINCT OBC.CONSENT_ID) AS CONSENT_COUNT " +
+                "FROM (SELECT CONSENT_ID, UPDATED_TIME FROM BFSI_CONSENT OBC " + whereClause + ") OBC ");
+
+        if (StringUtils.isNotEmpty(userIdFilterClause)) {
+            query.append("INNER JOIN BFSI_CONSENT_AUTH_RESOURCE OCAR ON OBC.CONSENT_ID=OCAR.CONSENT_ID AND ")
+                    .append(userIdFilterClause);
+        }
+
+        query.append("WHERE (OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
+                "AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME))");
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for the first phase of the two-phase consent search, which selects the page of matching consents
+     * without any of their attributes, authorization resources or account mappings. The parameters are bound in the
+     * order of the consent search conditions, the user IDs, the time range and the page limits.
+     *
+     * @param whereClause           the pre-constructed where clause on the consent table
+     * @param userIdFilterClause    the pre-constructed user id filter condition
+     * @param shouldLimit           whether limit should be applied
+     * @param shouldOffset          whether offset should be applied
+     * @return SQL query for the page of consents matching the search conditions
+     */
+    public String getSearchConsentPagePreparedStatement(String whereClause, String userIdFilterClause,
+                                                        boolean shouldLimit, boolean shouldOffset) {
+
+        StringBuilder query = new StringBuilder(constructSearchConsentPageQuery(whereClause, userIdFilterClause));
 
         if (shouldLimit && shouldOffset) {
             query.append(" LIMIT ? OFFSET ? ");
@@ -262,6 +413,73 @@ public class ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    protected String constructSearchConsentPageQuery(String whereClause, String userIdFilterClause) {
+
+        StringBuilder query = new StringBuilder("SELECT OBC.CONSENT_ID, " +
+                "OBC.RECEIPT, " +
+                "OBC.CLIENT_ID, " +
+                "OBC.CONSENT_TYPE, " +
+                "OBC.CURRENT_STATUS AS CURRENT_STATUS, " +
+                "OBC.CONSENT_FREQUENCY, " +
+                "OBC.VALIDITY_TIME, " +
+                "OBC.RECURRING_INDICATOR, " +
+                "OBC.CREATED_TIME AS CONSENT_CREATED_TIME, " +
+                "OBC.UPDATED_TIME AS CONSENT_UPDATED_TIME " +
+                "FROM (SELECT * FROM BFSI_CONSENT OBC " + whereClause + ") OBC WHERE ");
+
+        if (StringUtils.isNotEmpty(userIdFilterClause)) {
+            query.append("EXISTS (SELECT 1 FROM BFSI_CONSENT_AUTH_RESOURCE OCAR " +
+                    "WHERE OCAR.CONSENT_ID = OBC.CONSENT_ID AND ").append(userIdFilterClause).append(") AND ");
+        }
+
+        query.append("(OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
+                "AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) " +
+                "ORDER BY OBC.UPDATED_TIME DESC, OBC.CONSENT_ID DESC ");
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for loading the attributes of a batch of consents in the second phase of the two-phase consent
+     * search.
+     *
+     * @param placeholders  the placeholders for the consent IDs
+     * @return SQL query for retrieving the attributes of the given consents
+     */
+    public String getSearchConsentAttributesPreparedStatement(String placeholders) {
+
+        return "SELECT CONSENT_ID, ATT_KEY, ATT_VALUE FROM BFSI_CONSENT_ATTRIBUTE WHERE CONSENT_ID IN (" +
+                placeholders + ")";
+    }
+
+    /**
+     * SQL query for loading the authorization resources of a batch of consents in the second phase of the two-phase
+     * consent search.
+     *
+     * @param placeholders  the placeholders for the consent IDs
+     * @return SQL query for retrieving the authorization resources of the given consents
+     */
+    public String getSearchConsentAuthorizationResourcesPreparedStatement(String placeholders) {
+
+        return "SELECT AUTH_ID, CONSENT_ID, AUTH_TYPE, USER_ID, AUTH_STATUS, UPDATED_TIME " +
+                "FROM BFSI_CONSENT_AUTH_RESOURCE WHERE CONSENT_ID IN (" + placeholders + ") ORDER BY AUTH_ID";
+    }
+
+    /**
+     * SQL query for loading the account mappings of a batch of consents in the second phase of the two-phase
+     * consent search.
+     *
+     * @param placeholders  the placeholders for the consent IDs
+     * @return SQL query for retrieving the account mappings of the given consents
+     */
+    public String getSearchConsentMappingResourcesPreparedStatement(String placeholders) {
+
+        return "SELECT OCAR.CONSENT_ID, OCM.MAPPING_ID, OCM.AUTH_ID, OCM.ACCOUNT_ID, OCM.PERMISSION, " +
+                "OCM.MAPPING_STATUS FROM BFSI_CONSENT_MAPPING OCM " +
+                "INNER JOIN BFSI_CONSENT_AUTH_RESOURCE OCAR ON OCM.AUTH_ID = OCAR.AUTH_ID " +
+                "WHERE OCAR.CONSENT_ID IN (" + placeholders + ") ORDER BY OCM.MAPPING_ID";
+    }
+
     public String getSearchAuthorizationResourcesPreparedStatement(String whereClause) {
 
         return "SELECT * FROM BFSI_CONSENT_AUTH_RESOURCE" + whereClause;
@@ -302,6 +520,38 @@ public class ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    /**
+     * SQL query for keyset paginated consent status audit search. The results are ordered by the action time and
+     * status audit ID, and when a cursor is given only the records after the cursor position are returned.
+     *
+     * @param whereClause   conditions
+     * @param hasCursor     whether the cursor condition should be applied
+     * @return SQL query for keyset paginated consent status audit search
+     */
+    public String getConsentStatusAuditRecordsByCursorPreparedStatement(String whereClause, boolean hasCursor) {
+
+        return constructConsentStatusAuditRecordsByCursorQuery(whereClause, hasCursor) + "LIMIT ? ";
+    }
+
+    /**
+     * Construct the keyset paginated consent status audit search without the row limit.
+     *
+     * @param whereClause   conditions
+     * @param hasCursor     whether the cursor condition should be applied
+     * @return SQL query without the row limit
+     */
+    protected String constructConsentStatusAuditRecordsByCursorQuery(String whereClause, boolean hasCursor) {
+
+        StringBuilder query = new StringBuilder("SELECT * FROM (SELECT * FROM BFSI_CONSENT_STATUS_AUDIT " +
+                whereClause + ") OCSA ");
+
+        if (hasCursor) {
+            query.append("WHERE (OCSA.ACTION_TIME < ? OR (OCSA.ACTION_TIME = ? AND OCSA.STATUS_AUDIT_ID < ?)) ");
+        }
+        query.append("ORDER BY OCSA.ACTION_TIME DESC, OCSA.STATUS_AUDIT_ID DESC ");
+        return query.toString();
+    }
+
     /**
      * Util method to get the limit offset order for differentiate oracle and mssql pagination.
      * @return is limit is before in prepared statement than offset
@@ -311,6 +561,25 @@ public class ConsentMgtCommonDBQueries {
         return true;
     }
 
+    /**
+     * Util method to get the binding of the consent IDs of a consent search for the database type.
+     * @return binding which binds the consent IDs to padded IN lists
+     */
+    public ConsentIDSetBinding getConsentIDSetBinding() {
+
+        return CONSENT_ID_SET_BINDING;
+    }
+
+    /**
+     * Util method to get the fetch size to set on a statement whose result set is streamed.
+     * @param fetchSize the configured fetch size
+     * @return fetch size which makes the driver stream the rows instead of buffering the result set
+     */
+    public int getStreamingFetchSize(int fetchSize) {
+
+        return fetchSize;
+    }
+
     public String getInsertConsentHistoryPreparedStatement() {
 
         return "INSERT INTO BFSI_CONSENT_HISTORY (TABLE_ID, RECORD_ID, HISTORY_ID, CHANGED_VALUES, " +
@@ -330,4 +599,118 @@ public class ConsentMgtCommonDBQueries {
                 " ON     CA.CONSENT_ID = OBC.CONSENT_ID " +
                 " WHERE  CA.ATT_KEY = ? AND OBC.CURRENT_STATUS IN " + statusesEligibleForExpirationCondition;
     }
+
+    /**
+     * SQL query for get a bounded batch of expiring consent IDs ordered by consent ID.
+     *
+     * @param statusesEligibleForExpirationCondition  status condition
+     * @param hasCursor                               whether the cursor condition should be applied
+     * @return SQL query to retrieve a batch of expiring consent IDs
+     */
+    public String getSearchExpiringConsentBatchPreparedStatement(String statusesEligibleForExpirationCondition,
+                                                                 boolean hasCursor) {
+
+        return constructSearchExpiringConsentBatchQuery(statusesEligibleForExpirationCondition, hasCursor) +
+                "LIMIT ? ";
+    }
+
+    /**
+     * Construct the keyset paginated expiring consent search without the row limit. The expiring time attribute holds
+     * either the epoch second or an ISO-8601 date time, hence the attribute value is compared with an upper bound for
+     * each format, so that only the consents which may have expired are read from the attribute index.
+     *
+     * @param statusesEligibleForExpirationCondition  status condition
+     * @param hasCursor                               whether the cursor condition should be applied
+     * @return SQL query without the row limit
+     */
+    protected String constructSearchExpiringConsentBatchQuery(String statusesEligibleForExpirationCondition,
+                                                              boolean hasCursor) {
+
+        StringBuilder query = new StringBuilder(
+                getSearchExpiringConsentPreparedStatement(statusesEligibleForExpirationCondition));
+
+        query.append(" AND (CA.ATT_VALUE <= ? OR (CA.ATT_VALUE LIKE '____-%' AND CA.ATT_VALUE <= ?))");
+        if (hasCursor) {
+            query.append(" AND OBC.CONSENT_ID > ?");
+        }
+        query.append(" ORDER BY OBC.CONSENT_ID ");
+        return query.toString();
+    }
+
+    public String getUpdateConsentStatusesPreparedStatement() {
+
+        return "UPDATE BFSI_CONSENT SET CURRENT_STATUS = ?, UPDATED_TIME = ? WHERE CONSENT_ID = ? AND " +
+                "CURRENT_STATUS = ?";
+    }
+
+    public String getUpdateConsentLeasePreparedStatement() {
+
+        return "UPDATE BFSI_CONSENT_LEASE SET OWNER_ID = ?, EXPIRY_TIME = ? WHERE LEASE_NAME = ? AND " +
+                "(OWNER_ID = ? OR EXPIRY_TIME < ?)";
+    }
+
+    public String getStoreConsentLeasePreparedStatement() {
+
+        return "INSERT INTO BFSI_CONSENT_LEASE (LEASE_NAME, OWNER_ID, EXPIRY_TIME) VALUES (?, ?, ?)";
+    }
+
+    public String getReleaseConsentLeasePreparedStatement() {
+
+        return "UPDATE BFSI_CONSENT_LEASE SET EXPIRY_TIME = 0 WHERE LEASE_NAME = ? AND OWNER_ID = ?";
+    }
+
+    public String getStoreTokenRevocationRecordPreparedStatement() {
+
+        return "INSERT INTO BFSI_CONSENT_TOKEN_REVOCATION (REVOCATION_ID, CONSENT_ID, CLIENT_ID, USER_ID, " +
+                "ATTEMPT_COUNT, NEXT_ATTEMPT_TIME, CREATED_TIME) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * Get the query to search the token revocations due for an attempt, ordered by their next attempt time.
+     *
+     * @return SQL query
+     */
+    public String getSearchDueTokenRevocationRecordsPreparedStatement() {
+
+        return SEARCH_DUE_TOKEN_REVOCATION_RECORDS_QUERY + "LIMIT ? ";
+    }
+
+    public String getClaimTokenRevocationRecordPreparedStatement() {
+
+        return "UPDATE BFSI_CONSENT_TOKEN_REVOCATION SET NEXT_ATTEMPT_TIME = ? WHERE REVOCATION_ID = ? AND " +
+                "NEXT_ATTEMPT_TIME = ?";
+    }
+
+    public String getUpdateTokenRevocationRecordAttemptPreparedStatement() {
+
+        return "UPDATE BFSI_CONSENT_TOKEN_REVOCATION SET ATTEMPT_COUNT = ?, NEXT_ATTEMPT_TIME = ?, LAST_ERROR = ? " +
+                "WHERE REVOCATION_ID = ?";
+    }
+
+    public String getDeleteTokenRevocationRecordPreparedStatement() {
+
+        return "DELETE FROM BFSI_CONSENT_TOKEN_REVOCATION WHERE REVOCATION_ID = ?";
+    }
+
+    public String getCountPendingTokenRevocationRecordsPreparedStatement() {
+
+        return "SELECT COUNT(*) FROM BFSI_CONSENT_TOKEN_REVOCATION WHERE ATTEMPT_COUNT < ?";
+    }
+
+    public String getStoreIdempotencyKeyRecordPreparedStatement() {
+
+        return "INSERT INTO BFSI_CONSENT_IDEMPOTENCY_KEY (CLIENT_ID, IDEMPOTENCY_KEY, CONSENT_ID, PAYLOAD_HASH, " +
+                "CREATED_TIME) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    public String getGetIdempotencyKeyRecordPreparedStatement() {
+
+        return "SELECT CLIENT_ID, IDEMPOTENCY_KEY, CONSENT_ID, PAYLOAD_HASH, CREATED_TIME FROM " +
+                "BFSI_CONSENT_IDEMPOTENCY_KEY WHERE CLIENT_ID = ? AND IDEMPOTENCY_KEY = ?";
+    }
+
+    public String getDeleteExpiredIdempotencyKeyRecordsPreparedStatement() {
+
+        return "DELETE FROM BFSI_CONSENT_IDEMPOTENCY_KEY WHERE CREATED_TIME < ?";
+    }
 }
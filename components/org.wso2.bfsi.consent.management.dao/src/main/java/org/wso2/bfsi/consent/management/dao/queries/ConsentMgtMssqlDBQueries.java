@@ -19,15 +19,70 @@
 package org.wso2.bfsi.consent.management.dao.queries;
 
 import org.apache.commons.lang3.StringUtils;
+import org.wso2.bfsi.consent.management.dao.util.ConsentIDSetBinding;
+import org.wso2.bfsi.consent.management.dao.util.PaddedInListConsentIDSetBinding;
 
 /**
  * The Microsoft SQL database queries used by the consent management DAO layer.
  */
 public class ConsentMgtMssqlDBQueries extends ConsentMgtCommonDBQueries {
 
+    /**
+     * Binding of the consent IDs of a consent search. A statement accepts at most 2100 parameters, hence the padding
+     * is capped at 1024 placeholders, leaving room for the other parameters of the search.
+     */
+    private static final ConsentIDSetBinding CONSENT_ID_SET_BINDING = new PaddedInListConsentIDSetBinding(1000, 1024);
+
     public String getSearchConsentsPreparedStatement(String whereClause, boolean shouldLimit, boolean shouldOffset,
                                                      String userIdFilterClause) {
 
+        StringBuilder query = new StringBuilder(constructSearchConsentsQuery(whereClause, userIdFilterClause, "",
+                " ORDER BY UPDATED_TIME DESC "));
+
+        if (shouldLimit && shouldOffset) {
+            query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
+        } else if (shouldLimit) {
+            query.append("OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ");
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for keyset paginated consent search. The results are ordered by the updated time and consent ID,
+     * and when a cursor is given only the consents after the cursor position are returned.
+     *
+     * @param whereClause           the pre-constructed where clause
+     * @param userIdFilterClause    the pre-constructed user id filter condition
+     * @param hasCursor             whether the cursor condition should be applied
+     * @return SQL query for keyset paginated consent search
+     */
+    public String getSearchConsentsByCursorPreparedStatement(String whereClause, String userIdFilterClause,
+                                                             boolean hasCursor) {
+
+        return constructSearchConsentsQuery(whereClause, userIdFilterClause,
+                hasCursor ? CONSENT_SEARCH_CURSOR_CONDITION : "",
+                "ORDER BY CONSENT_UPDATED_TIME DESC, OBC.CONSENT_ID DESC ") + "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ";
+    }
+
+    @Override
+    public String getSearchConsentPagePreparedStatement(String whereClause, String userIdFilterClause,
+                                                        boolean shouldLimit, boolean shouldOffset) {
+
+        StringBuilder query = new StringBuilder(constructSearchConsentPageQuery(whereClause, userIdFilterClause));
+
+        if (shouldLimit && shouldOffset) {
+            query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
+        } else if (shouldLimit) {
+            query.append("OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ");
+        }
+
+        return query.toString();
+    }
+
+    private String constructSearchConsentsQuery(String whereClause, String userIdFilterClause,
+                                                String cursorCondition, String orderByClause) {
+
         String selectClause = "(SELECT * FROM BFSI_CONSENT)";
         String joinType = " LEFT ";
 
@@ -130,14 +185,8 @@ public class ConsentMgtMssqlDBQueries extends ConsentMgtCommonDBQueries {
                 + userIdFilterClause +
                 "LEFT JOIN BFSI_CONSENT_MAPPING OCM ON OCAR.AUTH_ID=OCM.AUTH_ID " + whereClause +
                 " (OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
-                " AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) GROUP BY obc.consent_id " +
-                " ORDER BY UPDATED_TIME DESC ");
-
-        if (shouldLimit && shouldOffset) {
-            query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
-        } else if (shouldLimit) {
-            query.append("OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ");
-        }
+                " AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) " + cursorCondition +
+                "GROUP BY obc.consent_id " + orderByClause);
 
         return query.toString();
     }
@@ -163,6 +212,27 @@ public class ConsentMgtMssqlDBQueries extends ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    @Override
+    public String getConsentStatusAuditRecordsByCursorPreparedStatement(String whereClause, boolean hasCursor) {
+
+        return constructConsentStatusAuditRecordsByCursorQuery(whereClause, hasCursor) +
+                "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ";
+    }
+
+    @Override
+    public String getSearchExpiringConsentBatchPreparedStatement(String statusesEligibleForExpirationCondition,
+                                                                 boolean hasCursor) {
+
+        return constructSearchExpiringConsentBatchQuery(statusesEligibleForExpirationCondition, hasCursor) +
+                "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ";
+    }
+
+    @Override
+    public String getSearchDueTokenRevocationRecordsPreparedStatement() {
+
+        return SEARCH_DUE_TOKEN_REVOCATION_RECORDS_QUERY + "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ";
+    }
+
     /**
      * Util method to get the limit offset order for differentiate oracle and mssql pagination.
      * @return is limit is before in prepared statement than offset
@@ -171,4 +241,14 @@ public class ConsentMgtMssqlDBQueries extends ConsentMgtCommonDBQueries {
 
         return false;
     }
+
+    /**
+     * Util method to get the binding of the consent IDs of a consent search for the database type.
+     * @return binding which binds the consent IDs to padded IN lists within the parameter limit of the database
+     */
+    @Override
+    public ConsentIDSetBinding getConsentIDSetBinding() {
+
+        return CONSENT_ID_SET_BINDING;
+    }
 }
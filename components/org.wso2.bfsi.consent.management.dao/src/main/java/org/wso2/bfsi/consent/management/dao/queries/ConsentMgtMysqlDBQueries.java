@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.queries;
+
+/**
+ * The MySQL database queries used by the consent management DAO layer.
+ */
+public class ConsentMgtMysqlDBQueries extends ConsentMgtCommonDBQueries {
+
+    /**
+     * MySQL Connector/J buffers the complete result set in memory unless the statement is forward only, read only and
+     * the fetch size is Integer.MIN_VALUE, in which case the rows are streamed one by one. Hence the configured fetch
+     * size is replaced with Integer.MIN_VALUE for streamed reads.
+     *
+     * @param fetchSize the configured fetch size
+     * @return Integer.MIN_VALUE to stream the result set row by row
+     */
+    @Override
+    public int getStreamingFetchSize(int fetchSize) {
+
+        return Integer.MIN_VALUE;
+    }
+}
@@ -28,6 +28,53 @@ public class ConsentMgtOracleDBQueries extends ConsentMgtCommonDBQueries {
     public String getSearchConsentsPreparedStatement(String whereClause, boolean shouldLimit, boolean shouldOffset,
                                                      String userIdFilterClause) {
 
+        StringBuilder query = new StringBuilder(constructSearchConsentsQuery(whereClause, userIdFilterClause, "",
+                "ORDER BY UPDATED_TIME DESC "));
+
+        if (shouldLimit && shouldOffset) {
+            query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
+        } else if (shouldLimit) {
+            query.append("FETCH NEXT ? ROWS ONLY");
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for keyset paginated consent search. The results are ordered by the updated time and consent ID,
+     * and when a cursor is given only the consents after the cursor position are returned.
+     *
+     * @param whereClause           the pre-constructed where clause
+     * @param userIdFilterClause    the pre-constructed user id filter condition
+     * @param hasCursor             whether the cursor condition should be applied
+     * @return SQL query for keyset paginated consent search
+     */
+    public String getSearchConsentsByCursorPreparedStatement(String whereClause, String userIdFilterClause,
+                                                             boolean hasCursor) {
+
+        return constructSearchConsentsQuery(whereClause, userIdFilterClause,
+                hasCursor ? CONSENT_SEARCH_CURSOR_CONDITION : "",
+                "ORDER BY CONSENT_UPDATED_TIME DESC, OBC.CONSENT_ID DESC ") + "FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public String getSearchConsentPagePreparedStatement(String whereClause, String userIdFilterClause,
+                                                        boolean shouldLimit, boolean shouldOffset) {
+
+        StringBuilder query = new StringBuilder(constructSearchConsentPageQuery(whereClause, userIdFilterClause));
+
+        if (shouldLimit && shouldOffset) {
+            query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
+        } else if (shouldLimit) {
+            query.append("FETCH NEXT ? ROWS ONLY");
+        }
+
+        return query.toString();
+    }
+
+    private String constructSearchConsentsQuery(String whereClause, String userIdFilterClause,
+                                                String cursorCondition, String orderByClause) {
+
         String selectClause = "BFSI_CONSENT ";
         String joinType = "LEFT";
 
@@ -134,14 +181,9 @@ public class ConsentMgtOracleDBQueries extends ConsentMgtCommonDBQueries {
                 + userIdFilterClause +
                 "LEFT JOIN BFSI_CONSENT_MAPPING OCM ON OCAR.AUTH_ID=OCM.AUTH_ID " + whereClause +
                 " (OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
-                " AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) GROUP BY obc.consent_id " +
-                "ORDER BY UPDATED_TIME DESC ");
+                " AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) " + cursorCondition +
+                "GROUP BY obc.consent_id " + orderByClause);
 
-        if (shouldLimit && shouldOffset) {
-            query.append("OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ");
-        } else if (shouldLimit) {
-            query.append("FETCH NEXT ? ROWS ONLY");
-        }
         return query.toString();
     }
 
@@ -166,6 +208,26 @@ public class ConsentMgtOracleDBQueries extends ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    @Override
+    public String getConsentStatusAuditRecordsByCursorPreparedStatement(String whereClause, boolean hasCursor) {
+
+        return constructConsentStatusAuditRecordsByCursorQuery(whereClause, hasCursor) + "FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public String getSearchExpiringConsentBatchPreparedStatement(String statusesEligibleForExpirationCondition,
+                                                                 boolean hasCursor) {
+
+        return constructSearchExpiringConsentBatchQuery(statusesEligibleForExpirationCondition, hasCursor) +
+                "FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public String getSearchDueTokenRevocationRecordsPreparedStatement() {
+
+        return SEARCH_DUE_TOKEN_REVOCATION_RECORDS_QUERY + "FETCH NEXT ? ROWS ONLY";
+    }
+
     /**
      * Util method to get the limit offset order for differentiate oracle and mssql pagination.
      * @return is limit is before in prepared statement than offset
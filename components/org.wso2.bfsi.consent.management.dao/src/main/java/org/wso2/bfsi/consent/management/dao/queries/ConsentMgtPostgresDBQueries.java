@@ -19,12 +19,16 @@
 package org.wso2.bfsi.consent.management.dao.queries;
 
 import org.apache.commons.lang3.StringUtils;
+import org.wso2.bfsi.consent.management.dao.util.ArrayConsentIDSetBinding;
+import org.wso2.bfsi.consent.management.dao.util.ConsentIDSetBinding;
 
 /**
  * The PostgreSQL database queries used by the consent management DAO layer.
  */
 public class ConsentMgtPostgresDBQueries extends ConsentMgtCommonDBQueries {
 
+    private static final ConsentIDSetBinding CONSENT_ID_SET_BINDING = new ArrayConsentIDSetBinding("varchar");
+
     /**
      * This method returns the detailed consent search query. It constructs the query according to the provided
      * parameters dynamically. This queries all consent attributes, authorization resources, mapping resources, consent
@@ -41,6 +45,38 @@ public class ConsentMgtPostgresDBQueries extends ConsentMgtCommonDBQueries {
     public String getSearchConsentsPreparedStatement(String whereClause, boolean shouldLimit, boolean shouldOffset,
                                                      String userIdFilterClause) {
 
+        StringBuilder query = new StringBuilder(constructSearchConsentsQuery(whereClause, userIdFilterClause, "",
+                "ORDER BY OBC.UPDATED_TIME DESC"));
+
+        if (shouldLimit && shouldOffset) {
+            query.append(" LIMIT ? OFFSET ? ");
+        } else if (shouldLimit) {
+            query.append(" LIMIT ? ");
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * SQL query for keyset paginated consent search. The results are ordered by the updated time and consent ID,
+     * and when a cursor is given only the consents after the cursor position are returned.
+     *
+     * @param whereClause           the pre-constructed where clause
+     * @param userIdFilterClause    the pre-constructed user id filter condition
+     * @param hasCursor             whether the cursor condition should be applied
+     * @return SQL query for keyset paginated consent search
+     */
+    public String getSearchConsentsByCursorPreparedStatement(String whereClause, String userIdFilterClause,
+                                                             boolean hasCursor) {
+
+        return constructSearchConsentsQuery(whereClause, userIdFilterClause,
+                hasCursor ? CONSENT_SEARCH_CURSOR_CONDITION : "",
+                "ORDER BY OBC.UPDATED_TIME DESC, OBC.CONSENT_ID DESC") + " LIMIT ? ";
+    }
+
+    private String constructSearchConsentsQuery(String whereClause, String userIdFilterClause,
+                                                String cursorCondition, String orderByClause) {
+
         String selectClause = "(SELECT * FROM BFSI_CONSENT " + whereClause + ")";
         String joinType = "LEFT ";
         if (StringUtils.isNotEmpty(userIdFilterClause)) {
@@ -189,6 +225,7 @@ public class ConsentMgtPostgresDBQueries extends ConsentMgtCommonDBQueries {
                 "LEFT JOIN BFSI_CONSENT_MAPPING OCM ON OCAR.AUTH_ID=OCM.AUTH_ID WHERE " +
                 "(OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
                 "AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) " +
+                cursorCondition +
                 "group by OBC.CONSENT_ID," +
                 "OBC.RECEIPT," +
                 "OBC.CLIENT_ID," +
@@ -199,14 +236,18 @@ public class ConsentMgtPostgresDBQueries extends ConsentMgtCommonDBQueries {
                 "OBC.CURRENT_STATUS," +
                 "OBC.CREATED_TIME," +
                 "OBC.UPDATED_TIME " +
-                "ORDER BY OBC.UPDATED_TIME DESC");
-
-        if (shouldLimit && shouldOffset) {
-            query.append(" LIMIT ? OFFSET ? ");
-        } else if (shouldLimit) {
-            query.append(" LIMIT ? ");
-        }
+                orderByClause);
 
         return query.toString();
     }
+
+    /**
+     * Util method to get the binding of the consent IDs of a consent search for the database type.
+     * @return binding which binds the consent IDs as a single varchar array
+     */
+    @Override
+    public ConsentIDSetBinding getConsentIDSetBinding() {
+
+        return CONSENT_ID_SET_BINDING;
+    }
 }
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.queries;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A consent search query compiled for a shape of the search conditions. It holds the query text and the order in
+ * which the values of the search condition columns are set to its placeholders.
+ */
+public class ConsentSearchQuery {
+
+    private final String query;
+    private final List<String> conditionColumns;
+    private final List<String> userIDColumns;
+
+    public ConsentSearchQuery(String query, List<String> conditionColumns, List<String> userIDColumns) {
+
+        this.query = query;
+        this.conditionColumns = Collections.unmodifiableList(conditionColumns);
+        this.userIDColumns = Collections.unmodifiableList(userIDColumns);
+    }
+
+    public String getQuery() {
+
+        return query;
+    }
+
+    /**
+     * Get the columns of the consent search conditions in the order of their placeholders in the query.
+     *
+     * @return ordered search condition columns
+     */
+    public List<String> getConditionColumns() {
+
+        return conditionColumns;
+    }
+
+    /**
+     * Get the columns of the user ID filter in the order of their placeholders in the query.
+     *
+     * @return ordered user ID filter columns
+     */
+    public List<String> getUserIDColumns() {
+
+        return userIDColumns;
+    }
+}
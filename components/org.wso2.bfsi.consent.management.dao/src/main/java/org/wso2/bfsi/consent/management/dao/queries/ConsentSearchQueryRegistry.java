@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.queries;
+
+import org.wso2.bfsi.consent.management.dao.constants.ConsentMgtDAOConstants;
+import org.wso2.bfsi.consent.management.dao.util.ConsentIDSetBinding;
+import org.wso2.bfsi.consent.management.dao.util.ConsentManagementDAOUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * Registry of the compiled consent search queries of a DAO. Searches of the same query with the same search
+ * condition columns and the same number of placeholders per column share the query text and the order of its
+ * parameters, so the query is constructed only once per shape. The least recently used shapes are evicted once the
+ * maximum number of queries is reached.
+ */
+public class ConsentSearchQueryRegistry {
+
+    private final Map<String, ConsentSearchQuery> queries;
+
+    /**
+     * Create a consent search query registry.
+     *
+     * @param maxQueryCount  maximum number of compiled queries kept in the registry
+     */
+    public ConsentSearchQueryRegistry(int maxQueryCount) {
+
+        this.queries = Collections.synchronizedMap(new LinkedHashMap<String, ConsentSearchQuery>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ConsentSearchQuery> eldest) {
+
+                return size() > maxQueryCount;
+            }
+        });
+    }
+
+    /**
+     * Get the compiled query for the shape of the given search conditions, compiling it if it is not in the
+     * registry.
+     *
+     * @param queryName                name of the query, including the options which change the query text
+     * @param applicableConditionsMap  applicable consent search conditions
+     * @param userIdMap                user IDs to filter by
+     * @param consentIDSetBinding      binding of the consent IDs condition
+     * @param queryBuilder             builds the query text from the search conditions and the user ID filter
+     * @return compiled consent search query
+     */
+    public ConsentSearchQuery getQuery(String queryName, Map<String, ArrayList<String>> applicableConditionsMap,
+                                       Map<String, ArrayList<String>> userIdMap,
+                                       ConsentIDSetBinding consentIDSetBinding,
+                                       BiFunction<String, String, String> queryBuilder) {
+
+        StringBuilder key = new StringBuilder(queryName);
+        appendShape(key, applicableConditionsMap, consentIDSetBinding);
+        appendShape(key, userIdMap, consentIDSetBinding);
+
+        return queries.computeIfAbsent(key.toString(), shape -> {
+            String constructedConditions = ConsentManagementDAOUtil
+                    .constructConsentSearchPreparedStatement(applicableConditionsMap, consentIDSetBinding);
+            String userIDFilterCondition = userIdMap.isEmpty() ? "" :
+                    ConsentManagementDAOUtil.constructUserIdListFilterCondition(userIdMap);
+            return new ConsentSearchQuery(queryBuilder.apply(constructedConditions, userIDFilterCondition),
+                    ConsentManagementDAOUtil.determineOrderOfColumnsToSet(constructedConditions,
+                            applicableConditionsMap.keySet()),
+                    ConsentManagementDAOUtil.determineOrderOfColumnsToSet(userIDFilterCondition,
+                            userIdMap.keySet()));
+        });
+    }
+
+    /**
+     * Get the number of compiled queries in the registry.
+     *
+     * @return number of compiled queries
+     */
+    public int size() {
+
+        return queries.size();
+    }
+
+    private static void appendShape(StringBuilder key, Map<String, ArrayList<String>> conditionsMap,
+                                    ConsentIDSetBinding consentIDSetBinding) {
+
+        key.append('|');
+        for (Map.Entry<String, ArrayList<String>> entry : new TreeMap<>(conditionsMap).entrySet()) {
+            int parameterCount = entry.getKey().contains(ConsentMgtDAOConstants.CONSENT_ID) ?
+                    consentIDSetBinding.getParameterCount(entry.getValue().size()) : entry.getValue().size();
+            key.append(entry.getKey()).append('=').append(parameterCount).append(';');
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.util;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Binds the consent IDs as a single SQL array parameter, so that the query text is the same for any number of
+ * consent IDs. The database must support comparing a column with the elements of an array with "= ANY(?)".
+ */
+public class ArrayConsentIDSetBinding implements ConsentIDSetBinding {
+
+    private final String elementTypeName;
+
+    /**
+     * Create an array binding.
+     *
+     * @param elementTypeName  SQL type name of the array elements, as accepted by Connection.createArrayOf
+     */
+    public ArrayConsentIDSetBinding(String elementTypeName) {
+
+        this.elementTypeName = elementTypeName;
+    }
+
+    @Override
+    public String constructCondition(String column, int consentIDCount) {
+
+        return column + " = ANY(?)";
+    }
+
+    @Override
+    public int getParameterCount(int consentIDCount) {
+
+        return 1;
+    }
+
+    @Override
+    public int setParameters(PreparedStatement preparedStatement, int parameterIndex, List<String> consentIDs)
+            throws SQLException {
+
+        String[] elements = consentIDs.stream().map(String::trim).toArray(String[]::new);
+        Array consentIDArray = preparedStatement.getConnection().createArrayOf(elementTypeName, elements);
+        preparedStatement.setArray(parameterIndex, consentIDArray);
+        return parameterIndex + 1;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Strategy to bind the set of consent IDs of a consent search to the search query. The query text constructed by a
+ * strategy should only depend on a small number of consent ID counts, so that the statement caches of the driver and
+ * the database can be reused across searches.
+ */
+public interface ConsentIDSetBinding {
+
+    /**
+     * Construct the condition matching the given column against a set of consent IDs.
+     *
+     * @param column          column holding the consent ID
+     * @param consentIDCount  number of consent IDs to match
+     * @return condition to be used in the where clause of the query
+     */
+    String constructCondition(String column, int consentIDCount);
+
+    /**
+     * Get the number of placeholders of the condition constructed for the given number of consent IDs. Consent ID
+     * counts with the same number of placeholders share the same condition.
+     *
+     * @param consentIDCount  number of consent IDs to match
+     * @return number of placeholders of the condition
+     */
+    int getParameterCount(int consentIDCount);
+
+    /**
+     * Set the consent IDs to the placeholders of the condition constructed for them.
+     *
+     * @param preparedStatement  prepared statement of the query
+     * @param parameterIndex     index of the first placeholder of the condition
+     * @param consentIDs         consent IDs to match
+     * @return index of the placeholder following the condition
+     * @throws SQLException thrown if an error occurs when setting the parameters
+     */
+    int setParameters(PreparedStatement preparedStatement, int parameterIndex, List<String> consentIDs)
+            throws SQLException;
+}
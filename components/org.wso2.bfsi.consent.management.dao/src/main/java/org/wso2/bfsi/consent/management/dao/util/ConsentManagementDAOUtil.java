@@ -18,7 +18,6 @@
 
 package org.wso2.bfsi.consent.management.dao.util;
 
-import net.minidev.json.JSONValue;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -30,16 +29,23 @@ import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -120,59 +126,34 @@ public class ConsentManagementDAOUtil {
         Map<String, String> consentAttributesMap = new HashMap<>();
         ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
         ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
-        ArrayList<String> authIds = new ArrayList<>();
-        ArrayList<String> consentMappingIds = new ArrayList<>();
+        Set<String> authIds = new HashSet<>();
+        Set<String> consentMappingIds = new HashSet<>();
         DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
 
         while (resultSet.next()) {
             detailedConsentResource = setConsentDataToDetailedConsentResource(resultSet);
             // Set data related to consent attributes
-            if (StringUtils.isNotBlank(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY))) {
+            String attributeKey = resultSet.getString(ConsentMgtDAOConstants.ATT_KEY);
+            if (StringUtils.isNotBlank(attributeKey) && !consentAttributesMap.containsKey(attributeKey)) {
                 String attributeValue = resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE);
 
                 // skip adding all temporary session data to consent attributes
-                if (!(JSONValue.isValidJson(attributeValue) &&
-                        attributeValue.contains(ConsentMgtDAOConstants.SESSION_DATA_KEY))) {
-                    consentAttributesMap.put(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY),
-                            attributeValue);
+                if (!isSessionDataAttribute(attributeValue)) {
+                    consentAttributesMap.put(attributeKey, attributeValue);
                 }
             }
 
             // Set data related to authorization resources
-            if (authIds.isEmpty()) {
-                AuthorizationResource authorizationResource = setAuthorizationData(resultSet,
-                        ConsentMgtDAOConstants.AUTH_UPDATED_TIME);
-
-                authorizationResources.add(authorizationResource);
-                authIds.add(authorizationResource.getAuthorizationID());
-            } else {
-                if (!authIds.contains(resultSet.getString(ConsentMgtDAOConstants.AUTH_ID))) {
-                    AuthorizationResource authorizationResource = setAuthorizationData(resultSet,
-                            ConsentMgtDAOConstants.AUTH_UPDATED_TIME);
-
-                    authorizationResources.add(authorizationResource);
-                    authIds.add(authorizationResource.getAuthorizationID());
-                }
+            if (authIds.add(resultSet.getString(ConsentMgtDAOConstants.AUTH_ID))) {
+                authorizationResources.add(setAuthorizationData(resultSet, ConsentMgtDAOConstants.AUTH_UPDATED_TIME));
             }
 
             // Set data related to consent account mappings
-            // Check whether consentMappingIds is empty and result set consists a mapping id since at this moment
-            //  there can be a situation where an auth resource is created and mapping resource is not created
-            if (consentMappingIds.isEmpty() && resultSet.getString(ConsentMgtDAOConstants.MAPPING_ID) != null) {
-                ConsentMappingResource consentMappingResource = getConsentMappingResourceWithData(resultSet);
-
-                consentMappingResources.add(consentMappingResource);
-                consentMappingIds.add(consentMappingResource.getMappingID());
-            } else {
-                // Check whether result set consists a mapping id since at this moment, there can be a situation
-                //  where an auth resource is created and mapping resource is not created
-                if (!consentMappingIds.contains(resultSet.getString(ConsentMgtDAOConstants.MAPPING_ID)) &&
-                        resultSet.getString(ConsentMgtDAOConstants.MAPPING_ID) != null) {
-                    ConsentMappingResource consentMappingResource = getConsentMappingResourceWithData(resultSet);
-
-                    consentMappingResources.add(consentMappingResource);
-                    consentMappingIds.add(consentMappingResource.getMappingID());
-                }
+            // Check whether result set consists a mapping id since at this moment, there can be a situation
+            //  where an auth resource is created and mapping resource is not created
+            String mappingId = resultSet.getString(ConsentMgtDAOConstants.MAPPING_ID);
+            if (mappingId != null && consentMappingIds.add(mappingId)) {
+                consentMappingResources.add(getConsentMappingResourceWithData(resultSet));
             }
         }
 
@@ -183,6 +164,28 @@ public class ConsentManagementDAOUtil {
         return detailedConsentResource;
     }
 
+    /**
+     * Check whether a consent attribute value holds the temporary session data of an authorization. Session data is
+     * stored as a JSON object carrying the session data key, so the value is only searched for the key when it starts
+     * like a JSON object or array.
+     *
+     * @param attributeValue  consent attribute value
+     * @return true if the attribute value holds session data
+     */
+    public static boolean isSessionDataAttribute(String attributeValue) {
+
+        if (attributeValue == null) {
+            return false;
+        }
+        int index = 0;
+        while (index < attributeValue.length() && Character.isWhitespace(attributeValue.charAt(index))) {
+            index++;
+        }
+        return index < attributeValue.length() &&
+                (attributeValue.charAt(index) == '{' || attributeValue.charAt(index) == '[') &&
+                attributeValue.contains(ConsentMgtDAOConstants.SESSION_DATA_KEY);
+    }
+
     /**
      * Set consent data from the result set to DetailedConsentResource object.
      * @param resultSet           result set
@@ -250,13 +253,37 @@ public class ConsentManagementDAOUtil {
         return consentMappingResource;
     }
 
+    /**
+     * Return a consent status audit record with data set from the result set.
+     *
+     * @param resultSet result set
+     * @return a consent status audit record
+     * @throws SQLException thrown if an error occurs when getting data from the result set
+     */
+    public static ConsentStatusAuditRecord getConsentStatusAuditRecordWithData(ResultSet resultSet)
+            throws SQLException {
+
+        ConsentStatusAuditRecord consentStatusAuditRecord = new ConsentStatusAuditRecord();
+        consentStatusAuditRecord.setStatusAuditID(resultSet.getString(ConsentMgtDAOConstants.STATUS_AUDIT_ID));
+        consentStatusAuditRecord.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+        consentStatusAuditRecord.setCurrentStatus(resultSet.getString(ConsentMgtDAOConstants.CURRENT_STATUS));
+        consentStatusAuditRecord.setActionBy(resultSet.getString(ConsentMgtDAOConstants.ACTION_BY));
+        consentStatusAuditRecord.setActionTime(resultSet.getLong(ConsentMgtDAOConstants.ACTION_TIME));
+        consentStatusAuditRecord.setReason(resultSet.getString(ConsentMgtDAOConstants.REASON));
+        consentStatusAuditRecord.setPreviousStatus(resultSet.getString(ConsentMgtDAOConstants.PREVIOUS_STATUS));
+
+        return consentStatusAuditRecord;
+    }
+
     /**
      * Construct the where clause of thr prepared statement for consent search.
      *
      * @param applicableConditions   map of applicable conditions
+     * @param consentIDSetBinding    binding of the consent IDs condition
      * @return where clause of the prepared statement
      */
-    public static String constructConsentSearchPreparedStatement(Map<String, ArrayList<String>> applicableConditions) {
+    public static String constructConsentSearchPreparedStatement(Map<String, ArrayList<String>> applicableConditions,
+                                                                 ConsentIDSetBinding consentIDSetBinding) {
 
         StringBuilder placeHoldersBuilder = new StringBuilder();
         StringBuilder whereClauseBuilder = new StringBuilder();
@@ -266,23 +293,13 @@ public class ConsentManagementDAOUtil {
             return "";
         }
         for (Map.Entry<String, ArrayList<String>> entry : applicableConditions.entrySet()) {
-            // Oracle only allows 1000 values to be used in a SQL "IN" clause. Since more than 1000 consent IDs
-            // are used in some queries, "OR" clause is used
+            // The number of consent IDs is unbounded, hence the binding decides how they are matched
             if (entry.getKey().contains(ConsentMgtDAOConstants.CONSENT_ID)) {
-                for (int i = 0; i < entry.getValue().size(); i++) {
-                    whereClauseBuilder
-                            .append(SPACE)
-                            .append(entry.getKey())
-                            .append(SPACE)
-                            .append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.EQUALS))
-                            .append(SPACE)
-                            .append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.PLAIN_PLACEHOLDER))
-                            .append(SPACE)
-                            .append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.OR));
-                }
-                // Delete last OR from the statement
-                whereClauseBuilder.replace(whereClauseBuilder.length() - 2,
-                        whereClauseBuilder.length(), DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.AND));
+                whereClauseBuilder
+                        .append(SPACE)
+                        .append(consentIDSetBinding.constructCondition(entry.getKey(), entry.getValue().size()))
+                        .append(SPACE)
+                        .append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.AND));
             } else {
                 for (int i = 0; i < entry.getValue().size(); i++) {
                     placeHoldersBuilder.append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.PLACEHOLDER));
@@ -338,6 +355,26 @@ public class ConsentManagementDAOUtil {
         return userIdFilterBuilder.toString();
     }
 
+    /**
+     * Determine the order of the given columns in the dynamically constructed conditions of a prepared statement.
+     *
+     * @param preparedStatement  dynamically constructed conditions of the prepared statement
+     * @param columns            columns of the conditions
+     * @return columns in the order of their placeholders
+     */
+    public static List<String> determineOrderOfColumnsToSet(String preparedStatement, Collection<String> columns) {
+
+        // Tree map naturally sorts values in ascending order according to the key
+        TreeMap<Integer, String> sortedColumnsMap = new TreeMap<>();
+        for (String column : columns) {
+            int indexOfColumn = preparedStatement.indexOf(column);
+            if (indexOfColumn >= 0) {
+                sortedColumnsMap.put(indexOfColumn, column);
+            }
+        }
+        return new ArrayList<>(sortedColumnsMap.values());
+    }
+
     /**
      * Determine the order of parameters to set in the prepared statement.
      * @param preparedStatement         dynamically constructed prepared statement
@@ -410,6 +447,35 @@ public class ConsentManagementDAOUtil {
         return parameterIndex;
     }
 
+    /**
+     * Sets the values of the search conditions to a compiled consent search query in the order of its columns.
+     *
+     * @param preparedStatement     prepared statement of the compiled query
+     * @param orderedColumns        columns of the conditions in the order of their placeholders
+     * @param conditionsMap         values of the conditions per column
+     * @param parameterIndex        index which the first parameter should be set
+     * @param consentIDSetBinding   binding of the consent IDs condition
+     * @return the final parameter index
+     * @throws SQLException thrown if an error occurs in the process
+     */
+    public static int setConsentSearchParameters(PreparedStatement preparedStatement, List<String> orderedColumns,
+                                                 Map<String, ArrayList<String>> conditionsMap, int parameterIndex,
+                                                 ConsentIDSetBinding consentIDSetBinding) throws SQLException {
+
+        for (String column : orderedColumns) {
+            ArrayList<String> values = conditionsMap.get(column);
+            if (column.contains(ConsentMgtDAOConstants.CONSENT_ID)) {
+                parameterIndex = consentIDSetBinding.setParameters(preparedStatement, parameterIndex, values);
+                continue;
+            }
+            for (String value : values) {
+                preparedStatement.setString(parameterIndex, value.trim());
+                parameterIndex++;
+            }
+        }
+        return parameterIndex;
+    }
+
     /**
      * Get the size of the result set.
      *
@@ -618,6 +684,20 @@ public class ConsentManagementDAOUtil {
         return consentAmendmentHistoryDataMap;
     }
 
+    /**
+     * Get the upper bound of the ISO-8601 expiring time attribute values of the consents which may have expired at
+     * the given time. The values are compared as strings, hence the bound is the local date time at the largest UTC
+     * offset, which is not earlier than the local date time of any expired value regardless of its offset.
+     *
+     * @param expiryTime time in epoch seconds
+     * @return upper bound of the ISO-8601 expiring time values
+     */
+    public static String getDateTimeExpirationTimeUpperBound(long expiryTime) {
+
+        return LocalDateTime.ofEpochSecond(expiryTime + ZoneOffset.MAX.getTotalSeconds() + 1, 0, ZoneOffset.UTC)
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
     /**
      * Method to construct excluded statuses search condition.
      *
@@ -643,4 +723,19 @@ public class ConsentManagementDAOUtil {
         placeHoldersBuilder.delete(0, placeHoldersBuilder.length());
         return statusesEligibleForExpirationFilterBuilder.toString();
     }
+
+    /**
+     * Construct a comma separated list of placeholders to be used in a SQL "IN" clause.
+     *
+     * @param count  number of placeholders
+     * @return comma separated placeholders
+     */
+    public static String constructPlaceholders(int count) {
+
+        StringBuilder placeHoldersBuilder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeHoldersBuilder.append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.PLACEHOLDER));
+        }
+        return StringUtils.removeEnd(placeHoldersBuilder.toString(), COMMA);
+    }
 }
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Binds the consent IDs to "IN" lists padded to a power of two placeholders, so that only a logarithmic number of
+ * query texts is created for the possible consent ID counts. The padding placeholders repeat the last consent ID.
+ * When the consent IDs do not fit a single list, they are split over lists of the maximum size combined with "OR",
+ * and the number of lists is padded to a power of two as well.
+ * <p>
+ * Padding never takes the number of placeholders beyond the maximum padded parameter count. Larger consent ID
+ * counts are bound without padding, one placeholder per consent ID, so that the padding alone never exceeds the
+ * parameter limit of a database.
+ */
+public class PaddedInListConsentIDSetBinding implements ConsentIDSetBinding {
+
+    private final int maxListSize;
+    private final int maxPaddedParameterCount;
+
+    /**
+     * Create a padded "IN" list binding.
+     *
+     * @param maxListSize  maximum number of values allowed in a single "IN" list by the database
+     */
+    public PaddedInListConsentIDSetBinding(int maxListSize) {
+
+        this(maxListSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a padded "IN" list binding with a cap on the padded number of placeholders.
+     *
+     * @param maxListSize              maximum number of values allowed in a single "IN" list by the database
+     * @param maxPaddedParameterCount  maximum number of placeholders of a padded condition
+     */
+    public PaddedInListConsentIDSetBinding(int maxListSize, int maxPaddedParameterCount) {
+
+        this.maxListSize = maxListSize;
+        this.maxPaddedParameterCount = maxPaddedParameterCount;
+    }
+
+    @Override
+    public String constructCondition(String column, int consentIDCount) {
+
+        StringBuilder condition = new StringBuilder();
+        int listCount = 0;
+        for (int remaining = getParameterCount(consentIDCount); remaining > 0; remaining -= maxListSize) {
+            if (listCount++ > 0) {
+                condition.append(" OR ");
+            }
+            condition.append(column).append(" IN (?");
+            for (int i = 1; i < Math.min(remaining, maxListSize); i++) {
+                condition.append(",?");
+            }
+            condition.append(")");
+        }
+        return listCount == 1 ? condition.toString() : "(" + condition + ")";
+    }
+
+    @Override
+    public int getParameterCount(int consentIDCount) {
+
+        int listSize = getListSize(consentIDCount);
+        int paddedCount = listSize * getListCount(consentIDCount, listSize);
+        return paddedCount <= maxPaddedParameterCount ? paddedCount : Math.max(consentIDCount, 1);
+    }
+
+    @Override
+    public int setParameters(PreparedStatement preparedStatement, int parameterIndex, List<String> consentIDs)
+            throws SQLException {
+
+        int placeholderCount = getParameterCount(consentIDs.size());
+        String lastConsentID = consentIDs.get(consentIDs.size() - 1).trim();
+
+        for (int i = 0; i < placeholderCount; i++) {
+            preparedStatement.setString(parameterIndex++,
+                    i < consentIDs.size() ? consentIDs.get(i).trim() : lastConsentID);
+        }
+        return parameterIndex;
+    }
+
+    private int getListSize(int consentIDCount) {
+
+        return Math.min(getNextPowerOfTwo(consentIDCount), maxListSize);
+    }
+
+    private int getListCount(int consentIDCount, int listSize) {
+
+        return getNextPowerOfTwo((consentIDCount + listSize - 1) / listSize);
+    }
+
+    private static int getNextPowerOfTwo(int value) {
+
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
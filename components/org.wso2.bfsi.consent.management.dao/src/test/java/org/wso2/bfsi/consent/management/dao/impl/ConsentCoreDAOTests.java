@@ -34,10 +34,16 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
 import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtCommonDBQueries;
+import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtMysqlDBQueries;
 import org.wso2.bfsi.consent.management.dao.util.ConsentManagementDAOTestDataProvider;
+import org.wso2.bfsi.consent.management.dao.util.ConsentManagementDAOUtil;
 import org.wso2.bfsi.consent.management.dao.util.ConsentMgtDAOTestData;
 import org.wso2.bfsi.consent.management.dao.util.DAOUtils;
 
@@ -47,9 +53,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Consent management DAO tests.
@@ -366,6 +378,41 @@ public class ConsentCoreDAOTests {
         Assert.assertEquals(retrievedDetailedConsentResource.getConsentMappingResources().size(), 3);
     }
 
+    @Test
+    public void testRetrieveDetailedConsentResourceWithoutSessionData() throws Exception {
+
+        ConsentResource storedConsentResource;
+        DetailedConsentResource retrievedDetailedConsentResource;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storedConsentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            consentCoreDAO.storeConsentAttributes(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentAttributesObject(storedConsentResource.getConsentID()));
+            retrievedDetailedConsentResource = consentCoreDAO.getDetailedConsentResource(connection,
+                    storedConsentResource.getConsentID());
+        }
+
+        Assert.assertEquals(retrievedDetailedConsentResource.getConsentAttributes().size(),
+                ConsentMgtDAOTestData.SAMPLE_CONSENT_ATTRIBUTES_MAP.size() - 1);
+        Assert.assertFalse(retrievedDetailedConsentResource.getConsentAttributes()
+                .containsKey(ConsentMgtDAOConstants.SESSION_DATA_KEY));
+        Assert.assertTrue(retrievedDetailedConsentResource.getAuthorizationResources().isEmpty());
+        Assert.assertTrue(retrievedDetailedConsentResource.getConsentMappingResources().isEmpty());
+    }
+
+    @Test
+    public void testIsSessionDataAttribute() {
+
+        Assert.assertTrue(ConsentManagementDAOUtil.isSessionDataAttribute(
+                ConsentMgtDAOTestData.SAMPLE_CONSENT_ATTRIBUTES_MAP.get(ConsentMgtDAOConstants.SESSION_DATA_KEY)));
+        Assert.assertTrue(ConsentManagementDAOUtil.isSessionDataAttribute(" [{\"sessionDataKey\":\"key\"}]"));
+        Assert.assertFalse(ConsentManagementDAOUtil.isSessionDataAttribute("sessionDataKey"));
+        Assert.assertFalse(ConsentManagementDAOUtil.isSessionDataAttribute("{\"userId\":\"01Z79\"}"));
+        Assert.assertFalse(ConsentManagementDAOUtil.isSessionDataAttribute(""));
+        Assert.assertFalse(ConsentManagementDAOUtil.isSessionDataAttribute(null));
+    }
+
     @Test (expectedExceptions = ConsentDataRetrievalException.class)
     public void testRetrieveDetailedConsentResourceError() throws Exception {
 
@@ -774,6 +821,50 @@ public class ConsentCoreDAOTests {
         consentCoreDAO.storeConsentMappingResource(mockedConnection, new ConsentMappingResource());
     }
 
+    @Test
+    public void testStoreConsentMappingResources() throws Exception {
+
+        ConsentCoreDAOImpl dao = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        // Use a batch size smaller than the number of mappings to execute the batch in several chunks
+        dao.setBatchSize(2);
+
+        ArrayList<ConsentMappingResource> storedConsentMappingResources;
+        ArrayList<ConsentMappingResource> retrievedConsentMappingResources;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            ConsentResource storedConsentResource = dao.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            AuthorizationResource storedAuthorizationResource = dao.storeAuthorizationResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestAuthorizationResource(storedConsentResource.getConsentID()));
+
+            ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                consentMappingResources.add(ConsentMgtDAOTestData.getSampleTestConsentMappingResourceWithAccountId(
+                        storedAuthorizationResource.getAuthorizationID(), "accountID" + i));
+            }
+            storedConsentMappingResources = dao.storeConsentMappingResources(connection, consentMappingResources);
+            retrievedConsentMappingResources = dao.getConsentMappingResources(connection,
+                    storedAuthorizationResource.getAuthorizationID());
+        }
+        Assert.assertEquals(storedConsentMappingResources.size(), 5);
+        for (ConsentMappingResource resource : storedConsentMappingResources) {
+            Assert.assertNotNull(resource.getMappingID());
+        }
+        Assert.assertEquals(retrievedConsentMappingResources.size(), 5);
+    }
+
+    @Test (expectedExceptions = ConsentDataInsertionException.class)
+    public void testStoreConsentMappingResourcesSQLError() throws Exception {
+
+        ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+        consentMappingResources.add(ConsentMgtDAOTestData.getSampleTestConsentMappingResource(ConsentMgtDAOTestData
+                .getSampleStoredTestAuthorizationResource().getAuthorizationID()));
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeBatch();
+        consentCoreDAO.storeConsentMappingResources(mockedConnection, consentMappingResources);
+    }
+
     @Test
     public void testRetrieveConsentMappingResource() throws Exception {
 
@@ -850,6 +941,35 @@ public class ConsentCoreDAOTests {
                 ConsentMgtDAOTestData.SAMPLE_MAPPING_STATUS);
     }
 
+    @Test
+    public void testGetConsentIDsByMappingIDs() throws Exception {
+
+        Set<String> consentIDs;
+        ConsentResource storedConsentResource;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+
+            storedConsentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            AuthorizationResource storedAuthorizationResource = consentCoreDAO.storeAuthorizationResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestAuthorizationResource(storedConsentResource.getConsentID()));
+            ConsentMappingResource storedConsentMappingResource = consentCoreDAO.storeConsentMappingResource(
+                    connection, ConsentMgtDAOTestData.getSampleTestConsentMappingResource(
+                            storedAuthorizationResource.getAuthorizationID()));
+
+            consentIDs = consentCoreDAO.getConsentIDsByMappingIDs(connection, Arrays.asList(
+                    storedConsentMappingResource.getMappingID(), ConsentMgtDAOTestData.UNMATCHED_MAPPING_IDS.get(0)));
+        }
+        Assert.assertEquals(consentIDs, Collections.singleton(storedConsentResource.getConsentID()));
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testGetConsentIDsByMappingIDsSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getConsentIDsByMappingIDs(mockedConnection, ConsentMgtDAOTestData.UNMATCHED_MAPPING_IDS);
+    }
+
     @Test
     public void testStoreConsentAttributes() throws Exception {
 
@@ -1618,6 +1738,347 @@ public class ConsentCoreDAOTests {
                 null, null, null, null, null, null);
     }
 
+    @Test
+    public void testCountConsentsWithConsentIDsList() throws Exception {
+
+        int consentCount;
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        ArrayList<String> consentIDs = new ArrayList<>();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            consentCount = consentCoreDAO.countConsents(connection, consentIDs, null, null, null, null,
+                    null, null);
+            detailedConsentResources = consentCoreDAO.searchConsents(connection, consentIDs, null,
+                    null, null, null, null, null, null, null);
+        }
+
+        Assert.assertEquals(consentCount, consentIDs.size());
+        Assert.assertEquals(consentCount, detailedConsentResources.size());
+    }
+
+    @Test
+    public void testSearchConsentsWithConsentIDsAndClientIDs() throws Exception {
+
+        int consentCount;
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<String> clientIDs = new ArrayList<>();
+        clientIDs.add(ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0));
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            consentCount = consentCoreDAO.countConsents(connection, consentIDs, clientIDs, null, null, null,
+                    null, null);
+            detailedConsentResources = consentCoreDAO.searchConsents(connection, consentIDs, clientIDs,
+                    null, null, null, null, null, null, null);
+        }
+
+        // The client ID condition should apply to all the consent IDs
+        Assert.assertEquals(consentCount, 1);
+        Assert.assertEquals(detailedConsentResources.size(), 1);
+        Assert.assertEquals(detailedConsentResources.get(0).getConsentID(), consentIDs.get(0));
+    }
+
+    @Test
+    public void testSearchConsentsReusesCompiledQueryOfShape() throws Exception {
+
+        ConsentCoreDAOImpl consentCoreDAOImpl = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        ArrayList<DetailedConsentResource> paddedDetailedConsentResources;
+        ArrayList<String> consentIDs = new ArrayList<>();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            detailedConsentResources = consentCoreDAOImpl.searchConsents(connection, consentIDs, null,
+                    null, null, null, null, null, null, null);
+
+            // 3 and 4 consent IDs are searched with the same compiled query
+            ArrayList<String> paddedConsentIDs = new ArrayList<>(consentIDs);
+            paddedConsentIDs.add("non-existing-consent-id");
+            paddedDetailedConsentResources = consentCoreDAOImpl.searchConsents(connection, paddedConsentIDs, null,
+                    null, null, null, null, null, null, null);
+        }
+
+        Assert.assertEquals(consentCoreDAOImpl.searchQueryRegistry.size(), 1);
+        Assert.assertEquals(detailedConsentResources.size(), consentIDs.size());
+        Assert.assertEquals(paddedDetailedConsentResources.size(), consentIDs.size());
+    }
+
+    @Test
+    public void testCountConsentsMatchesSearchResults() throws Exception {
+
+        int consentCount;
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        ArrayList<String> consentIDs = new ArrayList<>();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            consentCount = consentCoreDAO.countConsents(connection, null,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, ConsentMgtDAOTestData.SAMPLE_CONSENT_TYPES_LIST,
+                    ConsentMgtDAOTestData.SAMPLE_CONSENT_STATUSES_LIST, ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST,
+                    null, null);
+            detailedConsentResources = consentCoreDAO.searchConsents(connection, null,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, ConsentMgtDAOTestData.SAMPLE_CONSENT_TYPES_LIST,
+                    ConsentMgtDAOTestData.SAMPLE_CONSENT_STATUSES_LIST, ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST,
+                    null, null, null, null);
+        }
+
+        Assert.assertTrue(consentCount > 0);
+        Assert.assertEquals(consentCount, detailedConsentResources.size());
+    }
+
+    @Test
+    public void testCountConsentsWithTimePeriod() throws Exception {
+
+        int consentCount;
+        ArrayList<String> consentIDs = new ArrayList<>();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            consentCount = consentCoreDAO.countConsents(connection, consentIDs, null, null, null, null,
+                    1669917425L, 1669917425L);
+        }
+
+        Assert.assertEquals(consentCount, 0);
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testCountConsentsSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.countConsents(mockedConnection, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void testSearchConsentsByCursor() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        Set<String> retrievedConsentIDs = new HashSet<>();
+        int pageCount = 0;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+
+            ConsentSearchCursor cursor = null;
+            do {
+                ConsentSearchPage<DetailedConsentResource> page = consentCoreDAO.searchConsentsByCursor(connection,
+                        consentIDs, null, null, null, null, null, null, 1, cursor);
+                Assert.assertTrue(page.getResults().size() <= 1);
+                for (DetailedConsentResource resource : page.getResults()) {
+                    // Consents should not be repeated across pages
+                    Assert.assertTrue(retrievedConsentIDs.add(resource.getConsentID()));
+                    Assert.assertNotNull(resource.getAuthorizationResources());
+                }
+                cursor = page.getNextCursor();
+                pageCount++;
+            } while (cursor != null && pageCount <= consentIDs.size());
+        }
+
+        Assert.assertEquals(retrievedConsentIDs, new HashSet<>(consentIDs));
+        Assert.assertEquals(pageCount, consentIDs.size());
+    }
+
+    @Test
+    public void testSearchConsentsByCursorWithUserIDs() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ConsentSearchPage<DetailedConsentResource> firstPage;
+        ConsentSearchPage<DetailedConsentResource> nextPage;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            firstPage = consentCoreDAO.searchConsentsByCursor(connection, consentIDs,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                    ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST, null, null, 2, null);
+            nextPage = consentCoreDAO.searchConsentsByCursor(connection, consentIDs,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                    ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST, null, null, 2,
+                    ConsentSearchCursor.fromContinuationToken(firstPage.getNextContinuationToken()));
+        }
+
+        Assert.assertEquals(firstPage.getResults().size(), 2);
+        Assert.assertNotNull(firstPage.getNextContinuationToken());
+        for (DetailedConsentResource resource : nextPage.getResults()) {
+            Assert.assertFalse(firstPage.getResults().stream()
+                    .anyMatch(previous -> previous.getConsentID().equals(resource.getConsentID())));
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testSearchConsentsByCursorSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString(),
+                Mockito.anyInt(), Mockito.anyInt());
+        consentCoreDAO.searchConsentsByCursor(mockedConnection, null, null, null, null, null, null, null, 10,
+                new ConsentSearchCursor(1669917425L, ConsentMgtDAOTestData.SAMPLE_CONSENT_ID));
+    }
+
+    @Test
+    public void testStreamConsents() throws Exception {
+
+        int streamedConsentCount;
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> searchedConsents;
+        ArrayList<DetailedConsentResource> streamedConsents = new ArrayList<>();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            streamedConsentCount = consentCoreDAO.streamConsents(connection, consentIDs, null, null, null,
+                    ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST, null, null, 1, streamedConsents::add);
+            searchedConsents = consentCoreDAO.searchConsents(connection, consentIDs, null, null, null,
+                    ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST, null, null, null, null);
+        }
+
+        Assert.assertEquals(streamedConsentCount, consentIDs.size());
+        Assert.assertEquals(streamedConsents.size(), searchedConsents.size());
+        for (int index = 0; index < streamedConsents.size(); index++) {
+            Assert.assertEquals(streamedConsents.get(index).getConsentID(),
+                    searchedConsents.get(index).getConsentID());
+            Assert.assertEquals(streamedConsents.get(index).getAuthorizationResources().size(),
+                    searchedConsents.get(index).getAuthorizationResources().size());
+            Assert.assertEquals(streamedConsents.get(index).getConsentAttributes(),
+                    searchedConsents.get(index).getConsentAttributes());
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testStreamConsentsSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString(),
+                Mockito.anyInt(), Mockito.anyInt());
+        consentCoreDAO.streamConsents(mockedConnection, null, null, null, null, null, null, null, 10,
+                consent -> { });
+    }
+
+    @Test
+    public void testStreamConsentsWithMysqlStreamingFetchSize() throws Exception {
+
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.doReturn(preparedStatement).when(connection).prepareStatement(Mockito.anyString(),
+                Mockito.anyInt(), Mockito.anyInt());
+        Mockito.doReturn(resultSet).when(preparedStatement).executeQuery();
+        Mockito.doReturn(false).when(resultSet).next();
+
+        int streamedConsentCount = new ConsentCoreDAOImpl(new ConsentMgtMysqlDBQueries()).streamConsents(connection,
+                null, null, null, null, null, null, null, 10, consent -> { });
+
+        Assert.assertEquals(streamedConsentCount, 0);
+        Mockito.verify(preparedStatement).setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testSearchConsentsInTwoPhases() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> groupedSearchResult;
+        ArrayList<DetailedConsentResource> twoPhaseSearchResult;
+        ConsentCoreDAOImpl twoPhaseSearchDAO = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        twoPhaseSearchDAO.setTwoPhaseSearchEnabled(true);
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            groupedSearchResult = consentCoreDAO.searchConsents(connection, consentIDs,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                    ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST, null, null, null, null);
+            twoPhaseSearchResult = twoPhaseSearchDAO.searchConsents(connection, consentIDs,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                    ConsentMgtDAOTestData.SAMPLE_USER_IDS_LIST, null, null, null, null);
+        }
+
+        Assert.assertFalse(twoPhaseSearchResult.isEmpty());
+        Assert.assertEquals(twoPhaseSearchResult.size(), groupedSearchResult.size());
+        for (DetailedConsentResource groupedResource : groupedSearchResult) {
+            DetailedConsentResource twoPhaseResource = twoPhaseSearchResult.stream()
+                    .filter(resource -> resource.getConsentID().equals(groupedResource.getConsentID()))
+                    .findFirst().orElse(null);
+            Assert.assertNotNull(twoPhaseResource);
+            Assert.assertEquals(twoPhaseResource.getClientID(), groupedResource.getClientID());
+            Assert.assertEquals(twoPhaseResource.getReceipt(), groupedResource.getReceipt());
+            Assert.assertEquals(twoPhaseResource.getCurrentStatus(), groupedResource.getCurrentStatus());
+            Assert.assertEquals(twoPhaseResource.getUpdatedTime(), groupedResource.getUpdatedTime());
+            Assert.assertEquals(twoPhaseResource.getConsentAttributes(), groupedResource.getConsentAttributes());
+            Assert.assertEquals(twoPhaseResource.getAuthorizationResources().size(),
+                    groupedResource.getAuthorizationResources().size());
+            Assert.assertEquals(twoPhaseResource.getConsentMappingResources().size(),
+                    groupedResource.getConsentMappingResources().size());
+        }
+    }
+
+    @Test
+    public void testSearchConsentsInTwoPhasesWithLimitAndOffset() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> firstPage;
+        ArrayList<DetailedConsentResource> secondPage;
+        ConsentCoreDAOImpl twoPhaseSearchDAO = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        twoPhaseSearchDAO.setTwoPhaseSearchEnabled(true);
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            firstPage = twoPhaseSearchDAO.searchConsents(connection, consentIDs, null, null, null, null,
+                    null, null, 1, 0);
+            secondPage = twoPhaseSearchDAO.searchConsents(connection, consentIDs, null, null, null, null,
+                    null, null, 1, 1);
+        }
+
+        Assert.assertEquals(firstPage.size(), 1);
+        Assert.assertEquals(secondPage.size(), 1);
+        Assert.assertNotEquals(firstPage.get(0).getConsentID(), secondPage.get(0).getConsentID());
+    }
+
+    @Test
+    public void testSearchConsentsInTwoPhasesWithSeparatorInAttributeValues() throws Exception {
+
+        String attributeValue = "first||second";
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        ConsentCoreDAOImpl twoPhaseSearchDAO = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        twoPhaseSearchDAO.setTwoPhaseSearchEnabled(true);
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            String consentID = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource()).getConsentID();
+            consentCoreDAO.storeConsentAttributes(connection, new ConsentAttributes(consentID,
+                    Map.of("first-key", attributeValue, "second-key", attributeValue)));
+            detailedConsentResources = twoPhaseSearchDAO.searchConsents(connection,
+                    new ArrayList<>(List.of(consentID)), null, null, null, null, null, null, null, null);
+        }
+
+        Assert.assertEquals(detailedConsentResources.size(), 1);
+        Assert.assertEquals(detailedConsentResources.get(0).getConsentAttributes().get("first-key"), attributeValue);
+        Assert.assertEquals(detailedConsentResources.get(0).getConsentAttributes().get("second-key"), attributeValue);
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testSearchConsentsInTwoPhasesSQLError() throws Exception {
+
+        ConsentCoreDAOImpl twoPhaseSearchDAO = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        twoPhaseSearchDAO.setTwoPhaseSearchEnabled(true);
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString(),
+                Mockito.anyInt(), Mockito.anyInt());
+        twoPhaseSearchDAO.searchConsents(mockedConnection, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void testConsentSearchCursorContinuationToken() {
+
+        ConsentSearchCursor cursor = new ConsentSearchCursor(1669917425L, ConsentMgtDAOTestData.SAMPLE_CONSENT_ID);
+        ConsentSearchCursor decodedCursor = ConsentSearchCursor.fromContinuationToken(cursor.toContinuationToken());
+
+        Assert.assertEquals(decodedCursor.getTimestamp(), cursor.getTimestamp());
+        Assert.assertEquals(decodedCursor.getId(), cursor.getId());
+        Assert.assertNull(ConsentSearchCursor.fromContinuationToken(null));
+    }
+
+    @Test (expectedExceptions = IllegalArgumentException.class)
+    public void testConsentSearchCursorInvalidContinuationToken() {
+
+        ConsentSearchCursor.fromContinuationToken("invalid-token");
+    }
+
     @Test
     public void testSearchConsentAuthorizations() throws Exception {
 
@@ -2009,6 +2470,52 @@ public class ConsentCoreDAOTests {
         }
     }
 
+    @Test
+    public void testGetConsentStatusAuditRecordsByCursor() throws Exception {
+
+        ConsentSearchPage<ConsentStatusAuditRecord> firstPage;
+        ConsentSearchPage<ConsentStatusAuditRecord> secondPage;
+        ArrayList<String> consentIds = new ArrayList<>();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            ConsentResource storedConsentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            consentIds.add(storedConsentResource.getConsentID());
+
+            for (int i = 0; i < 3; i++) {
+                consentCoreDAO.storeConsentStatusAuditRecord(connection, ConsentMgtDAOTestData
+                        .getSampleTestConsentStatusAuditRecord(storedConsentResource.getConsentID(),
+                                storedConsentResource.getCurrentStatus()));
+            }
+            connection.commit();
+
+            firstPage = consentCoreDAO.getConsentStatusAuditRecordsByCursor(connection, consentIds, 2, null);
+            secondPage = consentCoreDAO.getConsentStatusAuditRecordsByCursor(connection, consentIds, 2,
+                    firstPage.getNextCursor());
+        }
+
+        Assert.assertEquals(firstPage.getResults().size(), 2);
+        Assert.assertNotNull(firstPage.getNextCursor());
+        Assert.assertEquals(secondPage.getResults().size(), 1);
+        Assert.assertNull(secondPage.getNextCursor());
+        Assert.assertNull(secondPage.getNextContinuationToken());
+        Set<String> statusAuditIDs = new HashSet<>();
+        for (ConsentStatusAuditRecord record : firstPage.getResults()) {
+            statusAuditIDs.add(record.getStatusAuditID());
+        }
+        for (ConsentStatusAuditRecord record : secondPage.getResults()) {
+            Assert.assertEquals(record.getConsentID(), consentIds.get(0));
+            Assert.assertTrue(statusAuditIDs.add(record.getStatusAuditID()));
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testGetConsentStatusAuditRecordsByCursorSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getConsentStatusAuditRecordsByCursor(mockedConnection, new ArrayList<>(), 10, null);
+    }
+
     @Test (expectedExceptions = ConsentDataRetrievalException.class)
     public void testGetConsentStatusAuditRecordsByConsentIdSQLError() throws Exception {
         ArrayList<String> consentIds = new ArrayList<>();
@@ -2085,6 +2592,51 @@ public class ConsentCoreDAOTests {
                 recordID, consentType, changedAttributes, amendmentReason);
     }
 
+    @Test
+    public void testStoreConsentAmendmentHistoryBatch() throws Exception {
+
+        ConsentCoreDAOImpl dao = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        dao.setBatchSize(2);
+
+        String historyID = UUID.randomUUID().toString();
+        Map<String, String> changedAttributesJsonStrings = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            changedAttributesJsonStrings.put(UUID.randomUUID().toString(), "{\"MAPPING_STATUS\":\"active\"}");
+        }
+
+        boolean result;
+        Map<String, ConsentHistoryResource> consentHistoryResourcesDataMap;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            result = dao.storeConsentAmendmentHistoryBatch(connection, historyID, System.currentTimeMillis() / 1000,
+                    ConsentMgtDAOConstants.TYPE_CONSENT_MAPPING_DATA, changedAttributesJsonStrings,
+                    ConsentMgtDAOTestData.SAMPLE_AMENDMENT_REASON);
+            consentHistoryResourcesDataMap = dao.retrieveConsentAmendmentHistory(connection,
+                    new ArrayList<>(changedAttributesJsonStrings.keySet()));
+        }
+        Assert.assertTrue(result);
+        Assert.assertTrue(consentHistoryResourcesDataMap.containsKey(historyID));
+    }
+
+    @Test (expectedExceptions = ConsentDataInsertionException.class)
+    public void testStoreConsentAmendmentHistoryBatchWithInvalidConsentType() throws Exception {
+
+        consentCoreDAO.storeConsentAmendmentHistoryBatch(mockedConnection, ConsentMgtDAOTestData.SAMPLE_HISTORY_ID,
+                0L, "sampleConsentType", Collections.singletonMap(UUID.randomUUID().toString(), "{}"),
+                ConsentMgtDAOTestData.SAMPLE_AMENDMENT_REASON);
+    }
+
+    @Test (expectedExceptions = ConsentDataInsertionException.class)
+    public void testStoreConsentAmendmentHistoryBatchSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeBatch();
+        consentCoreDAO.storeConsentAmendmentHistoryBatch(mockedConnection, ConsentMgtDAOTestData.SAMPLE_HISTORY_ID,
+                0L, ConsentMgtDAOConstants.TYPE_CONSENT_MAPPING_DATA,
+                Collections.singletonMap(UUID.randomUUID().toString(), "{}"),
+                ConsentMgtDAOTestData.SAMPLE_AMENDMENT_REASON);
+    }
+
     @Test(dependsOnMethods = {"testStoreConsentAmendmentHistory"})
     public void testRetrieveConsentAmendmentHistory() throws Exception {
 
@@ -2208,6 +2760,330 @@ public class ConsentCoreDAOTests {
         consentCoreDAO.getExpiringConsents(mockedConnection, "authorised,awaitingAuthorisation");
     }
 
+    @Test
+    public void testRetrieveExpiringConsentsInBatches() throws Exception {
+
+        String batchTestStatus = "expiryBatchCheck";
+        ArrayList<DetailedConsentResource> firstBatch;
+        ArrayList<DetailedConsentResource> secondBatch;
+        ArrayList<DetailedConsentResource> thirdBatch;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            for (int i = 0; i < 3; i++) {
+                ConsentResource consentResource = ConsentMgtDAOTestData.getSampleTestConsentResource();
+                consentResource.setCurrentStatus(batchTestStatus);
+                consentResource = consentCoreDAO.storeConsentResource(connection, consentResource);
+
+                ConsentAttributes consentAttributesResource = ConsentMgtDAOTestData
+                        .getSampleTestConsentAttributesObject(consentResource.getConsentID());
+                consentAttributesResource.getConsentAttributes().put(
+                        ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE, "1632918113");
+                consentCoreDAO.storeConsentAttributes(connection, consentAttributesResource);
+            }
+
+            long currentTime = System.currentTimeMillis() / 1000;
+            firstBatch = consentCoreDAO.getExpiringConsents(connection, batchTestStatus, currentTime, null, 2);
+            String cursor = getLargestConsentID(firstBatch);
+            secondBatch = consentCoreDAO.getExpiringConsents(connection, batchTestStatus, currentTime, cursor, 2);
+            thirdBatch = consentCoreDAO.getExpiringConsents(connection, batchTestStatus, currentTime,
+                    getLargestConsentID(secondBatch), 2);
+        }
+        Assert.assertEquals(firstBatch.size(), 2);
+        Assert.assertEquals(secondBatch.size(), 1);
+        Assert.assertTrue(thirdBatch.isEmpty());
+        Assert.assertTrue(getLargestConsentID(firstBatch).compareTo(secondBatch.get(0).getConsentID()) < 0);
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testRetrieveExpiringConsentsInBatchesDataRetrievalError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeQuery();
+        consentCoreDAO.getExpiringConsents(mockedConnection, "authorised,awaitingAuthorisation", 0L, null, 10);
+    }
+
+    @Test
+    public void testRetrieveExpiringConsentsFiltersByExpiryTime() throws Exception {
+
+        String expiryTimeTestStatus = "expiryTimeCheck";
+        long currentTime = 1700000000L;
+        String[] expirationTimes = {"1699999999", "2023-11-14T23:13:19+01:00", "1700000100",
+                "2023-11-14T22:15:00Z", "2023-11-15T09:00:00+14:00"};
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> expiringConsents;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            for (String expirationTime : expirationTimes) {
+                ConsentResource consentResource = ConsentMgtDAOTestData.getSampleTestConsentResource();
+                consentResource.setCurrentStatus(expiryTimeTestStatus);
+                consentResource = consentCoreDAO.storeConsentResource(connection, consentResource);
+                consentIDs.add(consentResource.getConsentID());
+
+                Map<String, String> attributes = new HashMap<>();
+                attributes.put(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE, expirationTime);
+                consentCoreDAO.storeConsentAttributes(connection,
+                        new ConsentAttributes(consentResource.getConsentID(), attributes));
+            }
+
+            expiringConsents = consentCoreDAO.getExpiringConsents(connection, expiryTimeTestStatus, currentTime,
+                    null, 10);
+        }
+
+        // The epoch second later than the current time is filtered out by the database, while the date times later
+        // than the current time are only within the largest UTC offset and are left to be checked by the caller
+        Set<String> expiringConsentIDs = expiringConsents.stream().map(DetailedConsentResource::getConsentID)
+                .collect(Collectors.toSet());
+        Assert.assertEquals(expiringConsentIDs.size(), 4);
+        Assert.assertFalse(expiringConsentIDs.contains(consentIDs.get(2)));
+    }
+
+    @Test
+    public void testUpdateConsentStatuses() throws Exception {
+
+        ArrayList<String> updatedConsentIDs;
+        ArrayList<String> staleUpdatedConsentIDs;
+        ConsentResource retrievedConsentResource;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            ConsentResource consentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            ArrayList<DetailedConsentResource> consentResources = new ArrayList<>();
+            consentResources.add(consentCoreDAO.getDetailedConsentResource(connection,
+                    consentResource.getConsentID()));
+
+            updatedConsentIDs = consentCoreDAO.updateConsentStatuses(connection, consentResources,
+                    ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+            // The consent resource still holds the previous status, so the second update should not match it
+            staleUpdatedConsentIDs = consentCoreDAO.updateConsentStatuses(connection, consentResources,
+                    ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+            retrievedConsentResource = consentCoreDAO.getConsentResource(connection, consentResource.getConsentID());
+        }
+        Assert.assertEquals(updatedConsentIDs.size(), 1);
+        Assert.assertTrue(staleUpdatedConsentIDs.isEmpty());
+        Assert.assertEquals(retrievedConsentResource.getCurrentStatus(), ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+    }
+
+    @Test (expectedExceptions = ConsentDataUpdationException.class)
+    public void testUpdateConsentStatusesSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeBatch();
+        consentCoreDAO.updateConsentStatuses(mockedConnection, new ArrayList<>(),
+                ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+    }
+
+    @Test
+    public void testStoreConsentStatusAuditRecords() throws Exception {
+
+        ArrayList<ConsentStatusAuditRecord> storedConsentStatusAuditRecords;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            ConsentResource storedConsentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+
+            ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                ConsentStatusAuditRecord consentStatusAuditRecord = new ConsentStatusAuditRecord();
+                consentStatusAuditRecord.setConsentID(storedConsentResource.getConsentID());
+                consentStatusAuditRecord.setCurrentStatus(ConsentMgtDAOTestData.SAMPLE_CURRENT_STATUS);
+                consentStatusAuditRecord.setReason(ConsentMgtDAOTestData.SAMPLE_REASON);
+                consentStatusAuditRecord.setActionBy(ConsentMgtDAOTestData.SAMPLE_ACTION_BY);
+                consentStatusAuditRecord.setPreviousStatus(ConsentMgtDAOTestData.SAMPLE_PREVIOUS_STATUS);
+                consentStatusAuditRecords.add(consentStatusAuditRecord);
+            }
+            storedConsentStatusAuditRecords = consentCoreDAO.storeConsentStatusAuditRecords(connection,
+                    consentStatusAuditRecords);
+        }
+        Assert.assertEquals(storedConsentStatusAuditRecords.size(), 2);
+        for (ConsentStatusAuditRecord record : storedConsentStatusAuditRecords) {
+            Assert.assertNotNull(record.getStatusAuditID());
+            Assert.assertTrue(record.getActionTime() > 0);
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataInsertionException.class)
+    public void testStoreConsentStatusAuditRecordsSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeBatch();
+        consentCoreDAO.storeConsentStatusAuditRecords(mockedConnection, new ArrayList<>());
+    }
+
+    @Test
+    public void testAcquireAndReleaseConsentLease() throws Exception {
+
+        String leaseName = "testLease";
+        long expiryTime = System.currentTimeMillis() / 1000 + 60;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            Assert.assertTrue(consentCoreDAO.acquireConsentLease(connection, leaseName, "node1", expiryTime));
+            Assert.assertFalse(consentCoreDAO.acquireConsentLease(connection, leaseName, "node2", expiryTime));
+            // The current owner is able to renew the lease
+            Assert.assertTrue(consentCoreDAO.acquireConsentLease(connection, leaseName, "node1", expiryTime));
+
+            consentCoreDAO.releaseConsentLease(connection, leaseName, "node1");
+            Assert.assertTrue(consentCoreDAO.acquireConsentLease(connection, leaseName, "node2", expiryTime));
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataUpdationException.class)
+    public void testAcquireConsentLeaseSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeUpdate();
+        consentCoreDAO.acquireConsentLease(mockedConnection, "testLease", "node1", 0);
+    }
+
+    @Test
+    public void testStoreAndProcessTokenRevocationRecords() throws Exception {
+
+        ConsentCoreDAOImpl dao = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries());
+        dao.setBatchSize(2);
+        String consentID = UUID.randomUUID().toString();
+        ArrayList<TokenRevocationRecord> tokenRevocationRecords = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tokenRevocationRecords.add(new TokenRevocationRecord(consentID,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0), ConsentMgtDAOTestData.SAMPLE_USER_ID));
+        }
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            int pendingCount = dao.countPendingTokenRevocationRecords(connection, 5);
+            dao.storeTokenRevocationRecords(connection, tokenRevocationRecords);
+            long currentTime = System.currentTimeMillis() / 1000 + 1;
+
+            List<TokenRevocationRecord> dueRecords = getTokenRevocationRecordsOfConsent(
+                    dao.getDueTokenRevocationRecords(connection, currentTime, 5, 100), consentID);
+            Assert.assertEquals(dueRecords.size(), 3);
+            Assert.assertEquals(dao.countPendingTokenRevocationRecords(connection, 5), pendingCount + 3);
+
+            // A claim fails once the record is claimed by someone else
+            TokenRevocationRecord claimedRecord = dueRecords.get(0);
+            TokenRevocationRecord staleRecord = new TokenRevocationRecord();
+            staleRecord.setRevocationID(claimedRecord.getRevocationID());
+            staleRecord.setNextAttemptTime(claimedRecord.getNextAttemptTime());
+            Assert.assertTrue(dao.claimTokenRevocationRecord(connection, claimedRecord, currentTime + 60));
+            Assert.assertFalse(dao.claimTokenRevocationRecord(connection, staleRecord, currentTime + 60));
+
+            // Records which reached the maximum number of attempts are not due anymore
+            dao.updateTokenRevocationRecordAttempt(connection, dueRecords.get(1).getRevocationID(), 5,
+                    currentTime, "error");
+            dao.deleteTokenRevocationRecord(connection, dueRecords.get(2).getRevocationID());
+
+            Assert.assertTrue(getTokenRevocationRecordsOfConsent(
+                    dao.getDueTokenRevocationRecords(connection, currentTime, 5, 100), consentID).isEmpty());
+            Assert.assertEquals(dao.countPendingTokenRevocationRecords(connection, 5), pendingCount + 1);
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataInsertionException.class)
+    public void testStoreTokenRevocationRecordsSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeBatch();
+        consentCoreDAO.storeTokenRevocationRecords(mockedConnection, new ArrayList<>(Collections.singletonList(
+                new TokenRevocationRecord(ConsentMgtDAOTestData.SAMPLE_CONSENT_ID,
+                        ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0), ConsentMgtDAOTestData.SAMPLE_USER_ID))));
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testGetDueTokenRevocationRecordsSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeQuery();
+        consentCoreDAO.getDueTokenRevocationRecords(mockedConnection, 0L, 5, 100);
+    }
+
+    @Test (expectedExceptions = ConsentDataUpdationException.class)
+    public void testClaimTokenRevocationRecordSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeUpdate();
+        consentCoreDAO.claimTokenRevocationRecord(mockedConnection, new TokenRevocationRecord(), 0L);
+    }
+
+    @Test (expectedExceptions = ConsentDataDeletionException.class)
+    public void testDeleteTokenRevocationRecordSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.deleteTokenRevocationRecord(mockedConnection, UUID.randomUUID().toString());
+    }
+
+    @Test
+    public void testStoreRetrieveAndDeleteIdempotencyKeyRecords() throws Exception {
+
+        String clientID = ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0);
+        String idempotencyKey = UUID.randomUUID().toString();
+        IdempotencyKeyRecord idempotencyKeyRecord = new IdempotencyKeyRecord(clientID, idempotencyKey,
+                ConsentMgtDAOTestData.SAMPLE_CONSENT_ID, "samplePayloadHash");
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            IdempotencyKeyRecord storedRecord = consentCoreDAO.storeIdempotencyKeyRecord(connection,
+                    idempotencyKeyRecord);
+            Assert.assertTrue(storedRecord.getCreatedTime() > 0);
+
+            IdempotencyKeyRecord retrievedRecord = consentCoreDAO.getIdempotencyKeyRecord(connection, clientID,
+                    idempotencyKey);
+            Assert.assertNotNull(retrievedRecord);
+            Assert.assertEquals(retrievedRecord.getConsentID(), ConsentMgtDAOTestData.SAMPLE_CONSENT_ID);
+            Assert.assertEquals(retrievedRecord.getPayloadHash(), "samplePayloadHash");
+            Assert.assertEquals(retrievedRecord.getCreatedTime(), storedRecord.getCreatedTime());
+
+            // Idempotency keys are scoped to the client
+            Assert.assertNull(consentCoreDAO.getIdempotencyKeyRecord(connection,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(1), idempotencyKey));
+
+            Assert.assertEquals(consentCoreDAO.deleteExpiredIdempotencyKeyRecords(connection,
+                    storedRecord.getCreatedTime()), 0);
+            Assert.assertTrue(consentCoreDAO.deleteExpiredIdempotencyKeyRecords(connection,
+                    storedRecord.getCreatedTime() + 1) > 0);
+            Assert.assertNull(consentCoreDAO.getIdempotencyKeyRecord(connection, clientID, idempotencyKey));
+        }
+    }
+
+    @Test (expectedExceptions = ConsentDataInsertionException.class)
+    public void testStoreIdempotencyKeyRecordSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeUpdate();
+        consentCoreDAO.storeIdempotencyKeyRecord(mockedConnection, new IdempotencyKeyRecord(
+                ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0), UUID.randomUUID().toString(),
+                ConsentMgtDAOTestData.SAMPLE_CONSENT_ID, "samplePayloadHash"));
+    }
+
+    @Test (expectedExceptions = ConsentDataRetrievalException.class)
+    public void testGetIdempotencyKeyRecordSQLError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeQuery();
+        consentCoreDAO.getIdempotencyKeyRecord(mockedConnection, ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0),
+                UUID.randomUUID().toString());
+    }
+
+    @Test (expectedExceptions = ConsentDataDeletionException.class)
+    public void testDeleteExpiredIdempotencyKeyRecordsSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.deleteExpiredIdempotencyKeyRecords(mockedConnection, 0L);
+    }
+
+    private List<TokenRevocationRecord> getTokenRevocationRecordsOfConsent(
+            List<TokenRevocationRecord> tokenRevocationRecords, String consentID) {
+
+        List<TokenRevocationRecord> consentTokenRevocationRecords = new ArrayList<>();
+        for (TokenRevocationRecord tokenRevocationRecord : tokenRevocationRecords) {
+            if (consentID.equals(tokenRevocationRecord.getConsentID())) {
+                consentTokenRevocationRecords.add(tokenRevocationRecord);
+            }
+        }
+        return consentTokenRevocationRecords;
+    }
+
+    private String getLargestConsentID(ArrayList<DetailedConsentResource> consentResources) {
+
+        return consentResources.stream().map(DetailedConsentResource::getConsentID)
+                .max(String::compareTo).orElse(null);
+    }
+
     private void storeDataForConsentSearchTest(ArrayList<String> consentIDs,
                                                Connection connection) throws ConsentDataInsertionException {
 
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Consent receipt model tests.
+ */
+public class ConsentReceiptTests {
+
+    private static final String RECEIPT = "{\"Data\":{\"Permissions\":[\"ReadAccountsDetail\",\"ReadBalances\"]," +
+            "\"ExpirationDateTime\":\"2030-01-01T00:00:00+00:00\",\"Initiation\":{\"InstructionIdentification\":" +
+            "\"ACME412\",\"InstructedAmount\":{\"Amount\":\"165.88\",\"Currency\":\"GBP\"}}}}";
+
+    @Test
+    public void testParseReceipt() {
+
+        ConsentReceipt consentReceipt = ConsentReceipt.parse(RECEIPT);
+
+        Assert.assertTrue(consentReceipt.isValid());
+        Assert.assertEquals(consentReceipt.getPermissions(), Arrays.asList("ReadAccountsDetail", "ReadBalances"));
+        Assert.assertEquals(consentReceipt.getAccountPermissions(),
+                EnumSet.of(AccountPermission.READ_ACCOUNTS_DETAIL, AccountPermission.READ_BALANCES));
+        Assert.assertEquals(consentReceipt.getExpirationDateTime(), "2030-01-01T00:00:00+00:00");
+        Assert.assertEquals(consentReceipt.getInitiation(), ConsentReceipt.parseJSON("{\"InstructedAmount\":" +
+                "{\"Currency\":\"GBP\",\"Amount\":\"165.88\"},\"InstructionIdentification\":\"ACME412\"}"));
+    }
+
+    @Test
+    public void testParseReceiptWithoutData() {
+
+        ConsentReceipt consentReceipt = ConsentReceipt.parse("{\"Risk\":{}}");
+
+        Assert.assertTrue(consentReceipt.isValid());
+        Assert.assertNull(consentReceipt.getData());
+        Assert.assertTrue(consentReceipt.getPermissions().isEmpty());
+        Assert.assertTrue(consentReceipt.getAccountPermissions().isEmpty());
+        Assert.assertNull(consentReceipt.getExpirationDateTime());
+        Assert.assertNull(consentReceipt.getInitiation());
+    }
+
+    @Test
+    public void testParseInvalidReceipt() {
+
+        Assert.assertFalse(ConsentReceipt.parse("{\"Data\":").isValid());
+        Assert.assertFalse(ConsentReceipt.parse("[]").isValid());
+        Assert.assertFalse(ConsentReceipt.parse(null).isValid());
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testParsedReceiptIsUnmodifiable() {
+
+        Map<String, Object> initiation = ConsentReceipt.parse(RECEIPT).getInitiation();
+        ((Map<String, Object>) initiation.get("InstructedAmount")).put("Amount", "0.00");
+    }
+
+    @Test
+    public void testParsedReceiptIsCachedWithConsent() {
+
+        DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
+        detailedConsentResource.setReceipt(RECEIPT);
+        ConsentReceipt consentReceipt = detailedConsentResource.getParsedReceipt();
+
+        Assert.assertSame(detailedConsentResource.getParsedReceipt(), consentReceipt);
+
+        detailedConsentResource.setReceipt("{\"Data\":{\"Permissions\":[\"ReadBalances\"]}}");
+        Assert.assertNotSame(detailedConsentResource.getParsedReceipt(), consentReceipt);
+        Assert.assertEquals(detailedConsentResource.getParsedReceipt().getPermissions(),
+                Arrays.asList("ReadBalances"));
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.models;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Detailed consent resource model tests.
+ */
+public class DetailedConsentResourceTests {
+
+    @Test
+    public void testCopyDoesNotShareState() {
+
+        AuthorizationResource authorizationResource = new AuthorizationResource("consentID", "userID",
+                "created", "authorization", 0L);
+        ConsentMappingResource consentMappingResource = new ConsentMappingResource("authID", "accountID",
+                "primary", "active");
+        DetailedConsentResource detailedConsentResource = new DetailedConsentResource("consentID", "clientID",
+                "{}", "accounts", "awaitingAuthorisation", 0, 0L, 0L, 0L, false,
+                new HashMap<>(Collections.singletonMap("key", "value")),
+                new ArrayList<>(Collections.singletonList(authorizationResource)),
+                new ArrayList<>(Collections.singletonList(consentMappingResource)));
+
+        DetailedConsentResource copy = new DetailedConsentResource(detailedConsentResource);
+        copy.setCurrentStatus("authorised");
+        copy.getConsentAttributes().put("key", "updatedValue");
+        copy.getAuthorizationResources().get(0).setAuthorizationStatus("authorised");
+        copy.getConsentMappingResources().add(new ConsentMappingResource());
+
+        Assert.assertEquals(copy.getConsentID(), "consentID");
+        Assert.assertEquals(detailedConsentResource.getCurrentStatus(), "awaitingAuthorisation");
+        Assert.assertEquals(detailedConsentResource.getConsentAttributes().get("key"), "value");
+        Assert.assertEquals(detailedConsentResource.getAuthorizationResources().get(0).getAuthorizationStatus(),
+                "created");
+        Assert.assertEquals(detailedConsentResource.getConsentMappingResources().size(), 1);
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.persistence;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.persistence.JDBCPersistenceManager;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.impl.ConsentCoreDAOImpl;
+import org.wso2.bfsi.consent.management.dao.impl.MssqlConsentCoreDAOImpl;
+import org.wso2.bfsi.consent.management.dao.impl.OracleConsentCoreDAOImpl;
+import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.queries.ConsentMgtCommonDBQueries;
+import org.wso2.bfsi.consent.management.dao.util.ConsentMgtDAOTestData;
+import org.wso2.bfsi.consent.management.dao.util.DAOUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Consent store initializer tests.
+ */
+public class ConsentStoreInitializerTests {
+
+    private static final String DB_NAME = "CONSENT_STORE_INITIALIZER_DB";
+    private static final int THREAD_COUNT = 8;
+
+    private Connection connectionMock;
+    private MockedStatic<JDBCPersistenceManager> jdbcPersistenceManagerMockedStatic;
+    private String storedConsentID;
+
+    @BeforeClass
+    public void initTest() throws Exception {
+
+        DAOUtils.initializeDataSource(DB_NAME, DAOUtils.getFilePath("dbScripts/h2.sql"));
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            ConsentResource consentResource = new ConsentCoreDAOImpl(new ConsentMgtCommonDBQueries())
+                    .storeConsentResource(connection, ConsentMgtDAOTestData.getSampleTestConsentResource());
+            storedConsentID = consentResource.getConsentID();
+        }
+
+        DatabaseMetaData metaDataMock = Mockito.mock(DatabaseMetaData.class);
+        Mockito.doReturn("H2 JDBC Driver").when(metaDataMock).getDriverName();
+        connectionMock = Mockito.mock(Connection.class);
+        Mockito.doReturn(metaDataMock).when(connectionMock).getMetaData();
+
+        JDBCPersistenceManager jdbcPersistenceManagerMock = Mockito.mock(JDBCPersistenceManager.class);
+        Mockito.doReturn(connectionMock).when(jdbcPersistenceManagerMock).getDBConnection();
+        jdbcPersistenceManagerMockedStatic = mockStatic(JDBCPersistenceManager.class);
+        jdbcPersistenceManagerMockedStatic.when(JDBCPersistenceManager::getInstance)
+                .thenReturn(jdbcPersistenceManagerMock);
+
+        ConsentStoreInitializer.clearConsentCoreDAO();
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        ConsentStoreInitializer.clearConsentCoreDAO();
+        jdbcPersistenceManagerMockedStatic.close();
+    }
+
+    @Test
+    public void testGetConsentCoreDAOForSupportedDrivers() throws Exception {
+
+        Assert.assertTrue(ConsentStoreInitializer.getConsentCoreDAO("MySQL Connector/J")
+                instanceof ConsentCoreDAOImpl);
+        Assert.assertTrue(ConsentStoreInitializer.getConsentCoreDAO("H2 JDBC Driver")
+                instanceof ConsentCoreDAOImpl);
+        Assert.assertTrue(ConsentStoreInitializer.getConsentCoreDAO("PostgreSQL JDBC Driver")
+                instanceof ConsentCoreDAOImpl);
+        Assert.assertTrue(ConsentStoreInitializer.getConsentCoreDAO("Microsoft JDBC Driver for SQL Server")
+                instanceof MssqlConsentCoreDAOImpl);
+        Assert.assertTrue(ConsentStoreInitializer.getConsentCoreDAO("Oracle JDBC driver")
+                instanceof OracleConsentCoreDAOImpl);
+    }
+
+    @Test
+    public void testGetConsentCoreDAOWithTwoPhaseSearch() throws Exception {
+
+        Assert.assertTrue(((ConsentCoreDAOImpl) ConsentStoreInitializer.getConsentCoreDAO("H2 JDBC Driver", true))
+                .isTwoPhaseSearchEnabled());
+        Assert.assertTrue(((ConsentCoreDAOImpl) ConsentStoreInitializer
+                .getConsentCoreDAO("Oracle JDBC driver", true)).isTwoPhaseSearchEnabled());
+        Assert.assertFalse(((ConsentCoreDAOImpl) ConsentStoreInitializer.getConsentCoreDAO("H2 JDBC Driver"))
+                .isTwoPhaseSearchEnabled());
+    }
+
+    @Test(expectedExceptions = ConsentManagementException.class)
+    public void testGetConsentCoreDAOForUnsupportedDriver() throws Exception {
+
+        ConsentStoreInitializer.getConsentCoreDAO("Unknown JDBC Driver");
+    }
+
+    @Test
+    public void testInitializeConsentCoreDAOClosesConnection() throws Exception {
+
+        ConsentStoreInitializer.clearConsentCoreDAO();
+        Mockito.clearInvocations(connectionMock);
+
+        ConsentStoreInitializer.initializeConsentCoreDAO();
+        ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+
+        Assert.assertSame(ConsentStoreInitializer.getInitializedConsentCoreDAOImpl(), consentCoreDAO);
+        // The metadata connection is opened once at initialization and closed afterwards
+        Mockito.verify(connectionMock, Mockito.times(1)).getMetaData();
+        Mockito.verify(connectionMock, Mockito.times(1)).close();
+    }
+
+    @Test(dependsOnMethods = "testInitializeConsentCoreDAOClosesConnection")
+    public void testConcurrentLookupsReturnInitializedDAO() throws Exception {
+
+        ConsentStoreInitializer.clearConsentCoreDAO();
+        ConsentStoreInitializer.initializeConsentCoreDAO();
+        ConsentCoreDAO initializedConsentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+        Mockito.clearInvocations(connectionMock);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<ConsentResource>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executorService.submit(() -> {
+                    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + DB_NAME,
+                            "username", "password")) {
+                        startLatch.await();
+                        ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+                        Assert.assertSame(consentCoreDAO, initializedConsentCoreDAO);
+                        return consentCoreDAO.getConsentResource(connection, storedConsentID);
+                    }
+                }));
+            }
+            startLatch.countDown();
+            for (Future<ConsentResource> future : futures) {
+                Assert.assertEquals(future.get(10, TimeUnit.SECONDS).getConsentID(), storedConsentID);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // The lookups use the initialized DAO and do not resolve it again
+        Mockito.verify(connectionMock, Mockito.never()).getMetaData();
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.queries;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.dao.constants.ConsentMgtDAOConstants;
+import org.wso2.bfsi.consent.management.dao.util.ConsentManagementDAOUtil;
+import org.wso2.bfsi.consent.management.dao.util.DAOUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Query plan tests for the secondary indexes shipped in the v1.0.1 migration scripts.
+ */
+public class ConsentMgtDBQueryPlanTests {
+
+    private static final String DB_NAME = "CONSENT_INDEX_DB";
+    private static final String INDEX_MIGRATION_SCRIPT = "migrations/v1.0.1/h2.sql";
+
+    private final ConsentMgtCommonDBQueries sqlStatements = new ConsentMgtCommonDBQueries();
+
+    @BeforeClass
+    public void initTest() throws Exception {
+
+        DAOUtils.initializeDataSource(DB_NAME, DAOUtils.getFilePath("dbScripts/h2.sql"));
+        DAOUtils.executeScript(DB_NAME, DAOUtils.getDocsResourcePath(INDEX_MIGRATION_SCRIPT));
+    }
+
+    @Test
+    public void testMigrationScriptIsRepeatable() throws Exception {
+
+        DAOUtils.executeScript(DB_NAME, DAOUtils.getDocsResourcePath(INDEX_MIGRATION_SCRIPT));
+    }
+
+    @Test
+    public void testGetConsentAttributesByNameUsesAttributeIndex() throws Exception {
+
+        String plan = getQueryPlan(sqlStatements.getGetConsentAttributesByNamePreparedStatement(), "key");
+        assertIndexUsed(plan, "IDX_BFSI_CONSENT_ATT_KEY_VAL");
+    }
+
+    @Test
+    public void testGetConsentIdByAttributeNameAndValueUsesAttributeIndex() throws Exception {
+
+        String plan = getQueryPlan(sqlStatements.getConsentIdByConsentAttributeNameAndValuePreparedStatement(),
+                "key", "value");
+        assertIndexUsed(plan, "IDX_BFSI_CONSENT_ATT_KEY_VAL");
+    }
+
+    @Test
+    public void testConsentLookupByClientTypeAndStatusUsesConsentIndex() throws Exception {
+
+        String plan = getQueryPlan("SELECT CONSENT_ID FROM BFSI_CONSENT WHERE CLIENT_ID = ? AND CONSENT_TYPE = ? " +
+                "AND CURRENT_STATUS = ? ORDER BY UPDATED_TIME DESC", "client", "accounts", "Authorised");
+        assertIndexUsed(plan, "IDX_BFSI_CONSENT_CLIENT_STATUS");
+    }
+
+    @Test
+    public void testSearchAuthorizationsByUserIdUsesUserIndex() throws Exception {
+
+        Map<String, String> conditions = new LinkedHashMap<>();
+        conditions.put(ConsentMgtDAOConstants.USER_ID, "user");
+        String plan = getQueryPlan(sqlStatements.getSearchAuthorizationResourcesPreparedStatement(
+                ConsentManagementDAOUtil.constructAuthSearchPreparedStatement(conditions)), "user");
+        assertIndexUsed(plan, "IDX_BFSI_AUTH_RES_USER_ID");
+    }
+
+    /*
+     * The following lookups are on foreign key columns. Depending on the database, the foreign key constraint may
+     * already be backed by an equivalent index, therefore only the absence of a table scan is asserted.
+     */
+
+    @Test
+    public void testSearchAuthorizationsByConsentIdDoesNotScan() throws Exception {
+
+        Map<String, String> conditions = new LinkedHashMap<>();
+        conditions.put(ConsentMgtDAOConstants.CONSENT_ID, "consent");
+        String plan = getQueryPlan(sqlStatements.getSearchAuthorizationResourcesPreparedStatement(
+                ConsentManagementDAOUtil.constructAuthSearchPreparedStatement(conditions)), "consent");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    public void testGetConsentMappingResourcesDoesNotScan() throws Exception {
+
+        String plan = getQueryPlan(sqlStatements.getGetConsentMappingResourcesPreparedStatement(), "auth");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    public void testStatusAuditLookupByConsentIdDoesNotScan() throws Exception {
+
+        String plan = getQueryPlan("SELECT * FROM BFSI_CONSENT_STATUS_AUDIT WHERE CONSENT_ID = ? " +
+                "ORDER BY ACTION_TIME DESC", "consent");
+        assertNoTableScan(plan);
+    }
+
+    private String getQueryPlan(String query, String... parameters) throws Exception {
+
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = DAOUtils.getConnection(DB_NAME);
+             PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + query)) {
+            for (int index = 0; index < parameters.length; index++) {
+                preparedStatement.setString(index + 1, parameters[index]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private void assertIndexUsed(String plan, String indexName) {
+
+        Assert.assertTrue(plan.toUpperCase(Locale.ENGLISH).contains(indexName),
+                String.format("Expected index %s to be used in plan: %s", indexName, plan));
+    }
+
+    private void assertNoTableScan(String plan) {
+
+        String normalizedPlan = plan.toUpperCase(Locale.ENGLISH);
+        Assert.assertFalse(normalizedPlan.contains("TABLESCAN") || normalizedPlan.contains("TABLE_SCAN"),
+                String.format("Unexpected table scan in plan: %s", plan));
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.queries;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.dao.util.ConsentIDSetBinding;
+import org.wso2.bfsi.consent.management.dao.util.PaddedInListConsentIDSetBinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Consent search query registry tests.
+ */
+public class ConsentSearchQueryRegistryTests {
+
+    private static final ConsentIDSetBinding BINDING = new PaddedInListConsentIDSetBinding(1000);
+
+    @Test
+    public void testQueryIsCompiledOncePerShape() {
+
+        ConsentSearchQueryRegistry registry = new ConsentSearchQueryRegistry(10);
+        AtomicInteger compileCount = new AtomicInteger();
+        BiFunction<String, String, String> queryBuilder = (conditions, userIDFilter) -> {
+            compileCount.incrementAndGet();
+            return "SELECT * FROM BFSI_CONSENT " + conditions;
+        };
+
+        // 3 and 4 consent IDs share the padded "IN" list of 4 placeholders
+        ConsentSearchQuery query = registry.getQuery("search", getConditions(3, 1), Collections.emptyMap(),
+                BINDING, queryBuilder);
+        Assert.assertSame(registry.getQuery("search", getConditions(4, 1), Collections.emptyMap(), BINDING,
+                queryBuilder), query);
+        Assert.assertEquals(compileCount.get(), 1);
+
+        // A different number of placeholders, set of conditions or query name is a different shape
+        Assert.assertNotSame(registry.getQuery("search", getConditions(5, 1), Collections.emptyMap(), BINDING,
+                queryBuilder), query);
+        Assert.assertNotSame(registry.getQuery("search", getConditions(3, 2), Collections.emptyMap(), BINDING,
+                queryBuilder), query);
+        Assert.assertNotSame(registry.getQuery("count", getConditions(3, 1), Collections.emptyMap(), BINDING,
+                queryBuilder), query);
+        Assert.assertEquals(compileCount.get(), 4);
+        Assert.assertEquals(registry.size(), 4);
+    }
+
+    @Test
+    public void testCompiledQueryHoldsParameterOrder() {
+
+        ConsentSearchQueryRegistry registry = new ConsentSearchQueryRegistry(10);
+        Map<String, ArrayList<String>> userIdMap = new HashMap<>();
+        userIdMap.put("OCAR.USER_ID", new ArrayList<>(Arrays.asList("user1", "user2")));
+
+        ConsentSearchQuery query = registry.getQuery("search", getConditions(2, 1), userIdMap, BINDING,
+                (conditions, userIDFilter) -> "SELECT * FROM BFSI_CONSENT " + conditions + " /*" + userIDFilter +
+                        "*/");
+        String conditions = query.getQuery().substring(0, query.getQuery().indexOf("/*"));
+
+        Assert.assertEquals(query.getConditionColumns().size(), 2);
+        Assert.assertTrue(conditions.indexOf(query.getConditionColumns().get(0)) <
+                conditions.indexOf(query.getConditionColumns().get(1)));
+        Assert.assertEquals(query.getUserIDColumns(), Collections.singletonList("OCAR.USER_ID"));
+        Assert.assertTrue(query.getQuery().contains("OCAR.USER_ID IN (?,?)"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueryIsEvicted() {
+
+        ConsentSearchQueryRegistry registry = new ConsentSearchQueryRegistry(2);
+        BiFunction<String, String, String> queryBuilder = (conditions, userIDFilter) -> conditions;
+
+        ConsentSearchQuery first = registry.getQuery("first", getConditions(1, 1), Collections.emptyMap(), BINDING,
+                queryBuilder);
+        ConsentSearchQuery second = registry.getQuery("second", getConditions(1, 1), Collections.emptyMap(), BINDING,
+                queryBuilder);
+        // Use the first query, so that the second query is the least recently used
+        registry.getQuery("first", getConditions(1, 1), Collections.emptyMap(), BINDING, queryBuilder);
+        registry.getQuery("third", getConditions(1, 1), Collections.emptyMap(), BINDING, queryBuilder);
+
+        Assert.assertEquals(registry.size(), 2);
+        Assert.assertSame(registry.getQuery("first", getConditions(1, 1), Collections.emptyMap(), BINDING,
+                queryBuilder), first);
+        Assert.assertNotSame(registry.getQuery("second", getConditions(1, 1), Collections.emptyMap(), BINDING,
+                queryBuilder), second);
+    }
+
+    private static Map<String, ArrayList<String>> getConditions(int consentIDCount, int clientIDCount) {
+
+        Map<String, ArrayList<String>> conditions = new HashMap<>();
+        ArrayList<String> consentIDs = new ArrayList<>();
+        for (int i = 0; i < consentIDCount; i++) {
+            consentIDs.add("consent" + i);
+        }
+        ArrayList<String> clientIDs = new ArrayList<>();
+        for (int i = 0; i < clientIDCount; i++) {
+            clientIDs.add("client" + i);
+        }
+        conditions.put("CONSENT_ID", consentIDs);
+        conditions.put("CLIENT_ID", clientIDs);
+        return conditions;
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.dao.util;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consent ID set binding tests.
+ */
+public class ConsentIDSetBindingTests {
+
+    private static final String COLUMN = "OBC.CONSENT_ID";
+
+    @Test
+    public void testPaddedInListConditionIsPaddedToPowerOfTwo() {
+
+        PaddedInListConsentIDSetBinding binding = new PaddedInListConsentIDSetBinding(1000);
+
+        Assert.assertEquals(binding.constructCondition(COLUMN, 1), COLUMN + " IN (?)");
+        Assert.assertEquals(binding.constructCondition(COLUMN, 3), COLUMN + " IN (?,?,?,?)");
+        Assert.assertEquals(binding.constructCondition(COLUMN, 3), binding.constructCondition(COLUMN, 4));
+        Assert.assertEquals(countPlaceholders(binding.constructCondition(COLUMN, 600)), 1000);
+        Assert.assertEquals(binding.getParameterCount(3), 4);
+        Assert.assertEquals(binding.getParameterCount(2500), 4000);
+    }
+
+    @Test
+    public void testPaddedInListConditionIsSplitAtMaxListSize() {
+
+        PaddedInListConsentIDSetBinding binding = new PaddedInListConsentIDSetBinding(4);
+        String condition = binding.constructCondition(COLUMN, 9);
+
+        // 9 consent IDs need 3 lists of 4, which is padded to 4 lists
+        Assert.assertEquals(condition, "(" + COLUMN + " IN (?,?,?,?) OR " + COLUMN + " IN (?,?,?,?) OR " +
+                COLUMN + " IN (?,?,?,?) OR " + COLUMN + " IN (?,?,?,?))");
+        Assert.assertEquals(new PaddedInListConsentIDSetBinding(1000).constructCondition(COLUMN, 2500)
+                .split(" OR ").length, 4);
+    }
+
+    @Test
+    public void testPaddedInListPaddingIsCappedAtMaxPaddedParameterCount() throws Exception {
+
+        PaddedInListConsentIDSetBinding binding = new PaddedInListConsentIDSetBinding(1000, 1024);
+
+        // Padded within the cap
+        Assert.assertEquals(binding.getParameterCount(3), 4);
+        Assert.assertEquals(binding.getParameterCount(600), 1000);
+        // Padding 1001 consent IDs to 2 lists of 1000 would exceed the cap
+        Assert.assertEquals(binding.getParameterCount(1001), 1001);
+        Assert.assertEquals(binding.getParameterCount(2050), 2050);
+        String condition = binding.constructCondition(COLUMN, 2050);
+        Assert.assertEquals(countPlaceholders(condition), 2050);
+        Assert.assertEquals(condition.split(" OR ").length, 3);
+
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        List<String> consentIDs = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            consentIDs.add("consent" + i);
+        }
+        Assert.assertEquals(binding.setParameters(preparedStatement, 1, consentIDs), 1002);
+    }
+
+    @Test
+    public void testPaddedInListParametersRepeatLastConsentID() throws Exception {
+
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        List<String> consentIDs = Arrays.asList("consent1", " consent2", "consent3 ");
+
+        int parameterIndex = new PaddedInListConsentIDSetBinding(1000)
+                .setParameters(preparedStatement, 2, consentIDs);
+
+        Assert.assertEquals(parameterIndex, 6);
+        Mockito.verify(preparedStatement).setString(2, "consent1");
+        Mockito.verify(preparedStatement).setString(3, "consent2");
+        Mockito.verify(preparedStatement).setString(4, "consent3");
+        Mockito.verify(preparedStatement).setString(5, "consent3");
+    }
+
+    @Test
+    public void testPaddedInListParameterCountMatchesCondition() throws Exception {
+
+        PaddedInListConsentIDSetBinding binding = new PaddedInListConsentIDSetBinding(4);
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        List<String> consentIDs = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            consentIDs.add("consent" + i);
+        }
+
+        int parameterIndex = binding.setParameters(preparedStatement, 1, consentIDs);
+
+        Assert.assertEquals(parameterIndex - 1, countPlaceholders(binding.constructCondition(COLUMN, 9)));
+        Mockito.verify(preparedStatement, Mockito.times(8)).setString(Mockito.anyInt(), Mockito.eq("consent8"));
+    }
+
+    @Test
+    public void testArrayConditionAndParameters() throws Exception {
+
+        ArrayConsentIDSetBinding binding = new ArrayConsentIDSetBinding("varchar");
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Array array = Mockito.mock(Array.class);
+        Mockito.doReturn(connection).when(preparedStatement).getConnection();
+        Mockito.doReturn(array).when(connection).createArrayOf(Mockito.anyString(), Mockito.any(Object[].class));
+
+        int parameterIndex = binding.setParameters(preparedStatement, 3, Arrays.asList("consent1", " consent2"));
+
+        // The condition and the parameter count do not depend on the number of consent IDs
+        Assert.assertEquals(binding.constructCondition(COLUMN, 2), COLUMN + " = ANY(?)");
+        Assert.assertEquals(binding.constructCondition(COLUMN, 2000), COLUMN + " = ANY(?)");
+        Assert.assertEquals(binding.getParameterCount(2000), 1);
+        Assert.assertEquals(parameterIndex, 4);
+        Mockito.verify(connection).createArrayOf("varchar", new Object[]{"consent1", "consent2"});
+        Mockito.verify(preparedStatement).setArray(3, array);
+    }
+
+    @Test
+    public void testSearchConditionUsesBinding() {
+
+        ArrayList<String> consentIDs = new ArrayList<>(Arrays.asList("consent1", "consent2", "consent3"));
+        ArrayList<String> clientIDs = new ArrayList<>(Arrays.asList("clientID1"));
+        Map<String, ArrayList<String>> applicableConditions = new LinkedHashMap<>();
+        applicableConditions.put("CONSENT_ID", consentIDs);
+        applicableConditions.put("CLIENT_ID", clientIDs);
+
+        String condition = ConsentManagementDAOUtil.constructConsentSearchPreparedStatement(applicableConditions,
+                new PaddedInListConsentIDSetBinding(1000));
+
+        Assert.assertTrue(condition.contains("CONSENT_ID IN (?,?,?,?)"));
+        Assert.assertFalse(condition.contains(" OR "));
+        Assert.assertEquals(countPlaceholders(condition), 5);
+    }
+
+    private static int countPlaceholders(String condition) {
+
+        return condition.length() - condition.replace("?", "").length();
+    }
+}
@@ -47,6 +47,12 @@ public class DAOUtils {
         dataSourceMap.put(databaseName, dataSource);
     }
 
+    public static void executeScript(String databaseName, String scriptPath) throws Exception {
+        try (Connection connection = getConnection(databaseName)) {
+            connection.createStatement().executeUpdate("RUNSCRIPT FROM '" + scriptPath + "'");
+        }
+    }
+
     public static Connection getConnection(String database) throws SQLException {
         if (dataSourceMap.get(database) != null) {
             return dataSourceMap.get(database).getConnection();
@@ -61,4 +67,12 @@ public class DAOUtils {
         }
         return null;
     }
+
+    public static String getDocsResourcePath(String fileName) {
+        if (StringUtils.isNotBlank(fileName)) {
+            return Paths.get(System.getProperty("user.dir"), "..", "..", "docs", "resources", fileName)
+                    .normalize().toString();
+        }
+        return null;
+    }
 }
@@ -74,3 +74,31 @@ CREATE TABLE IF NOT EXISTS BFSI_CONSENT_HISTORY (
   EFFECTIVE_TIMESTAMP BIGINT NOT NULL,
   PRIMARY KEY (TABLE_ID,RECORD_ID,HISTORY_ID)
 );
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_LEASE (
+  LEASE_NAME        VARCHAR(255) NOT NULL,
+  OWNER_ID          VARCHAR(255) NOT NULL,
+  EXPIRY_TIME       BIGINT NOT NULL,
+  PRIMARY KEY(LEASE_NAME)
+);
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_TOKEN_REVOCATION (
+  REVOCATION_ID     VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  USER_ID           VARCHAR(255) NOT NULL,
+  ATTEMPT_COUNT     INT NOT NULL,
+  NEXT_ATTEMPT_TIME BIGINT NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  LAST_ERROR        VARCHAR(1024),
+  PRIMARY KEY(REVOCATION_ID)
+);
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_IDEMPOTENCY_KEY (
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  IDEMPOTENCY_KEY   VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  PAYLOAD_HASH      VARCHAR(64) NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  PRIMARY KEY(CLIENT_ID, IDEMPOTENCY_KEY)
+);
@@ -23,10 +23,13 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
 import org.wso2.bfsi.consent.management.extensions.admin.ConsentAdminHandler;
@@ -38,8 +41,15 @@ import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
 import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
 import org.wso2.bfsi.consent.management.service.ConsentCoreService;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Consent admin handler default implementation.
@@ -104,6 +114,23 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
             log.warn("Number format incorrect in search for parameter limit. Ignoring parameter");
         }
 
+        if (ConsentAdminUtils.isCursorPaginationRequested(queryParams)) {
+            handleSearchByCursor(consentAdminData, consentIDs, clientIDs, consentTypes, consentStatuses, userIDs,
+                    fromTime, toTime, limit);
+            return;
+        }
+
+        if (Boolean.parseBoolean(ConsentAdminUtils.validateAndGetQueryParam(queryParams,
+                ConsentExtensionConstants.STREAM))) {
+            if (limit != null || offset != null) {
+                throw new ConsentException(ResponseStatus.BAD_REQUEST,
+                        "The limit and offset parameters are not supported for a streamed search");
+            }
+            handleSearchByStream(consentAdminData, consentIDs, clientIDs, consentTypes, consentStatuses, userIDs,
+                    fromTime, toTime);
+            return;
+        }
+
         int count, total = 0;
 
         try {
@@ -124,10 +151,8 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
         //retrieve the total of the data set queried
         if (limit != null || offset != null) {
             try {
-                ArrayList<DetailedConsentResource> results = ConsentExtensionsDataHolder.getInstance()
-                        .getConsentCoreService().searchDetailedConsents(consentIDs,
-                        clientIDs, consentTypes, consentStatuses, userIDs, fromTime, toTime, null, null);
-                total = results.size();
+                total = ConsentExtensionsDataHolder.getInstance().getConsentCoreService().countConsents(consentIDs,
+                        clientIDs, consentTypes, consentStatuses, userIDs, fromTime, toTime);
             } catch (ConsentManagementException e) {
                 throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
             }
@@ -144,6 +169,104 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
         consentAdminData.setResponsePayload(response);
     }
 
+    /**
+     * Search consents using keyset pagination. The continuation token returned in the metadata can be passed as the
+     * continuationToken query param to retrieve the next page.
+     */
+    private void handleSearchByCursor(ConsentAdminData consentAdminData, ArrayList<String> consentIDs,
+                                      ArrayList<String> clientIDs, ArrayList<String> consentTypes,
+                                      ArrayList<String> consentStatuses, ArrayList<String> userIDs, Long fromTime,
+                                      Long toTime, Integer limit) throws ConsentException {
+
+        JSONObject response = new JSONObject();
+        ConsentSearchCursor cursor = ConsentAdminUtils.validateAndGetSearchCursor(consentAdminData.getQueryParams());
+        int pageLimit = ConsentAdminUtils.getCursorPageLimit(limit);
+
+        ConsentSearchPage<DetailedConsentResource> resultPage;
+        try {
+            resultPage = ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
+                    .searchDetailedConsentsByCursor(consentIDs, clientIDs, consentTypes, consentStatuses, userIDs,
+                            fromTime, toTime, pageLimit, cursor);
+        } catch (ConsentManagementException e) {
+            throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        }
+
+        JSONArray searchResults = new JSONArray();
+        for (DetailedConsentResource result : resultPage.getResults()) {
+            searchResults.put(ConsentAdminUtils.detailedConsentToJSON(result));
+        }
+        response.put(ConsentExtensionConstants.DATA.toLowerCase(), searchResults);
+
+        JSONObject metadata = new JSONObject();
+        metadata.put(ConsentExtensionConstants.COUNT, searchResults.length());
+        metadata.put(ConsentExtensionConstants.LIMIT, pageLimit);
+        metadata.put(ConsentExtensionConstants.NEXT_CONTINUATION_TOKEN, resultPage.getNextContinuationToken());
+
+        response.put(ConsentExtensionConstants.METADATA, metadata);
+        consentAdminData.setResponseStatus(ResponseStatus.OK);
+        consentAdminData.setResponsePayload(response);
+    }
+
+    /**
+     * Search consents and write the results incrementally to the response output stream, without holding all the
+     * matching consents in memory. As the response status is sent before the first consent is read, a failure while
+     * streaming closes the data array and ends the response with an error object in place of the metadata.
+     */
+    private void handleSearchByStream(ConsentAdminData consentAdminData, ArrayList<String> consentIDs,
+                                      ArrayList<String> clientIDs, ArrayList<String> consentTypes,
+                                      ArrayList<String> consentStatuses, ArrayList<String> userIDs, Long fromTime,
+                                      Long toTime) throws ConsentException {
+
+        int fetchSize = ConsentManagementConfigParser.getInstance().getConsentSearchStreamFetchSize();
+
+        consentAdminData.setResponseStatus(ResponseStatus.OK);
+        consentAdminData.setResponseStreamWriter(outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write("{" + JSONObject.quote(ConsentExtensionConstants.DATA.toLowerCase()) + ":[");
+
+            int count;
+            try {
+                count = ConsentExtensionsDataHolder.getInstance().getConsentCoreService().streamDetailedConsents(
+                        consentIDs, clientIDs, consentTypes, consentStatuses, userIDs, fromTime, toTime, fetchSize,
+                        new Consumer<DetailedConsentResource>() {
+
+                            private boolean isFirst = true;
+
+                            @Override
+                            public void accept(DetailedConsentResource result) {
+                                try {
+                                    if (!isFirst) {
+                                        writer.write(",");
+                                    }
+                                    writer.write(ConsentAdminUtils.detailedConsentToJSON(result).toString());
+                                    isFirst = false;
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (ConsentManagementException | RuntimeException e) {
+                // The response status is already committed, hence the response is completed with an error object
+                log.error("Error while streaming consent search results", e);
+                JSONObject error = new JSONObject();
+                error.put(ConsentExtensionConstants.ERROR, ResponseStatus.INTERNAL_SERVER_ERROR.getReasonPhrase());
+                error.put(ConsentExtensionConstants.ERROR_DESCRIPTION,
+                        "Error while streaming consent search results");
+                writer.write("]," + JSONObject.quote(ConsentExtensionConstants.ERROR) + ":" + error + "}");
+                writer.flush();
+                return;
+            }
+
+            JSONObject metadata = new JSONObject();
+            metadata.put(ConsentExtensionConstants.COUNT, count);
+            metadata.put(ConsentExtensionConstants.TOTAL, count);
+            writer.write("]," + JSONObject.quote(ConsentExtensionConstants.METADATA) + ":" + metadata + "}");
+            writer.flush();
+        });
+    }
+
     @Override
     public void handleRevoke(ConsentAdminData consentAdminData) throws ConsentException {
 
@@ -253,6 +376,11 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
         } catch (NumberFormatException e) {
             log.warn("Number format incorrect in search for parameter offset. Ignoring parameter");
         }
+
+        if (ConsentAdminUtils.isCursorPaginationRequested(queryParams)) {
+            handleConsentStatusAuditSearchByCursor(consentAdminData, consentIDs, limit);
+            return;
+        }
         int count, total = 0;
 
         try {
@@ -262,20 +390,7 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
 
             JSONArray consentAuditRecords = new JSONArray();
             for (ConsentStatusAuditRecord statusAuditRecord : results) {
-                JSONObject statusAuditRecordJSON = new JSONObject();
-                statusAuditRecordJSON.put(ConsentExtensionConstants.STATUS_AUDIT_ID,
-                        statusAuditRecord.getStatusAuditID());
-                statusAuditRecordJSON.put(ConsentExtensionConstants.CC_CONSENT_ID,
-                        statusAuditRecord.getConsentID());
-                statusAuditRecordJSON.put(ConsentExtensionConstants.CURRENT_STATUS,
-                        statusAuditRecord.getCurrentStatus());
-                statusAuditRecordJSON.put(ConsentExtensionConstants.ACTION_TIME,
-                        statusAuditRecord.getActionTime());
-                statusAuditRecordJSON.put(ConsentExtensionConstants.REASON, statusAuditRecord.getReason());
-                statusAuditRecordJSON.put(ConsentExtensionConstants.ACTION_BY, statusAuditRecord.getActionBy());
-                statusAuditRecordJSON.put(ConsentExtensionConstants.PREVIOUS_STATUS,
-                        statusAuditRecord.getPreviousStatus());
-                consentAuditRecords.put(statusAuditRecordJSON);
+                consentAuditRecords.put(ConsentAdminUtils.statusAuditRecordToJSON(statusAuditRecord));
             }
             response.put(ConsentExtensionConstants.DATA.toLowerCase(), consentAuditRecords);
             count = consentAuditRecords.length();
@@ -307,6 +422,42 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
         consentAdminData.setResponsePayload(response);
     }
 
+    /**
+     * Search consent status audit records using keyset pagination. The continuation token returned in the metadata
+     * can be passed as the continuationToken query param to retrieve the next page.
+     */
+    private void handleConsentStatusAuditSearchByCursor(ConsentAdminData consentAdminData,
+                                                        ArrayList<String> consentIDs, Integer limit)
+            throws ConsentException {
+
+        JSONObject response = new JSONObject();
+        ConsentSearchCursor cursor = ConsentAdminUtils.validateAndGetSearchCursor(consentAdminData.getQueryParams());
+        int pageLimit = ConsentAdminUtils.getCursorPageLimit(limit);
+
+        ConsentSearchPage<ConsentStatusAuditRecord> resultPage;
+        try {
+            resultPage = ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
+                    .getConsentStatusAuditRecordsByCursor(consentIDs, pageLimit, cursor);
+        } catch (ConsentManagementException e) {
+            log.error("Error while retrieving consent status audit data");
+            throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        }
+
+        JSONArray consentAuditRecords = new JSONArray();
+        for (ConsentStatusAuditRecord statusAuditRecord : resultPage.getResults()) {
+            consentAuditRecords.put(ConsentAdminUtils.statusAuditRecordToJSON(statusAuditRecord));
+        }
+        response.put(ConsentExtensionConstants.DATA.toLowerCase(), consentAuditRecords);
+
+        JSONObject metadata = new JSONObject();
+        metadata.put(ConsentExtensionConstants.COUNT, consentAuditRecords.length());
+        metadata.put(ConsentExtensionConstants.LIMIT, pageLimit);
+        metadata.put(ConsentExtensionConstants.NEXT_CONTINUATION_TOKEN, resultPage.getNextContinuationToken());
+        response.put(ConsentExtensionConstants.METADATA, metadata);
+        consentAdminData.setResponseStatus(ResponseStatus.OK);
+        consentAdminData.setResponsePayload(response);
+    }
+
     @Override
     public void handleConsentFileSearch(ConsentAdminData consentAdminData) throws ConsentException {
 
@@ -21,6 +21,8 @@ package org.wso2.bfsi.consent.management.extensions.admin.model;
 import org.json.JSONObject;
 import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -39,6 +41,15 @@ public class ConsentAdminData {
     private HttpServletResponse response;
     private ResponseStatus responseStatus;
     private JSONObject responsePayload;
+    private ResponseStreamWriter responseStreamWriter;
+
+    /**
+     * Writer of a response payload that is written incrementally to the response output stream.
+     */
+    public interface ResponseStreamWriter {
+
+        void write(OutputStream outputStream) throws IOException;
+    }
 
     public ConsentAdminData(Map<String, String> headers, JSONObject payload, Map queryParams,
                             String absolutePath, HttpServletRequest request, HttpServletResponse response) {
@@ -93,6 +104,14 @@ public class ConsentAdminData {
         return responsePayload;
     }
 
+    public void setResponseStreamWriter(ResponseStreamWriter responseStreamWriter) {
+        this.responseStreamWriter = responseStreamWriter;
+    }
+
+    public ResponseStreamWriter getResponseStreamWriter() {
+        return responseStreamWriter;
+    }
+
     public ResponseStatus getResponseStatus() {
         return responseStatus;
     }
@@ -18,15 +18,19 @@
 
 package org.wso2.bfsi.consent.management.extensions.admin.utils;
 
+import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
 import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -81,6 +85,68 @@ public class ConsentAdminUtils {
         return queryParam != null ? Integer.parseInt(queryParam) : 0;
     }
 
+    /**
+     * Check whether keyset (cursor) pagination is requested. Cursor pagination is used when the pagination query
+     * param is set to cursor or when a continuation token is provided.
+     *
+     * @param queryParams  query params
+     * @return true if cursor pagination is requested
+     */
+    public static boolean isCursorPaginationRequested(Map queryParams) {
+        return ConsentExtensionConstants.CURSOR_PAGINATION.equalsIgnoreCase(
+                validateAndGetQueryParam(queryParams, ConsentExtensionConstants.PAGINATION)) ||
+                StringUtils.isNotBlank(validateAndGetQueryParam(queryParams,
+                        ConsentExtensionConstants.CONTINUATION_TOKEN));
+    }
+
+    /**
+     * Validate and decode the continuation token query param.
+     *
+     * @param queryParams  query params
+     * @return  search cursor decoded from the continuation token, null if not provided
+     * @throws ConsentException if the continuation token is malformed
+     */
+    public static ConsentSearchCursor validateAndGetSearchCursor(Map queryParams) {
+        String continuationToken = validateAndGetQueryParam(queryParams,
+                ConsentExtensionConstants.CONTINUATION_TOKEN);
+        try {
+            return ConsentSearchCursor.fromContinuationToken(continuationToken);
+        } catch (IllegalArgumentException e) {
+            throw new ConsentException(ResponseStatus.BAD_REQUEST, "Invalid continuation token provided", e);
+        }
+    }
+
+    /**
+     * Get the page limit of a keyset paginated search. The default page limit is used if no positive limit is
+     * requested, and the requested limit is capped at the maximum page limit.
+     *
+     * @param limit  requested page limit, null if not provided
+     * @return  page limit
+     */
+    public static int getCursorPageLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return ConsentExtensionConstants.DEFAULT_CURSOR_PAGE_LIMIT;
+        }
+        return Math.min(limit, ConsentCoreServiceConstants.MAX_SEARCH_PAGE_LIMIT);
+    }
+
+    /**
+     * Convert consent status audit record to JSON.
+     * @param statusAuditRecord   consent status audit record
+     * @return  JSON object constructed from the consent status audit record
+     */
+    public static JSONObject statusAuditRecordToJSON(ConsentStatusAuditRecord statusAuditRecord) {
+        JSONObject statusAuditRecordJSON = new JSONObject();
+        statusAuditRecordJSON.put(ConsentExtensionConstants.STATUS_AUDIT_ID, statusAuditRecord.getStatusAuditID());
+        statusAuditRecordJSON.put(ConsentExtensionConstants.CC_CONSENT_ID, statusAuditRecord.getConsentID());
+        statusAuditRecordJSON.put(ConsentExtensionConstants.CURRENT_STATUS, statusAuditRecord.getCurrentStatus());
+        statusAuditRecordJSON.put(ConsentExtensionConstants.ACTION_TIME, statusAuditRecord.getActionTime());
+        statusAuditRecordJSON.put(ConsentExtensionConstants.REASON, statusAuditRecord.getReason());
+        statusAuditRecordJSON.put(ConsentExtensionConstants.ACTION_BY, statusAuditRecord.getActionBy());
+        statusAuditRecordJSON.put(ConsentExtensionConstants.PREVIOUS_STATUS, statusAuditRecord.getPreviousStatus());
+        return statusAuditRecordJSON;
+    }
+
     /**
      * Convert detailed consent resource to JSON.
      * @param detailedConsentResource   detailed consent resource
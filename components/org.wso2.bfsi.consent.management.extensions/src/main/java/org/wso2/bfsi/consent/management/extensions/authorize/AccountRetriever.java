@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize;
+
+import org.json.JSONArray;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+
+import java.util.Map;
+
+/**
+ * Account retriever interface. An account retriever calls a single account back-end for the accounts of the user
+ * authorizing a consent. The configured retrievers are called in parallel by the account retrieval step and their
+ * results are cached per user for a short time, hence a retriever must be thread safe and its result should only
+ * depend on the user.
+ */
+public interface AccountRetriever {
+
+    /**
+     * Initialize the retriever with the attributes of its configuration element, including the class and the name.
+     *
+     * @param properties configured attributes of the retriever
+     */
+    default void init(Map<String, String> properties) {
+
+    }
+
+    /**
+     * Release the resources held by the retriever. Called when the account retrieval service is shut down.
+     */
+    default void destroy() {
+
+    }
+
+    /**
+     * Method to be implemented to retrieve the accounts of the user from the account back-end. Once implemented add
+     * the retriever to the AccountRetrieval configuration.
+     *
+     * @param consentData Includes all the data that is received to the consent page.
+     * @return accounts of the user
+     * @throws ConsentManagementException if the accounts could not be retrieved
+     */
+    JSONArray retrieveAccounts(ConsentData consentData) throws ConsentManagementException;
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import org.json.JSONArray;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the accounts retrieved for a user, kept per account retriever.
+ * <p>
+ * The accounts are reused for a few seconds so that the consent page can be reloaded without calling the account
+ * back-ends again, which is shorter than the minute granularity of the consent management caches. Only successful
+ * retrievals are cached, so a back-end which failed is called again on the next retrieval. When the cache is full
+ * the expired entries are removed, and if it is still full the least recently used entry is evicted.
+ */
+class AccountRetrievalCache {
+
+    private final long expiryTime;
+    private final int maxEntries;
+    private final Map<String, CachedAccounts> entries;
+
+    /**
+     * @param expiryTime time in seconds the accounts are reused for, 0 disables caching
+     * @param maxEntries maximum number of cached account lists
+     */
+    AccountRetrievalCache(long expiryTime, int maxEntries) {
+
+        this.expiryTime = TimeUnit.SECONDS.toMillis(expiryTime);
+        this.maxEntries = maxEntries;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, CachedAccounts>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAccounts> eldest) {
+
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Get the cached accounts of the user retrieved by the given retriever.
+     *
+     * @param userId        user ID
+     * @param retrieverName configured name of the account retriever
+     * @return copy of the cached accounts, null if they are not cached or expired
+     */
+    JSONArray get(String userId, String retrieverName) {
+
+        if (!isEnabled(userId)) {
+            return null;
+        }
+        String key = getKey(userId, retrieverName);
+        CachedAccounts cachedAccounts;
+        synchronized (entries) {
+            cachedAccounts = entries.get(key);
+            if (cachedAccounts == null) {
+                return null;
+            }
+            if (cachedAccounts.isExpired(System.currentTimeMillis())) {
+                entries.remove(key);
+                return null;
+            }
+        }
+        // Cached as a string so that the steps modifying the accounts of a page do not modify the cached accounts
+        return new JSONArray(cachedAccounts.accounts);
+    }
+
+    void put(String userId, String retrieverName, JSONArray accounts) {
+
+        if (!isEnabled(userId)) {
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        synchronized (entries) {
+            // Expired entries are removed first so that the eviction only drops a live entry when there is no space
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(cachedAccounts -> cachedAccounts.isExpired(currentTime));
+            }
+            entries.put(getKey(userId, retrieverName),
+                    new CachedAccounts(accounts.toString(), currentTime + expiryTime));
+        }
+    }
+
+    void clear() {
+
+        entries.clear();
+    }
+
+    int size() {
+
+        return entries.size();
+    }
+
+    private boolean isEnabled(String userId) {
+
+        return expiryTime > 0 && maxEntries > 0 && userId != null;
+    }
+
+    private static String getKey(String userId, String retrieverName) {
+
+        return retrieverName + ":" + userId;
+    }
+
+    private static class CachedAccounts {
+
+        private final String accounts;
+        private final long expiryTime;
+
+        CachedAccounts(String accounts, long expiryTime) {
+
+            this.accounts = accounts;
+            this.expiryTime = expiryTime;
+        }
+
+        boolean isExpired(long currentTime) {
+
+            return currentTime >= expiryTime;
+        }
+    }
+}
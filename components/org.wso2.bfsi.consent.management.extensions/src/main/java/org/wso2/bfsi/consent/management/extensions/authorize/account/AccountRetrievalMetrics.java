@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics of the account retrievals of this node, kept per account back-end.
+ */
+public class AccountRetrievalMetrics {
+
+    private final ConcurrentMap<String, AccountRetrieverMetrics> retrieverMetrics = new ConcurrentHashMap<>();
+
+    AccountRetrieverMetrics forRetriever(String retrieverName) {
+
+        return retrieverMetrics.computeIfAbsent(retrieverName, name -> new AccountRetrieverMetrics());
+    }
+
+    /**
+     * Get the names of the account back-ends metrics are recorded for.
+     *
+     * @return account retriever names
+     */
+    public Set<String> getRetrieverNames() {
+
+        return Collections.unmodifiableSet(retrieverMetrics.keySet());
+    }
+
+    /**
+     * Get the metrics of an account back-end.
+     *
+     * @param retrieverName configured name of the account retriever
+     * @return metrics of the account retriever, null if no call was recorded for it
+     */
+    public AccountRetrieverMetrics getRetrieverMetrics(String retrieverName) {
+
+        return retrieverMetrics.get(retrieverName);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import org.json.JSONArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of an account retrieval. Holds the accounts of the retrievers which responded in time, in the configured
+ * order of the retrievers, and the names of the retrievers which did not together with the cause of their failure.
+ */
+public class AccountRetrievalResult {
+
+    private final JSONArray accounts;
+    private final Map<String, Throwable> failureCauses;
+
+    /**
+     * @param accounts      retrieved accounts
+     * @param failureCauses causes of the failed retrievals keyed by the retriever names, in the configured order
+     */
+    public AccountRetrievalResult(JSONArray accounts, Map<String, Throwable> failureCauses) {
+
+        this.accounts = accounts;
+        this.failureCauses = Collections.unmodifiableMap(new LinkedHashMap<>(failureCauses));
+    }
+
+    public JSONArray getAccounts() {
+
+        return accounts;
+    }
+
+    /**
+     * Get the names of the retrievers which failed, timed out or were rejected.
+     *
+     * @return failed retriever names, empty if all the accounts were retrieved
+     */
+    public List<String> getFailedRetrievers() {
+
+        return Collections.unmodifiableList(new ArrayList<>(failureCauses.keySet()));
+    }
+
+    /**
+     * Get the cause of the failure of a retriever, i.e. the exception thrown by the retriever or the timeout,
+     * rejection or interruption of its call.
+     *
+     * @param retrieverName configured name of the account retriever
+     * @return cause of the failure, null if the retriever did not fail
+     */
+    public Throwable getFailureCause(String retrieverName) {
+
+        return failureCauses.get(retrieverName);
+    }
+
+    /**
+     * Get the causes of the failed retrievals.
+     *
+     * @return causes of the failures keyed by the retriever names, empty if all the accounts were retrieved
+     */
+    public Map<String, Throwable> getFailureCauses() {
+
+        return failureCauses;
+    }
+
+    public boolean isPartial() {
+
+        return !failureCauses.isEmpty();
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
+import org.wso2.bfsi.consent.management.extensions.authorize.AccountRetriever;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service which retrieves the accounts of a user from the configured account retrievers.
+ * <p>
+ * The retrievers are called in parallel on a bounded executor and waited for until the account retrieval timeout
+ * elapses from the start of the retrieval. The retrievers which fail, do not respond in time or do not fit in the
+ * queue of the executor are reported in the result with the cause of their failure, which holds the accounts of the
+ * remaining retrievers. The
+ * accounts of each retriever are cached per user for a short time, including the accounts of calls completed after
+ * the timeout, so that reloading the consent page only calls the retrievers which are not cached.
+ */
+public class AccountRetrievalService {
+
+    private static final Log log = LogFactory.getLog(AccountRetrievalService.class);
+    private static final Object lock = new Object();
+    private static volatile AccountRetrievalService instance;
+
+    private final Map<String, AccountRetriever> retrievers;
+    private final long timeout;
+    private final ThreadPoolExecutor retrievalExecutor;
+    private final AccountRetrievalCache cache;
+    private final AccountRetrievalMetrics metrics = new AccountRetrievalMetrics();
+
+    private AccountRetrievalService(ConsentManagementConfigParser configParser) {
+
+        this(loadRetrievers(configParser.getAccountRetrievers()), configParser.getAccountRetrievalPoolSize(),
+                configParser.getAccountRetrievalQueueSize(), configParser.getAccountRetrievalTimeout(),
+                configParser.getAccountRetrievalCacheExpiry(), configParser.getAccountRetrievalCacheMaxEntries());
+    }
+
+    /**
+     * @param retrievers      account retrievers keyed by their names, in the order of the retrieved accounts
+     * @param poolSize        number of threads calling the retrievers
+     * @param queueSize       maximum number of calls waiting for a thread
+     * @param timeout         time in milliseconds the retrievers are waited for
+     * @param cacheExpiry     time in seconds the retrieved accounts are reused for
+     * @param cacheMaxEntries maximum number of cached account lists
+     */
+    AccountRetrievalService(Map<String, AccountRetriever> retrievers, int poolSize, int queueSize, long timeout,
+                            long cacheExpiry, int cacheMaxEntries) {
+
+        this.retrievers = retrievers;
+        this.timeout = timeout;
+        this.cache = new AccountRetrievalCache(cacheExpiry, cacheMaxEntries);
+        // Calls rejected by a full queue are reported as failed retrievals instead of blocking the consent page
+        this.retrievalExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> createDaemonThread(runnable, "consent-account-retrieval"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Singleton getInstance method which builds the service from the AccountRetrieval configuration.
+     *
+     * @return AccountRetrievalService object
+     */
+    public static AccountRetrievalService getInstance() {
+
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new AccountRetrievalService(ConsentManagementConfigParser.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Shut down the service built from the configuration, if it was built, so that a new one is built on the next
+     * getInstance call. Called when the consent extensions component is deactivated.
+     */
+    public static void shutdownInstance() {
+
+        synchronized (lock) {
+            if (instance != null) {
+                instance.shutdown();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Check whether any account retriever is configured.
+     *
+     * @return true if there is at least one account retriever
+     */
+    public boolean hasRetrievers() {
+
+        return !retrievers.isEmpty();
+    }
+
+    /**
+     * Get the metrics of the account retrievals of this node.
+     *
+     * @return account retrieval metrics
+     */
+    public AccountRetrievalMetrics getMetrics() {
+
+        return metrics;
+    }
+
+    /**
+     * Retrieve the accounts of the user of the consent data from the configured account retrievers.
+     *
+     * @param consentData consent data of the authorization
+     * @return accounts of the retrievers which responded in time and the names of the retrievers which did not
+     */
+    public AccountRetrievalResult retrieveAccounts(ConsentData consentData) {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        String userId = consentData.getUserId();
+        Map<String, JSONArray> retrievedAccounts = new LinkedHashMap<>();
+        Map<String, Future<JSONArray>> calls = new LinkedHashMap<>();
+        Map<String, Throwable> failureCauses = new LinkedHashMap<>();
+
+        for (Map.Entry<String, AccountRetriever> retriever : retrievers.entrySet()) {
+            String retrieverName = retriever.getKey();
+            JSONArray cachedAccounts = cache.get(userId, retrieverName);
+            if (cachedAccounts != null) {
+                metrics.forRetriever(retrieverName).recordCacheHit();
+                retrievedAccounts.put(retrieverName, cachedAccounts);
+                continue;
+            }
+            try {
+                calls.put(retrieverName, retrievalExecutor.submit(
+                        () -> retrieve(retrieverName, retriever.getValue(), consentData)));
+            } catch (RejectedExecutionException e) {
+                log.error(String.format("Account retrieval queue is full, %s is not called", retrieverName));
+                metrics.forRetriever(retrieverName).recordRejection();
+                failureCauses.put(retrieverName, e);
+            }
+        }
+
+        boolean interrupted = false;
+        for (Map.Entry<String, Future<JSONArray>> call : calls.entrySet()) {
+            String retrieverName = call.getKey();
+            Future<JSONArray> future = call.getValue();
+            if (interrupted) {
+                future.cancel(true);
+                failureCauses.put(retrieverName, new InterruptedException("Account retrieval was interrupted"));
+                continue;
+            }
+            try {
+                long remainingTime = Math.max(0, deadline - System.nanoTime());
+                retrievedAccounts.put(retrieverName, future.get(remainingTime, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                log.error(String.format("Account retriever %s did not respond within %d milliseconds",
+                        retrieverName, timeout));
+                metrics.forRetriever(retrieverName).recordTimeout();
+                future.cancel(true);
+                failureCauses.put(retrieverName, e);
+            } catch (ExecutionException e) {
+                log.error(String.format("Error occurred while retrieving accounts from %s", retrieverName),
+                        e.getCause());
+                failureCauses.put(retrieverName, e.getCause());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                interrupted = true;
+                failureCauses.put(retrieverName, e);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Accounts and failures are merged in the configured order of the retrievers regardless of the order they
+        // responded in
+        JSONArray accounts = new JSONArray();
+        Map<String, Throwable> orderedFailureCauses = new LinkedHashMap<>();
+        for (String retrieverName : retrievers.keySet()) {
+            JSONArray retrieverAccounts = retrievedAccounts.get(retrieverName);
+            if (retrieverAccounts == null) {
+                orderedFailureCauses.put(retrieverName, failureCauses.get(retrieverName));
+                continue;
+            }
+            for (Object account : retrieverAccounts) {
+                accounts.put(account);
+            }
+        }
+        return new AccountRetrievalResult(accounts, orderedFailureCauses);
+    }
+
+    /**
+     * Stop the account retrieval threads and destroy the retrievers. Used when the service is discarded.
+     */
+    void shutdown() {
+
+        retrievalExecutor.shutdownNow();
+        for (Map.Entry<String, AccountRetriever> retriever : retrievers.entrySet()) {
+            try {
+                retriever.getValue().destroy();
+            } catch (RuntimeException e) {
+                log.error(String.format("Error occurred while destroying the account retriever %s",
+                        retriever.getKey()), e);
+            }
+        }
+    }
+
+    private JSONArray retrieve(String retrieverName, AccountRetriever retriever, ConsentData consentData)
+            throws ConsentManagementException {
+
+        long startTime = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            JSONArray accounts = retriever.retrieveAccounts(consentData);
+            if (accounts == null) {
+                accounts = new JSONArray();
+            }
+            // Cached by the call itself so that accounts retrieved after the timeout are available on a reload
+            cache.put(consentData.getUserId(), retrieverName, accounts);
+            succeeded = true;
+            return accounts;
+        } finally {
+            metrics.forRetriever(retrieverName).recordCall(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), succeeded);
+        }
+    }
+
+    private static Map<String, AccountRetriever> loadRetrievers(List<Map<String, String>> retrieverConfigs) {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        for (Map<String, String> retrieverConfig : retrieverConfigs) {
+            String className = retrieverConfig.get("class");
+            AccountRetriever retriever = ConsentExtensionUtils.getClassInstanceFromFQN(className,
+                    AccountRetriever.class);
+            String retrieverName = retrieverConfig.getOrDefault("name", retriever.getClass().getSimpleName());
+            if (retrievers.containsKey(retrieverName)) {
+                throw new ConsentManagementRuntimeException("Account retriever name " + retrieverName +
+                        " is configured more than once in bfsi-consent-management.xml");
+            }
+            retriever.init(retrieverConfig);
+            retrievers.put(retrieverName, retriever);
+        }
+        return retrievers;
+    }
+
+    private static Thread createDaemonThread(Runnable runnable, String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics of the calls made by this node to a single account back-end.
+ * <p>
+ * The latencies of the completed calls are counted in a histogram with fixed upper bounds in milliseconds, the last
+ * bucket counting the calls slower than the highest bound.
+ */
+public class AccountRetrieverMetrics {
+
+    private static final long[] LATENCY_BUCKET_BOUNDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final AtomicLongArray latencyCounts = new AtomicLongArray(LATENCY_BUCKET_BOUNDS.length + 1);
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+
+    /**
+     * Record a completed call to the account back-end.
+     *
+     * @param latency   duration of the call in milliseconds
+     * @param succeeded whether the accounts were retrieved
+     */
+    void recordCall(long latency, boolean succeeded) {
+
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKET_BOUNDS.length && latency > LATENCY_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        latencyCounts.incrementAndGet(bucket);
+        if (succeeded) {
+            successCount.incrementAndGet();
+        } else {
+            failureCount.incrementAndGet();
+        }
+    }
+
+    void recordTimeout() {
+
+        timeoutCount.incrementAndGet();
+    }
+
+    void recordRejection() {
+
+        rejectedCount.incrementAndGet();
+    }
+
+    void recordCacheHit() {
+
+        cacheHitCount.incrementAndGet();
+    }
+
+    /**
+     * Get the upper bounds of the latency histogram buckets in milliseconds.
+     *
+     * @return bucket upper bounds, excluding the last unbounded bucket
+     */
+    public long[] getLatencyBucketBounds() {
+
+        return Arrays.copyOf(LATENCY_BUCKET_BOUNDS, LATENCY_BUCKET_BOUNDS.length);
+    }
+
+    /**
+     * Get the number of completed calls per latency histogram bucket. The array holds one more element than the
+     * bucket bounds, counting the calls slower than the highest bound.
+     *
+     * @return number of calls per bucket
+     */
+    public long[] getLatencyCounts() {
+
+        long[] counts = new long[latencyCounts.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyCounts.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Get the number of calls which retrieved the accounts, including the calls completed after the timeout.
+     *
+     * @return number of successful calls
+     */
+    public long getSuccessCount() {
+
+        return successCount.get();
+    }
+
+    /**
+     * Get the number of calls which failed with an error.
+     *
+     * @return number of failed calls
+     */
+    public long getFailureCount() {
+
+        return failureCount.get();
+    }
+
+    /**
+     * Get the number of calls which were not completed within the account retrieval timeout.
+     *
+     * @return number of timed out calls
+     */
+    public long getTimeoutCount() {
+
+        return timeoutCount.get();
+    }
+
+    /**
+     * Get the number of calls which were not made because the account retrieval queue was full.
+     *
+     * @return number of rejected calls
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the number of retrievals served from the cached accounts of the user.
+     *
+     * @return number of cache hits
+     */
+    public long getCacheHitCount() {
+
+        return cacheHitCount.get();
+    }
+}
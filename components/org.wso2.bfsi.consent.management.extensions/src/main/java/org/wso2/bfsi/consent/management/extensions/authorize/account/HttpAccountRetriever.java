@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
+import org.wso2.bfsi.consent.management.common.http.HttpClientHolder;
+import org.wso2.bfsi.consent.management.extensions.authorize.AccountRetriever;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Account retriever which retrieves the accounts of the user with a GET request to an account back-end.
+ * <p>
+ * The request URL is configured with the url attribute, where the {userId} placeholder is replaced with the URL
+ * encoded user ID. The back-end responds with a JSON array of accounts or a JSON object holding the array in its
+ * accounts member. The requests are sent through the pooled HTTP client, which is acquired on init and released on
+ * destroy. The connectTimeout and readTimeout attributes set the timeouts of the request in milliseconds.
+ */
+public class HttpAccountRetriever implements AccountRetriever {
+
+    private static final String USER_ID_PLACEHOLDER = "{userId}";
+
+    private String url;
+    private RequestConfig requestConfig;
+    private HttpClientHolder httpClientHolder;
+    private boolean releaseHttpClient;
+
+    public HttpAccountRetriever() {
+
+    }
+
+    HttpAccountRetriever(HttpClientHolder httpClientHolder) {
+
+        this.httpClientHolder = httpClientHolder;
+    }
+
+    @Override
+    public void init(Map<String, String> properties) {
+
+        url = properties.get("url");
+        if (StringUtils.isBlank(url)) {
+            throw new ConsentManagementRuntimeException("Account retriever url is not defined correctly in " +
+                    "bfsi-consent-management.xml");
+        }
+        int connectTimeout = Integer.parseInt(properties.getOrDefault("connectTimeout", "1000").trim());
+        int readTimeout = Integer.parseInt(properties.getOrDefault("readTimeout", "2000").trim());
+        // The wait for a pooled connection is bounded by the connect timeout as well
+        requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build();
+        if (httpClientHolder == null) {
+            httpClientHolder = HttpClientHolder.acquire();
+            releaseHttpClient = true;
+        }
+    }
+
+    @Override
+    public void destroy() {
+
+        if (releaseHttpClient) {
+            HttpClientHolder.release();
+            releaseHttpClient = false;
+        }
+        httpClientHolder = null;
+    }
+
+    @Override
+    public JSONArray retrieveAccounts(ConsentData consentData) throws ConsentManagementException {
+
+        String userId = consentData.getUserId();
+        if (StringUtils.isBlank(userId)) {
+            throw new ConsentManagementException("User ID is not available to retrieve the accounts");
+        }
+        String requestUrl;
+        try {
+            requestUrl = url.replace(USER_ID_PLACEHOLDER, URLEncoder.encode(userId, StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new ConsentManagementException("Error occurred while encoding the user ID", e);
+        }
+
+        HttpGet request = new HttpGet(requestUrl);
+        request.setConfig(requestConfig);
+        request.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+
+        try (CloseableHttpResponse response = httpClientHolder.getHttpClient().execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            // Read or consume the response so that the connection is returned to the pool
+            if (statusCode != HttpStatus.SC_OK) {
+                EntityUtils.consume(response.getEntity());
+                throw new ConsentManagementException(String.format("Account back-end responded with status %d",
+                        statusCode));
+            }
+            if (response.getEntity() == null) {
+                throw new ConsentManagementException("Account back-end responded without accounts");
+            }
+            return parseAccounts(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            throw new ConsentManagementException("Error occurred while calling the account back-end", e);
+        }
+    }
+
+    private JSONArray parseAccounts(String response) throws ConsentManagementException {
+
+        try {
+            if (response.startsWith("[")) {
+                return new JSONArray(response);
+            }
+            return new JSONObject(response).getJSONArray(ConsentExtensionConstants.ACCOUNTS);
+        } catch (JSONException e) {
+            throw new ConsentManagementException("Account back-end responded with an invalid accounts payload", e);
+        }
+    }
+}
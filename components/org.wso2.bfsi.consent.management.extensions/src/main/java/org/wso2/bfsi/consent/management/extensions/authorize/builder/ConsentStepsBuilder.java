@@ -23,9 +23,14 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
 import org.wso2.bfsi.consent.management.extensions.authorize.ConsentPersistStep;
 import org.wso2.bfsi.consent.management.extensions.authorize.ConsentRetrievalStep;
+import org.wso2.bfsi.consent.management.extensions.authorize.executor.ConsentStepsExecutor;
+import org.wso2.bfsi.consent.management.extensions.authorize.impl.AccountRetrievalStep;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionUtils;
 import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -38,6 +43,7 @@ public class ConsentStepsBuilder {
     private static final Log log = LogFactory.getLog(ConsentStepsBuilder.class);
     private List<ConsentPersistStep> consentPersistSteps = null;
     private List<ConsentRetrievalStep> consentRetrievalSteps = null;
+    private ConsentStepsExecutor consentStepsExecutor = null;
     private static final String RETRIEVE = "Retrieve";
     private static final String PERSIST = "Persist";
 
@@ -50,28 +56,80 @@ public class ConsentStepsBuilder {
         try {
             Map<String, Map<Integer, String>> stepsConfig = ConsentExtensionsDataHolder.getInstance()
                     .getConfigurationService().getConsentAuthorizeSteps();
+            Map<String, Map<Integer, String>> stepGroupsConfig = ConsentExtensionsDataHolder.getInstance()
+                    .getConfigurationService().getConsentAuthorizeStepGroups();
+            List<List<ConsentPersistStep>> persistStepGroups = new ArrayList<>();
+            List<List<ConsentRetrievalStep>> retrievalStepGroups = new ArrayList<>();
             Map<Integer, String> persistIntegerStringMap = stepsConfig.get(PERSIST);
             if (persistIntegerStringMap != null) {
-                consentPersistSteps = persistIntegerStringMap.keySet().stream()
-                        .map(integer -> ConsentExtensionUtils.getClassInstanceFromFQN(
-                                persistIntegerStringMap.get(integer), ConsentPersistStep.class))
-                        .collect(Collectors.toList());
+                persistStepGroups = buildStepGroups(persistIntegerStringMap, stepGroupsConfig.get(PERSIST),
+                        ConsentPersistStep.class);
+                consentPersistSteps = persistStepGroups.stream().flatMap(List::stream).collect(Collectors.toList());
                 log.debug("Persistence steps loaded successfully");
             }
             Map<Integer, String> retrieveIntegerStringMap = stepsConfig.get(RETRIEVE);
             if (retrieveIntegerStringMap != null) {
-                consentRetrievalSteps = retrieveIntegerStringMap.keySet().stream()
-                        .map(integer -> ConsentExtensionUtils.getClassInstanceFromFQN(
-                                retrieveIntegerStringMap.get(integer), ConsentRetrievalStep.class))
+                retrievalStepGroups = buildStepGroups(retrieveIntegerStringMap, stepGroupsConfig.get(RETRIEVE),
+                        ConsentRetrievalStep.class);
+                consentRetrievalSteps = retrievalStepGroups.stream().flatMap(List::stream)
                         .collect(Collectors.toList());
                 log.debug("Retrieval steps loaded successfully");
             }
+            warnIfAccountRetrievalStepMissing();
+            consentStepsExecutor = new ConsentStepsExecutor(retrievalStepGroups, persistStepGroups);
         } catch (ConsentManagementRuntimeException e) {
             log.error(String.format("Authorize steps not loaded successfully. Please verify configurations. %s",
                     e.getMessage().replaceAll("\n\r", "")), e);
         }
     }
 
+    /**
+     * Warn when no AccountRetrievalStep is configured. The accounts of the consent page were appended by
+     * DefaultConsentRetrievalStep before they were moved to AccountRetrievalStep, so a configuration which predates
+     * the move lists the default step only and the consent page is shown without accounts.
+     */
+    private void warnIfAccountRetrievalStepMissing() {
+
+        if (consentRetrievalSteps == null || consentRetrievalSteps.stream()
+                .noneMatch(step -> step instanceof AccountRetrievalStep)) {
+            log.warn(String.format("%s is not configured as a retrieval authorize step. The consent page will not " +
+                    "list any accounts unless another retrieval step appends them.",
+                    AccountRetrievalStep.class.getName()));
+        }
+    }
+
+    /**
+     * Group the steps ordered by priority. A step without a group forms a group of its own, while the steps sharing
+     * a group are placed in the group of the first of them.
+     *
+     * @param stepClasses step class names ordered by priority
+     * @param stepGroups  group names of the steps keyed by priority
+     * @param stepType    step interface
+     * @return groups of steps in execution order
+     */
+    private static <T> List<List<T>> buildStepGroups(Map<Integer, String> stepClasses,
+                                                     Map<Integer, String> stepGroups, Class<T> stepType) {
+
+        List<List<T>> groups = new ArrayList<>();
+        Map<String, List<T>> namedGroups = new HashMap<>();
+        for (Map.Entry<Integer, String> stepClass : stepClasses.entrySet()) {
+            T step = ConsentExtensionUtils.getClassInstanceFromFQN(stepClass.getValue(), stepType);
+            String groupName = stepGroups == null ? null : stepGroups.get(stepClass.getKey());
+            if (groupName == null) {
+                groups.add(Collections.singletonList(step));
+                continue;
+            }
+            List<T> group = namedGroups.get(groupName);
+            if (group == null) {
+                group = new ArrayList<>();
+                namedGroups.put(groupName, group);
+                groups.add(group);
+            }
+            group.add(step);
+        }
+        return groups;
+    }
+
     public List<ConsentPersistStep> getConsentPersistSteps() {
         return consentPersistSteps;
     }
@@ -79,4 +137,17 @@ public class ConsentStepsBuilder {
     public List<ConsentRetrievalStep> getConsentRetrievalSteps() {
         return consentRetrievalSteps;
     }
+
+    public ConsentStepsExecutor getConsentStepsExecutor() {
+        return consentStepsExecutor;
+    }
+
+    /**
+     * Stop the threads of the steps executor. Called when the steps are rebuilt or the component is deactivated.
+     */
+    public void shutdown() {
+        if (consentStepsExecutor != null) {
+            consentStepsExecutor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution times of an authorize step on this node.
+ */
+public class ConsentStepMetrics {
+
+    private final AtomicLong executionCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong totalDuration = new AtomicLong();
+    private volatile long lastDuration;
+    private volatile long maxDuration;
+
+    /**
+     * Record an execution of the step.
+     *
+     * @param duration  duration of the execution in milliseconds
+     * @param succeeded whether the step completed without an exception
+     */
+    synchronized void recordExecution(long duration, boolean succeeded) {
+
+        executionCount.incrementAndGet();
+        if (!succeeded) {
+            failureCount.incrementAndGet();
+        }
+        totalDuration.addAndGet(duration);
+        lastDuration = duration;
+        if (duration > maxDuration) {
+            maxDuration = duration;
+        }
+    }
+
+    /**
+     * Get the number of executions of the step, including the failed executions.
+     *
+     * @return number of executions
+     */
+    public long getExecutionCount() {
+
+        return executionCount.get();
+    }
+
+    /**
+     * Get the number of executions of the step which failed with an exception.
+     *
+     * @return number of failed executions
+     */
+    public long getFailureCount() {
+
+        return failureCount.get();
+    }
+
+    /**
+     * Get the duration of the last execution of the step in milliseconds.
+     *
+     * @return duration of the last execution
+     */
+    public long getLastDuration() {
+
+        return lastDuration;
+    }
+
+    /**
+     * Get the longest duration of an execution of the step in milliseconds.
+     *
+     * @return maximum duration
+     */
+    public long getMaxDuration() {
+
+        return maxDuration;
+    }
+
+    /**
+     * Get the average duration of the executions of the step in milliseconds.
+     *
+     * @return average duration, 0 if the step has not been executed yet
+     */
+    public long getAverageDuration() {
+
+        long count = executionCount.get();
+        return count == 0 ? 0 : totalDuration.get() / count;
+    }
+}
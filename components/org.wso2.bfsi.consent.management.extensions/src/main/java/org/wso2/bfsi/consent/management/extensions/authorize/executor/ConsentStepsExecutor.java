@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.executor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONObject;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.extensions.authorize.ConsentPersistStep;
+import org.wso2.bfsi.consent.management.extensions.authorize.ConsentRetrievalStep;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentPersistData;
+import org.wso2.bfsi.consent.management.extensions.common.AuthErrorCode;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the consent retrieval and persist steps of the authorize flow.
+ * <p>
+ * The steps are executed in groups, in the order of the priority of the first step of each group. A step without a
+ * group attribute forms a group of its own, while the steps sharing a group attribute are executed concurrently and
+ * the next group is only started once all of them complete. The first step of a group is executed on the request
+ * thread and the others on a bounded executor, falling back to the request thread when its queue is full or the
+ * executor is shut down.
+ * <p>
+ * Each retrieval step of a concurrent group is given its own shallow copy of the page JSON object. Once the group
+ * completes, the top level members added, replaced or removed by the steps are applied to the page JSON object in the
+ * priority order of the steps, so that a later step overrides an earlier one exactly as when the steps run one after
+ * another. The nested objects and arrays of the page and the consent data are shared by the steps of a group, hence
+ * a grouped step must replace a top level member instead of modifying its nested values, and steps of the same group
+ * must not depend on each other or modify the same consent data.
+ * <p>
+ * A consent core service unit of work is bound to the thread which started it. Steps run on the executor threads do
+ * not join a unit of work started on the request thread, hence steps which must share a transaction should not be
+ * grouped.
+ */
+public class ConsentStepsExecutor {
+
+    private static final Log log = LogFactory.getLog(ConsentStepsExecutor.class);
+    private static final String RETRIEVAL = "retrieval";
+    private static final String PERSISTENCE = "persistence";
+
+    private final List<List<ConsentRetrievalStep>> retrievalStepGroups;
+    private final List<List<ConsentPersistStep>> persistStepGroups;
+    private final ThreadPoolExecutor stepExecutor;
+    private final ConcurrentMap<String, ConsentStepMetrics> stepMetrics = new ConcurrentHashMap<>();
+
+    public ConsentStepsExecutor(List<List<ConsentRetrievalStep>> retrievalStepGroups,
+                                List<List<ConsentPersistStep>> persistStepGroups) {
+
+        this(retrievalStepGroups, persistStepGroups, ConsentManagementConfigParser.getInstance());
+    }
+
+    private ConsentStepsExecutor(List<List<ConsentRetrievalStep>> retrievalStepGroups,
+                                 List<List<ConsentPersistStep>> persistStepGroups,
+                                 ConsentManagementConfigParser configParser) {
+
+        this(retrievalStepGroups, persistStepGroups, configParser.getAuthorizeStepsPoolSize(),
+                configParser.getAuthorizeStepsQueueSize());
+    }
+
+    ConsentStepsExecutor(List<List<ConsentRetrievalStep>> retrievalStepGroups,
+                         List<List<ConsentPersistStep>> persistStepGroups, int poolSize, int queueSize) {
+
+        this.retrievalStepGroups = retrievalStepGroups;
+        this.persistStepGroups = persistStepGroups;
+        boolean hasConcurrentGroups = retrievalStepGroups.stream().anyMatch(group -> group.size() > 1) ||
+                persistStepGroups.stream().anyMatch(group -> group.size() > 1);
+        this.stepExecutor = hasConcurrentGroups ? new ThreadPoolExecutor(poolSize, poolSize, 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> createDaemonThread(runnable, "consent-authorize-step"),
+                ConsentStepsExecutor::runOnCaller) : null;
+    }
+
+    /**
+     * Execute the retrieval steps.
+     *
+     * @param consentData Consent data
+     * @param jsonObject  JSON object of the consent page
+     * @throws ConsentException if a retrieval step fails, the failure of the first failed step in priority order
+     */
+    public void executeRetrieval(ConsentData consentData, JSONObject jsonObject) throws ConsentException {
+
+        for (List<ConsentRetrievalStep> group : retrievalStepGroups) {
+            if (group.size() == 1) {
+                ConsentRetrievalStep step = group.get(0);
+                executeStep(RETRIEVAL, step, () -> step.execute(consentData, jsonObject));
+                continue;
+            }
+
+            Map<String, Object> groupInput = copyMembers(jsonObject);
+            List<JSONObject> stepOutputs = new ArrayList<>(group.size());
+            List<Runnable> executions = new ArrayList<>(group.size());
+            for (ConsentRetrievalStep step : group) {
+                JSONObject stepJSONObject = new JSONObject(groupInput);
+                stepOutputs.add(stepJSONObject);
+                executions.add(() -> executeStep(RETRIEVAL, step, () -> step.execute(consentData, stepJSONObject)));
+            }
+            executeGroup(executions, consentData);
+            for (JSONObject stepOutput : stepOutputs) {
+                mergeStepOutput(jsonObject, groupInput, stepOutput);
+            }
+        }
+    }
+
+    /**
+     * Execute the persist steps.
+     *
+     * @param consentPersistData Consent Persist data
+     * @throws ConsentException if a persist step fails, the failure of the first failed step in priority order
+     */
+    public void executePersistence(ConsentPersistData consentPersistData) throws ConsentException {
+
+        for (List<ConsentPersistStep> group : persistStepGroups) {
+            List<Runnable> executions = new ArrayList<>(group.size());
+            for (ConsentPersistStep step : group) {
+                executions.add(() -> executeStep(PERSISTENCE, step, () -> step.execute(consentPersistData)));
+            }
+            executeGroup(executions, consentPersistData.getConsentData());
+        }
+    }
+
+    /**
+     * Get the class names of the steps execution times are recorded for.
+     *
+     * @return step class names
+     */
+    public Set<String> getStepNames() {
+
+        return Collections.unmodifiableSet(stepMetrics.keySet());
+    }
+
+    /**
+     * Get the execution times of a step.
+     *
+     * @param stepClassName fully qualified class name of the step
+     * @return execution times of the step, null if the step has not been executed
+     */
+    public ConsentStepMetrics getStepMetrics(String stepClassName) {
+
+        return stepMetrics.get(stepClassName);
+    }
+
+    /**
+     * Stop the threads executing the concurrent steps once the submitted steps complete, so that the groups being
+     * executed are not left waiting for discarded steps. The steps of the groups executed afterwards run one after
+     * another on the request thread.
+     */
+    public void shutdown() {
+
+        if (stepExecutor != null) {
+            stepExecutor.shutdown();
+        }
+    }
+
+    private void executeStep(String stepType, Object step, Runnable execution) {
+
+        String stepName = step.getClass().getName();
+        long startTime = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            execution.run();
+            succeeded = true;
+        } finally {
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            stepMetrics.computeIfAbsent(stepName, name -> new ConsentStepMetrics())
+                    .recordExecution(duration, succeeded);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Executed %s step %s in %d milliseconds", stepType,
+                        stepName.replaceAll("[\r\n]", ""), duration));
+            }
+        }
+    }
+
+    private void executeGroup(List<Runnable> executions, ConsentData consentData) {
+
+        if (executions.size() == 1) {
+            executions.get(0).run();
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(executions.size() - 1);
+        for (Runnable execution : executions.subList(1, executions.size())) {
+            futures.add(stepExecutor.submit(execution));
+        }
+        RuntimeException failure = null;
+        try {
+            executions.get(0).run();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            if (interrupted) {
+                future.cancel(true);
+                continue;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (failure == null) {
+                    failure = (RuntimeException) cause;
+                }
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new ConsentException(consentData.getRedirectURI(), AuthErrorCode.SERVER_ERROR,
+                    "Interrupted while executing the authorize steps", consentData.getState());
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Shallow copy the top level members of the page JSON object. The nested objects and arrays are not copied, so
+     * that the merge can detect the replaced members by identity.
+     */
+    private static Map<String, Object> copyMembers(JSONObject jsonObject) {
+
+        Map<String, Object> members = new HashMap<>();
+        for (String key : jsonObject.keySet()) {
+            members.put(key, jsonObject.get(key));
+        }
+        return members;
+    }
+
+    /**
+     * Apply the top level members a step added, replaced or removed in its copy of the page JSON object.
+     */
+    private static void mergeStepOutput(JSONObject jsonObject, Map<String, Object> groupInput,
+                                        JSONObject stepOutput) {
+
+        for (String key : groupInput.keySet()) {
+            if (!stepOutput.has(key)) {
+                jsonObject.remove(key);
+            }
+        }
+        for (String key : stepOutput.keySet()) {
+            Object value = stepOutput.get(key);
+            if (value != groupInput.get(key)) {
+                jsonObject.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Run a step rejected by the executor on the request thread. Unlike CallerRunsPolicy the step is also run when
+     * the executor is shut down, as its future would otherwise never complete.
+     */
+    private static void runOnCaller(Runnable runnable, ThreadPoolExecutor executor) {
+
+        runnable.run();
+    }
+
+    private static Thread createDaemonThread(Runnable runnable, String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONObject;
+import org.wso2.bfsi.consent.management.extensions.authorize.ConsentRetrievalStep;
+import org.wso2.bfsi.consent.management.extensions.authorize.account.AccountRetrievalResult;
+import org.wso2.bfsi.consent.management.extensions.authorize.account.AccountRetrievalService;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+import org.wso2.bfsi.consent.management.extensions.authorize.util.ConsentAuthorizeConstants;
+import org.wso2.bfsi.consent.management.extensions.authorize.util.ConsentAuthorizeUtil;
+import org.wso2.bfsi.consent.management.extensions.common.AuthErrorCode;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
+
+import java.util.stream.Collectors;
+
+/**
+ * Consent retrieval step which appends the accounts of the user retrieved from the configured account retrievers.
+ * When only some of the retrievers respond, the retrieved accounts are appended and the page is marked with the
+ * partial accounts flag. Sample accounts are appended when no account retriever is configured.
+ */
+public class AccountRetrievalStep implements ConsentRetrievalStep {
+
+    private static final Log log = LogFactory.getLog(AccountRetrievalStep.class);
+
+    private final AccountRetrievalService accountRetrievalService;
+
+    public AccountRetrievalStep() {
+
+        this(AccountRetrievalService.getInstance());
+    }
+
+    AccountRetrievalStep(AccountRetrievalService accountRetrievalService) {
+
+        this.accountRetrievalService = accountRetrievalService;
+    }
+
+    @Override
+    public void execute(ConsentData consentData, JSONObject jsonObject) throws ConsentException {
+
+        if (!consentData.isRegulatory()) {
+            return;
+        }
+
+        if (!accountRetrievalService.hasRetrievers()) {
+            jsonObject.put(ConsentExtensionConstants.ACCOUNTS, ConsentAuthorizeUtil.appendDummyAccountID());
+            return;
+        }
+
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(consentData);
+        if (result.isPartial()) {
+            if (result.getAccounts().length() == 0) {
+                throw new ConsentException(consentData.getRedirectURI(), AuthErrorCode.SERVER_ERROR,
+                        ConsentAuthorizeConstants.ACCOUNT_RETRIEVAL_ERROR, consentData.getState());
+            }
+            log.warn(String.format("Accounts could not be retrieved from %s, continuing with the retrieved accounts",
+                    result.getFailureCauses().entrySet().stream()
+                            .map(failure -> failure.getKey() + " (" + failure.getValue() + ")")
+                            .collect(Collectors.joining(", "))));
+            jsonObject.put(ConsentAuthorizeConstants.PARTIAL_ACCOUNTS, true);
+        }
+        jsonObject.put(ConsentExtensionConstants.ACCOUNTS, result.getAccounts());
+    }
+}
@@ -83,10 +83,6 @@ public class DefaultConsentRetrievalStep implements ConsentRetrievalStep {
             JSONArray consentDataJSON = ConsentAuthorizeUtil.getConsentData(consentResource);
             jsonObject.put("consentData", consentDataJSON);
 
-            //Appending Dummy data for Accounts consent. Ideally should be separate step calling accounts service
-            JSONArray accountsJSON = ConsentAuthorizeUtil.appendDummyAccountID();
-            jsonObject.put("accounts", accountsJSON);
-
         } catch (ConsentManagementException e) {
             throw new ConsentException(consentData.getRedirectURI(), AuthErrorCode.SERVER_ERROR,
                     "Exception occurred while getting consent data", consentData.getState());
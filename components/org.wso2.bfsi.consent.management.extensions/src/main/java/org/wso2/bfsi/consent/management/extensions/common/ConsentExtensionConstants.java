@@ -109,6 +109,12 @@ public class ConsentExtensionConstants {
     public static final String COUNT = "count";
     public static final String TOTAL = "total";
     public static final String METADATA = "metadata";
+    public static final String PAGINATION = "pagination";
+    public static final String CURSOR_PAGINATION = "cursor";
+    public static final String CONTINUATION_TOKEN = "continuationToken";
+    public static final String NEXT_CONTINUATION_TOKEN = "nextContinuationToken";
+    public static final int DEFAULT_CURSOR_PAGE_LIMIT = 100;
+    public static final String STREAM = "stream";
     public static final String HISTORY_ID = "historyId";
     public static final String AMENDED_REASON = "amendedReason";
     public static final String AMENDED_TIME = "amendedTime";
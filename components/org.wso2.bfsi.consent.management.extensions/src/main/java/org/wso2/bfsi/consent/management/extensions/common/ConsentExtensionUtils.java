@@ -20,7 +20,6 @@ package org.wso2.bfsi.consent.management.extensions.common;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,10 +38,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
-import java.security.PublicKey;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
-import java.security.interfaces.RSAPublicKey;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -165,21 +162,33 @@ public class ConsentExtensionUtils {
     public static boolean validateJWTSignatureWithPublicKey(String jwtString, String alias)
             throws ConsentManagementException {
 
-        Certificate certificate = getCertificateFromAlias(alias);
-
-        if (certificate == null) {
-            throw new ConsentManagementException("Certificate not found for provided alias");
+        try {
+            return validateJWTSignatureWithPublicKey(SignedJWT.parse(jwtString), alias);
+        } catch (java.text.ParseException e) {
+            log.error("Error occurred while validating JWT signature", e);
+            throw new ConsentManagementException("Error occurred while validating JWT signature");
         }
-        PublicKey publicKey = certificate.getPublicKey();
+    }
+
+    /**
+     * Validate the signature of a parsed JWT by providing the alias in the client truststore. The verifier of the
+     * alias is cached until the truststore is modified.
+     *
+     * @param signedJWT parsed JWT to be validated
+     * @param alias     alias in the trust store
+     * @return boolean value depicting whether the signature is valid
+     * @throws ConsentManagementException error with message mentioning the cause
+     */
+    public static boolean validateJWTSignatureWithPublicKey(SignedJWT signedJWT, String alias)
+            throws ConsentManagementException {
 
+        JWSVerifier verifier = JWSVerifierCache.getInstance().getVerifier(alias);
         try {
-            JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
-            return SignedJWT.parse(jwtString).verify(verifier);
-        } catch (JOSEException | java.text.ParseException e) {
+            return signedJWT.verify(verifier);
+        } catch (JOSEException e) {
             log.error("Error occurred while validating JWT signature", e);
             throw new ConsentManagementException("Error occurred while validating JWT signature");
         }
-
     }
 
     /**
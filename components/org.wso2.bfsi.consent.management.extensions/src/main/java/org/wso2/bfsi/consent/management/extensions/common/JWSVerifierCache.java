@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.common;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
+
+import java.io.File;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the JWS verifiers built from the certificates in the client truststore, keyed by the certificate alias.
+ * <p>
+ * The truststore file is checked for modifications at most once per check interval. When it has been modified, the
+ * loaded truststore and the cached verifiers are discarded so that they are rebuilt from the updated file. Clearing
+ * replaces the verifier map instead of emptying it, so that a verifier built concurrently from the previous truststore
+ * is added to the discarded map and not to the current one.
+ */
+public class JWSVerifierCache {
+
+    private static final Log log = LogFactory.getLog(JWSVerifierCache.class);
+    private static final long TRUST_STORE_CHECK_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final JWSVerifierCache instance = new JWSVerifierCache();
+
+    private volatile ConcurrentMap<String, JWSVerifier> verifiers = new ConcurrentHashMap<>();
+    private volatile long nextTrustStoreCheckTime;
+    private long trustStoreLastModified;
+
+    private JWSVerifierCache() {
+    }
+
+    public static JWSVerifierCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the verifier for the certificate of the given alias in the client truststore.
+     *
+     * @param alias alias in the trust store
+     * @return JWS verifier for the certificate public key
+     * @throws ConsentManagementException if the certificate is not found or does not hold an RSA public key
+     */
+    public JWSVerifier getVerifier(String alias) throws ConsentManagementException {
+
+        reloadIfTrustStoreModified();
+        ConcurrentMap<String, JWSVerifier> currentVerifiers = verifiers;
+        JWSVerifier verifier = currentVerifiers.get(alias);
+        if (verifier == null) {
+            verifier = createVerifier(alias);
+            JWSVerifier existingVerifier = currentVerifiers.putIfAbsent(alias, verifier);
+            if (existingVerifier != null) {
+                verifier = existingVerifier;
+            }
+        }
+        return verifier;
+    }
+
+    /**
+     * Discard the cached verifiers and the loaded truststore.
+     */
+    public synchronized void clear() {
+
+        verifiers = new ConcurrentHashMap<>();
+        ConsentExtensionsDataHolder.getInstance().setTrustStore(null);
+    }
+
+    private JWSVerifier createVerifier(String alias) throws ConsentManagementException {
+
+        Certificate certificate = ConsentExtensionUtils.getCertificateFromAlias(alias);
+        if (certificate == null) {
+            throw new ConsentManagementException("Certificate not found for provided alias");
+        }
+        PublicKey publicKey = certificate.getPublicKey();
+        if (!(publicKey instanceof RSAPublicKey)) {
+            throw new ConsentManagementException("Certificate of the provided alias does not hold an RSA public key");
+        }
+        return new RSASSAVerifier((RSAPublicKey) publicKey);
+    }
+
+    private void reloadIfTrustStoreModified() {
+
+        long currentTime = System.currentTimeMillis();
+        if (currentTime < nextTrustStoreCheckTime) {
+            return;
+        }
+        synchronized (this) {
+            if (currentTime < nextTrustStoreCheckTime) {
+                return;
+            }
+            nextTrustStoreCheckTime = currentTime + TRUST_STORE_CHECK_INTERVAL;
+            String trustStoreLocation = System.getProperty("javax.net.ssl.trustStore");
+            if (trustStoreLocation == null) {
+                return;
+            }
+            long lastModified = new File(trustStoreLocation).lastModified();
+            if (lastModified != trustStoreLastModified) {
+                if (trustStoreLastModified != 0) {
+                    log.info("Client truststore modification detected, reloading the signature verifiers");
+                    clear();
+                }
+                trustStoreLastModified = lastModified;
+            }
+        }
+    }
+}
@@ -18,19 +18,26 @@
 
 package org.wso2.bfsi.consent.management.extensions.common.idempotency;
 
-import org.apache.commons.lang3.StringUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
+import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentManageData;
 import org.wso2.bfsi.consent.management.service.ConsentCoreService;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +51,9 @@ public class IdempotencyValidationUtils {
     private static final Log log = LogFactory.getLog(IdempotencyValidationUtils.class);
     private static final ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance()
             .getConsentCoreService();
+    // Object mapper writing the map entries in key order, so that equal payloads have the same serialized form
+    private static final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
 
     /**
      * Method to retrieve the consent ids that have the idempotency key name and value as attribute.
@@ -104,17 +114,44 @@ public class IdempotencyValidationUtils {
             log.debug("Created time is of the previous request is not correctly set. Hence returning false");
             return false;
         }
-        String allowedTimeDuration = ConsentManagementConfigParser.getInstance().getIdempotencyAllowedTime();
-        if (StringUtils.isNotBlank(allowedTimeDuration)) {
-            OffsetDateTime createdDate = OffsetDateTime.parse(toISO8601DateTime(createdTime));
-            OffsetDateTime currDate = OffsetDateTime.now(createdDate.getOffset());
-
-            long diffInHours = Duration.between(createdDate, currDate).toHours();
-            return diffInHours <= Long.parseLong(allowedTimeDuration);
-        } else {
-            log.error("Idempotency allowed duration is not configured in the system. Hence returning false");
+        long allowedTimeDuration;
+        try {
+            allowedTimeDuration = Long.parseLong(ConsentManagementConfigParser.getInstance()
+                    .getIdempotencyAllowedTime());
+        } catch (NumberFormatException e) {
+            log.error("Idempotency allowed duration is not a valid number of hours. Hence returning false");
             return false;
         }
+        OffsetDateTime createdDate = OffsetDateTime.parse(toISO8601DateTime(createdTime));
+        OffsetDateTime currDate = OffsetDateTime.now(createdDate.getOffset());
+
+        long diffInHours = Duration.between(createdDate, currDate).toHours();
+        return diffInHours <= allowedTimeDuration;
+    }
+
+    /**
+     * Method to compute the hash of the request payload stored with the idempotency key. The payload is serialized
+     * with the object keys in order before hashing, hence payloads which differ only in the order of the keys have
+     * the same hash. Requests without a payload are identified by the request path.
+     *
+     * @param consentManageData   Consent Manage Data
+     * @return  Base64 encoded SHA-256 hash of the payload
+     * @throws IOException  If the payload is not a valid JSON
+     */
+    static String getPayloadHash(ConsentManageData consentManageData) throws IOException {
+
+        String payload = consentManageData.getPayload().toString();
+        String canonicalPayload = IdempotencyConstants.EMPTY_OBJECT.equals(payload) ?
+                consentManageData.getRequestPath() :
+                canonicalMapper.writeValueAsString(canonicalMapper.readValue(payload, Object.class));
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(IdempotencyConstants.PAYLOAD_HASH_ALGORITHM);
+            return Base64.getEncoder().encodeToString(
+                    messageDigest.digest(canonicalPayload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
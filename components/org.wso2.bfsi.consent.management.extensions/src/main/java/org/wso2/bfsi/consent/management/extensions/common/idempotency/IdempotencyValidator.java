@@ -27,11 +27,13 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
 import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
 import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentManageData;
 import org.wso2.bfsi.consent.management.service.ConsentCoreService;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -41,8 +43,7 @@ import java.util.Map;
 public class IdempotencyValidator {
 
     private static final Log log = LogFactory.getLog(IdempotencyValidator.class);
-    private static final ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance()
-            .getConsentCoreService();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * Method to check whether the request is idempotent.
@@ -53,6 +54,8 @@ public class IdempotencyValidator {
      *  - Whether the client id sent in the request and client id retrieved from the database are equal
      *  - Whether the difference between two dates is less than the configured time
      *  - Whether payloads are equal
+     * When the idempotency key store is enabled, the idempotency key of the client is looked up in the store instead
+     * and the hash of the payload is compared with the hash stored with the key.
      *
      * @param consentManageData            Consent Manage Data
      * @return  IdempotencyValidationResult
@@ -83,6 +86,9 @@ public class IdempotencyValidator {
         }
 
         try {
+            if (ConsentManagementConfigParser.getInstance().isIdempotencyStoreEnabled()) {
+                return validateIdempotencyWithStore(consentManageData, idempotencyKeyValue);
+            }
             String idempotencyKeyName = getIdempotencyAttributeName(consentManageData.getRequestPath());
             if (!IdempotencyConstants.EMPTY_OBJECT.equals(consentManageData.getPayload().toString())) {
                 // Retrieve consent ids that have the idempotency key name and value as attribute
@@ -96,7 +102,7 @@ public class IdempotencyValidator {
                                 " idempotent request", idempotencyKeyValue.replaceAll("[\r\n]", "")));
                     }
                     for (String consentId : consentIds) {
-                        DetailedConsentResource consentResource = consentCoreService.getDetailedConsent(consentId);
+                        DetailedConsentResource consentResource = getConsentCoreService().getDetailedConsent(consentId);
                         if (consentResource != null) {
                             return validateIdempotencyConditions(consentManageData, consentResource);
                         } else {
@@ -119,6 +125,92 @@ public class IdempotencyValidator {
         return new IdempotencyValidationResult(false, false);
     }
 
+    /**
+     * Method to store the idempotency key of a request which created a consent, so that the repetitions of the
+     * request are identified. The key is stored in the idempotency key store when it is enabled, otherwise as a
+     * consent attribute. The key should be stored in the same unit of work which creates the consent, so that a
+     * concurrent request with the same idempotency key fails to store it and rolls back its consent.
+     *
+     * @param consentManageData   Consent Manage Data of the request which created the consent
+     * @param consentId           ID of the created consent
+     * @throws ConsentManagementException  If the idempotency key could not be stored
+     */
+    public void storeIdempotencyKey(ConsentManageData consentManageData, String consentId)
+            throws ConsentManagementException {
+
+        ConsentManagementConfigParser configParser = ConsentManagementConfigParser.getInstance();
+        if (!configParser.isIdempotencyValidationEnabled()) {
+            return;
+        }
+        String idempotencyKeyValue = consentManageData.getHeaders().get(getIdempotencyHeaderName());
+        if (StringUtils.isBlank(idempotencyKeyValue) || StringUtils.isBlank(consentManageData.getClientId()) ||
+                consentManageData.getPayload() == null) {
+            return;
+        }
+        idempotencyKeyValue = idempotencyKeyValue.replaceAll("[\r\n]", "");
+
+        if (!configParser.isIdempotencyStoreEnabled()) {
+            getConsentCoreService().storeConsentAttributes(consentId, Collections.singletonMap(
+                    getIdempotencyAttributeName(consentManageData.getRequestPath()), idempotencyKeyValue));
+            return;
+        }
+        try {
+            getConsentCoreService().storeIdempotencyKey(new IdempotencyKeyRecord(consentManageData.getClientId(),
+                    idempotencyKeyValue, consentId, IdempotencyValidationUtils.getPayloadHash(consentManageData)));
+        } catch (IOException e) {
+            log.error(IdempotencyConstants.IDEMPOTENCY_KEY_STORE_ERROR, e);
+            throw new IdempotencyValidationException(IdempotencyConstants.IDEMPOTENCY_KEY_STORE_ERROR, e);
+        }
+    }
+
+    /**
+     * Method to check whether the request is idempotent using the idempotency key store. The idempotency keys are
+     * scoped to the client, hence a single lookup finds the previous request of the client with the same key.
+     * This method will validate the following conditions.
+     *  - Whether the difference between two dates is less than the configured time
+     *  - Whether the payload hashes are equal
+     *
+     * @param consentManageData        Consent Manage Data
+     * @param idempotencyKeyValue      Idempotency Key value
+     * @return  IdempotencyValidationResult
+     */
+    private IdempotencyValidationResult validateIdempotencyWithStore(ConsentManageData consentManageData,
+                                                                     String idempotencyKeyValue)
+            throws IOException, ConsentManagementException {
+
+        IdempotencyKeyRecord idempotencyKeyRecord = getConsentCoreService().getIdempotencyKey(
+                consentManageData.getClientId(), idempotencyKeyValue);
+        if (idempotencyKeyRecord == null) {
+            return new IdempotencyValidationResult(false, false);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Idempotency Key  %s exists in the database. Hence this is an" +
+                    " idempotent request", idempotencyKeyValue.replaceAll("[\r\n]", "")));
+        }
+        // Check whether difference between two dates is less than the configured time
+        if (!IdempotencyValidationUtils.isRequestReceivedWithinAllowedTime(idempotencyKeyRecord.getCreatedTime())) {
+            log.error(IdempotencyConstants.ERROR_AFTER_ALLOWED_TIME);
+            throw new IdempotencyValidationException(IdempotencyConstants.ERROR_AFTER_ALLOWED_TIME);
+        }
+        // Compare the hash of the payload with the hash of the previous payload
+        if (!idempotencyKeyRecord.getPayloadHash().equals(
+                IdempotencyValidationUtils.getPayloadHash(consentManageData))) {
+            log.error(IdempotencyConstants.ERROR_PAYLOAD_NOT_SIMILAR);
+            throw new IdempotencyValidationException(IdempotencyConstants.ERROR_PAYLOAD_NOT_SIMILAR);
+        }
+        DetailedConsentResource consentResource = getConsentCoreService().getDetailedConsent(
+                idempotencyKeyRecord.getConsentID());
+        if (consentResource == null) {
+            String errorMsg = String.format(IdempotencyConstants.ERROR_NO_CONSENT_DETAILS,
+                    idempotencyKeyRecord.getConsentID());
+            log.error(errorMsg.replaceAll("[\r\n]", ""));
+            throw new IdempotencyValidationException(errorMsg);
+        }
+        log.debug("Payloads are similar and request received within allowed" +
+                " time. Hence this is a valid idempotent request");
+        return new IdempotencyValidationResult(true, true, consentResource, consentResource.getConsentID());
+    }
+
     /**
      * Method to check whether the idempotency conditions are met for requests without payload.
      * This method will validate the following conditions.
@@ -152,7 +244,7 @@ public class IdempotencyValidator {
                         !idempotencyKeyValue.equals(entry.getValue())) {
                     throw new IdempotencyValidationException(IdempotencyConstants.SAME_CONSENT_ID_ERROR);
                 }
-                DetailedConsentResource consentRequest = consentCoreService.getDetailedConsent(entry.getKey());
+                DetailedConsentResource consentRequest = getConsentCoreService().getDetailedConsent(entry.getKey());
                 if (consentRequest != null) {
                     return validateIdempotencyConditions(consentManageData, consentRequest);
                 } else {
@@ -210,6 +302,11 @@ public class IdempotencyValidator {
         }
     }
 
+    private static ConsentCoreService getConsentCoreService() {
+
+        return ConsentExtensionsDataHolder.getInstance().getConsentCoreService();
+    }
+
     /**
      * Method to get the Idempotency Attribute Name store in consent Attributes.
      *
@@ -239,7 +336,7 @@ public class IdempotencyValidator {
     protected long getCreatedTimeOfPreviousRequest(String resourcePath, String consentId) {
         DetailedConsentResource consentRequest = null;
         try {
-            consentRequest = consentCoreService.getDetailedConsent(consentId);
+            consentRequest = getConsentCoreService().getDetailedConsent(consentId);
         } catch (ConsentManagementException e) {
             log.error(IdempotencyConstants.CONSENT_RETRIEVAL_ERROR, e);
             return 0L;
@@ -260,7 +357,7 @@ public class IdempotencyValidator {
     protected String getPayloadOfPreviousRequest(String resourcePath, String consentId) {
         DetailedConsentResource consentRequest = null;
         try {
-            consentRequest = consentCoreService.getDetailedConsent(consentId);
+            consentRequest = getConsentCoreService().getDetailedConsent(consentId);
         } catch (ConsentManagementException e) {
             log.error(IdempotencyConstants.CONSENT_RETRIEVAL_ERROR, e);
             return null;
@@ -287,9 +384,8 @@ public class IdempotencyValidator {
         JsonNode expectedNode = null;
         JsonNode actualNode = null;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            expectedNode = mapper.readTree(consentManageData.getPayload().toString());
-            actualNode = mapper.readTree(consentReceipt);
+            expectedNode = objectMapper.readTree(consentManageData.getPayload().toString());
+            actualNode = objectMapper.readTree(consentReceipt);
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Expected payload for idempotent request is: %s. But actual payload " +
                         "received is %s", expectedNode.toString().replaceAll("[\r\n]", ""),
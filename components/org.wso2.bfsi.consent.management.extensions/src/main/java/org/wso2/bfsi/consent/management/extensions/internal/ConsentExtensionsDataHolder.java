@@ -43,7 +43,7 @@ public class ConsentExtensionsDataHolder {
     private ConsentManageBuilder consentManageBuilder;
     private ConsentValidateBuilder consentValidateBuilder;
     private ConsentAdminBuilder consentAdminBuilder;
-    private KeyStore trustStore = null;
+    private volatile KeyStore trustStore = null;
 
     // Prevent instantiation
     private ConsentExtensionsDataHolder() {}
@@ -53,7 +53,7 @@ public class ConsentExtensionsDataHolder {
      *
      * @return A singleton instance of the data holder
      */
-    public static synchronized ConsentExtensionsDataHolder getInstance() {
+    public static ConsentExtensionsDataHolder getInstance() {
         if (instance == null) {
             synchronized (ConsentExtensionsDataHolder.class) {
                 if (instance == null) {
@@ -74,6 +74,9 @@ public class ConsentExtensionsDataHolder {
         this.configurationService = configurationService;
 
         if (configurationService != null) {
+            if (this.consentStepsBuilder != null) {
+                this.consentStepsBuilder.shutdown();
+            }
             ConsentStepsBuilder consentStepsBuilder = new ConsentStepsBuilder();
             this.setConsentStepsBuilder(consentStepsBuilder);
             ConsentExtensionExporter.setConsentStepsBuilder(consentStepsBuilder);
@@ -28,6 +28,8 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigurationService;
+import org.wso2.bfsi.consent.management.extensions.authorize.account.AccountRetrievalService;
+import org.wso2.bfsi.consent.management.extensions.authorize.builder.ConsentStepsBuilder;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionExporter;
 import org.wso2.bfsi.consent.management.service.ConsentCoreService;
 
@@ -70,6 +72,11 @@ public class ConsentExtensionsServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        ConsentStepsBuilder consentStepsBuilder = ConsentExtensionsDataHolder.getInstance().getConsentStepsBuilder();
+        if (consentStepsBuilder != null) {
+            consentStepsBuilder.shutdown();
+        }
+        AccountRetrievalService.shutdownInstance();
         log.debug("Consent Extensions component is deactivated");
     }
 
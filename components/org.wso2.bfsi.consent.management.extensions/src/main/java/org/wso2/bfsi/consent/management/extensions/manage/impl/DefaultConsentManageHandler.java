@@ -30,12 +30,16 @@ import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionUtils;
 import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidationException;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidationResult;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidator;
 import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
 import org.wso2.bfsi.consent.management.extensions.manage.ConsentManageHandler;
 import org.wso2.bfsi.consent.management.extensions.manage.ConsentManageValidator;
 import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentManageData;
 import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentPayloadValidationResult;
 import org.wso2.bfsi.consent.management.extensions.manage.utils.ConsentManageConstants;
+import org.wso2.bfsi.consent.management.service.ConsentCoreService;
 
 
 /**
@@ -118,6 +122,17 @@ public class DefaultConsentManageHandler implements ConsentManageHandler {
             String consentType = ConsentExtensionUtils.getConsentType(consentManageData.getRequestPath());
             JSONObject requestObject = (JSONObject) request;
 
+            // A repetition of a request which already created a consent gets the same consent
+            IdempotencyValidator idempotencyValidator = getIdempotencyValidator();
+            DetailedConsentResource idempotentConsent = getIdempotentConsent(idempotencyValidator,
+                    consentManageData);
+            if (idempotentConsent != null) {
+                consentManageData.setResponsePayload(ConsentExtensionUtils.getInitiationResponse(requestObject,
+                        idempotentConsent));
+                consentManageData.setResponseStatus(ResponseStatus.CREATED);
+                return;
+            }
+
             //Validate Initiation request
             ConsentPayloadValidationResult validationResponse =
                     getConsentManageValidator().validateInitiation(requestObject, consentType);
@@ -130,10 +145,25 @@ public class DefaultConsentManageHandler implements ConsentManageHandler {
             ConsentResource requestedConsent = new ConsentResource(consentManageData.getClientId(),
                     requestObject.toString(), consentType, ConsentExtensionConstants.AWAIT_AUTHORISE_STATUS);
 
-            DetailedConsentResource createdConsent = ConsentExtensionsDataHolder.getInstance()
-                    .getConsentCoreService().createAuthorizableConsent(requestedConsent,
-                    null, ConsentExtensionConstants.CREATED_STATUS, ConsentExtensionConstants.DEFAULT_AUTH_TYPE,
-                    true);
+            ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance().getConsentCoreService();
+            DetailedConsentResource createdConsent;
+            try {
+                // The idempotency key is stored with the consent, hence a concurrent request with the same key fails
+                // to store it and rolls back its consent
+                createdConsent = consentCoreService.inTransaction(() -> {
+                    DetailedConsentResource consent = consentCoreService.createAuthorizableConsent(requestedConsent,
+                            null, ConsentExtensionConstants.CREATED_STATUS,
+                            ConsentExtensionConstants.DEFAULT_AUTH_TYPE, true);
+                    idempotencyValidator.storeIdempotencyKey(consentManageData, consent.getConsentID());
+                    return consent;
+                });
+            } catch (ConsentManagementException e) {
+                // Reply with the consent of the concurrent request if it stored the idempotency key first
+                createdConsent = getIdempotentConsent(idempotencyValidator, consentManageData);
+                if (createdConsent == null) {
+                    throw e;
+                }
+            }
 
             consentManageData.setResponsePayload(ConsentExtensionUtils.getInitiationResponse(requestObject,
                     createdConsent));
@@ -147,6 +177,35 @@ public class DefaultConsentManageHandler implements ConsentManageHandler {
 
     }
 
+    /**
+     * Get the consent created by a previous request with the idempotency key of the request.
+     *
+     * @param idempotencyValidator  Idempotency validator
+     * @param consentManageData     Consent Manage Data
+     * @return the consent of the previous request, or null if the request is not a repetition
+     * @throws ConsentException  If the request is an invalid repetition of a previous request
+     */
+    private DetailedConsentResource getIdempotentConsent(IdempotencyValidator idempotencyValidator,
+                                                         ConsentManageData consentManageData)
+            throws ConsentException {
+
+        IdempotencyValidationResult idempotencyValidationResult;
+        try {
+            idempotencyValidationResult = idempotencyValidator.validateIdempotency(consentManageData);
+        } catch (IdempotencyValidationException e) {
+            throw new ConsentException(ResponseStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!idempotencyValidationResult.isIdempotent()) {
+            return null;
+        }
+        if (!idempotencyValidationResult.isValid()) {
+            log.error("Error occurred while validating the idempotency of the request");
+            throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR,
+                    "Error Occurred while handling the request");
+        }
+        return idempotencyValidationResult.getConsent();
+    }
+
     @Override
     public void handleDelete(ConsentManageData consentManageData) throws ConsentException {
 
@@ -250,4 +309,13 @@ public class DefaultConsentManageHandler implements ConsentManageHandler {
     public ConsentManageValidator getConsentManageValidator() {
         return new DefaultConsentManageValidator();
     }
+
+    /**
+     * Get the idempotency validator of the consent initiation requests.
+     *
+     * @return idempotency validator
+     */
+    protected IdempotencyValidator getIdempotencyValidator() {
+        return new IdempotencyValidator();
+    }
 }
@@ -23,10 +23,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpStatus;
-import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
+import org.wso2.bfsi.consent.management.dao.models.AccountPermission;
 import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentReceipt;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
@@ -38,6 +38,11 @@ import org.wso2.bfsi.consent.management.extensions.validate.model.ConsentValidat
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Consent validator default implementation.
@@ -53,15 +58,22 @@ public class DefaultConsentValidator implements ConsentValidator {
             "permissions";
     private static final String INVALID_URI_ERROR = "Path requested is invalid";
     private static final String CONSENT_EXPIRED_ERROR = "Provided consent is expired";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Account resource paths and the permissions required to access them, matched in order
+    private static final List<ResourceRoute> ACCOUNT_ROUTES = Collections.unmodifiableList(Arrays.asList(
+            new ResourceRoute(ACCOUNTS_REGEX, AccountPermission.READ_ACCOUNTS_DETAIL),
+            new ResourceRoute(TRANSACTIONS_REGEX, AccountPermission.READ_TRANSACTIONS_DETAIL),
+            new ResourceRoute(BALANCES_REGEX, AccountPermission.READ_BALANCES)));
+
     @Override
     public void validate(ConsentValidateData consentValidateData, ConsentValidationResult consentValidationResult)
             throws ConsentException {
 
-        JSONObject receiptJSON;
-        try {
-            receiptJSON = new JSONObject(consentValidateData.getComprehensiveConsent().getReceipt());
-        } catch (JSONException e) {
-            log.error(e.getMessage().replaceAll("[\n\r]", ""));
+        // The receipt is parsed once and kept with the cached consent
+        ConsentReceipt consentReceipt = consentValidateData.getComprehensiveConsent().getParsedReceipt();
+        if (!consentReceipt.isValid()) {
+            log.error("Consent receipt is not a valid JSON object");
             throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, "Exception occurred while validating" +
                     " permissions");
         }
@@ -100,13 +112,13 @@ public class DefaultConsentValidator implements ConsentValidator {
 
         switch (requestType) {
             case ConsentExtensionConstants.ACCOUNTS:
-                validateAccountSubmission(consentValidateData, receiptJSON, consentValidationResult);
+                validateAccountSubmission(consentValidateData, consentReceipt, consentValidationResult);
                 break;
             case ConsentExtensionConstants.PAYMENTS:
-                validatePaymentSubmission(consentValidateData, receiptJSON, consentValidationResult);
+                validatePaymentSubmission(consentValidateData, consentReceipt, consentValidationResult);
                 break;
             case ConsentExtensionConstants.FUNDS_CONFIRMATIONS:
-                validateFundsConfirmationSubmission(consentValidateData, receiptJSON, consentValidationResult);
+                validateFundsConfirmationSubmission(consentValidateData, consentReceipt, consentValidationResult);
                 break;
             default:
                 log.error("Invalid consent type");
@@ -122,23 +134,19 @@ public class DefaultConsentValidator implements ConsentValidator {
      * @param consentValidateData     Object with request data
      * @param consentValidationResult Validation result object to return
      */
-    private void validateAccountSubmission(ConsentValidateData consentValidateData, JSONObject receiptJSON,
+    private void validateAccountSubmission(ConsentValidateData consentValidateData, ConsentReceipt consentReceipt,
                                            ConsentValidationResult consentValidationResult) {
 
-        JSONArray permissions = receiptJSON.getJSONObject("Data").getJSONArray("Permissions");
-
         // Perform URI Validation.
         String uri = consentValidateData.getRequestPath();
-        if (!(uri.matches(ACCOUNTS_REGEX) || uri.matches(TRANSACTIONS_REGEX) || uri.matches(BALANCES_REGEX))) {
+        ResourceRoute route = getAccountRoute(uri);
+        if (route == null) {
             consentValidationResult.setErrorMessage(INVALID_URI_ERROR);
             consentValidationResult.setErrorCode(ResponseStatus.UNAUTHORIZED.getReasonPhrase());
             consentValidationResult.setHttpCode(401);
             return;
         }
-        String persmissionString = permissions.toString();
-        if ((uri.matches(ACCOUNTS_REGEX) && !persmissionString.contains("ReadAccountsDetail")) ||
-                (uri.matches(TRANSACTIONS_REGEX) && !persmissionString.contains("ReadTransactionsDetail")) ||
-                (uri.matches(BALANCES_REGEX)) && !persmissionString.contains("ReadBalances")) {
+        if (!consentReceipt.getAccountPermissions().contains(route.requiredPermission)) {
             consentValidationResult.setErrorMessage(PERMISSION_MISMATCH_ERROR);
             consentValidationResult.setErrorCode(ResponseStatus.UNAUTHORIZED.getReasonPhrase());
             consentValidationResult.setHttpCode(401);
@@ -154,7 +162,7 @@ public class DefaultConsentValidator implements ConsentValidator {
             return;
         }
 
-        if (isConsentExpired(receiptJSON.getJSONObject("Data").getString("ExpirationDateTime"))) {
+        if (isConsentExpired(consentReceipt.getExpirationDateTime())) {
             consentValidationResult.setErrorMessage(CONSENT_EXPIRED_ERROR);
             consentValidationResult.setErrorCode(ResponseStatus.UNAUTHORIZED.getReasonPhrase());
             consentValidationResult.setHttpCode(HttpStatus.SC_UNAUTHORIZED);
@@ -163,6 +171,22 @@ public class DefaultConsentValidator implements ConsentValidator {
         consentValidationResult.setValid(true);
     }
 
+    /**
+     * Get the route of an account resource path.
+     *
+     * @param uri  Request path
+     * @return Route of the path or null if the path is not an account resource path
+     */
+    private static ResourceRoute getAccountRoute(String uri) {
+
+        for (ResourceRoute route : ACCOUNT_ROUTES) {
+            if (route.pattern.matcher(uri).matches()) {
+                return route;
+            }
+        }
+        return null;
+    }
+
     /**
      * Validate Funds Confirmation Retrieval Request.
      *
@@ -170,7 +194,7 @@ public class DefaultConsentValidator implements ConsentValidator {
      * @param consentValidationResult Validation result object to return
      */
     private static void validateFundsConfirmationSubmission(ConsentValidateData consentValidateData,
-                                                            JSONObject receiptJSON,
+                                                            ConsentReceipt consentReceipt,
                                                             ConsentValidationResult consentValidationResult) {
 
         // Perform URI Validation.
@@ -192,8 +216,7 @@ public class DefaultConsentValidator implements ConsentValidator {
         }
 
         //Validate whether the consent is expired
-        if (isConsentExpired(receiptJSON.getJSONObject(ConsentExtensionConstants.DATA)
-                .getString(ConsentExtensionConstants.EXPIRATION_DATE))) {
+        if (isConsentExpired(consentReceipt.getExpirationDateTime())) {
             consentValidationResult.setErrorMessage(CONSENT_EXPIRED_ERROR);
             consentValidationResult.setErrorCode(ResponseStatus.UNAUTHORIZED.getReasonPhrase());
             consentValidationResult.setHttpCode(HttpStatus.SC_UNAUTHORIZED);
@@ -236,7 +259,7 @@ public class DefaultConsentValidator implements ConsentValidator {
      * @param consentValidateData     Object with request data
      * @param consentValidationResult Validation result object to return
      */
-    private void validatePaymentSubmission(ConsentValidateData consentValidateData, JSONObject initiationJson,
+    private void validatePaymentSubmission(ConsentValidateData consentValidateData, ConsentReceipt consentReceipt,
                                            ConsentValidationResult consentValidationResult) {
 
         DetailedConsentResource detailedConsentResource = consentValidateData.getComprehensiveConsent();
@@ -262,8 +285,7 @@ public class DefaultConsentValidator implements ConsentValidator {
         JSONObject submissionData = new JSONObject();
         JSONObject submissionInitiation = new JSONObject();
 
-        JSONObject requestInitiation = initiationJson.getJSONObject(ConsentExtensionConstants.DATA)
-                .getJSONObject(ConsentExtensionConstants.INITIATION);
+        Map<String, Object> requestInitiation = consentReceipt.getInitiation();
 
         if (submissionJson.has(ConsentExtensionConstants.DATA) &&
                 submissionJson.get(ConsentExtensionConstants.DATA) instanceof JSONObject) {
@@ -300,7 +322,10 @@ public class DefaultConsentValidator implements ConsentValidator {
         }
 
 
-        if (!isJsonObjectsSimilar(requestInitiation, submissionInitiation)) {
+        // The submitted initiation is parsed in the same form as the receipt, so that structurally equal
+        // initiations compare equal
+        if (requestInitiation == null ||
+                !requestInitiation.equals(ConsentReceipt.parseJSON(submissionInitiation.toString()))) {
             log.error("Initiation payloads does not match");
             consentValidationResult.setErrorMessage("Initiation payloads does not match");
             consentValidationResult.setErrorCode(ResponseStatus.BAD_REQUEST.getReasonPhrase());
@@ -353,11 +378,25 @@ public class DefaultConsentValidator implements ConsentValidator {
     public static boolean isJsonObjectsSimilar(JSONObject object1, JSONObject object2) {
 
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return (mapper.readTree(object1.toString())).equals(mapper.readTree(object2.toString()));
+            return (OBJECT_MAPPER.readTree(object1.toString())).equals(OBJECT_MAPPER.readTree(object2.toString()));
         } catch (JsonProcessingException e) {
             log.error("Error occurred while comparing the JSON Objects", e);
             return false;
         }
     }
+
+    /**
+     * Resource path pattern and the permission required to access the matching resources.
+     */
+    private static final class ResourceRoute {
+
+        private final Pattern pattern;
+        private final AccountPermission requiredPermission;
+
+        private ResourceRoute(String regex, AccountPermission requiredPermission) {
+
+            this.pattern = Pattern.compile(regex);
+            this.requiredPermission = requiredPermission;
+        }
+    }
 }
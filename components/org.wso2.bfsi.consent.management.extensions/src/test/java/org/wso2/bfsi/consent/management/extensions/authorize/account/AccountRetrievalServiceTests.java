@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.account;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.json.JSONArray;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.http.HttpClientHolder;
+import org.wso2.bfsi.consent.management.extensions.authorize.AccountRetriever;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for AccountRetrievalService, calling account back-ends stubbed by a local HTTP server.
+ */
+public class AccountRetrievalServiceTests {
+
+    private static final String USER_ID = "admin@wso2.com";
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HttpServer accountBackend;
+    private String backendUrl;
+    private CloseableHttpClient httpClient;
+    private HttpClientHolder httpClientHolder;
+    private AccountRetrievalService accountRetrievalService;
+
+    @BeforeClass
+    public void startAccountBackend() throws IOException {
+
+        accountBackend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // Responds with an account per back-end after the delay given in the path, e.g. /accounts/300/savings
+        accountBackend.createContext("/accounts", exchange -> {
+            requestCount.incrementAndGet();
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            sleep(Long.parseLong(path[2]));
+            String userId = exchange.getRequestURI().getQuery().replace("userId=", "");
+            respond(exchange, 200, "[{\"account_id\":\"" + path[3] + "-" + userId + "\"}]");
+        });
+        accountBackend.createContext("/wrapped", exchange -> {
+            requestCount.incrementAndGet();
+            respond(exchange, 200, "{\"accounts\":[{\"account_id\":\"wrapped\"}]}");
+        });
+        accountBackend.createContext("/error", exchange -> {
+            requestCount.incrementAndGet();
+            respond(exchange, 500, "{\"error\":\"unavailable\"}");
+        });
+        accountBackend.setExecutor(Executors.newCachedThreadPool());
+        accountBackend.start();
+        backendUrl = "http://localhost:" + accountBackend.getAddress().getPort();
+
+        httpClient = HttpClients.custom().setMaxConnTotal(10).setMaxConnPerRoute(10).build();
+        httpClientHolder = mock(HttpClientHolder.class);
+        when(httpClientHolder.getHttpClient()).thenReturn(httpClient);
+    }
+
+    @AfterClass
+    public void stopAccountBackend() throws IOException {
+
+        accountBackend.stop(0);
+        httpClient.close();
+    }
+
+    @BeforeMethod
+    public void resetRequestCount() {
+
+        requestCount.set(0);
+        if (accountRetrievalService != null) {
+            accountRetrievalService.shutdown();
+            accountRetrievalService = null;
+        }
+    }
+
+    @Test
+    public void testRetrieveAccountsInParallel() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("savings", createRetriever("/accounts/500/savings"));
+        retrievers.put("cards", createRetriever("/accounts/50/cards"));
+        retrievers.put("loans", createRetriever("/accounts/500/loans"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 3, 10, 5000, 30, 100);
+
+        long startTime = System.currentTimeMillis();
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+        long duration = System.currentTimeMillis() - startTime;
+
+        Assert.assertFalse(result.isPartial());
+        Assert.assertEquals(getAccountIds(result.getAccounts()),
+                "savings-admin@wso2.com,cards-admin@wso2.com,loans-admin@wso2.com");
+        Assert.assertTrue(duration < 1000, "Account back-ends were not called in parallel: " + duration);
+    }
+
+    @Test
+    public void testRetrieveAccountsWithTimedOutRetriever() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("savings", createRetriever("/accounts/0/savings"));
+        retrievers.put("cards", createRetriever("/accounts/1500/cards"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 2, 10, 300, 30, 100);
+
+        long startTime = System.currentTimeMillis();
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+        long duration = System.currentTimeMillis() - startTime;
+
+        Assert.assertTrue(result.isPartial());
+        Assert.assertEquals(result.getFailedRetrievers(), Arrays.asList("cards"));
+        Assert.assertTrue(result.getFailureCause("cards") instanceof TimeoutException);
+        Assert.assertEquals(getAccountIds(result.getAccounts()), "savings-admin@wso2.com");
+        Assert.assertTrue(duration < 1500, "Retrieval was not limited by the timeout: " + duration);
+        Assert.assertEquals(accountRetrievalService.getMetrics().getRetrieverMetrics("cards").getTimeoutCount(), 1);
+    }
+
+    @Test
+    public void testRetrieveAccountsWithFailedRetriever() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("wrapped", createRetriever("/wrapped"));
+        retrievers.put("error", createRetriever("/error"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 2, 10, 2000, 30, 100);
+
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+
+        Assert.assertEquals(result.getFailedRetrievers(), Arrays.asList("error"));
+        Assert.assertTrue(result.getFailureCause("error") instanceof ConsentManagementException);
+        Assert.assertNull(result.getFailureCause("wrapped"));
+        Assert.assertEquals(getAccountIds(result.getAccounts()), "wrapped");
+        AccountRetrievalMetrics metrics = accountRetrievalService.getMetrics();
+        Assert.assertEquals(metrics.getRetrieverMetrics("wrapped").getSuccessCount(), 1);
+        Assert.assertEquals(metrics.getRetrieverMetrics("error").getFailureCount(), 1);
+    }
+
+    @Test
+    public void testRetrieveAccountsFromCache() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("wrapped", createRetriever("/wrapped"));
+        retrievers.put("error", createRetriever("/error"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 2, 10, 2000, 30, 100);
+
+        accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+
+        // Only the failed back-end is called again for the same user
+        Assert.assertEquals(requestCount.get(), 3);
+        Assert.assertEquals(getAccountIds(result.getAccounts()), "wrapped");
+        Assert.assertEquals(accountRetrievalService.getMetrics().getRetrieverMetrics("wrapped").getCacheHitCount(), 1);
+
+        accountRetrievalService.retrieveAccounts(createConsentData("another@wso2.com"));
+        Assert.assertEquals(requestCount.get(), 5);
+    }
+
+    @Test
+    public void testRetrieveAccountsEvictsLeastRecentlyUsedUser() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("wrapped", createRetriever("/wrapped"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 1, 10, 2000, 30, 2);
+
+        accountRetrievalService.retrieveAccounts(createConsentData("first@wso2.com"));
+        accountRetrievalService.retrieveAccounts(createConsentData("second@wso2.com"));
+        accountRetrievalService.retrieveAccounts(createConsentData("first@wso2.com"));
+        // The full cache evicts the second user, which was used least recently, to cache the third user
+        accountRetrievalService.retrieveAccounts(createConsentData("third@wso2.com"));
+        Assert.assertEquals(requestCount.get(), 3);
+
+        accountRetrievalService.retrieveAccounts(createConsentData("first@wso2.com"));
+        accountRetrievalService.retrieveAccounts(createConsentData("third@wso2.com"));
+        Assert.assertEquals(requestCount.get(), 3);
+        accountRetrievalService.retrieveAccounts(createConsentData("second@wso2.com"));
+        Assert.assertEquals(requestCount.get(), 4);
+    }
+
+    @Test
+    public void testRetrieveAccountsWithoutUserId() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("wrapped", createRetriever("/wrapped"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 1, 10, 2000, 30, 100);
+
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(createConsentData(null));
+
+        Assert.assertEquals(result.getFailedRetrievers(), Arrays.asList("wrapped"));
+        Assert.assertTrue(result.getFailureCause("wrapped") instanceof ConsentManagementException);
+        Assert.assertEquals(requestCount.get(), 0);
+    }
+
+    @Test
+    public void testRetrieveAccountsWithCacheDisabled() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("wrapped", createRetriever("/wrapped"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 1, 10, 2000, 0, 100);
+
+        accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+        accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+
+        Assert.assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void testRetrieveAccountsWithFullQueue() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("savings", createRetriever("/accounts/200/savings"));
+        retrievers.put("cards", createRetriever("/accounts/200/cards"));
+        retrievers.put("loans", createRetriever("/accounts/200/loans"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 1, 1, 2000, 30, 100);
+
+        AccountRetrievalResult result = accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+
+        Assert.assertEquals(result.getFailedRetrievers(), Arrays.asList("loans"));
+        Assert.assertTrue(result.getFailureCause("loans") instanceof RejectedExecutionException);
+        Assert.assertEquals(getAccountIds(result.getAccounts()), "savings-admin@wso2.com,cards-admin@wso2.com");
+        Assert.assertEquals(accountRetrievalService.getMetrics().getRetrieverMetrics("loans").getRejectedCount(), 1);
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+
+        Map<String, AccountRetriever> retrievers = new LinkedHashMap<>();
+        retrievers.put("savings", createRetriever("/accounts/300/savings"));
+        accountRetrievalService = new AccountRetrievalService(retrievers, 1, 10, 2000, 0, 100);
+
+        accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+        accountRetrievalService.retrieveAccounts(createConsentData(USER_ID));
+
+        AccountRetrieverMetrics metrics = accountRetrievalService.getMetrics().getRetrieverMetrics("savings");
+        long[] bounds = metrics.getLatencyBucketBounds();
+        long[] counts = metrics.getLatencyCounts();
+        Assert.assertEquals(counts.length, bounds.length + 1);
+        Assert.assertEquals(Arrays.stream(counts).sum(), 2);
+        for (int i = 0; i < bounds.length && bounds[i] < 300; i++) {
+            Assert.assertEquals(counts[i], 0, "Call counted below its latency in bucket " + bounds[i]);
+        }
+        Assert.assertEquals(metrics.getSuccessCount(), 2);
+    }
+
+    private AccountRetriever createRetriever(String path) {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", backendUrl + path + "?userId={userId}");
+        properties.put("readTimeout", "5000");
+        HttpAccountRetriever retriever = new HttpAccountRetriever(httpClientHolder);
+        retriever.init(properties);
+        return retriever;
+    }
+
+    private static ConsentData createConsentData(String userId) {
+
+        return new ConsentData("sessionDataKey", userId, null, null, null, new HashMap<>());
+    }
+
+    private static String getAccountIds(JSONArray accounts) {
+
+        StringBuilder accountIds = new StringBuilder();
+        for (int i = 0; i < accounts.length(); i++) {
+            if (i > 0) {
+                accountIds.append(",");
+            }
+            accountIds.append(accounts.getJSONObject(i).getString("account_id"));
+        }
+        return accountIds.toString();
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+
+    private static void sleep(long millis) {
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.authorize.executor;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.extensions.authorize.ConsentPersistStep;
+import org.wso2.bfsi.consent.management.extensions.authorize.ConsentRetrievalStep;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
+import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentPersistData;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
+import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for ConsentStepsExecutor.
+ */
+public class ConsentStepsExecutorTests {
+
+    private static final String STEP_THREAD_NAME = "consent-authorize-step";
+
+    private final ConsentData consentData = new ConsentData("sessionDataKey", "admin@wso2.com", null, null, null,
+            new HashMap<>());
+    private ConsentStepsExecutor consentStepsExecutor;
+
+    @AfterMethod
+    public void shutdownExecutor() {
+
+        if (consentStepsExecutor != null) {
+            consentStepsExecutor.shutdown();
+            consentStepsExecutor = null;
+        }
+    }
+
+    @Test
+    public void testExecuteRetrievalGroupConcurrently() {
+
+        // Each step waits for the other one to start, which only completes when both are running at the same time
+        CountDownLatch stepsStarted = new CountDownLatch(2);
+        AtomicInteger concurrentSteps = new AtomicInteger();
+        ConsentRetrievalStep consentStep = (data, jsonObject) -> {
+            stepsStarted.countDown();
+            if (await(stepsStarted)) {
+                concurrentSteps.incrementAndGet();
+            }
+            jsonObject.put("consentData", "consent");
+        };
+        ConsentRetrievalStep accountStep = (data, jsonObject) -> {
+            stepsStarted.countDown();
+            if (await(stepsStarted)) {
+                concurrentSteps.incrementAndGet();
+            }
+            jsonObject.put("accounts", "accounts");
+        };
+        consentStepsExecutor = new ConsentStepsExecutor(
+                Collections.singletonList(Arrays.asList(consentStep, accountStep)), new ArrayList<>(), 2, 10);
+
+        JSONObject jsonObject = new JSONObject();
+        consentStepsExecutor.executeRetrieval(consentData, jsonObject);
+
+        Assert.assertEquals(jsonObject.getString("consentData"), "consent");
+        Assert.assertEquals(jsonObject.getString("accounts"), "accounts");
+        Assert.assertEquals(concurrentSteps.get(), 2, "Steps of the group were not executed concurrently");
+    }
+
+    @Test
+    public void testRetrievalGroupMergedInPriorityOrder() {
+
+        // The first step completes after the second one, so the merge order does not follow the completion order
+        CountDownLatch secondStepCompleted = new CountDownLatch(1);
+        ConsentRetrievalStep firstStep = (data, jsonObject) -> {
+            await(secondStepCompleted);
+            jsonObject.put("shared", "first");
+            jsonObject.put("first", true);
+            jsonObject.remove("removed");
+        };
+        ConsentRetrievalStep secondStep = (data, jsonObject) -> {
+            jsonObject.put("shared", "second");
+            jsonObject.put("second", true);
+            secondStepCompleted.countDown();
+        };
+        ConsentRetrievalStep nextStep = (data, jsonObject) ->
+                jsonObject.put("next", jsonObject.getString("shared") + "-" + jsonObject.has("removed"));
+        consentStepsExecutor = new ConsentStepsExecutor(Arrays.asList(Arrays.asList(firstStep, secondStep),
+                Collections.singletonList(nextStep)), new ArrayList<>(), 2, 10);
+
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("kept", "kept");
+        jsonObject.put("removed", "removed");
+        consentStepsExecutor.executeRetrieval(consentData, jsonObject);
+
+        // The step with the higher priority number overrides the members set by the other steps of its group
+        Assert.assertEquals(jsonObject.getString("shared"), "second");
+        Assert.assertTrue(jsonObject.getBoolean("first"));
+        Assert.assertTrue(jsonObject.getBoolean("second"));
+        Assert.assertEquals(jsonObject.getString("kept"), "kept");
+        Assert.assertFalse(jsonObject.has("removed"));
+        Assert.assertEquals(jsonObject.getString("next"), "second-false");
+    }
+
+    @Test
+    public void testRetrievalGroupFailureInPriorityOrder() {
+
+        ConsentException firstFailure = new ConsentException(ResponseStatus.BAD_REQUEST, "first");
+        ConsentException secondFailure = new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, "second");
+        CountDownLatch secondStepFailing = new CountDownLatch(1);
+        AtomicInteger completedSteps = new AtomicInteger();
+        ConsentRetrievalStep firstStep = (data, jsonObject) -> {
+            await(secondStepFailing);
+            throw firstFailure;
+        };
+        ConsentRetrievalStep secondStep = (data, jsonObject) -> {
+            secondStepFailing.countDown();
+            throw secondFailure;
+        };
+        ConsentRetrievalStep thirdStep = (data, jsonObject) -> completedSteps.incrementAndGet();
+        ConsentRetrievalStep nextStep = (data, jsonObject) -> completedSteps.incrementAndGet();
+        consentStepsExecutor = new ConsentStepsExecutor(Arrays.asList(Arrays.asList(firstStep, secondStep, thirdStep),
+                Collections.singletonList(nextStep)), new ArrayList<>(), 2, 10);
+
+        try {
+            consentStepsExecutor.executeRetrieval(consentData, new JSONObject());
+            Assert.fail("Retrieval step failure is not propagated");
+        } catch (ConsentException e) {
+            Assert.assertSame(e, firstFailure);
+        }
+        Assert.assertEquals(completedSteps.get(), 1);
+        Assert.assertEquals(consentStepsExecutor.getStepMetrics(firstStep.getClass().getName()).getFailureCount(), 1);
+    }
+
+    @Test
+    public void testExecutePersistenceWithFullQueue() {
+
+        // The executor thread is held until a step runs on the request thread, so that the queue stays full
+        CountDownLatch requestThreadStepExecuted = new CountDownLatch(1);
+        AtomicInteger executedSteps = new AtomicInteger();
+        AtomicInteger requestThreadSteps = new AtomicInteger();
+        List<ConsentPersistStep> group = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            group.add(persistData -> {
+                if (STEP_THREAD_NAME.equals(Thread.currentThread().getName())) {
+                    await(requestThreadStepExecuted);
+                } else {
+                    requestThreadSteps.incrementAndGet();
+                    requestThreadStepExecuted.countDown();
+                }
+                executedSteps.incrementAndGet();
+            });
+        }
+        consentStepsExecutor = new ConsentStepsExecutor(new ArrayList<>(), Collections.singletonList(group), 1, 1);
+
+        consentStepsExecutor.executePersistence(new ConsentPersistData(new JSONObject(), new HashMap<>(), true,
+                consentData));
+
+        // Steps which do not fit in the queue are executed on the request thread
+        Assert.assertEquals(executedSteps.get(), 4);
+        Assert.assertEquals(requestThreadSteps.get(), 2);
+    }
+
+    @Test
+    public void testExecuteRetrievalGroupAfterShutdown() {
+
+        AtomicBoolean executorThreadUsed = new AtomicBoolean();
+        ConsentRetrievalStep firstStep = (data, jsonObject) -> jsonObject.put("first", true);
+        ConsentRetrievalStep secondStep = (data, jsonObject) -> {
+            executorThreadUsed.set(STEP_THREAD_NAME.equals(Thread.currentThread().getName()));
+            jsonObject.put("second", true);
+        };
+        consentStepsExecutor = new ConsentStepsExecutor(
+                Collections.singletonList(Arrays.asList(firstStep, secondStep)), new ArrayList<>(), 2, 10);
+        consentStepsExecutor.shutdown();
+
+        JSONObject jsonObject = new JSONObject();
+        consentStepsExecutor.executeRetrieval(consentData, jsonObject);
+
+        // Steps rejected by the stopped executor are executed on the request thread instead of being discarded
+        Assert.assertTrue(jsonObject.getBoolean("first"));
+        Assert.assertTrue(jsonObject.getBoolean("second"));
+        Assert.assertFalse(executorThreadUsed.get());
+    }
+
+    @Test
+    public void testStepExecutionTimes() {
+
+        // The step waits on a latch which is never counted down, so its execution takes at least the wait time
+        CountDownLatch neverCompleted = new CountDownLatch(1);
+        ConsentRetrievalStep slowStep = (data, jsonObject) -> await(neverCompleted, 200);
+        ConsentPersistStep persistStep = persistData -> { };
+        consentStepsExecutor = new ConsentStepsExecutor(Collections.singletonList(Collections.singletonList(slowStep)),
+                Collections.singletonList(Collections.singletonList(persistStep)), 2, 10);
+
+        consentStepsExecutor.executeRetrieval(consentData, new JSONObject());
+        consentStepsExecutor.executeRetrieval(consentData, new JSONObject());
+        consentStepsExecutor.executePersistence(new ConsentPersistData(new JSONObject(), new HashMap<>(), true,
+                consentData));
+
+        ConsentStepMetrics slowStepMetrics = consentStepsExecutor.getStepMetrics(slowStep.getClass().getName());
+        Assert.assertEquals(slowStepMetrics.getExecutionCount(), 2);
+        Assert.assertEquals(slowStepMetrics.getFailureCount(), 0);
+        Assert.assertTrue(slowStepMetrics.getMaxDuration() >= 200);
+        Assert.assertTrue(slowStepMetrics.getAverageDuration() >= 200);
+        Assert.assertEquals(consentStepsExecutor.getStepMetrics(persistStep.getClass().getName())
+                .getExecutionCount(), 1);
+        Assert.assertEquals(consentStepsExecutor.getStepNames().size(), 2);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+
+        return await(latch, TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static boolean await(CountDownLatch latch, long timeoutMillis) {
+
+        try {
+            return latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.common;
+
+import com.nimbusds.jose.JWSVerifier;
+import org.mockito.MockedStatic;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+
+/**
+ * Test for the JWS verifier cache.
+ */
+public class JWSVerifierCacheTests {
+
+    private static final String ALIAS = "wso2carbon";
+    private static final String UNKNOWN_ALIAS = "unknown";
+
+    private Certificate certificate;
+    private MockedStatic<ConsentExtensionUtils> consentExtensionUtilsMockedStatic;
+
+    @BeforeClass
+    public void initClass() throws Exception {
+
+        PublicKey publicKey = KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic();
+        certificate = mock(Certificate.class);
+        doReturn(publicKey).when(certificate).getPublicKey();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+
+        JWSVerifierCache.getInstance().clear();
+        consentExtensionUtilsMockedStatic = mockStatic(ConsentExtensionUtils.class);
+        consentExtensionUtilsMockedStatic.when(() -> ConsentExtensionUtils.getCertificateFromAlias(ALIAS))
+                .thenReturn(certificate);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        consentExtensionUtilsMockedStatic.close();
+        JWSVerifierCache.getInstance().clear();
+    }
+
+    @Test
+    public void testVerifierCachedPerAlias() throws Exception {
+
+        JWSVerifier verifier = JWSVerifierCache.getInstance().getVerifier(ALIAS);
+
+        Assert.assertNotNull(verifier);
+        Assert.assertSame(JWSVerifierCache.getInstance().getVerifier(ALIAS), verifier);
+        consentExtensionUtilsMockedStatic.verify(() -> ConsentExtensionUtils.getCertificateFromAlias(ALIAS),
+                times(1));
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testVerifierForUnknownAlias() throws Exception {
+
+        JWSVerifierCache.getInstance().getVerifier(UNKNOWN_ALIAS);
+    }
+
+    @Test
+    public void testVerifierRebuiltAfterClear() throws Exception {
+
+        JWSVerifier verifier = JWSVerifierCache.getInstance().getVerifier(ALIAS);
+        JWSVerifierCache.getInstance().clear();
+
+        Assert.assertNotSame(JWSVerifierCache.getInstance().getVerifier(ALIAS), verifier);
+        consentExtensionUtilsMockedStatic.verify(() -> ConsentExtensionUtils.getCertificateFromAlias(ALIAS),
+                times(2));
+    }
+
+    @Test
+    public void testVerifierBuiltDuringClearIsNotCached() throws Exception {
+
+        // Clear the cache while the verifier is being built from the previous truststore
+        consentExtensionUtilsMockedStatic.when(() -> ConsentExtensionUtils.getCertificateFromAlias(ALIAS))
+                .thenAnswer(invocation -> {
+                    JWSVerifierCache.getInstance().clear();
+                    return certificate;
+                }).thenReturn(certificate);
+
+        JWSVerifier staleVerifier = JWSVerifierCache.getInstance().getVerifier(ALIAS);
+        JWSVerifier verifier = JWSVerifierCache.getInstance().getVerifier(ALIAS);
+
+        Assert.assertNotSame(verifier, staleVerifier);
+        Assert.assertSame(JWSVerifierCache.getInstance().getVerifier(ALIAS), verifier);
+        consentExtensionUtilsMockedStatic.verify(() -> ConsentExtensionUtils.getCertificateFromAlias(ALIAS),
+                times(2));
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.wso2.bfsi.consent.management.extensions.idempotency;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -28,6 +29,7 @@ import org.testng.annotations.Test;
 import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
 import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyConstants;
 import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidationException;
 import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyValidationResult;
@@ -117,6 +119,31 @@ public class IdempotencyValidatorTests {
             "  }\n" +
             "}";
 
+    private static final String REORDERED_PAYLOAD = "{\n" +
+            "  \"Risk\": {},\n" +
+            "  \"Data\": {\n" +
+            "    \"Initiation\": {\n" +
+            "      \"RemittanceInformation\": {\n" +
+            "        \"Unstructured\": \"Internal ops code 5120101\",\n" +
+            "        \"Reference\": \"FRESCO-101\"\n" +
+            "      },\n" +
+            "      \"CreditorAccount\": {\n" +
+            "        \"SecondaryIdentification\": \"0002\",\n" +
+            "        \"Name\": \"ACME Inc\",\n" +
+            "        \"Identification\": \"08080021325698\",\n" +
+            "        \"SchemeName\": \"UK.OBIE.SortCodeAccountNumber\"\n" +
+            "      },\n" +
+            "      \"InstructedAmount\": {\n" +
+            "        \"Currency\": \"GBP\",\n" +
+            "        \"Amount\": \"165.88\"\n" +
+            "      },\n" +
+            "      \"EndToEndIdentification\": \"FRESCO.21302.GFX.20\",\n" +
+            "      \"InstructionIdentification\": \"ACME412\"\n" +
+            "    },\n" +
+            "    \"ReadRefundAccount\": \"Yes\"\n" +
+            "  }\n" +
+            "}";
+
     @BeforeClass
     public void beforeTest() {
         configs = new HashMap<>();
@@ -394,6 +421,115 @@ public class IdempotencyValidatorTests {
         Assert.assertFalse(result.isValid());
     }
 
+    @Test
+    public void testValidateIdempotencyWithStore() throws ConsentManagementException {
+
+        mockIdempotencyStoreConfigs();
+        OffsetDateTime offsetDateTime = OffsetDateTime.now();
+
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        IdempotencyKeyRecord idempotencyKeyRecord = storeIdempotencyKey(offsetDateTime.toEpochSecond());
+
+        Assert.assertEquals(idempotencyKeyRecord.getClientID(), CLIENT_ID);
+        Assert.assertEquals(idempotencyKeyRecord.getIdempotencyKey(), "123456");
+        Assert.assertEquals(idempotencyKeyRecord.getConsentID(), consentId);
+
+        Mockito.doReturn(getConsent(offsetDateTime.toEpochSecond())).when(consentCoreServiceImpl)
+                .getDetailedConsent(Mockito.anyString());
+        // Payloads which differ only in the order of the keys are similar
+        Mockito.doReturn(REORDERED_PAYLOAD).when(consentManageData).getPayload();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertTrue(result.isValid());
+        Assert.assertNotNull(result.getConsent());
+        Assert.assertEquals(consentId, result.getConsentId());
+    }
+
+    @Test
+    public void testValidateIdempotencyWithStoreForNewIdempotencyKey() throws ConsentManagementException {
+
+        mockIdempotencyStoreConfigs();
+        Mockito.clearInvocations(consentCoreServiceImpl);
+
+        Mockito.doReturn(null).when(consentCoreServiceImpl)
+                .getIdempotencyKey(Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertFalse(result.isIdempotent());
+        Mockito.verify(consentCoreServiceImpl, Mockito.never())
+                .getConsentIdByConsentAttributeNameAndValue(Mockito.anyString(), Mockito.eq("123456"));
+    }
+
+    @Test
+    public void testValidateIdempotencyWithStoreAndNonMatchingPayload() throws ConsentManagementException {
+
+        mockIdempotencyStoreConfigs();
+
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        storeIdempotencyKey(OffsetDateTime.now().toEpochSecond());
+
+        Mockito.doReturn(DIFFERENT_PAYLOAD).when(consentManageData).getPayload();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertFalse(result.isValid());
+    }
+
+    @Test
+    public void testValidateIdempotencyWithStoreAfterAllowedTime() throws ConsentManagementException {
+
+        mockIdempotencyStoreConfigs();
+
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        storeIdempotencyKey(OffsetDateTime.now().minusHours(2).toEpochSecond());
+
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertFalse(result.isValid());
+    }
+
+    private void mockIdempotencyStoreConfigs() {
+
+        ConsentManagementConfigParser configParserMock = mock(ConsentManagementConfigParser.class);
+        doReturn(configs).when(configParserMock).getConfiguration();
+        doReturn(true).when(configParserMock).isIdempotencyValidationEnabled();
+        doReturn(true).when(configParserMock).isIdempotencyStoreEnabled();
+        doReturn("1").when(configParserMock).getIdempotencyAllowedTime();
+        configParser.when(ConsentManagementConfigParser::getInstance).thenReturn(configParserMock);
+
+        ConsentExtensionsDataHolder dataHolderMock = mock(ConsentExtensionsDataHolder.class);
+        doReturn(consentCoreServiceImpl).when(dataHolderMock).getConsentCoreService();
+        consentExtensionsDataHolder.when(ConsentExtensionsDataHolder::getInstance).thenReturn(dataHolderMock);
+    }
+
+    /**
+     * Store the idempotency key of the current request and return the key from the store on the next lookups.
+     */
+    private IdempotencyKeyRecord storeIdempotencyKey(long createdTime) throws ConsentManagementException {
+
+        Mockito.clearInvocations(consentCoreServiceImpl);
+        new IdempotencyValidator().storeIdempotencyKey(consentManageData, consentId);
+
+        ArgumentCaptor<IdempotencyKeyRecord> recordCaptor = ArgumentCaptor.forClass(IdempotencyKeyRecord.class);
+        Mockito.verify(consentCoreServiceImpl).storeIdempotencyKey(recordCaptor.capture());
+        IdempotencyKeyRecord idempotencyKeyRecord = recordCaptor.getValue();
+        idempotencyKeyRecord.setCreatedTime(createdTime);
+        Mockito.doReturn(idempotencyKeyRecord).when(consentCoreServiceImpl)
+                .getIdempotencyKey(CLIENT_ID, "123456");
+        return idempotencyKeyRecord;
+    }
+
     private DetailedConsentResource getConsent(long createdTime) {
         DetailedConsentResource consent = new DetailedConsentResource();
         consent.setConsentID(consentId);
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.manage;
+
+import org.json.JSONObject;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
+import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
+import org.wso2.bfsi.consent.management.extensions.common.idempotency.IdempotencyConstants;
+import org.wso2.bfsi.consent.management.extensions.internal.ConsentExtensionsDataHolder;
+import org.wso2.bfsi.consent.management.extensions.manage.impl.DefaultConsentManageHandler;
+import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentManageData;
+import org.wso2.bfsi.consent.management.extensions.manage.model.ConsentPayloadValidationResult;
+import org.wso2.bfsi.consent.management.service.ConsentCoreService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for the idempotency handling of DefaultConsentManageHandler.
+ */
+public class DefaultConsentManageHandlerTests {
+
+    private static final String CLIENT_ID = "testClientId";
+    private static final String IDEMPOTENCY_KEY = "123456";
+    private static final String REQUEST_PATH = "account-access-consents";
+    private static final String PAYLOAD = "{\"Data\":{\"Permissions\":[\"ReadAccountsDetail\"]," +
+            "\"ExpirationDateTime\":\"2030-01-01T00:00:00+00:00\"},\"Risk\":{}}";
+
+    private ConsentCoreService consentCoreService;
+    private DefaultConsentManageHandler consentManageHandler;
+    private MockedStatic<ConsentManagementConfigParser> configParser;
+    private MockedStatic<ConsentExtensionsDataHolder> consentExtensionsDataHolder;
+
+    @BeforeClass
+    public void beforeClass() {
+
+        configParser = mockStatic(ConsentManagementConfigParser.class);
+        consentExtensionsDataHolder = mockStatic(ConsentExtensionsDataHolder.class);
+
+        ConsentManageValidator consentManageValidator = mock(ConsentManageValidator.class);
+        doReturn(new ConsentPayloadValidationResult(true)).when(consentManageValidator)
+                .validateInitiation(any(JSONObject.class), anyString());
+        consentManageHandler = new DefaultConsentManageHandler() {
+            @Override
+            public ConsentManageValidator getConsentManageValidator() {
+                return consentManageValidator;
+            }
+        };
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        configParser.close();
+        consentExtensionsDataHolder.close();
+    }
+
+    @BeforeMethod
+    public void beforeMethod() throws ConsentManagementException {
+
+        ConsentManagementConfigParser configParserMock = mock(ConsentManagementConfigParser.class);
+        doReturn(true).when(configParserMock).isIdempotencyValidationEnabled();
+        doReturn(true).when(configParserMock).isIdempotencyStoreEnabled();
+        doReturn("1").when(configParserMock).getIdempotencyAllowedTime();
+        configParser.when(ConsentManagementConfigParser::getInstance).thenReturn(configParserMock);
+
+        consentCoreService = mock(ConsentCoreService.class);
+        doAnswer(invocation -> ((ConsentCoreService.UnitOfWork<?>) invocation.getArgument(0)).execute())
+                .when(consentCoreService).inTransaction(any());
+        ConsentExtensionsDataHolder dataHolderMock = mock(ConsentExtensionsDataHolder.class);
+        doReturn(consentCoreService).when(dataHolderMock).getConsentCoreService();
+        consentExtensionsDataHolder.when(ConsentExtensionsDataHolder::getInstance).thenReturn(dataHolderMock);
+    }
+
+    @Test
+    public void testHandlePostStoresIdempotencyKeyWithConsent() throws ConsentManagementException {
+
+        DetailedConsentResource consent = getConsent();
+        doReturn(consent).when(consentCoreService).createAuthorizableConsent(any(ConsentResource.class), any(),
+                anyString(), anyString(), anyBoolean());
+        AtomicReference<IdempotencyKeyRecord> storedRecord = mockIdempotencyKeyStore();
+
+        ConsentManageData consentManageData = getConsentManageData();
+        consentManageHandler.handlePost(consentManageData);
+
+        Assert.assertEquals(consentManageData.getResponseStatus(), ResponseStatus.CREATED);
+        Assert.assertEquals(getConsentId(consentManageData), consent.getConsentID());
+        Assert.assertNotNull(storedRecord.get());
+        Assert.assertEquals(storedRecord.get().getClientID(), CLIENT_ID);
+        Assert.assertEquals(storedRecord.get().getIdempotencyKey(), IDEMPOTENCY_KEY);
+        Assert.assertEquals(storedRecord.get().getConsentID(), consent.getConsentID());
+        verify(consentCoreService).inTransaction(any());
+    }
+
+    @Test
+    public void testHandlePostForRepeatedRequestReturnsSameConsent() throws ConsentManagementException {
+
+        DetailedConsentResource consent = getConsent();
+        doReturn(consent).when(consentCoreService).createAuthorizableConsent(any(ConsentResource.class), any(),
+                anyString(), anyString(), anyBoolean());
+        doReturn(consent).when(consentCoreService).getDetailedConsent(consent.getConsentID());
+        mockIdempotencyKeyStore();
+
+        consentManageHandler.handlePost(getConsentManageData());
+        ConsentManageData repeatedConsentManageData = getConsentManageData();
+        consentManageHandler.handlePost(repeatedConsentManageData);
+
+        Assert.assertEquals(repeatedConsentManageData.getResponseStatus(), ResponseStatus.CREATED);
+        Assert.assertEquals(getConsentId(repeatedConsentManageData), consent.getConsentID());
+        verify(consentCoreService, times(1)).createAuthorizableConsent(any(ConsentResource.class), any(),
+                anyString(), anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testHandlePostForRepeatedRequestWithDifferentPayload() throws ConsentManagementException {
+
+        DetailedConsentResource consent = getConsent();
+        doReturn(consent).when(consentCoreService).createAuthorizableConsent(any(ConsentResource.class), any(),
+                anyString(), anyString(), anyBoolean());
+        mockIdempotencyKeyStore();
+
+        consentManageHandler.handlePost(getConsentManageData());
+        ConsentManageData repeatedConsentManageData = new ConsentManageData(getHeaders(),
+                new JSONObject(PAYLOAD.replace("ReadAccountsDetail", "ReadBalances")), new HashMap<>(),
+                REQUEST_PATH, null, null);
+        repeatedConsentManageData.setClientId(CLIENT_ID);
+
+        try {
+            consentManageHandler.handlePost(repeatedConsentManageData);
+            Assert.fail("A repetition with a different payload should be rejected");
+        } catch (ConsentException e) {
+            Assert.assertEquals(e.getStatus(), ResponseStatus.BAD_REQUEST);
+        }
+    }
+
+    @Test
+    public void testHandlePostForConcurrentRequestsWithSameIdempotencyKey() throws ConsentManagementException {
+
+        DetailedConsentResource firstConsent = getConsent();
+        DetailedConsentResource secondConsent = getConsent();
+        doReturn(secondConsent).when(consentCoreService).createAuthorizableConsent(any(ConsentResource.class),
+                any(), anyString(), anyString(), anyBoolean());
+        doReturn(firstConsent).when(consentCoreService).getDetailedConsent(firstConsent.getConsentID());
+
+        // The first request stores the idempotency key after this request looked it up and before this request
+        // stores it, hence storing the key of this request fails
+        AtomicReference<IdempotencyKeyRecord> storedRecord = new AtomicReference<>();
+        doAnswer(invocation -> {
+            IdempotencyKeyRecord idempotencyKeyRecord = invocation.getArgument(0);
+            idempotencyKeyRecord.setConsentID(firstConsent.getConsentID());
+            idempotencyKeyRecord.setCreatedTime(System.currentTimeMillis() / 1000);
+            storedRecord.set(idempotencyKeyRecord);
+            throw new ConsentManagementException("Duplicate idempotency key");
+        }).when(consentCoreService).storeIdempotencyKey(any(IdempotencyKeyRecord.class));
+        doAnswer(invocation -> storedRecord.get()).when(consentCoreService).getIdempotencyKey(CLIENT_ID,
+                IDEMPOTENCY_KEY);
+
+        ConsentManageData consentManageData = getConsentManageData();
+        consentManageHandler.handlePost(consentManageData);
+
+        Assert.assertEquals(consentManageData.getResponseStatus(), ResponseStatus.CREATED);
+        Assert.assertEquals(getConsentId(consentManageData), firstConsent.getConsentID());
+    }
+
+    @Test
+    public void testHandlePostFailsWhenConsentCreationFails() throws ConsentManagementException {
+
+        doAnswer(invocation -> {
+            throw new ConsentManagementException("Consent creation failed");
+        }).when(consentCoreService).createAuthorizableConsent(any(ConsentResource.class), any(), anyString(),
+                anyString(), anyBoolean());
+        mockIdempotencyKeyStore();
+
+        try {
+            consentManageHandler.handlePost(getConsentManageData());
+            Assert.fail("The request should fail when the consent could not be created");
+        } catch (ConsentException e) {
+            Assert.assertEquals(e.getStatus(), ResponseStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Store the idempotency keys in memory and return them on the next lookups.
+     */
+    private AtomicReference<IdempotencyKeyRecord> mockIdempotencyKeyStore() throws ConsentManagementException {
+
+        AtomicReference<IdempotencyKeyRecord> storedRecord = new AtomicReference<>();
+        doAnswer(invocation -> {
+            IdempotencyKeyRecord idempotencyKeyRecord = invocation.getArgument(0);
+            idempotencyKeyRecord.setCreatedTime(System.currentTimeMillis() / 1000);
+            storedRecord.set(idempotencyKeyRecord);
+            return idempotencyKeyRecord;
+        }).when(consentCoreService).storeIdempotencyKey(any(IdempotencyKeyRecord.class));
+        doAnswer(invocation -> storedRecord.get()).when(consentCoreService).getIdempotencyKey(CLIENT_ID,
+                IDEMPOTENCY_KEY);
+        return storedRecord;
+    }
+
+    private static ConsentManageData getConsentManageData() {
+
+        ConsentManageData consentManageData = new ConsentManageData(getHeaders(), new JSONObject(PAYLOAD),
+                new HashMap<>(), REQUEST_PATH, null, null);
+        consentManageData.setClientId(CLIENT_ID);
+        return consentManageData;
+    }
+
+    private static Map<String, String> getHeaders() {
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(IdempotencyConstants.X_IDEMPOTENCY_KEY, IDEMPOTENCY_KEY);
+        return headers;
+    }
+
+    private static DetailedConsentResource getConsent() {
+
+        DetailedConsentResource consent = new DetailedConsentResource();
+        consent.setConsentID(UUID.randomUUID().toString());
+        consent.setClientID(CLIENT_ID);
+        consent.setReceipt(PAYLOAD);
+        consent.setCurrentStatus("AwaitingAuthorisation");
+        consent.setCreatedTime(System.currentTimeMillis() / 1000);
+        consent.setUpdatedTime(System.currentTimeMillis() / 1000);
+        return consent;
+    }
+
+    private static String getConsentId(ConsentManageData consentManageData) {
+
+        return ((JSONObject) consentManageData.getResponsePayload()).getJSONObject("Data").getString("ConsentId");
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.extensions.validate;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
+import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
+import org.wso2.bfsi.consent.management.extensions.validate.impl.DefaultConsentValidator;
+import org.wso2.bfsi.consent.management.extensions.validate.model.ConsentValidateData;
+import org.wso2.bfsi.consent.management.extensions.validate.model.ConsentValidationResult;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * Test class for DefaultConsentValidator.
+ */
+public class DefaultConsentValidatorTests {
+
+    private static final String CLIENT_ID = "testClientId";
+    private static final String USER_ID = "admin@wso2.com";
+    private static final String INITIATION = "{\"InstructionIdentification\":\"ACME412\"," +
+            "\"InstructedAmount\":{\"Amount\":\"165.88\",\"Currency\":\"GBP\"}}";
+    private final DefaultConsentValidator consentValidator = new DefaultConsentValidator();
+
+    @DataProvider(name = "accountRequests")
+    public Object[][] getAccountRequests() {
+
+        return new Object[][]{
+                {"/accounts/account-1", "[\"ReadAccountsDetail\"]", true},
+                {"/accounts/account-1/transactions", "[\"ReadTransactionsDetail\"]", true},
+                {"/accounts/account-1/balances", "[\"ReadBalances\"]", true},
+                {"/accounts/account-1/balances", "[\"ReadAccountsDetail\",\"ReadTransactionsDetail\"]", false},
+                {"/accounts/account-1/transactions", "[\"ReadTransactionsBasic\"]", false},
+                {"/accounts/account-1", "[\"ReadAccountsBasic\"]", false},
+                {"/accounts/account-1/beneficiaries", "[\"ReadAccountsDetail\"]", false},
+        };
+    }
+
+    @Test(dataProvider = "accountRequests")
+    public void testValidateAccountRequest(String requestPath, String permissions, boolean expectedValidity) {
+
+        String receipt = "{\"Data\":{\"Permissions\":" + permissions + ",\"ExpirationDateTime\":\"" +
+                OffsetDateTime.now().plusDays(1) + "\"}}";
+        ConsentValidationResult result = validate(ConsentExtensionConstants.ACCOUNTS, receipt, requestPath, null);
+
+        Assert.assertEquals(result.isValid(), expectedValidity);
+        if (!expectedValidity) {
+            Assert.assertEquals(result.getHttpCode(), 401);
+        }
+    }
+
+    @Test
+    public void testValidateInvalidAccountPath() {
+
+        String receipt = "{\"Data\":{\"Permissions\":[\"ReadAccountsDetail\"],\"ExpirationDateTime\":\"" +
+                OffsetDateTime.now().plusDays(1) + "\"}}";
+        ConsentValidationResult result = validate(ConsentExtensionConstants.ACCOUNTS, receipt, "/invalid/path", null);
+
+        Assert.assertFalse(result.isValid());
+        Assert.assertEquals(result.getErrorMessage(), "Path requested is invalid");
+    }
+
+    @Test
+    public void testValidateExpiredAccountConsent() {
+
+        String receipt = "{\"Data\":{\"Permissions\":[\"ReadAccountsDetail\"],\"ExpirationDateTime\":\"" +
+                OffsetDateTime.now().minusDays(1) + "\"}}";
+        ConsentValidationResult result = validate(ConsentExtensionConstants.ACCOUNTS, receipt,
+                "/accounts/account-1", null);
+
+        Assert.assertFalse(result.isValid());
+        Assert.assertEquals(result.getErrorMessage(), "Provided consent is expired");
+    }
+
+    @Test(expectedExceptions = ConsentException.class)
+    public void testValidateInvalidReceipt() {
+
+        validate(ConsentExtensionConstants.ACCOUNTS, "{\"Data\":", "/accounts/account-1", null);
+    }
+
+    @Test
+    public void testValidatePaymentRequest() {
+
+        String receipt = "{\"Data\":{\"Initiation\":" + INITIATION + "}}";
+        ConsentValidationResult result = validate(ConsentExtensionConstants.PAYMENTS, receipt, "/payments",
+                new JSONObject().put(ConsentExtensionConstants.DATA, new JSONObject()
+                        .put(ConsentExtensionConstants.INITIATION, new JSONObject(INITIATION))));
+
+        Assert.assertTrue(result.isValid());
+    }
+
+    @Test
+    public void testValidatePaymentRequestWithDifferentInitiation() {
+
+        String receipt = "{\"Data\":{\"Initiation\":" + INITIATION + "}}";
+        JSONObject submissionInitiation = new JSONObject(INITIATION).put("InstructionIdentification", "ACME413");
+        ConsentValidationResult result = validate(ConsentExtensionConstants.PAYMENTS, receipt, "/payments",
+                new JSONObject().put(ConsentExtensionConstants.DATA, new JSONObject()
+                        .put(ConsentExtensionConstants.INITIATION, submissionInitiation)));
+
+        Assert.assertFalse(result.isValid());
+        Assert.assertEquals(result.getErrorMessage(), "Initiation payloads does not match");
+    }
+
+    @Test
+    public void testValidateFundsConfirmationRequest() {
+
+        String receipt = "{\"Data\":{\"ExpirationDateTime\":\"" + OffsetDateTime.now().plusDays(1) + "\"}}";
+        ConsentValidationResult result = validate(ConsentExtensionConstants.FUNDS_CONFIRMATIONS, receipt,
+                "/funds-confirmations", new JSONObject().put(ConsentExtensionConstants.DATA, new JSONObject()));
+
+        Assert.assertTrue(result.isValid());
+    }
+
+    private ConsentValidationResult validate(String consentType, String receipt, String requestPath,
+                                             JSONObject payload) {
+
+        String consentId = UUID.randomUUID().toString();
+        if (payload != null) {
+            payload.getJSONObject(ConsentExtensionConstants.DATA).put(ConsentExtensionConstants.CONSENT_ID, consentId);
+        }
+        ArrayList<AuthorizationResource> authorizationResources = new ArrayList<>();
+        authorizationResources.add(new AuthorizationResource(consentId, USER_ID, "authorised", "authorisation",
+                System.currentTimeMillis() / 1000));
+        DetailedConsentResource detailedConsentResource = new DetailedConsentResource(consentId, CLIENT_ID, receipt,
+                consentType, ConsentExtensionConstants.AUTHORIZED_STATUS, 0, 0, 0, 0, false, new HashMap<>(),
+                authorizationResources, new ArrayList<ConsentMappingResource>());
+
+        ConsentValidateData consentValidateData = new ConsentValidateData(new JSONObject(), payload, requestPath,
+                consentId, USER_ID, CLIENT_ID, new HashMap<>());
+        consentValidateData.setComprehensiveConsent(detailedConsentResource);
+        ConsentValidationResult result = new ConsentValidationResult();
+        consentValidator.validate(consentValidateData, result);
+        return result;
+    }
+}
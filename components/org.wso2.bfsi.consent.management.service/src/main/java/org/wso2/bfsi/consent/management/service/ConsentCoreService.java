@@ -25,18 +25,34 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.service.util.ConsentCoreServiceUtil;
 
 
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Consent core service interface.
  */
 public interface ConsentCoreService {
 
+    /**
+     * Unit of work run within a single consent transaction.
+     *
+     * @param <T> result of the unit of work
+     */
+    @FunctionalInterface
+    interface UnitOfWork<T> {
+
+        T execute() throws ConsentManagementException;
+    }
+
     /**
      * This method is used to create an authorizable consent. The following functionality contains in this method.
      * 1. Creates a consent resource
@@ -564,6 +580,23 @@ public interface ConsentCoreService {
                                                                      Integer offset)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to retrieve a page of consent status audit records by consent_id using keyset pagination.
+     * The records are ordered by the action time in descending order. The continuation token of the returned page
+     * can be passed to retrieve the next page.
+     *
+     * @param consentIDs            list of consentIDs (optional)
+     * @param limit                 maximum number of records in the page, at most 1000
+     * @param cursor                cursor of the previous page decoded from its continuation token, null to
+     *                              retrieve the first page
+     * @return a page of consent status audit records
+     * @throws ConsentManagementException thrown if the parameters are invalid or a database error occurs
+     */
+    ConsentSearchPage<ConsentStatusAuditRecord> getConsentStatusAuditRecordsByCursor(ArrayList<String> consentIDs,
+                                                                                     int limit,
+                                                                                     ConsentSearchCursor cursor)
+            throws ConsentManagementException;
+
     /**
      * This method is used to store the details of the previous consent when an consent amendment happens.
      * The consent ID is mandatory. The detailed consent resource for the previous consent and the amendedTimestamp
@@ -622,6 +655,76 @@ public interface ConsentCoreService {
                                                               Integer limit, Integer offset)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to count the detailed consents matching the given parameters. The same conditions as
+     * searchDetailedConsents are applied, without retrieving the matching consents.
+     *
+     * @param consentIDs        consent IDs optional list
+     * @param clientIDs         client IDs optional list
+     * @param consentTypes      consent types optional list
+     * @param consentStatuses   consent statuses optional list
+     * @param userIDs           user IDs optional list
+     * @param fromTime          from time
+     * @param toTime            to time
+     * @return the number of consents matching the provided parameters
+     * @throws ConsentManagementException thrown if any error occur
+     */
+    int countConsents(ArrayList<String> consentIDs, ArrayList<String> clientIDs, ArrayList<String> consentTypes,
+                      ArrayList<String> consentStatuses, ArrayList<String> userIDs, Long fromTime, Long toTime)
+            throws ConsentManagementException;
+
+    /**
+     * This method is used to search a page of detailed consents using keyset pagination. The same conditions as
+     * searchDetailedConsents are applied and the consents are ordered by the updated time in descending order. Unlike
+     * offset pagination, the cost of retrieving a page does not grow with the page depth. The continuation token of
+     * the returned page can be passed to retrieve the next page.
+     *
+     * @param consentIDs            consent IDs optional list
+     * @param clientIDs             client IDs optional list
+     * @param consentTypes          consent types optional list
+     * @param consentStatuses       consent statuses optional list
+     * @param userIDs               user IDs optional list
+     * @param fromTime              from time
+     * @param toTime                to time
+     * @param limit                 maximum number of consents in the page, at most 1000
+     * @param cursor                cursor of the previous page decoded from its continuation token, null to
+     *                              retrieve the first page
+     * @return a page of detailed consent resources according to the provided parameters
+     * @throws ConsentManagementException thrown if the parameters are invalid or any error occur
+     */
+    ConsentSearchPage<DetailedConsentResource> searchDetailedConsentsByCursor(ArrayList<String> consentIDs,
+                                                                              ArrayList<String> clientIDs,
+                                                                              ArrayList<String> consentTypes,
+                                                                              ArrayList<String> consentStatuses,
+                                                                              ArrayList<String> userIDs,
+                                                                              Long fromTime, Long toTime,
+                                                                              int limit, ConsentSearchCursor cursor)
+            throws ConsentManagementException;
+
+    /**
+     * This method is used to stream the detailed consents matching the given parameters to a consumer. The same
+     * conditions as searchDetailedConsents are applied, but the consents are read from the database row by row
+     * and handed to the consumer without collecting them, so that a large number of consents can be processed in
+     * constant memory. The database connection is held until all the consents are consumed.
+     *
+     * @param consentIDs        consent IDs optional list
+     * @param clientIDs         client IDs optional list
+     * @param consentTypes      consent types optional list
+     * @param consentStatuses   consent statuses optional list
+     * @param userIDs           user IDs optional list
+     * @param fromTime          from time
+     * @param toTime            to time
+     * @param fetchSize         number of rows to fetch from the database at a time, driver default if not positive
+     * @param consumer          consumer of the detailed consent resources
+     * @return the number of consents streamed to the consumer
+     * @throws ConsentManagementException thrown if any error occur
+     */
+    int streamDetailedConsents(ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                               ArrayList<String> consentTypes, ArrayList<String> consentStatuses,
+                               ArrayList<String> userIDs, Long fromTime, Long toTime, int fetchSize,
+                               Consumer<DetailedConsentResource> consumer)
+            throws ConsentManagementException;
+
     /**
      * This method is used to amend consent receipt or validity period. The consent ID is mandatory. One of consent
      * receipt of validity period must be provided. An audit record is created to indicate that the consent is
@@ -665,4 +768,54 @@ public interface ConsentCoreService {
                                                  String userID, Map<String, Object> additionalAmendmentData)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to store the idempotency key used by a client for a request which created a consent. A
+     * client can use an idempotency key only once.
+     *
+     * @param idempotencyKeyRecord  idempotency key record with the client ID, idempotency key, consent ID and payload
+     *                              hash
+     * @return the stored idempotency key record
+     * @throws ConsentManagementException thrown if any error occurs in the process or the key is already used
+     */
+    IdempotencyKeyRecord storeIdempotencyKey(IdempotencyKeyRecord idempotencyKeyRecord)
+            throws ConsentManagementException;
+
+    /**
+     * This method is used to retrieve the idempotency key record of a client with a single lookup of the idempotency
+     * key store.
+     *
+     * @param clientID          client ID
+     * @param idempotencyKey    idempotency key
+     * @return the idempotency key record, or null if the client has not used the key
+     * @throws ConsentManagementException thrown if any error occurs in the process
+     */
+    IdempotencyKeyRecord getIdempotencyKey(String clientID, String idempotencyKey) throws ConsentManagementException;
+
+    /**
+     * This method is used to delete the idempotency keys created before the given time.
+     *
+     * @param createdBefore time in seconds, keys created before it are deleted
+     * @return number of deleted idempotency keys
+     * @throws ConsentManagementException thrown if any error occurs in the process
+     */
+    int deleteExpiredIdempotencyKeys(long createdBefore) throws ConsentManagementException;
+
+    /**
+     * This method is used to run several consent core service calls within a single transaction. The calls made by
+     * the unit of work on the current thread share one database connection, and the transaction is committed once
+     * the unit of work completes. The transaction is rolled back if the unit of work throws an exception or any of
+     * the calls fails. A unit of work started within another unit of work joins the enclosing transaction.
+     * The transaction is bound to the current thread. Calls made on other threads, such as the consent steps run in
+     * parallel by the consent steps executor, do not join the transaction and run in their own transactions.
+     *
+     * @param work  unit of work calling the consent core service
+     * @param <T>   result of the unit of work
+     * @return the result of the unit of work
+     * @throws ConsentManagementException thrown if the unit of work fails or the transaction is rolled back
+     */
+    default <T> T inTransaction(UnitOfWork<T> work) throws ConsentManagementException {
+
+        return ConsentCoreServiceUtil.runInTransaction(work);
+    }
+
 }
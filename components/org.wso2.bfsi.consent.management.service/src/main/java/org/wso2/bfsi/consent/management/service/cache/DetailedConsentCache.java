@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.cache;
+
+import org.wso2.bfsi.consent.management.common.caching.ConsentManagementBaseCache;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.util.Collection;
+
+/**
+ * Read-through cache for detailed consent resources.
+ * <p>
+ * Entries are bounded by the access and modified expiry configured under
+ * ConsentManagement.DetailedConsentCache. Every consent mutation in the consent core service evicts the
+ * affected consent IDs after the transaction is committed.
+ */
+public class DetailedConsentCache extends ConsentManagementBaseCache<DetailedConsentCacheKey,
+        DetailedConsentResource> {
+
+    private static final String cacheName = "DETAILED_CONSENT_CACHE";
+    private static volatile DetailedConsentCache detailedConsentCache;
+
+    private final Integer accessExpiryMinutes;
+    private final Integer modifiedExpiryMinutes;
+
+    /**
+     * Initialize with unique cache name.
+     */
+    public DetailedConsentCache() {
+
+        super(cacheName);
+        this.accessExpiryMinutes = setAccessExpiryMinutes();
+        this.modifiedExpiryMinutes = setModifiedExpiryMinutes();
+    }
+
+    /**
+     * Get detailed consent cache instance.
+     * @return detailed consent cache instance
+     */
+    public static DetailedConsentCache getInstance() {
+
+        if (detailedConsentCache == null) {
+            synchronized (DetailedConsentCache.class) {
+                if (detailedConsentCache == null) {
+                    detailedConsentCache = new DetailedConsentCache();
+                }
+            }
+        }
+        return detailedConsentCache;
+    }
+
+    /**
+     * Check whether the detailed consent cache is enabled.
+     * @return true if the cache is enabled
+     */
+    public static boolean isDetailedConsentCacheEnabled() {
+
+        return ConsentManagementConfigParser.getInstance().isDetailedConsentCacheEnabled();
+    }
+
+    /**
+     * Evict a detailed consent from the cache if the cache is enabled.
+     * @param consentID consent ID
+     */
+    public static void removeDetailedConsentFromCache(String consentID) {
+
+        if (consentID != null && isDetailedConsentCacheEnabled()) {
+            evict(() -> getInstance().removeFromCache(DetailedConsentCacheKey.of(consentID)));
+        }
+    }
+
+    /**
+     * Evict a set of detailed consents from the cache if the cache is enabled.
+     * @param consentIDs consent IDs
+     */
+    public static void removeDetailedConsentsFromCache(Collection<String> consentIDs) {
+
+        if (consentIDs != null && !consentIDs.isEmpty() && isDetailedConsentCacheEnabled()) {
+            DetailedConsentCache cache = getInstance();
+            evict(() -> {
+                for (String consentID : consentIDs) {
+                    cache.removeFromCache(DetailedConsentCacheKey.of(consentID));
+                }
+            });
+        }
+    }
+
+    /**
+     * Evict all detailed consents from the cache if the cache is enabled.
+     */
+    public static void clearDetailedConsentCache() {
+
+        if (isDetailedConsentCacheEnabled()) {
+            evict(() -> getInstance().removeAllFromCache());
+        }
+    }
+
+    /**
+     * Run an eviction. Within a transaction scope, the eviction is run again once the transaction commits, since
+     * another thread may cache the consent as it was before the commit.
+     * @param eviction eviction to run
+     */
+    private static void evict(Runnable eviction) {
+
+        eviction.run();
+        if (DatabaseUtil.isInTransactionScope()) {
+            DatabaseUtil.runAfterCommit(eviction);
+        }
+    }
+
+    /**
+     * Get a detailed consent from the cache, or retrieve it through the given retriever and cache it. Concurrent
+     * misses of the same consent are retrieved once. The cached consent is shared between callers, hence a copy of it
+     * is returned. The receipt is parsed before the consent is cached, so that the copies share the parsed receipt.
+     * @param consentID consent ID
+     * @param onDemandRetriever retriever used on a cache miss
+     * @return a copy of the detailed consent resource
+     * @throws ConsentManagementException if an error occurs while retrieving the detailed consent
+     */
+    public DetailedConsentResource getDetailedConsent(String consentID, OnDemandRetriever onDemandRetriever)
+            throws ConsentManagementException {
+
+        DetailedConsentResource detailedConsentResource =
+                getFromCacheOrRetrieve(DetailedConsentCacheKey.of(consentID), () -> {
+                    DetailedConsentResource retrievedConsent = (DetailedConsentResource) onDemandRetriever.get();
+                    if (retrievedConsent != null) {
+                        retrievedConsent.getParsedReceipt();
+                    }
+                    return retrievedConsent;
+                });
+        return detailedConsentResource == null ? null : new DetailedConsentResource(detailedConsentResource);
+    }
+
+    /**
+     * Get the number of cache hits since startup.
+     * @return cache hit count
+     */
+    public long getHitCount() {
+
+        return getStatistics().getHitCount();
+    }
+
+    /**
+     * Get the number of cache misses since startup.
+     * @return cache miss count
+     */
+    public long getMissCount() {
+
+        return getStatistics().getMissCount();
+    }
+
+    @Override
+    public int getCacheAccessExpiryMinutes() {
+        return accessExpiryMinutes;
+    }
+
+    @Override
+    public int getCacheModifiedExpiryMinutes() {
+        return modifiedExpiryMinutes;
+    }
+
+    public int setAccessExpiryMinutes() {
+
+        return ConsentManagementConfigParser.getInstance().getDetailedConsentCacheAccessExpiry();
+    }
+
+    public int setModifiedExpiryMinutes() {
+
+        return ConsentManagementConfigParser.getInstance().getDetailedConsentCacheModifiedExpiry();
+    }
+}
@@ -46,6 +46,8 @@ public class ConsentCoreServiceConstants {
     public static final String CONSENT_REVOKE_REASON = "Revoke the consent";
     public static final String CONSENT_REAUTHORIZE_REASON = "Reauthorize consent";
     public static final String CONSENT_AMEND_REASON = "Amend consent";
+    public static final String CONSENT_EXPIRE_REASON = "Consent expired";
+    public static final String CONSENT_EXPIRY_LEASE_NAME = "ConsentExpiry";
     public static final String DEFAULT_PERMISSION_VALUE = "n/a";
     public static final String ADDITIONAL_AUTHORIZATION_RESOURCES =  "AdditionalAuthorizationResources";
     public static final String ADDITIONAL_MAPPING_RESOURCES = "AdditionalMappingResources";
@@ -55,6 +57,16 @@ public class ConsentCoreServiceConstants {
             " back the transaction";
     public static final String DATABASE_CONNECTION_CLOSE_LOG_MSG = "Closing database connection";
     public static final String TRANSACTION_COMMITTED_LOG_MSG = "Transaction committed";
+    public static final String UNIT_OF_WORK_ROLLBACK_ERROR_MSG = "Error occurred while running the unit of work. " +
+            "Rolling back the transaction";
+    public static final String UNIT_OF_WORK_ROLLED_BACK_ERROR_MSG = "A call within the unit of work failed. The " +
+            "transaction is rolled back";
+    public static final String CONSENT_EXPIRY_ERROR_MSG = "Error occurred while expiring consents. Rolling back " +
+            "the transaction";
+    public static final String CONSENT_EXPIRY_LEASE_ERROR_MSG = "Error occurred while updating the consent expiry " +
+            "lease";
+    public static final String TOKEN_REVOCATION_OUTBOX_ERROR_MSG = "Error occurred while updating the token " +
+            "revocation outbox";
     public static final String CANNOT_PROCEED_WITH_CONSENT_CREATION = "Cannot proceed since client ID, receipt, " +
             "consent type or consent status is missing.";
     public static final String CANNOT_PROCEED_WITH_IMPLICIT_AUTH = "Cannot proceed with implicit authorization" +
@@ -121,12 +133,22 @@ public class ConsentCoreServiceConstants {
             " cannot proceed";
     public static final String ATTRIBUTE_MAP_MISSING_ERROR_MSG = "Consent ID or attributes map is not provided," +
             " cannot proceed";
+    public static final String IDEMPOTENCY_KEY_DETAILS_MISSING_ERROR_MSG = "Client ID, idempotency key, consent ID " +
+            "or payload hash is missing, cannot proceed";
+    public static final String IDEMPOTENCY_KEY_MISSING_ERROR_MSG = "Client ID or idempotency key is missing, " +
+            "cannot proceed";
     public static final String ATTRIBUTE_LIST_MISSING_ERROR_MSG = "Consent ID or attributes list is not provided," +
             " cannot proceed";
     public static final String AUDIT_RECORD_SEARCH_ERROR_MSG = "Error occurred while searching audit records";
     public static final String AMEND_DETAILS_MISSING_ERROR_MSG = "Consent ID or detailed consent resource or " +
             "amendment reason or amended timestamp in consent history resource is empty/zero";
     public static final String DETAIL_CONSENT_SEARCH_ERROR_MSG = "Error occurred while searching detailed consents";
+    public static final String CONSENT_COUNT_ERROR_MSG = "Error occurred while counting consents";
+    public static final String CONSENT_STREAM_CONSUMER_MISSING_ERROR_MSG = "Consent consumer is not provided," +
+            " cannot proceed";
+    public static final int MAX_SEARCH_PAGE_LIMIT = 1000;
+    public static final String INVALID_PAGE_LIMIT_ERROR_MSG = "Page limit should be a positive value not greater " +
+            "than " + MAX_SEARCH_PAGE_LIMIT + ", cannot proceed";
     public static final String CONSENT_DATA_MISSING_ERROR_MSG = "Consent ID or both consent receipt and consent" +
             " validity period are not provided, cannot proceed";
     public static final String DETAILED_CONSENT_DATA_MISSING_ERROR_MSG = "Auth ID, user ID, account permissions map," +
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.expiry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the scheduled consent expiry runs.
+ */
+public class ConsentExpiryMetrics {
+
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong totalExpiredCount = new AtomicLong();
+    private volatile int lastRunExpiredCount;
+    private volatile long lastRunDuration;
+    private volatile long lastRunTime;
+
+    /**
+     * Record a completed expiry run.
+     *
+     * @param expiredCount  number of consents expired in the run
+     * @param duration      duration of the run in milliseconds
+     */
+    void recordRun(int expiredCount, long duration) {
+
+        lastRunExpiredCount = expiredCount;
+        lastRunDuration = duration;
+        lastRunTime = System.currentTimeMillis();
+        totalExpiredCount.addAndGet(expiredCount);
+        runCount.incrementAndGet();
+    }
+
+    /**
+     * Get the number of expiry runs completed by this node.
+     *
+     * @return number of runs
+     */
+    public long getRunCount() {
+
+        return runCount.get();
+    }
+
+    /**
+     * Get the number of consents expired by this node since the server started.
+     *
+     * @return number of expired consents
+     */
+    public long getTotalExpiredCount() {
+
+        return totalExpiredCount.get();
+    }
+
+    /**
+     * Get the number of consents expired in the last run.
+     *
+     * @return number of expired consents
+     */
+    public int getLastRunExpiredCount() {
+
+        return lastRunExpiredCount;
+    }
+
+    /**
+     * Get the duration of the last run in milliseconds.
+     *
+     * @return duration of the last run
+     */
+    public long getLastRunDuration() {
+
+        return lastRunDuration;
+    }
+
+    /**
+     * Get the time the last run completed at in milliseconds.
+     *
+     * @return completion time of the last run, 0 if no run has completed yet
+     */
+    public long getLastRunTime() {
+
+        return lastRunTime;
+    }
+}
@@ -0,0 +1,359 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.expiry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.constants.ConsentMgtDAOConstants;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataInsertionException;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataRetrievalException;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataUpdationException;
+import org.wso2.bfsi.consent.management.dao.models.AuthorizationResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.cache.DetailedConsentCache;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.ConsentCoreServiceUtil;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background service which moves consents past their expiration time to the expired status.
+ *
+ * Consents having an expiration time attribute are scanned in bounded batches ordered by consent ID. The statuses
+ * of the expired consents of a batch are updated, their audit records are stored and their account mappings are
+ * deactivated in a single transaction, which also stores their token revocations in the token revocation outbox. The
+ * tokens are revoked by the token revocation service once the transaction commits. A lease in the database makes
+ * sure only one node of a cluster runs the expiry at a time.
+ */
+public class ConsentExpiryService {
+
+    private static final Log log = LogFactory.getLog(ConsentExpiryService.class);
+
+    private final long interval;
+    private final int batchSize;
+    private final String eligibleStatuses;
+    private final String expiredStatus;
+    private final boolean shouldRevokeTokens;
+    private final long leaseDuration;
+    private final String leaseOwnerID = UUID.randomUUID().toString();
+    private final ConsentExpiryMetrics metrics = new ConsentExpiryMetrics();
+    private ScheduledExecutorService scheduler;
+
+    public ConsentExpiryService() {
+
+        this(ConsentManagementConfigParser.getInstance());
+    }
+
+    ConsentExpiryService(ConsentManagementConfigParser configParser) {
+
+        this.interval = configParser.getConsentExpiryInterval();
+        this.batchSize = configParser.getConsentExpiryBatchSize();
+        this.eligibleStatuses = configParser.getConsentExpiryEligibleStatuses();
+        this.expiredStatus = configParser.getConsentExpiryExpiredStatus();
+        this.shouldRevokeTokens = configParser.isConsentExpiryTokenRevocationEnabled();
+        this.leaseDuration = configParser.getConsentExpiryLeaseDuration();
+    }
+
+    /**
+     * Start running the consent expiry on the configured interval.
+     */
+    public synchronized void start() {
+
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> createDaemonThread(runnable, "consent-expiry"));
+        scheduler.scheduleWithFixedDelay(this::runScheduledExpiryCheck, interval, interval, TimeUnit.SECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Consent expiry service started with an interval of %d seconds", interval));
+        }
+    }
+
+    /**
+     * Stop running the consent expiry.
+     */
+    public synchronized void stop() {
+
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        log.debug("Consent expiry service stopped");
+    }
+
+    /**
+     * Get the metrics of the expiry runs of this node.
+     *
+     * @return consent expiry metrics
+     */
+    public ConsentExpiryMetrics getMetrics() {
+
+        return metrics;
+    }
+
+    private void runScheduledExpiryCheck() {
+
+        // An exception escaping the task would cancel the subsequent runs of the scheduler
+        try {
+            runExpiryCheck();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while expiring consents", e);
+        }
+    }
+
+    /**
+     * Expire all the consents which are past their expiration time. The run is skipped if another node holds the
+     * consent expiry lease.
+     *
+     * @return number of consents expired in the run
+     */
+    public int runExpiryCheck() {
+
+        long startTime = System.currentTimeMillis();
+        int expiredCount = 0;
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            if (!acquireLease(connection, consentCoreDAO)) {
+                log.debug("Consent expiry lease is held by another node, skipping the consent expiry run");
+                return 0;
+            }
+            try {
+                String lastConsentID = null;
+                ArrayList<DetailedConsentResource> candidates;
+                do {
+                    candidates = consentCoreDAO.getExpiringConsents(connection, eligibleStatuses,
+                            System.currentTimeMillis() / 1000, lastConsentID, batchSize);
+                    for (DetailedConsentResource candidate : candidates) {
+                        if (lastConsentID == null || candidate.getConsentID().compareTo(lastConsentID) > 0) {
+                            lastConsentID = candidate.getConsentID();
+                        }
+                    }
+                    expiredCount += expireConsents(connection, consentCoreDAO, candidates);
+                    // Renew the lease before every batch so that a long run is not taken over by another node
+                } while (candidates.size() == batchSize && acquireLease(connection, consentCoreDAO));
+            } finally {
+                releaseLease(connection, consentCoreDAO);
+            }
+        } catch (ConsentDataRetrievalException e) {
+            log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+        } catch (ConsentManagementException e) {
+            log.error("Error occurred while expiring consents", e);
+        } finally {
+            long duration = System.currentTimeMillis() - startTime;
+            metrics.recordRun(expiredCount, duration);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Consent expiry run completed. Expired consents: %d, duration: %d ms",
+                        expiredCount, duration));
+            }
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+        return expiredCount;
+    }
+
+    /**
+     * Expire the consents of a batch which are past their expiration time and commit the transaction.
+     *
+     * @param connection        connection object
+     * @param consentCoreDAO    consent core DAO
+     * @param candidates        consents eligible for expiration
+     * @return number of consents expired
+     * @throws ConsentManagementException thrown if an error occurs while updating the consents
+     */
+    private int expireConsents(Connection connection, ConsentCoreDAO consentCoreDAO,
+                               ArrayList<DetailedConsentResource> candidates) throws ConsentManagementException {
+
+        long currentTime = System.currentTimeMillis() / 1000;
+        ArrayList<DetailedConsentResource> expiredConsents = new ArrayList<>();
+        for (DetailedConsentResource candidate : candidates) {
+            if (isExpired(candidate, currentTime)) {
+                expiredConsents.add(candidate);
+            }
+        }
+        if (expiredConsents.isEmpty()) {
+            return 0;
+        }
+
+        ArrayList<String> expiredConsentIDs;
+        try {
+            expiredConsentIDs = consentCoreDAO.updateConsentStatuses(connection, expiredConsents, expiredStatus);
+
+            // Consents changed concurrently after the batch was read are left untouched
+            Set<String> updatedConsentIDs = new HashSet<>(expiredConsentIDs);
+            expiredConsents.removeIf(consent -> !updatedConsentIDs.contains(consent.getConsentID()));
+
+            ArrayList<ConsentStatusAuditRecord> auditRecords = new ArrayList<>();
+            ArrayList<String> mappingIDs = new ArrayList<>();
+            ArrayList<TokenRevocationRecord> tokenRevocationRecords = new ArrayList<>();
+            for (DetailedConsentResource consent : expiredConsents) {
+                auditRecords.add(new ConsentStatusAuditRecord(consent.getConsentID(), expiredStatus, 0,
+                        ConsentCoreServiceConstants.CONSENT_EXPIRE_REASON, null, consent.getCurrentStatus()));
+                for (ConsentMappingResource mappingResource : consent.getConsentMappingResources()) {
+                    if (ConsentCoreServiceConstants.ACTIVE_MAPPING_STATUS
+                            .equals(mappingResource.getMappingStatus())) {
+                        mappingIDs.add(mappingResource.getMappingID());
+                    }
+                }
+                if (shouldRevokeTokens) {
+                    tokenRevocationRecords.addAll(constructTokenRevocationRecords(consent));
+                }
+            }
+
+            if (!auditRecords.isEmpty()) {
+                consentCoreDAO.storeConsentStatusAuditRecords(connection, auditRecords);
+            }
+            if (!mappingIDs.isEmpty()) {
+                log.debug("Deactivating account mappings of expired consents");
+                consentCoreDAO.updateConsentMappingStatus(connection, mappingIDs,
+                        ConsentCoreServiceConstants.INACTIVE_MAPPING_STATUS);
+            }
+            if (!tokenRevocationRecords.isEmpty()) {
+                consentCoreDAO.storeTokenRevocationRecords(connection, tokenRevocationRecords);
+            }
+
+            DatabaseUtil.commitTransaction(connection);
+            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            DetailedConsentCache.removeDetailedConsentsFromCache(expiredConsentIDs);
+            ConsentCoreServiceUtil.dispatchTokenRevocations(tokenRevocationRecords);
+        } catch (ConsentDataUpdationException | ConsentDataInsertionException e) {
+            log.error(ConsentCoreServiceConstants.CONSENT_EXPIRY_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_EXPIRY_ERROR_MSG, e);
+        }
+
+        return expiredConsents.size();
+    }
+
+    /**
+     * Construct the token revocations of the users who authorized the expired consent.
+     *
+     * @param consent expired consent
+     * @return token revocations of the consent
+     */
+    private static List<TokenRevocationRecord> constructTokenRevocationRecords(DetailedConsentResource consent) {
+
+        Set<String> userIDs = new HashSet<>();
+        for (AuthorizationResource authorizationResource : consent.getAuthorizationResources()) {
+            if (StringUtils.isNotBlank(authorizationResource.getUserID())) {
+                userIDs.add(authorizationResource.getUserID());
+            }
+        }
+
+        List<TokenRevocationRecord> tokenRevocationRecords = new ArrayList<>();
+        for (String userID : userIDs) {
+            tokenRevocationRecords.add(new TokenRevocationRecord(consent.getConsentID(), consent.getClientID(),
+                    userID));
+        }
+        return tokenRevocationRecords;
+    }
+
+    /**
+     * Check whether the expiration time attribute of the consent has passed. The expiration time is accepted either
+     * as a Unix time in seconds or as an ISO-8601 date time with an offset.
+     *
+     * @param consent       consent to check
+     * @param currentTime   current Unix time in seconds
+     * @return true if the consent is expired
+     */
+    static boolean isExpired(DetailedConsentResource consent, long currentTime) {
+
+        String expirationTime = consent.getConsentAttributes() == null ? null :
+                consent.getConsentAttributes().get(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE);
+        if (StringUtils.isBlank(expirationTime)) {
+            return false;
+        }
+        expirationTime = expirationTime.trim();
+        try {
+            if (StringUtils.isNumeric(expirationTime)) {
+                return Long.parseLong(expirationTime) < currentTime;
+            }
+            return OffsetDateTime.parse(expirationTime).toEpochSecond() < currentTime;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Invalid expiration time found for consent ID: %s",
+                        consent.getConsentID().replaceAll("[\r\n]", "")));
+            }
+            return false;
+        }
+    }
+
+    private boolean acquireLease(Connection connection, ConsentCoreDAO consentCoreDAO)
+            throws ConsentManagementException {
+
+        long expiryTime = System.currentTimeMillis() / 1000 + leaseDuration;
+        try {
+            if (consentCoreDAO.acquireConsentLease(connection,
+                    ConsentCoreServiceConstants.CONSENT_EXPIRY_LEASE_NAME, leaseOwnerID, expiryTime)) {
+                DatabaseUtil.commitTransaction(connection);
+                return true;
+            }
+            DatabaseUtil.rollbackTransaction(connection);
+            return false;
+        } catch (ConsentDataUpdationException e) {
+            log.error(ConsentCoreServiceConstants.CONSENT_EXPIRY_LEASE_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_EXPIRY_LEASE_ERROR_MSG, e);
+        }
+    }
+
+    private void releaseLease(Connection connection, ConsentCoreDAO consentCoreDAO) {
+
+        try {
+            consentCoreDAO.releaseConsentLease(connection, ConsentCoreServiceConstants.CONSENT_EXPIRY_LEASE_NAME,
+                    leaseOwnerID);
+            DatabaseUtil.commitTransaction(connection);
+        } catch (ConsentDataUpdationException e) {
+            // The lease is taken over by another node once it expires
+            log.error(ConsentCoreServiceConstants.CONSENT_EXPIRY_LEASE_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+        }
+    }
+
+    private static Thread createDaemonThread(Runnable runnable, String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.idempotency;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.service.ConsentCoreService;
+import org.wso2.bfsi.consent.management.service.impl.ConsentCoreServiceImpl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background service which deletes the idempotency keys older than the idempotency key retention time.
+ *
+ * A repetition of a request received after the idempotency allowed time is rejected as long as its idempotency key is
+ * kept, hence the keys are kept for the retention time, which is at least the allowed time. A repetition received
+ * after the retention time is processed as a new request. Deleting the keys is idempotent, so every node of a cluster
+ * may run the cleanup.
+ */
+public class IdempotencyKeyCleanupService {
+
+    private static final Log log = LogFactory.getLog(IdempotencyKeyCleanupService.class);
+    private final long interval;
+    private final long retentionTimeInSeconds;
+    private final ConsentCoreService consentCoreService;
+    private ScheduledExecutorService scheduler;
+
+    public IdempotencyKeyCleanupService() {
+
+        this(ConsentManagementConfigParser.getInstance(), new ConsentCoreServiceImpl());
+    }
+
+    IdempotencyKeyCleanupService(ConsentManagementConfigParser configParser, ConsentCoreService consentCoreService) {
+
+        this.interval = configParser.getIdempotencyStoreCleanupInterval();
+        this.retentionTimeInSeconds = TimeUnit.HOURS.toSeconds(getRetentionTime(configParser));
+        this.consentCoreService = consentCoreService;
+    }
+
+    /**
+     * Start running the idempotency key cleanup on the configured interval.
+     */
+    public synchronized void start() {
+
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> createDaemonThread(runnable, "idempotency-key-cleanup"));
+        scheduler.scheduleWithFixedDelay(this::runScheduledCleanup, interval, interval, TimeUnit.SECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Idempotency key cleanup service started with an interval of %d seconds",
+                    interval));
+        }
+    }
+
+    /**
+     * Stop running the idempotency key cleanup.
+     */
+    public synchronized void stop() {
+
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        log.debug("Idempotency key cleanup service stopped");
+    }
+
+    private void runScheduledCleanup() {
+
+        // An exception escaping the task would cancel the subsequent runs of the scheduler
+        try {
+            runCleanup();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while deleting expired idempotency keys", e);
+        }
+    }
+
+    /**
+     * Delete the idempotency keys created before the idempotency key retention time.
+     *
+     * @return number of idempotency keys deleted in the run
+     */
+    public int runCleanup() {
+
+        long createdBefore = System.currentTimeMillis() / 1000 - retentionTimeInSeconds;
+        try {
+            int deletedCount = consentCoreService.deleteExpiredIdempotencyKeys(createdBefore);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Idempotency key cleanup run completed. Deleted keys: %d", deletedCount));
+            }
+            return deletedCount;
+        } catch (ConsentManagementException e) {
+            log.error("Error occurred while deleting expired idempotency keys", e);
+            return 0;
+        }
+    }
+
+    private static long getRetentionTime(ConsentManagementConfigParser configParser) {
+
+        long retentionTime = configParser.getIdempotencyStoreRetentionTime();
+        try {
+            // Keys are never deleted within the allowed time, so that the repetitions are identified
+            return Math.max(retentionTime, Long.parseLong(configParser.getIdempotencyAllowedTime()));
+        } catch (NumberFormatException e) {
+            // Repetitions are never accepted with an invalid allowed time, hence only the retention time applies
+            log.error("Invalid idempotency allowed time configured, using the idempotency key retention time");
+            return retentionTime;
+        }
+    }
+
+    private static Thread createDaemonThread(Runnable runnable, String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
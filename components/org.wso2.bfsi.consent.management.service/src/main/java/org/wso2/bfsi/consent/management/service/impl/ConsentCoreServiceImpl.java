@@ -18,7 +18,6 @@
 
 package org.wso2.bfsi.consent.management.service.impl;
 
-import net.minidev.json.JSONObject;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -36,22 +35,28 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
 import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
 import org.wso2.bfsi.consent.management.service.ConsentCoreService;
+import org.wso2.bfsi.consent.management.service.cache.DetailedConsentCache;
 import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEvent;
 import org.wso2.bfsi.consent.management.service.util.ConsentCoreServiceUtil;
 import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
-import org.wso2.bfsi.consent.management.service.util.TokenRevocationUtil;
-import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Consent core service implementation.
@@ -135,9 +140,9 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
 
                 // Update existing consent statuses and revoke their account mappings
-                ConsentCoreServiceUtil.updateExistingConsentStatusesAndRevokeAccountMappings(connection,
-                        consentCoreDAO, consentResource, userID, applicableExistingConsentsStatus,
-                        newExistingConsentStatus);
+                ArrayList<String> updatedConsentIDs = ConsentCoreServiceUtil
+                        .updateExistingConsentStatusesAndRevokeAccountMappings(connection, consentCoreDAO,
+                                consentResource, userID, applicableExistingConsentsStatus, newExistingConsentStatus);
 
                 // Create a new consent, audit record and authorization resource if allowed
                 DetailedConsentResource storedDetailedConsentResource = ConsentCoreServiceUtil
@@ -147,6 +152,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit the transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentsFromCache(updatedConsentIDs);
                 return storedDetailedConsentResource;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -174,7 +180,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ID_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -196,9 +202,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                     retrievedConsentResource = consentCoreDAO.getConsentResourceWithAttributes(connection, consentID);
                 }
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedConsentResource;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -206,7 +209,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -218,7 +221,24 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ID_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        // Within a transaction scope the consent may have uncommitted changes, hence it is not cached
+        if (DetailedConsentCache.isDetailedConsentCacheEnabled() && !DatabaseUtil.isInTransactionScope()) {
+            return DetailedConsentCache.getInstance().getDetailedConsent(consentID,
+                    () -> retrieveDetailedConsent(consentID));
+        }
+        return retrieveDetailedConsent(consentID);
+    }
+
+    /**
+     * Retrieve the detailed consent resource from the database.
+     *
+     * @param consentID consent ID
+     * @return the detailed consent resource
+     * @throws ConsentManagementException thrown if an error occurs while retrieving the detailed consent
+     */
+    private DetailedConsentResource retrieveDetailedConsent(String consentID) throws ConsentManagementException {
+
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -232,9 +252,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 DetailedConsentResource retrievedDetailedConsentResource = consentCoreDAO
                         .getDetailedConsentResource(connection, consentID);
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedDetailedConsentResource;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -242,7 +259,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -310,6 +327,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return true;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -337,7 +355,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ID_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
 
@@ -350,7 +368,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -381,6 +399,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(authorizationResource.getConsentID());
                 return storedAuthorizationResource;
             } catch (ConsentDataInsertionException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -401,7 +420,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.AUTH_ID_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -415,9 +434,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 }
                 retrievedAuthorizationResource = consentCoreDAO.getAuthorizationResource(connection, authorizationID);
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedAuthorizationResource;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -425,7 +441,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -446,7 +462,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throws ConsentManagementException {
 
         ArrayList<AuthorizationResource> authorizationResources;
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             try {
@@ -460,12 +476,9 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 throw new ConsentManagementException(ConsentCoreServiceConstants.AUTH_RESOURCE_SEARCH_ERROR_MSG, e);
             }
 
-            // Commit transactions
-            DatabaseUtil.commitTransaction(connection);
-            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
         return authorizationResources;
     }
@@ -497,6 +510,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(updatedAuthorizationResource.getConsentID());
                 return updatedAuthorizationResource;
             } catch (ConsentDataUpdationException e) {
                 log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
@@ -540,6 +554,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(updatedAuthResource.getConsentID());
                 return updatedAuthResource;
             } catch (ConsentDataUpdationException e) {
                 log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
@@ -614,6 +629,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                     log.debug(String.format("Creating account mappings for current consent ID: %s",
                             consentID.replaceAll("[\r\n]", "")));
                 }
+                ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
                 for (Map.Entry<String, ArrayList<String>> entry : accountIDsMapWithPermissions.entrySet()) {
                     String accountID = entry.getKey();
                     for (String value : entry.getValue()) {
@@ -622,9 +638,12 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                         consentMappingResource.setPermission(value);
                         consentMappingResource.setAuthorizationID(authID);
                         consentMappingResource.setMappingStatus(ConsentCoreServiceConstants.ACTIVE_MAPPING_STATUS);
-                        consentCoreDAO.storeConsentMappingResource(connection, consentMappingResource);
+                        consentMappingResources.add(consentMappingResource);
                     }
                 }
+                if (!consentMappingResources.isEmpty()) {
+                    consentCoreDAO.storeConsentMappingResources(connection, consentMappingResources);
+                }
 
                 // Update current consent status
                 if (log.isDebugEnabled()) {
@@ -643,6 +662,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return true;
             } catch (ConsentDataInsertionException e) {
                 log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
@@ -706,6 +726,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentId);
 
                 return existingConsentResource;
             } catch (ConsentDataRetrievalException e) {
@@ -735,7 +756,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.ACC_MAPPING_DETAILS_MISSING_ERROR);
         }
 
-        ArrayList<ConsentMappingResource> storedConsentMappingResources = new ArrayList<>();
+        ArrayList<ConsentMappingResource> storedConsentMappingResources;
         Connection connection = DatabaseUtil.getDBConnection();
 
         try {
@@ -746,6 +767,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                     log.debug(String.format("Creating consent account mapping resources for authorization ID: %s",
                             authID.replaceAll("[\r\n]", "")));
                 }
+                String consentID = consentCoreDAO.getAuthorizationResource(connection, authID).getConsentID();
+                ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
                 for (Map.Entry<String, ArrayList<String>> entry : accountIDsMapWithPermissions.entrySet()) {
                     String accountID = entry.getKey();
                     for (String value : entry.getValue()) {
@@ -754,15 +777,20 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                         consentMappingResource.setPermission(value);
                         consentMappingResource.setAuthorizationID(authID);
                         consentMappingResource.setMappingStatus(ConsentCoreServiceConstants.ACTIVE_MAPPING_STATUS);
-                        storedConsentMappingResources.add(consentCoreDAO.storeConsentMappingResource(connection,
-                                consentMappingResource));
+                        consentMappingResources.add(consentMappingResource);
                     }
                 }
+                storedConsentMappingResources = consentMappingResources.isEmpty() ? consentMappingResources :
+                        consentCoreDAO.storeConsentMappingResources(connection, consentMappingResources);
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return storedConsentMappingResources;
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
             } catch (ConsentDataInsertionException e) {
                 log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
@@ -789,13 +817,18 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Deactivate account mapping resources
                 log.debug("Deactivating consent account mapping resources for given mapping IDs");
 
+                Set<String> consentIDs = consentCoreDAO.getConsentIDsByMappingIDs(connection, accountMappingIDs);
                 consentCoreDAO.updateConsentMappingStatus(connection, accountMappingIDs,
                         ConsentCoreServiceConstants.INACTIVE_MAPPING_STATUS);
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentsFromCache(consentIDs);
                 return true;
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
             } catch (ConsentDataUpdationException e) {
                 log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
@@ -824,13 +857,18 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // update account mapping resources
                 log.debug("Deactivating consent account mapping resources for given mapping IDs");
 
+                Set<String> consentIDs = consentCoreDAO.getConsentIDsByMappingIDs(connection, accountMappingIDs);
                 consentCoreDAO.updateConsentMappingStatus(connection, accountMappingIDs,
                         newMappingStatus);
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentsFromCache(consentIDs);
                 return true;
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
             } catch (ConsentDataUpdationException e) {
                 log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
@@ -908,6 +946,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 }
                 consentCoreDAO.updateConsentStatus(connection, consentID, revokedConsentStatus);
 
+                ArrayList<TokenRevocationRecord> tokenRevocationRecords = new ArrayList<>();
                 if (shouldRevokeTokens) {
                     // Extract userId from authorizationResources
                     ArrayList<AuthorizationResource> authorizationResources = retrievedDetailedConsentResource
@@ -930,7 +969,11 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                         log.error(errorMsg);
                         throw new ConsentManagementException(errorMsg);
                     }
-                    TokenRevocationUtil.revokeTokens(retrievedDetailedConsentResource, consentUserID);
+                    // Tokens are revoked after the transaction commits, the revocation is stored in the same
+                    // transaction so that it is not lost if the node stops before revoking
+                    tokenRevocationRecords.add(new TokenRevocationRecord(consentID,
+                            retrievedDetailedConsentResource.getClientID(), consentUserID));
+                    consentCoreDAO.storeTokenRevocationRecords(connection, tokenRevocationRecords);
                 }
 
                 ArrayList<ConsentMappingResource> consentMappingResources = retrievedDetailedConsentResource
@@ -971,6 +1014,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 //Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
+                ConsentCoreServiceUtil.dispatchTokenRevocations(tokenRevocationRecords);
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
                 throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -982,11 +1027,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
                 throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
-            } catch (IdentityOAuth2Exception e) {
-                log.error(String.format("Error while revoking tokens for the consent ID: %s",
-                        consentID.replaceAll("[\r\n]", "")), e);
-                throw new ConsentManagementException("Error occurred while revoking tokens for the consent ID: "
-                        + consentID);
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
@@ -1029,6 +1069,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                                 consentStatusesList, userIDsList, null, null, null, null);
 
                 // Revoke existing consents and create audit records
+                ArrayList<ConsentStateChangeEvent> stateChangeEvents = new ArrayList<>();
+                ArrayList<TokenRevocationRecord> tokenRevocationRecords = new ArrayList<>();
                 for (DetailedConsentResource resource : retrievedDetailedConsentResources) {
                     String previousConsentStatus = resource.getCurrentStatus();
 
@@ -1040,20 +1082,21 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                     consentCoreDAO.updateConsentStatus(connection, resource.getConsentID(), revokedConsentStatus);
 
                     if (shouldRevokeTokens) {
-                        TokenRevocationUtil.revokeTokens(resource, userID);
+                        tokenRevocationRecords.add(new TokenRevocationRecord(resource.getConsentID(),
+                                resource.getClientID(), userID));
                     }
 
-                    // Create an audit record for consent update
+                    // Create a state change event for consent update, the audit records are stored as a batch below
                     if (log.isDebugEnabled()) {
-                        log.debug(String.format("Creating audit record for the status change of consent ID: %s",
+                        log.debug(String.format("Creating state change event for consent ID: %s",
                                 resource.getConsentID().replaceAll("[\r\n]", "")));
                     }
-                    // Create an audit record execute state change listener
                     HashMap<String, Object> consentDataMap = new HashMap<>();
                     consentDataMap.put(ConsentCoreServiceConstants.DETAILED_CONSENT_RESOURCE, resource);
-                    ConsentCoreServiceUtil.postStateChange(connection, consentCoreDAO, resource.getConsentID(), userID,
+                    stateChangeEvents.add(new ConsentStateChangeEvent(resource.getConsentID(), userID,
                             revokedConsentStatus, previousConsentStatus,
-                            ConsentCoreServiceConstants.CONSENT_REVOKE_REASON, resource.getClientID(), consentDataMap);
+                            ConsentCoreServiceConstants.CONSENT_REVOKE_REASON, resource.getClientID(),
+                            consentDataMap));
 
                     // Extract account mapping IDs for retrieved applicable consents
                     if (log.isDebugEnabled()) {
@@ -1065,6 +1108,15 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                     }
                 }
 
+                log.debug("Posting state changes of the revoked consents");
+                ConsentCoreServiceUtil.postStateChanges(connection, consentCoreDAO, stateChangeEvents);
+
+                // Tokens are revoked after the transaction commits
+                if (!tokenRevocationRecords.isEmpty()) {
+                    log.debug("Storing token revocations for the revoked consents");
+                    consentCoreDAO.storeTokenRevocationRecords(connection, tokenRevocationRecords);
+                }
+
                 // Update account mappings as inactive
                 log.debug("Deactivating account mappings");
                 consentCoreDAO.updateConsentMappingStatus(connection, accountMappingIDsList,
@@ -1073,6 +1125,10 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 //Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                for (DetailedConsentResource resource : retrievedDetailedConsentResources) {
+                    DetailedConsentCache.removeDetailedConsentFromCache(resource.getConsentID());
+                }
+                ConsentCoreServiceUtil.dispatchTokenRevocations(tokenRevocationRecords);
                 return true;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1085,9 +1141,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
                 throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
-            } catch (IdentityOAuth2Exception e) {
-                log.error("Error while revoking tokens for existing consents", e);
-                throw new ConsentManagementException("Error occurred while revoking tokens for existing consents");
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
@@ -1135,6 +1188,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return true;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1225,6 +1279,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return true;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1271,6 +1326,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 }
                 isConsentAttributesStored = consentCoreDAO.storeConsentAttributes(connection, consentAttributesObject);
                 DatabaseUtil.commitTransaction(connection);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
             } catch (ConsentDataInsertionException e) {
                 log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
@@ -1293,7 +1349,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ATTRIBUTE_KEYS_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -1318,9 +1374,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 retrievedConsentAttributes = consentCoreDAO.getConsentAttributes(connection, consentID,
                         consentAttributeKeys);
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedConsentAttributes;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1328,7 +1381,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -1340,7 +1393,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ID_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -1365,9 +1418,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 }
                 retrievedConsentAttributes = consentCoreDAO.getConsentAttributes(connection, consentID);
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedConsentAttributes;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1375,7 +1425,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -1387,7 +1437,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ATTRIBUTE_NAME_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -1399,9 +1449,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 }
                 retrievedAttributeValuesMap = consentCoreDAO.getConsentAttributesByName(connection, attributeName);
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedAttributeValuesMap;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1409,7 +1456,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -1422,7 +1469,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.ATTRIBUTE_NAME_VALUE_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
@@ -1436,9 +1483,6 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 retrievedConsentIdList = consentCoreDAO.getConsentIdByConsentAttributeNameAndValue(connection,
                         attributeName, attributeValue);
 
-                // Commit transactions
-                DatabaseUtil.commitTransaction(connection);
-                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return retrievedConsentIdList;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1446,7 +1490,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -1477,6 +1521,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return updatedAttributes;
             } catch (ConsentDataUpdationException e) {
                 log.error(ConsentCoreServiceConstants.ATTRIBUTE_UPDATE_ERROR_MSG, e);
@@ -1515,6 +1560,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return true;
             } catch (ConsentDataDeletionException e) {
                 log.error(ConsentCoreServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
@@ -1534,7 +1580,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throws ConsentManagementException {
 
         ArrayList<ConsentStatusAuditRecord> auditRecords;
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             try {
@@ -1549,12 +1595,9 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 throw new ConsentManagementException(ConsentCoreServiceConstants.AUDIT_RECORD_SEARCH_ERROR_MSG, e);
             }
 
-            // Commit transactions
-            DatabaseUtil.commitTransaction(connection);
-            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
         return auditRecords;
     }
@@ -1564,7 +1607,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                                                                             Integer limit, Integer offset)
             throws ConsentManagementException {
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
 
@@ -1577,7 +1620,30 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
+        }
+    }
+
+    @Override
+    public ConsentSearchPage<ConsentStatusAuditRecord> getConsentStatusAuditRecordsByCursor(
+            ArrayList<String> consentIDs, int limit, ConsentSearchCursor cursor) throws ConsentManagementException {
+
+        ConsentCoreServiceUtil.validateSearchPageLimit(limit);
+
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
+
+        ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+
+        try {
+            //Retrieve a page of consent status audit records.
+            return consentCoreDAO.getConsentStatusAuditRecordsByCursor(connection, consentIDs, limit, cursor);
+
+        } catch (ConsentDataRetrievalException e) {
+            log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -1607,46 +1673,9 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 detailedCurrentConsent = consentCoreDAO.getDetailedConsentResource(connection, consentID);
             }
 
-            DetailedConsentResource detailedHistoryConsent = consentHistoryResource.getDetailedConsentResource();
-            // store only the changes in basic consent data to CA history
-            JSONObject changedConsentDataJson = ConsentCoreServiceUtil
-                    .getChangedBasicConsentDataJSON(detailedCurrentConsent, detailedHistoryConsent);
-            if (!changedConsentDataJson.isEmpty()) {
-                consentCoreDAO.storeConsentAmendmentHistory(connection, historyID, amendedTimestamp, consentID,
-                        ConsentCoreServiceConstants.TYPE_CONSENT_BASIC_DATA, String.valueOf(changedConsentDataJson),
-                        amendmentReason);
-            }
-
-            // store only the changes in consent attributes to CA history
-            JSONObject changedConsentAttributesJson = ConsentCoreServiceUtil.getChangedConsentAttributesDataJSON(
-                    detailedCurrentConsent.getConsentAttributes(), detailedHistoryConsent.getConsentAttributes());
-            if (!changedConsentAttributesJson.isEmpty()) {
-                consentCoreDAO.storeConsentAmendmentHistory(connection, historyID, amendedTimestamp,
-                        consentID, ConsentCoreServiceConstants.TYPE_CONSENT_ATTRIBUTES_DATA,
-                        String.valueOf(changedConsentAttributesJson), amendmentReason);
-            }
-
-            // store only the changes in consent mappings to CA history
-            Map<String, JSONObject> changedConsentMappingsJsonDataMap = ConsentCoreServiceUtil
-                    .getChangedConsentMappingDataJSONMap(detailedCurrentConsent.getConsentMappingResources(),
-                            detailedHistoryConsent.getConsentMappingResources());
-            for (Map.Entry<String, JSONObject> changedConsentMapping : changedConsentMappingsJsonDataMap.entrySet()) {
-                consentCoreDAO.storeConsentAmendmentHistory(connection, historyID, amendedTimestamp,
-                        changedConsentMapping.getKey(), ConsentCoreServiceConstants.TYPE_CONSENT_MAPPING_DATA,
-                        String.valueOf(changedConsentMapping.getValue()), amendmentReason);
-            }
-
-            // store only the changes in consent Auth Resources to CA history
-            Map<String, JSONObject> changedConsentAuthResourcesJsonDataMap = ConsentCoreServiceUtil
-                    .getChangedConsentAuthResourcesDataJSONMap(detailedCurrentConsent.getAuthorizationResources(),
-                            detailedHistoryConsent.getAuthorizationResources());
-            for (Map.Entry<String, JSONObject> changedConsentAuthResource :
-                    changedConsentAuthResourcesJsonDataMap.entrySet()) {
-                consentCoreDAO.storeConsentAmendmentHistory(connection, historyID, amendedTimestamp,
-                        changedConsentAuthResource.getKey(),
-                        ConsentCoreServiceConstants.TYPE_CONSENT_AUTH_RESOURCE_DATA,
-                        String.valueOf(changedConsentAuthResource.getValue()), amendmentReason);
-            }
+            ConsentCoreServiceUtil.storeConsentAmendmentHistoryData(connection, consentCoreDAO, consentID, historyID,
+                    amendedTimestamp, amendmentReason, detailedCurrentConsent,
+                    consentHistoryResource.getDetailedConsentResource());
 
             // Commit transactions
             DatabaseUtil.commitTransaction(connection);
@@ -1674,7 +1703,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_ID_MISSING_ERROR_MSG);
         }
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
         ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
         try {
             //Retrieve the current detailed consent to build the detailed consent amendment history resources
@@ -1696,7 +1725,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            DatabaseUtil.closeReadOnlyConnection(connection);
         }
     }
 
@@ -1713,7 +1742,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         // Input parameters except limit and offset are not validated since they are validated in the DAO method
         ArrayList<DetailedConsentResource> detailedConsentResources;
 
-        Connection connection = DatabaseUtil.getDBConnection();
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
 
         try {
             try {
@@ -1728,6 +1757,109 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 throw new ConsentManagementException(ConsentCoreServiceConstants.DETAIL_CONSENT_SEARCH_ERROR_MSG, e);
             }
 
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeReadOnlyConnection(connection);
+        }
+        return detailedConsentResources;
+    }
+
+    @Override
+    public int countConsents(ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                             ArrayList<String> consentTypes, ArrayList<String> consentStatuses,
+                             ArrayList<String> userIDs, Long fromTime, Long toTime)
+            throws ConsentManagementException {
+
+        // Input parameters are not validated since they are validated in the DAO method
+        int consentCount;
+
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
+
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+
+                log.debug("Counting consents");
+                consentCount = consentCoreDAO.countConsents(connection, consentIDs, clientIDs, consentTypes,
+                        consentStatuses, userIDs, fromTime, toTime);
+
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.CONSENT_COUNT_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_COUNT_ERROR_MSG, e);
+            }
+
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeReadOnlyConnection(connection);
+        }
+        return consentCount;
+    }
+
+    @Override
+    public ConsentSearchPage<DetailedConsentResource> searchDetailedConsentsByCursor(ArrayList<String> consentIDs,
+                                                                                     ArrayList<String> clientIDs,
+                                                                                     ArrayList<String> consentTypes,
+                                                                                     ArrayList<String> consentStatuses,
+                                                                                     ArrayList<String> userIDs,
+                                                                                     Long fromTime, Long toTime,
+                                                                                     int limit,
+                                                                                     ConsentSearchCursor cursor)
+            throws ConsentManagementException {
+
+        ConsentCoreServiceUtil.validateSearchPageLimit(limit);
+        ConsentSearchPage<DetailedConsentResource> consentSearchPage;
+
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
+
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+
+                log.debug("Searching detailed consents by cursor");
+                consentSearchPage = consentCoreDAO.searchConsentsByCursor(connection, consentIDs, clientIDs,
+                        consentTypes, consentStatuses, userIDs, fromTime, toTime, limit, cursor);
+
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DETAIL_CONSENT_SEARCH_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DETAIL_CONSENT_SEARCH_ERROR_MSG, e);
+            }
+
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeReadOnlyConnection(connection);
+        }
+        return consentSearchPage;
+    }
+
+    @Override
+    public int streamDetailedConsents(ArrayList<String> consentIDs, ArrayList<String> clientIDs,
+                                      ArrayList<String> consentTypes, ArrayList<String> consentStatuses,
+                                      ArrayList<String> userIDs, Long fromTime, Long toTime, int fetchSize,
+                                      Consumer<DetailedConsentResource> consumer)
+            throws ConsentManagementException {
+
+        if (consumer == null) {
+            log.error(ConsentCoreServiceConstants.CONSENT_STREAM_CONSUMER_MISSING_ERROR_MSG);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.CONSENT_STREAM_CONSUMER_MISSING_ERROR_MSG);
+        }
+
+        int streamedConsentCount;
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+
+                log.debug("Streaming detailed consents");
+                streamedConsentCount = consentCoreDAO.streamConsents(connection, consentIDs, clientIDs,
+                        consentTypes, consentStatuses, userIDs, fromTime, toTime, fetchSize, consumer);
+
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DETAIL_CONSENT_SEARCH_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DETAIL_CONSENT_SEARCH_ERROR_MSG, e);
+            }
+
             // Commit transactions
             DatabaseUtil.commitTransaction(connection);
             log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
@@ -1735,7 +1867,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
             DatabaseUtil.closeConnection(connection);
         }
-        return detailedConsentResources;
+        return streamedConsentCount;
     }
 
     @Override
@@ -1786,6 +1918,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                DetailedConsentCache.removeDetailedConsentFromCache(consentID);
                 return consentResource;
             } catch (ConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1879,6 +2012,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             // Commit transactions
             DatabaseUtil.commitTransaction(connection);
             log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            DetailedConsentCache.removeDetailedConsentFromCache(consentID);
             return newDetailedConsentResource;
         } catch (ConsentDataRetrievalException e) {
             log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -1900,4 +2034,98 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             DatabaseUtil.closeConnection(connection);
         }
     }
+
+    @Override
+    public IdempotencyKeyRecord storeIdempotencyKey(IdempotencyKeyRecord idempotencyKeyRecord)
+            throws ConsentManagementException {
+
+        if (idempotencyKeyRecord == null || StringUtils.isBlank(idempotencyKeyRecord.getClientID()) ||
+                StringUtils.isBlank(idempotencyKeyRecord.getIdempotencyKey()) ||
+                StringUtils.isBlank(idempotencyKeyRecord.getConsentID()) ||
+                StringUtils.isBlank(idempotencyKeyRecord.getPayloadHash())) {
+            log.error(ConsentCoreServiceConstants.IDEMPOTENCY_KEY_DETAILS_MISSING_ERROR_MSG);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.IDEMPOTENCY_KEY_DETAILS_MISSING_ERROR_MSG);
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Storing idempotency key for the consent: %s",
+                            idempotencyKeyRecord.getConsentID().replaceAll("[\r\n]", "")));
+                }
+                IdempotencyKeyRecord storedIdempotencyKeyRecord =
+                        consentCoreDAO.storeIdempotencyKeyRecord(connection, idempotencyKeyRecord);
+
+                // Commit transactions
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                return storedIdempotencyKeyRecord;
+            } catch (ConsentDataInsertionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public IdempotencyKeyRecord getIdempotencyKey(String clientID, String idempotencyKey)
+            throws ConsentManagementException {
+
+        if (StringUtils.isBlank(clientID) || StringUtils.isBlank(idempotencyKey)) {
+            log.error(ConsentCoreServiceConstants.IDEMPOTENCY_KEY_MISSING_ERROR_MSG);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.IDEMPOTENCY_KEY_MISSING_ERROR_MSG);
+        }
+
+        Connection connection = DatabaseUtil.getReadOnlyDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                log.debug("Retrieving the idempotency key of the client");
+                IdempotencyKeyRecord idempotencyKeyRecord = consentCoreDAO.getIdempotencyKeyRecord(connection,
+                        clientID, idempotencyKey);
+
+                return idempotencyKeyRecord;
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeReadOnlyConnection(connection);
+        }
+    }
+
+    @Override
+    public int deleteExpiredIdempotencyKeys(long createdBefore) throws ConsentManagementException {
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                log.debug("Deleting expired idempotency keys");
+                int deletedCount = consentCoreDAO.deleteExpiredIdempotencyKeyRecords(connection, createdBefore);
+
+                // Commit transactions
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                return deletedCount;
+            } catch (ConsentDataDeletionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
 }
@@ -18,14 +18,23 @@
 
 package org.wso2.bfsi.consent.management.service.internal;
 
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEventBus;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeListener;
+import org.wso2.bfsi.consent.management.service.revocation.TokenRevocationService;
 import org.wso2.carbon.identity.oauth2.OAuth2Service;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * Data holder for consent management service.
  */
 public class ConsentManagementDataHolder {
 
     private OAuth2Service oAuth2Service;
+    private volatile TokenRevocationService tokenRevocationService;
+    private volatile ConsentStateChangeEventBus consentStateChangeEventBus;
+    private final List<ConsentStateChangeListener> consentStateChangeListeners = new CopyOnWriteArrayList<>();
     private static volatile ConsentManagementDataHolder instance;
 
     public static ConsentManagementDataHolder getInstance() {
@@ -49,4 +58,39 @@ public class ConsentManagementDataHolder {
 
         this.oAuth2Service = oAuth2Service;
     }
+
+    public TokenRevocationService getTokenRevocationService() {
+
+        return tokenRevocationService;
+    }
+
+    public void setTokenRevocationService(TokenRevocationService tokenRevocationService) {
+
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    public ConsentStateChangeEventBus getConsentStateChangeEventBus() {
+
+        return consentStateChangeEventBus;
+    }
+
+    public void setConsentStateChangeEventBus(ConsentStateChangeEventBus consentStateChangeEventBus) {
+
+        this.consentStateChangeEventBus = consentStateChangeEventBus;
+    }
+
+    public List<ConsentStateChangeListener> getConsentStateChangeListeners() {
+
+        return consentStateChangeListeners;
+    }
+
+    public void addConsentStateChangeListener(ConsentStateChangeListener consentStateChangeListener) {
+
+        consentStateChangeListeners.add(consentStateChangeListener);
+    }
+
+    public void removeConsentStateChangeListener(ConsentStateChangeListener consentStateChangeListener) {
+
+        consentStateChangeListeners.remove(consentStateChangeListener);
+    }
 }
@@ -31,10 +31,20 @@ import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigPar
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
 import org.wso2.bfsi.consent.management.common.persistence.JDBCPersistenceManager;
 import org.wso2.bfsi.consent.management.service.ConsentCoreService;
+import org.wso2.bfsi.consent.management.service.expiry.ConsentExpiryService;
+import org.wso2.bfsi.consent.management.service.idempotency.IdempotencyKeyCleanupService;
 import org.wso2.bfsi.consent.management.service.impl.ConsentCoreServiceImpl;
+import org.wso2.bfsi.consent.management.service.listener.ConsentAmendmentHistoryWriter;
+import org.wso2.bfsi.consent.management.service.listener.ConsentAuditRecordWriter;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEventBus;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeListener;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeNotifier;
+import org.wso2.bfsi.consent.management.service.revocation.TokenRevocationService;
 import org.wso2.carbon.identity.oauth2.OAuth2Service;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Consent Management Core Service Component.
@@ -44,6 +54,11 @@ import java.sql.SQLException;
 public class ConsentManagementServiceComponent {
 
     private static final Log log = LogFactory.getLog(ConsentManagementServiceComponent.class);
+    private ConsentExpiryService consentExpiryService;
+    private IdempotencyKeyCleanupService idempotencyKeyCleanupService;
+    private TokenRevocationService tokenRevocationService;
+    private ConsentStateChangeEventBus consentStateChangeEventBus;
+    private final List<ConsentStateChangeListener> builtInStateChangeListeners = new ArrayList<>();
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -65,11 +80,69 @@ public class ConsentManagementServiceComponent {
 
         context.getBundleContext().registerService(ConsentCoreService.class.getName(), consentCoreService, null);
         log.debug("Consent Management Service is registered successfully.");
+
+        tokenRevocationService = new TokenRevocationService();
+        tokenRevocationService.start();
+        ConsentManagementDataHolder.getInstance().setTokenRevocationService(tokenRevocationService);
+        log.debug("Token revocation service is started successfully.");
+
+        ConsentManagementDataHolder dataHolder = ConsentManagementDataHolder.getInstance();
+        consentStateChangeEventBus = new ConsentStateChangeEventBus(dataHolder.getConsentStateChangeListeners());
+        // Audit records are written inline with the consent changes in the synchronous mode
+        if (!consentStateChangeEventBus.isSynchronous()) {
+            builtInStateChangeListeners.add(new ConsentAuditRecordWriter());
+        }
+        if (ConsentManagementConfigParser.getInstance().isStateChangeAmendmentHistoryEnabled()) {
+            builtInStateChangeListeners.add(new ConsentAmendmentHistoryWriter());
+        }
+        ConsentManagementConfigParser.getInstance().getStateChangeEventsNotifierURL().ifPresent(url ->
+                builtInStateChangeListeners.add(new ConsentStateChangeNotifier(url)));
+        builtInStateChangeListeners.forEach(dataHolder::addConsentStateChangeListener);
+        consentStateChangeEventBus.start();
+        dataHolder.setConsentStateChangeEventBus(consentStateChangeEventBus);
+        log.debug("Consent state change event bus is started successfully.");
+
+        if (ConsentManagementConfigParser.getInstance().isConsentExpiryEnabled()) {
+            consentExpiryService = new ConsentExpiryService();
+            consentExpiryService.start();
+            log.debug("Consent expiry service is started successfully.");
+        }
+
+        if (ConsentManagementConfigParser.getInstance().isIdempotencyStoreEnabled()) {
+            idempotencyKeyCleanupService = new IdempotencyKeyCleanupService();
+            idempotencyKeyCleanupService.start();
+            log.debug("Idempotency key cleanup service is started successfully.");
+        }
     }
 
     @Deactivate
     protected void deactivate(ComponentContext ctxt) {
 
+        if (consentExpiryService != null) {
+            consentExpiryService.stop();
+            consentExpiryService = null;
+        }
+        if (idempotencyKeyCleanupService != null) {
+            idempotencyKeyCleanupService.stop();
+            idempotencyKeyCleanupService = null;
+        }
+        if (tokenRevocationService != null) {
+            ConsentManagementDataHolder.getInstance().setTokenRevocationService(null);
+            tokenRevocationService.stop();
+            tokenRevocationService = null;
+        }
+        if (consentStateChangeEventBus != null) {
+            ConsentManagementDataHolder.getInstance().setConsentStateChangeEventBus(null);
+            consentStateChangeEventBus.stop();
+            consentStateChangeEventBus = null;
+            for (ConsentStateChangeListener listener : builtInStateChangeListeners) {
+                ConsentManagementDataHolder.getInstance().removeConsentStateChangeListener(listener);
+                if (listener instanceof ConsentStateChangeNotifier) {
+                    ((ConsentStateChangeNotifier) listener).close();
+                }
+            }
+            builtInStateChangeListeners.clear();
+        }
          log.debug("Consent Management Service is deactivated");
     }
 
@@ -90,4 +163,22 @@ public class ConsentManagementServiceComponent {
 
         ConsentManagementDataHolder.getInstance().setOAuth2Service(oAuth2Service);
     }
+
+    @Reference(
+            name = "consent.state.change.listener",
+            service = ConsentStateChangeListener.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "removeConsentStateChangeListener"
+    )
+    protected void addConsentStateChangeListener(ConsentStateChangeListener consentStateChangeListener) {
+
+        ConsentManagementDataHolder.getInstance().addConsentStateChangeListener(consentStateChangeListener);
+        log.debug("Consent state change listener is registered");
+    }
+
+    protected void removeConsentStateChangeListener(ConsentStateChangeListener consentStateChangeListener) {
+
+        ConsentManagementDataHolder.getInstance().removeConsentStateChangeListener(consentStateChangeListener);
+    }
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataInsertionException;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataRetrievalException;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.ConsentCoreServiceUtil;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores the consent amendment history of the consent state changes which carry the previous version of the consent,
+ * one batch per transaction.
+ */
+public class ConsentAmendmentHistoryWriter implements ConsentStateChangeListener {
+
+    private static final Log log = LogFactory.getLog(ConsentAmendmentHistoryWriter.class);
+
+    @Override
+    public void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException {
+
+        List<ConsentStateChangeEvent> amendmentEvents = new ArrayList<>();
+        for (ConsentStateChangeEvent event : events) {
+            if (event.getConsentDataMap().get(ConsentCoreServiceConstants.CONSENT_AMENDMENT_HISTORY_RESOURCE)
+                    instanceof DetailedConsentResource) {
+                amendmentEvents.add(event);
+            }
+        }
+        if (amendmentEvents.isEmpty()) {
+            return;
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+                for (ConsentStateChangeEvent event : amendmentEvents) {
+                    storeAmendmentHistory(connection, consentCoreDAO, event);
+                }
+
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            } catch (ConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            } catch (ConsentDataInsertionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    private void storeAmendmentHistory(Connection connection, ConsentCoreDAO consentCoreDAO,
+                                       ConsentStateChangeEvent event)
+            throws ConsentDataRetrievalException, ConsentDataInsertionException {
+
+        Map<String, Object> consentDataMap = event.getConsentDataMap();
+        DetailedConsentResource detailedHistoryConsent = (DetailedConsentResource) consentDataMap
+                .get(ConsentCoreServiceConstants.CONSENT_AMENDMENT_HISTORY_RESOURCE);
+        Object detailedCurrentConsent = consentDataMap.get(ConsentCoreServiceConstants.DETAILED_CONSENT_RESOURCE);
+        if (!(detailedCurrentConsent instanceof DetailedConsentResource)) {
+            detailedCurrentConsent = consentCoreDAO.getDetailedConsentResource(connection, event.getConsentID());
+        }
+        Object amendmentTime = consentDataMap.get(ConsentCoreServiceConstants.CONSENT_AMENDMENT_TIME);
+        long amendedTimestamp = amendmentTime instanceof Long ? (Long) amendmentTime : event.getTimestamp();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Storing amendment history of consent ID: %s",
+                    event.getConsentID().replaceAll("[\r\n]", "")));
+        }
+        ConsentCoreServiceUtil.storeConsentAmendmentHistoryData(connection, consentCoreDAO, event.getConsentID(),
+                String.valueOf(UUID.randomUUID()), amendedTimestamp, event.getReason(),
+                (DetailedConsentResource) detailedCurrentConsent, detailedHistoryConsent);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataInsertionException;
+import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.ConsentCoreServiceUtil;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the audit records of consent state changes delivered asynchronously, one batch per transaction.
+ */
+public class ConsentAuditRecordWriter implements ConsentStateChangeListener {
+
+    private static final Log log = LogFactory.getLog(ConsentAuditRecordWriter.class);
+
+    @Override
+    public void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException {
+
+        ArrayList<ConsentStatusAuditRecord> auditRecords = new ArrayList<>(events.size());
+        for (ConsentStateChangeEvent event : events) {
+            auditRecords.add(ConsentCoreServiceUtil.constructAuditRecord(event));
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Storing %d consent status audit records", auditRecords.size()));
+                }
+                consentCoreDAO.storeConsentStatusAuditRecords(connection, auditRecords);
+
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            } catch (ConsentDataInsertionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+}
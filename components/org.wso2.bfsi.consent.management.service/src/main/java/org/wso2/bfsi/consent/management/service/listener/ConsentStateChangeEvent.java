@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Consent state change event.
+ */
+public class ConsentStateChangeEvent {
+
+    private final String consentID;
+    private final String userID;
+    private final String newConsentStatus;
+    private final String previousConsentStatus;
+    private final String reason;
+    private final String clientID;
+    private final Map<String, Object> consentDataMap;
+    private final long timestamp;
+
+    public ConsentStateChangeEvent(String consentID, String userID, String newConsentStatus,
+                                   String previousConsentStatus, String reason, String clientID,
+                                   Map<String, Object> consentDataMap) {
+
+        this.consentID = consentID;
+        this.userID = userID;
+        this.newConsentStatus = newConsentStatus;
+        this.previousConsentStatus = previousConsentStatus;
+        this.reason = reason;
+        this.clientID = clientID;
+        this.consentDataMap = consentDataMap == null ? Collections.emptyMap() : consentDataMap;
+        // Unix time in seconds
+        this.timestamp = System.currentTimeMillis() / 1000;
+    }
+
+    public String getConsentID() {
+
+        return consentID;
+    }
+
+    public String getUserID() {
+
+        return userID;
+    }
+
+    public String getNewConsentStatus() {
+
+        return newConsentStatus;
+    }
+
+    public String getPreviousConsentStatus() {
+
+        return previousConsentStatus;
+    }
+
+    public String getReason() {
+
+        return reason;
+    }
+
+    public String getClientID() {
+
+        return clientID;
+    }
+
+    public Map<String, Object> getConsentDataMap() {
+
+        return consentDataMap;
+    }
+
+    public long getTimestamp() {
+
+        return timestamp;
+    }
+}
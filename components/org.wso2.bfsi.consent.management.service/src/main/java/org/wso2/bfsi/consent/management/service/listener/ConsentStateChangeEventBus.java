@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.util.ConsentManagementConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers consent state change events to the registered listeners.
+ *
+ * Events are staged on the thread which changes the consent and published once its transaction commits, so that the
+ * listeners never see changes which are rolled back. Published events are buffered in a bounded queue and delivered
+ * to the listeners in batches by a single background thread, keeping the listeners off the request path. The action
+ * taken when the queue is full is configurable. In the synchronous mode, the events are delivered on the publishing
+ * thread instead.
+ */
+public class ConsentStateChangeEventBus {
+
+    private static final Log log = LogFactory.getLog(ConsentStateChangeEventBus.class);
+
+    private final boolean synchronous;
+    private final int batchSize;
+    private final String backPressure;
+    private final BlockingQueue<ConsentStateChangeEvent> eventQueue;
+    private final List<ConsentStateChangeListener> listeners;
+    private final ThreadLocal<List<ConsentStateChangeEvent>> stagedEvents = ThreadLocal.withInitial(ArrayList::new);
+    private final AtomicLong droppedEventCount = new AtomicLong();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    /**
+     * Create an event bus delivering events to the given listeners.
+     *
+     * @param listeners listeners to notify, the list may be modified while the bus is running
+     */
+    public ConsentStateChangeEventBus(List<ConsentStateChangeListener> listeners) {
+
+        this(ConsentManagementConfigParser.getInstance(), listeners);
+    }
+
+    ConsentStateChangeEventBus(ConsentManagementConfigParser configParser,
+                               List<ConsentStateChangeListener> listeners) {
+
+        this.synchronous = configParser.isStateChangeEventsSynchronous();
+        this.batchSize = configParser.getStateChangeEventsBatchSize();
+        this.backPressure = configParser.getStateChangeEventsBackPressure();
+        this.eventQueue = new ArrayBlockingQueue<>(configParser.getStateChangeEventsQueueSize());
+        this.listeners = listeners;
+    }
+
+    /**
+     * Start delivering the published events in the background. Events are delivered on the publishing thread until
+     * the bus is started, and always in the synchronous mode.
+     */
+    public synchronized void start() {
+
+        if (synchronous || running) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchQueuedEvents, "consent-state-change-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Consent state change event bus started with a batch size of %d", batchSize));
+        }
+    }
+
+    /**
+     * Stop the background delivery. Queued events are given a short time to be delivered.
+     */
+    public synchronized void stop() {
+
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!eventQueue.isEmpty()) {
+            log.warn(String.format("Consent state change event bus stopped with %d undelivered events",
+                    eventQueue.size()));
+        }
+        dispatcher = null;
+        log.debug("Consent state change event bus stopped");
+    }
+
+    /**
+     * Check whether the listeners are executed on the publishing thread.
+     *
+     * @return true in the synchronous mode
+     */
+    public boolean isSynchronous() {
+
+        return synchronous;
+    }
+
+    /**
+     * Stage an event of the current thread's transaction, to be published once the transaction commits.
+     *
+     * @param event consent state change event
+     */
+    public void stage(ConsentStateChangeEvent event) {
+
+        stagedEvents.get().add(event);
+    }
+
+    /**
+     * Publish the events staged by the current thread. Called once the current thread's transaction commits.
+     */
+    public void publishStagedEvents() {
+
+        List<ConsentStateChangeEvent> events = stagedEvents.get();
+        if (events.isEmpty()) {
+            return;
+        }
+        stagedEvents.remove();
+        publish(events);
+    }
+
+    /**
+     * Discard the events staged by the current thread. Called once the current thread's transaction ends without a
+     * commit.
+     */
+    public void discardStagedEvents() {
+
+        stagedEvents.remove();
+    }
+
+    /**
+     * Publish events to the listeners.
+     *
+     * @param events consent state change events
+     */
+    public void publish(List<ConsentStateChangeEvent> events) {
+
+        if (!running) {
+            deliver(events);
+            return;
+        }
+        for (ConsentStateChangeEvent event : events) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Get the number of events discarded because the event queue was full.
+     *
+     * @return number of dropped events
+     */
+    public long getDroppedEventCount() {
+
+        return droppedEventCount.get();
+    }
+
+    private void enqueue(ConsentStateChangeEvent event) {
+
+        if (eventQueue.offer(event)) {
+            return;
+        }
+        if (ConsentManagementConstants.DROP_BACK_PRESSURE.equals(backPressure)) {
+            droppedEventCount.incrementAndGet();
+            log.warn(String.format("Consent state change event queue is full, dropping the event of consent ID: %s",
+                    event.getConsentID().replaceAll("[\r\n]", "")));
+        } else if (ConsentManagementConstants.CALLER_RUNS_BACK_PRESSURE.equals(backPressure)) {
+            deliver(Collections.singletonList(event));
+        } else {
+            try {
+                eventQueue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deliver(Collections.singletonList(event));
+            }
+        }
+    }
+
+    private void dispatchQueuedEvents() {
+
+        List<ConsentStateChangeEvent> batch = new ArrayList<>(batchSize);
+        while (running || !eventQueue.isEmpty()) {
+            try {
+                ConsentStateChangeEvent event = eventQueue.poll(1, TimeUnit.SECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                eventQueue.drainTo(batch, batchSize - 1);
+                deliver(new ArrayList<>(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // An exception escaping the loop would stop the delivery of all subsequent events
+                log.error("Unexpected error occurred while delivering consent state change events", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<ConsentStateChangeEvent> events) {
+
+        List<ConsentStateChangeEvent> unmodifiableEvents = Collections.unmodifiableList(events);
+        for (ConsentStateChangeListener listener : listeners) {
+            try {
+                listener.onStateChange(unmodifiableEvents);
+            } catch (ConsentManagementException | RuntimeException e) {
+                log.error(String.format("Error occurred while delivering %d consent state change events to %s",
+                        events.size(), listener.getClass().getName()), e);
+            }
+        }
+    }
+}
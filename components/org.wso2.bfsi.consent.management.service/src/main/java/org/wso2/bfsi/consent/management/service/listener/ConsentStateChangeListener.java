@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+
+import java.util.List;
+
+/**
+ * Listener notified of consent state changes. Implementations are registered as OSGi services.
+ */
+public interface ConsentStateChangeListener {
+
+    /**
+     * Handle a batch of consent state changes. Events are delivered once the transaction which made the changes is
+     * committed, in the order they were published.
+     *
+     * @param events consent state change events
+     * @throws ConsentManagementException thrown if the events could not be handled
+     */
+    void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException;
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.http.HttpClientHolder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Posts the consent state changes to an external endpoint, one request per batch. The request body is a JSON array
+ * holding an object per event. The events are not retried if the endpoint fails.
+ */
+public class ConsentStateChangeNotifier implements ConsentStateChangeListener {
+
+    private static final Log log = LogFactory.getLog(ConsentStateChangeNotifier.class);
+
+    private final String notificationURL;
+    private final HttpClientHolder httpClientHolder;
+
+    /**
+     * Create the notifier. The pooled HTTP client is acquired until the notifier is closed.
+     *
+     * @param notificationURL URL to which the consent state changes are posted
+     */
+    public ConsentStateChangeNotifier(String notificationURL) {
+
+        this(notificationURL, HttpClientHolder.acquire());
+    }
+
+    ConsentStateChangeNotifier(String notificationURL, HttpClientHolder httpClientHolder) {
+
+        this.notificationURL = notificationURL;
+        this.httpClientHolder = httpClientHolder;
+    }
+
+    @Override
+    public void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException {
+
+        HttpPost request = new HttpPost(notificationURL);
+        request.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+        request.setEntity(new StringEntity(constructNotificationPayload(events).toJSONString(),
+                ContentType.APPLICATION_JSON));
+
+        try (CloseableHttpResponse response = httpClientHolder.getHttpClient().execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            // Consume the response so that the connection is returned to the pool
+            EntityUtils.consume(response.getEntity());
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new ConsentManagementException(String.format("Consent state change notification endpoint " +
+                        "responded with status %d", statusCode));
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Notified %d consent state changes", events.size()));
+            }
+        } catch (IOException e) {
+            throw new ConsentManagementException("Error occurred while notifying consent state changes", e);
+        }
+    }
+
+    /**
+     * Release the pooled HTTP client.
+     */
+    public void close() {
+
+        HttpClientHolder.release();
+    }
+
+    static JSONArray constructNotificationPayload(List<ConsentStateChangeEvent> events) {
+
+        JSONArray payload = new JSONArray();
+        for (ConsentStateChangeEvent event : events) {
+            JSONObject notification = new JSONObject();
+            notification.put("consentId", event.getConsentID());
+            notification.put("clientId", event.getClientID());
+            notification.put("userId", event.getUserID());
+            notification.put("previousStatus", event.getPreviousConsentStatus());
+            notification.put("newStatus", event.getNewConsentStatus());
+            notification.put("reason", event.getReason());
+            notification.put("timestamp", event.getTimestamp());
+            payload.add(notification);
+        }
+        return payload;
+    }
+}
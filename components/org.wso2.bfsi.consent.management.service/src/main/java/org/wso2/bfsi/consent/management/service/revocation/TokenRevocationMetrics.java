@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.revocation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Metrics of the token revocations processed by this node.
+ */
+public class TokenRevocationMetrics {
+
+    private final IntSupplier queueDepthSupplier;
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong abandonedCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private volatile int pendingCount;
+    private volatile long lastLatency;
+    private volatile long maxLatency;
+
+    TokenRevocationMetrics(IntSupplier queueDepthSupplier) {
+
+        this.queueDepthSupplier = queueDepthSupplier;
+    }
+
+    /**
+     * Record a successful token revocation.
+     *
+     * @param latency duration of the revocation in milliseconds
+     */
+    synchronized void recordSuccess(long latency) {
+
+        successCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        lastLatency = latency;
+        if (latency > maxLatency) {
+            maxLatency = latency;
+        }
+    }
+
+    /**
+     * Record a failed token revocation attempt.
+     *
+     * @param abandoned whether the revocation reached the maximum number of attempts
+     */
+    void recordFailure(boolean abandoned) {
+
+        failureCount.incrementAndGet();
+        if (abandoned) {
+            abandonedCount.incrementAndGet();
+        }
+    }
+
+    void recordPendingCount(int pendingCount) {
+
+        this.pendingCount = pendingCount;
+    }
+
+    /**
+     * Get the number of token revocations waiting in memory for a revocation thread.
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+
+        return queueDepthSupplier.getAsInt();
+    }
+
+    /**
+     * Get the number of token revocations in the database which are not completed or abandoned, as of the last poll.
+     *
+     * @return number of pending token revocations
+     */
+    public int getPendingCount() {
+
+        return pendingCount;
+    }
+
+    /**
+     * Get the number of token revocations completed by this node.
+     *
+     * @return number of successful token revocations
+     */
+    public long getSuccessCount() {
+
+        return successCount.get();
+    }
+
+    /**
+     * Get the number of failed token revocation attempts of this node.
+     *
+     * @return number of failed attempts
+     */
+    public long getFailureCount() {
+
+        return failureCount.get();
+    }
+
+    /**
+     * Get the number of token revocations abandoned by this node after the maximum number of attempts.
+     *
+     * @return number of abandoned token revocations
+     */
+    public long getAbandonedCount() {
+
+        return abandonedCount.get();
+    }
+
+    /**
+     * Get the duration of the last successful token revocation in milliseconds.
+     *
+     * @return latency of the last token revocation
+     */
+    public long getLastLatency() {
+
+        return lastLatency;
+    }
+
+    /**
+     * Get the longest duration of a successful token revocation in milliseconds.
+     *
+     * @return maximum latency of a token revocation
+     */
+    public long getMaxLatency() {
+
+        return maxLatency;
+    }
+
+    /**
+     * Get the average duration of the successful token revocations in milliseconds.
+     *
+     * @return average latency, 0 if no revocation has completed yet
+     */
+    public long getAverageLatency() {
+
+        long count = successCount.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+}
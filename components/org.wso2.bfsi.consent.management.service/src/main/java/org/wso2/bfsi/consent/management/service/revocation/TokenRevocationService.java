@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.revocation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataDeletionException;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataRetrievalException;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataUpdationException;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+import org.wso2.bfsi.consent.management.service.util.TokenRevocationUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background service which revokes the tokens of revoked and expired consents outside the consent transactions.
+ *
+ * Token revocations are stored in the token revocation outbox table within the transaction which changes the consent
+ * and handed over to this service once the transaction commits. The revocations are executed on a bounded executor;
+ * revocations which do not fit in its queue stay in the outbox and are picked up by a periodic poll, which also
+ * retries the failed revocations with an exponential backoff. A revocation is claimed with a conditional update
+ * before every attempt so that it is not attempted by two nodes at the same time.
+ */
+public class TokenRevocationService {
+
+    private static final Log log = LogFactory.getLog(TokenRevocationService.class);
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final int poolSize;
+    private final int queueSize;
+    private final int maxAttempts;
+    private final long retryInterval;
+    private final long pollInterval;
+    private final int batchSize;
+    private final TokenRevocationMetrics metrics = new TokenRevocationMetrics(this::getQueueDepth);
+    private ScheduledExecutorService scheduler;
+    private volatile ThreadPoolExecutor revocationExecutor;
+
+    public TokenRevocationService() {
+
+        this(ConsentManagementConfigParser.getInstance());
+    }
+
+    TokenRevocationService(ConsentManagementConfigParser configParser) {
+
+        this.poolSize = configParser.getTokenRevocationPoolSize();
+        this.queueSize = configParser.getTokenRevocationQueueSize();
+        this.maxAttempts = configParser.getTokenRevocationMaxAttempts();
+        this.retryInterval = configParser.getTokenRevocationRetryInterval();
+        this.pollInterval = configParser.getTokenRevocationPollInterval();
+        this.batchSize = configParser.getTokenRevocationBatchSize();
+    }
+
+    /**
+     * Start the revocation threads and the periodic poll of the token revocation outbox.
+     */
+    public synchronized void start() {
+
+        if (scheduler != null) {
+            return;
+        }
+        // Revocations rejected by a full queue are left in the outbox for the next poll
+        revocationExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> createDaemonThread(runnable, "consent-token-revocation"),
+                new ThreadPoolExecutor.AbortPolicy());
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> createDaemonThread(runnable, "consent-token-revocation-poll"));
+        scheduler.scheduleWithFixedDelay(this::runScheduledPoll, pollInterval, pollInterval, TimeUnit.SECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Token revocation service started with %d threads and a poll interval of %d " +
+                    "seconds", poolSize, pollInterval));
+        }
+    }
+
+    /**
+     * Stop the token revocations. Queued revocations are given a short time to complete, the rest stay in the outbox.
+     */
+    public synchronized void stop() {
+
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        ThreadPoolExecutor executor = revocationExecutor;
+        revocationExecutor = null;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        log.debug("Token revocation service stopped");
+    }
+
+    /**
+     * Get the metrics of the token revocations of this node.
+     *
+     * @return token revocation metrics
+     */
+    public TokenRevocationMetrics getMetrics() {
+
+        return metrics;
+    }
+
+    /**
+     * Queue token revocations stored in a committed transaction for revocation. The revocations which do not fit in
+     * the queue are left in the outbox for the next poll.
+     *
+     * @param tokenRevocationRecords token revocations to queue
+     */
+    public void submit(List<TokenRevocationRecord> tokenRevocationRecords) {
+
+        for (TokenRevocationRecord tokenRevocationRecord : tokenRevocationRecords) {
+            if (!enqueue(tokenRevocationRecord)) {
+                log.debug("Token revocation queue is full, remaining revocations are left for the next poll");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queue the token revocations of the outbox which are due for an attempt, limited to the free capacity of the
+     * queue.
+     *
+     * @return number of token revocations read from the outbox
+     */
+    public int pollDueRevocations() {
+
+        ThreadPoolExecutor executor = revocationExecutor;
+        int limit = executor == null ? batchSize : Math.min(batchSize, executor.getQueue().remainingCapacity());
+        if (limit <= 0) {
+            return 0;
+        }
+
+        ArrayList<TokenRevocationRecord> dueRecords;
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            dueRecords = consentCoreDAO.getDueTokenRevocationRecords(connection, System.currentTimeMillis() / 1000,
+                    maxAttempts, limit);
+            metrics.recordPendingCount(consentCoreDAO.countPendingTokenRevocationRecords(connection, maxAttempts));
+            DatabaseUtil.commitTransaction(connection);
+        } catch (ConsentDataRetrievalException e) {
+            log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            return 0;
+        } catch (ConsentManagementException e) {
+            log.error(ConsentCoreServiceConstants.TOKEN_REVOCATION_OUTBOX_ERROR_MSG, e);
+            return 0;
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Found %d token revocations due for an attempt", dueRecords.size()));
+        }
+        submit(dueRecords);
+        return dueRecords.size();
+    }
+
+    /**
+     * Attempt a token revocation. The revocation is claimed first so that no other node attempts it at the same time,
+     * and no database connection is held while the tokens are revoked. The revocation is removed from the outbox if
+     * it succeeds and scheduled for a retry otherwise.
+     *
+     * @param tokenRevocationRecord token revocation as read from the outbox
+     * @return true if the tokens were revoked
+     */
+    boolean process(TokenRevocationRecord tokenRevocationRecord) {
+
+        String consentID = tokenRevocationRecord.getConsentID().replaceAll("[\r\n]", "");
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            if (!claim(consentCoreDAO, tokenRevocationRecord)) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Token revocation of consent ID: %s is already claimed", consentID));
+                }
+                return false;
+            }
+
+            long startTime = System.currentTimeMillis();
+            try {
+                DetailedConsentResource consent = new DetailedConsentResource();
+                consent.setConsentID(tokenRevocationRecord.getConsentID());
+                consent.setClientID(tokenRevocationRecord.getClientID());
+                TokenRevocationUtil.revokeTokens(consent, tokenRevocationRecord.getUserID());
+            } catch (IdentityOAuth2Exception | RuntimeException e) {
+                log.error(String.format("Error occurred while revoking tokens of consent ID: %s", consentID), e);
+                recordFailedAttempt(consentCoreDAO, tokenRevocationRecord, e);
+                return false;
+            }
+            metrics.recordSuccess(System.currentTimeMillis() - startTime);
+            complete(consentCoreDAO, tokenRevocationRecord);
+            return true;
+        } catch (ConsentManagementException | RuntimeException e) {
+            // The revocation stays in the outbox and is retried once its claim expires
+            log.error(ConsentCoreServiceConstants.TOKEN_REVOCATION_OUTBOX_ERROR_MSG, e);
+            return false;
+        }
+    }
+
+    private boolean enqueue(TokenRevocationRecord tokenRevocationRecord) {
+
+        ThreadPoolExecutor executor = revocationExecutor;
+        if (executor == null) {
+            return false;
+        }
+        try {
+            executor.execute(() -> process(tokenRevocationRecord));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void runScheduledPoll() {
+
+        // An exception escaping the task would cancel the subsequent runs of the scheduler
+        try {
+            pollDueRevocations();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while polling token revocations", e);
+        }
+    }
+
+    private boolean claim(ConsentCoreDAO consentCoreDAO, TokenRevocationRecord tokenRevocationRecord) {
+
+        // The revocation is due again after the retry interval if this node stops before completing the attempt
+        long claimExpiryTime = System.currentTimeMillis() / 1000 + retryInterval;
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            boolean claimed = consentCoreDAO.claimTokenRevocationRecord(connection, tokenRevocationRecord,
+                    claimExpiryTime);
+            DatabaseUtil.commitTransaction(connection);
+            return claimed;
+        } catch (ConsentDataUpdationException e) {
+            log.error(ConsentCoreServiceConstants.TOKEN_REVOCATION_OUTBOX_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            return false;
+        } finally {
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    private void complete(ConsentCoreDAO consentCoreDAO, TokenRevocationRecord tokenRevocationRecord) {
+
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            consentCoreDAO.deleteTokenRevocationRecord(connection, tokenRevocationRecord.getRevocationID());
+            DatabaseUtil.commitTransaction(connection);
+        } catch (ConsentDataDeletionException e) {
+            // Revoking the tokens again once the claim expires is harmless
+            log.error(ConsentCoreServiceConstants.TOKEN_REVOCATION_OUTBOX_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+        } finally {
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    private void recordFailedAttempt(ConsentCoreDAO consentCoreDAO, TokenRevocationRecord tokenRevocationRecord,
+                                     Exception error) {
+
+        int attemptCount = tokenRevocationRecord.getAttemptCount() + 1;
+        boolean abandoned = attemptCount >= maxAttempts;
+        long backoff = retryInterval << Math.min(attemptCount - 1, MAX_BACKOFF_SHIFT);
+        long nextAttemptTime = System.currentTimeMillis() / 1000 + backoff;
+        metrics.recordFailure(abandoned);
+        if (abandoned) {
+            log.error(String.format("Abandoning the token revocation of consent ID: %s after %d attempts",
+                    tokenRevocationRecord.getConsentID().replaceAll("[\r\n]", ""), attemptCount));
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            consentCoreDAO.updateTokenRevocationRecordAttempt(connection, tokenRevocationRecord.getRevocationID(),
+                    attemptCount, nextAttemptTime, String.valueOf(error.getMessage()));
+            DatabaseUtil.commitTransaction(connection);
+        } catch (ConsentDataUpdationException e) {
+            log.error(ConsentCoreServiceConstants.TOKEN_REVOCATION_OUTBOX_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+        } finally {
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    private int getQueueDepth() {
+
+        ThreadPoolExecutor executor = revocationExecutor;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    private static Thread createDaemonThread(Runnable runnable, String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
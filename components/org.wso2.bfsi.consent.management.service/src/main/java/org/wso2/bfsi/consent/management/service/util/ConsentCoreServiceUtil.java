@@ -39,7 +39,13 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
+import org.wso2.bfsi.consent.management.service.ConsentCoreService;
 import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.internal.ConsentManagementDataHolder;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEvent;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEventBus;
+import org.wso2.bfsi.consent.management.service.revocation.TokenRevocationService;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -153,21 +159,20 @@ public class ConsentCoreServiceUtil {
      * @param userID                            User ID
      * @param applicableExistingConsentsStatus  Applicable existing consents status
      * @param newExistingConsentStatus          New existing consent status
+     * @return the IDs of the consents whose statuses were updated
      * @throws ConsentDataRetrievalException If an error occurs when retrieving existing consents
      * @throws ConsentDataUpdationException  If an error occurs when updating existing consents
      * @throws ConsentDataInsertionException If an error occurs when inserting data
      * @throws ConsentManagementException     Consent management exception
      */
-    public static void updateExistingConsentStatusesAndRevokeAccountMappings(Connection connection,
-                                                                             ConsentCoreDAO consentCoreDAO,
-                                                                             ConsentResource consentResource,
-                                                                             String userID,
-                                                                             String applicableExistingConsentsStatus,
-                                                                             String newExistingConsentStatus)
+    public static ArrayList<String> updateExistingConsentStatusesAndRevokeAccountMappings(
+            Connection connection, ConsentCoreDAO consentCoreDAO, ConsentResource consentResource, String userID,
+            String applicableExistingConsentsStatus, String newExistingConsentStatus)
             throws ConsentDataRetrievalException, ConsentDataUpdationException, ConsentDataInsertionException,
             ConsentManagementException {
 
         ArrayList<String> accountMappingIDsList = new ArrayList<>();
+        ArrayList<String> updatedConsentIDsList = new ArrayList<>();
 
         ArrayList<String> clientIDsList = constructArrayList(consentResource.getClientID());
         ArrayList<String> userIDsList = constructArrayList(userID);
@@ -191,6 +196,7 @@ public class ConsentCoreServiceUtil {
                         + resource.getConsentID()).replaceAll("[\r\n]", ""));
             }
             consentCoreDAO.updateConsentStatus(connection, resource.getConsentID(), newExistingConsentStatus);
+            updatedConsentIDsList.add(resource.getConsentID());
 
             // Create audit record for each consent update
             if (log.isDebugEnabled()) {
@@ -218,10 +224,13 @@ public class ConsentCoreServiceUtil {
         log.debug("Deactivating account mappings");
         consentCoreDAO.updateConsentMappingStatus(connection, accountMappingIDsList,
                 ConsentCoreServiceConstants.INACTIVE_MAPPING_STATUS);
+        return updatedConsentIDsList;
     }
 
     /**
-     * Method to create an audit record in post consent state change.
+     * Method to create an audit record in post consent state change and notify the consent state change listeners
+     * once the transaction commits. In the asynchronous mode, the audit record is stored by the audit record
+     * listener.
      *
      * @param connection              Database connection
      * @param consentCoreDAO          Consent core DAO
@@ -240,11 +249,46 @@ public class ConsentCoreServiceUtil {
                                        String reason, String clientId, Map<String, Object> consentDataMap)
             throws ConsentDataInsertionException, ConsentManagementException {
 
-        createAuditRecord(connection, consentCoreDAO, consentID, userID, newConsentStatus, previousConsentStatus,
-                reason);
-        // TODO: Uncomment and test when ConsentStateChangeListenerImpl is implemented
-//        ConsentStateChangeListenerImpl.getInstance().onStateChange(consentID, userID, newConsentStatus,
-//                previousConsentStatus, reason, clientId, consentDataMap);
+        ConsentStateChangeEventBus eventBus = ConsentManagementDataHolder.getInstance().getConsentStateChangeEventBus();
+        if (eventBus == null || eventBus.isSynchronous()) {
+            createAuditRecord(connection, consentCoreDAO, consentID, userID, newConsentStatus, previousConsentStatus,
+                    reason);
+        }
+        if (eventBus != null) {
+            eventBus.stage(new ConsentStateChangeEvent(consentID, userID, newConsentStatus, previousConsentStatus,
+                    reason, clientId, consentDataMap));
+        }
+    }
+
+    /**
+     * Post a set of consent state changes of the same transaction. The audit records are stored as a batch in the
+     * transaction when the state change events are delivered synchronously, and by the audit record listener
+     * otherwise.
+     *
+     * @param connection      Database connection
+     * @param consentCoreDAO  Consent core DAO
+     * @param events          Consent state change events
+     * @throws ConsentDataInsertionException If an error occurs when storing the audit records
+     */
+    public static void postStateChanges(Connection connection, ConsentCoreDAO consentCoreDAO,
+                                        List<ConsentStateChangeEvent> events) throws ConsentDataInsertionException {
+
+        if (events.isEmpty()) {
+            return;
+        }
+        ConsentStateChangeEventBus eventBus = ConsentManagementDataHolder.getInstance().getConsentStateChangeEventBus();
+        if (eventBus == null || eventBus.isSynchronous()) {
+            ArrayList<ConsentStatusAuditRecord> auditRecords = new ArrayList<>(events.size());
+            for (ConsentStateChangeEvent event : events) {
+                auditRecords.add(constructAuditRecord(event));
+            }
+            consentCoreDAO.storeConsentStatusAuditRecords(connection, auditRecords);
+        }
+        if (eventBus != null) {
+            for (ConsentStateChangeEvent event : events) {
+                eventBus.stage(event);
+            }
+        }
     }
 
     /**
@@ -264,9 +308,8 @@ public class ConsentCoreServiceUtil {
                                          String reason) throws ConsentDataInsertionException {
 
         // Create an audit record
-        String actionBy = StringUtils.isNotEmpty(userID) ? userID : null;
-        ConsentStatusAuditRecord consentStatusAuditRecord = new ConsentStatusAuditRecord(consentID, newConsentStatus,
-                0, reason, actionBy, previousConsentStatus);
+        ConsentStatusAuditRecord consentStatusAuditRecord = constructAuditRecord(consentID, userID, newConsentStatus,
+                previousConsentStatus, reason);
 
         if (log.isDebugEnabled()) {
             log.debug(("Storing audit record for consent of ID: " +
@@ -275,6 +318,120 @@ public class ConsentCoreServiceUtil {
         consentCoreDAO.storeConsentStatusAuditRecord(connection, consentStatusAuditRecord);
     }
 
+    /**
+     * Construct an audit record for the consent status change without storing it.
+     *
+     * @param consentID              consent ID
+     * @param userID                 user ID
+     * @param newConsentStatus       new consent status
+     * @param previousConsentStatus  previous consent status
+     * @param reason                 reason for the status change
+     * @return the consent status audit record
+     */
+    public static ConsentStatusAuditRecord constructAuditRecord(String consentID, String userID,
+                                                                String newConsentStatus, String previousConsentStatus,
+                                                                String reason) {
+
+        String actionBy = StringUtils.isNotEmpty(userID) ? userID : null;
+        return new ConsentStatusAuditRecord(consentID, newConsentStatus, 0, reason, actionBy, previousConsentStatus);
+    }
+
+    /**
+     * Construct the audit record of a consent state change event. The action time is the time of the state change
+     * rather than the time the record is stored.
+     *
+     * @param event  consent state change event
+     * @return the consent status audit record
+     */
+    public static ConsentStatusAuditRecord constructAuditRecord(ConsentStateChangeEvent event) {
+
+        ConsentStatusAuditRecord auditRecord = constructAuditRecord(event.getConsentID(), event.getUserID(),
+                event.getNewConsentStatus(), event.getPreviousConsentStatus(), event.getReason());
+        auditRecord.setActionTime(event.getTimestamp());
+        return auditRecord;
+    }
+
+    /**
+     * Store the differences between the current and the previous versions of a consent as an amendment history
+     * entry.
+     *
+     * @param connection              Database connection
+     * @param consentCoreDAO          Consent core DAO
+     * @param consentID               Consent ID
+     * @param historyID               History ID
+     * @param amendedTimestamp        Amended timestamp
+     * @param amendmentReason         Amendment reason
+     * @param detailedCurrentConsent  Current consent
+     * @param detailedHistoryConsent  Previous consent
+     * @throws ConsentDataInsertionException If an error occurs when storing the amendment history
+     */
+    public static void storeConsentAmendmentHistoryData(Connection connection, ConsentCoreDAO consentCoreDAO,
+                                                        String consentID, String historyID, long amendedTimestamp,
+                                                        String amendmentReason,
+                                                        DetailedConsentResource detailedCurrentConsent,
+                                                        DetailedConsentResource detailedHistoryConsent)
+            throws ConsentDataInsertionException {
+
+        // store only the changes in basic consent data to CA history
+        JSONObject changedConsentDataJson = getChangedBasicConsentDataJSON(detailedCurrentConsent,
+                detailedHistoryConsent);
+        if (!changedConsentDataJson.isEmpty()) {
+            consentCoreDAO.storeConsentAmendmentHistory(connection, historyID, amendedTimestamp, consentID,
+                    ConsentCoreServiceConstants.TYPE_CONSENT_BASIC_DATA, String.valueOf(changedConsentDataJson),
+                    amendmentReason);
+        }
+
+        // store only the changes in consent attributes to CA history
+        JSONObject changedConsentAttributesJson = getChangedConsentAttributesDataJSON(
+                detailedCurrentConsent.getConsentAttributes(), detailedHistoryConsent.getConsentAttributes());
+        if (!changedConsentAttributesJson.isEmpty()) {
+            consentCoreDAO.storeConsentAmendmentHistory(connection, historyID, amendedTimestamp,
+                    consentID, ConsentCoreServiceConstants.TYPE_CONSENT_ATTRIBUTES_DATA,
+                    String.valueOf(changedConsentAttributesJson), amendmentReason);
+        }
+
+        // store only the changes in consent mappings to CA history
+        Map<String, JSONObject> changedConsentMappingsJsonDataMap = getChangedConsentMappingDataJSONMap(
+                detailedCurrentConsent.getConsentMappingResources(),
+                detailedHistoryConsent.getConsentMappingResources());
+        if (!changedConsentMappingsJsonDataMap.isEmpty()) {
+            consentCoreDAO.storeConsentAmendmentHistoryBatch(connection, historyID, amendedTimestamp,
+                    ConsentCoreServiceConstants.TYPE_CONSENT_MAPPING_DATA,
+                    toJsonStringMap(changedConsentMappingsJsonDataMap), amendmentReason);
+        }
+
+        // store only the changes in consent Auth Resources to CA history
+        Map<String, JSONObject> changedConsentAuthResourcesJsonDataMap = getChangedConsentAuthResourcesDataJSONMap(
+                detailedCurrentConsent.getAuthorizationResources(),
+                detailedHistoryConsent.getAuthorizationResources());
+        if (!changedConsentAuthResourcesJsonDataMap.isEmpty()) {
+            consentCoreDAO.storeConsentAmendmentHistoryBatch(connection, historyID, amendedTimestamp,
+                    ConsentCoreServiceConstants.TYPE_CONSENT_AUTH_RESOURCE_DATA,
+                    toJsonStringMap(changedConsentAuthResourcesJsonDataMap), amendmentReason);
+        }
+    }
+
+    /**
+     * Hand the token revocations stored in a committed transaction over to the token revocation service. The
+     * revocations which are not handed over, e.g. when the service is not running, are picked up from the database
+     * later.
+     *
+     * @param tokenRevocationRecords token revocations stored in the committed transaction
+     */
+    public static void dispatchTokenRevocations(List<TokenRevocationRecord> tokenRevocationRecords) {
+
+        TokenRevocationService tokenRevocationService =
+                ConsentManagementDataHolder.getInstance().getTokenRevocationService();
+        if (tokenRevocationService != null && !tokenRevocationRecords.isEmpty()) {
+            // Within a transaction scope, the revocations are handed over once the scope commits
+            if (DatabaseUtil.isInTransactionScope()) {
+                DatabaseUtil.runAfterCommit(() -> tokenRevocationService.submit(tokenRevocationRecords));
+            } else {
+                tokenRevocationService.submit(tokenRevocationRecords);
+            }
+        }
+    }
+
     /**
      * Method to validate whether the user ID in the request is equal to the user id stored in the consent database.
      *
@@ -290,6 +447,20 @@ public class ConsentCoreServiceUtil {
         return requestUserID.equals(consentUserID);
     }
 
+    /**
+     * Validate the page limit of a keyset paginated search.
+     *
+     * @param limit   Page limit
+     * @throws ConsentManagementException If the page limit is not positive or exceeds the maximum page limit
+     */
+    public static void validateSearchPageLimit(int limit) throws ConsentManagementException {
+
+        if (limit <= 0 || limit > ConsentCoreServiceConstants.MAX_SEARCH_PAGE_LIMIT) {
+            log.error(ConsentCoreServiceConstants.INVALID_PAGE_LIMIT_ERROR_MSG);
+            throw new ConsentManagementException(ConsentCoreServiceConstants.INVALID_PAGE_LIMIT_ERROR_MSG);
+        }
+    }
+
     /**
      * Construct an ArrayList with a single field.
      *
@@ -353,14 +524,17 @@ public class ConsentCoreServiceUtil {
         if (!accountsToAdd.isEmpty()) {
             // Store accounts as consent account mappings
             log.debug("Add extra accounts as account mappings");
+            ArrayList<ConsentMappingResource> consentMappingResources = new ArrayList<>();
             for (String accountID : accountsToAdd) {
                 ArrayList<String> permissions = accountIDsMapWithPermissions.get(accountID);
                 for (String permission : permissions) {
-                    ConsentMappingResource consentMappingResource = new ConsentMappingResource(
-                            authID, accountID, permission, ConsentCoreServiceConstants.ACTIVE_MAPPING_STATUS);
-                    consentCoreDAO.storeConsentMappingResource(connection, consentMappingResource);
+                    consentMappingResources.add(new ConsentMappingResource(
+                            authID, accountID, permission, ConsentCoreServiceConstants.ACTIVE_MAPPING_STATUS));
                 }
             }
+            if (!consentMappingResources.isEmpty()) {
+                consentCoreDAO.storeConsentMappingResources(connection, consentMappingResources);
+            }
         }
         if (!accountsToRevoke.isEmpty()) {
             // Update mapping statuses of revoking accounts to inactive
@@ -530,6 +704,21 @@ public class ConsentCoreServiceUtil {
         return changedConsentAuthResourcesJsonDataMap;
     }
 
+    /**
+     * Convert the changed data json map of consent amendment history records to a map of json strings.
+     *
+     * @param changedDataJsonMap map of record ID to the changed data json
+     * @return map of record ID to the changed data json string
+     */
+    public static Map<String, String> toJsonStringMap(Map<String, JSONObject> changedDataJsonMap) {
+
+        Map<String, String> changedDataJsonStringMap = new LinkedHashMap<>();
+        for (Map.Entry<String, JSONObject> changedData : changedDataJsonMap.entrySet()) {
+            changedDataJsonStringMap.put(changedData.getKey(), String.valueOf(changedData.getValue()));
+        }
+        return changedDataJsonStringMap;
+    }
+
     /**
      * Method to get the consent mapping id and consent auth resource id as a list for consent history retrieval.
      *
@@ -704,6 +893,7 @@ public class ConsentCoreServiceUtil {
             newMappingResources = (Map<String, ArrayList<ConsentMappingResource>>) additionalAmendmentData
                     .get(ConsentCoreServiceConstants.ADDITIONAL_MAPPING_RESOURCES);
 
+            ArrayList<ConsentMappingResource> mappingResourcesToStore = new ArrayList<>();
             for (Map.Entry<String, AuthorizationResource> authResourceEntry : newAuthResources.entrySet()) {
                 String userId = authResourceEntry.getKey();
                 AuthorizationResource authResource = authResourceEntry.getValue();
@@ -729,10 +919,58 @@ public class ConsentCoreServiceUtil {
                                 "cannot proceed");
                     }
                     mappingResource.setAuthorizationID(authorizationResource.getAuthorizationID());
-                    // create mapping resource
-                    consentCoreDAO.storeConsentMappingResource(connection, mappingResource);
+                    mappingResourcesToStore.add(mappingResource);
                 }
             }
+            // create mapping resources
+            if (!mappingResourcesToStore.isEmpty()) {
+                consentCoreDAO.storeConsentMappingResources(connection, mappingResourcesToStore);
+            }
+        }
+    }
+
+    /**
+     * Run a unit of work within a single transaction on the current thread. A unit of work started within another
+     * unit of work joins the enclosing transaction.
+     *
+     * @param work  unit of work calling the consent core service
+     * @param <T>   result of the unit of work
+     * @return the result of the unit of work
+     * @throws ConsentManagementException thrown if the unit of work fails, the transaction is rolled back or the
+     *                                    commit fails
+     */
+    public static <T> T runInTransaction(ConsentCoreService.UnitOfWork<T> work) throws ConsentManagementException {
+
+        if (DatabaseUtil.isInTransactionScope()) {
+            // Join the enclosing unit of work
+            return work.execute();
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+        DatabaseUtil.beginTransactionScope(connection);
+
+        try {
+            T result;
+            try {
+                result = work.execute();
+            } catch (ConsentManagementException | RuntimeException e) {
+                log.error(ConsentCoreServiceConstants.UNIT_OF_WORK_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.endTransactionScope(false);
+                throw e;
+            }
+
+            // Commit transactions, a commit rejected by the database is rolled back and thrown
+            if (!DatabaseUtil.endTransactionScope(true)) {
+                log.error(ConsentCoreServiceConstants.UNIT_OF_WORK_ROLLED_BACK_ERROR_MSG);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.UNIT_OF_WORK_ROLLED_BACK_ERROR_MSG);
+            }
+            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            return result;
+        } finally {
+            // The scope is still active only if the unit of work failed with an error
+            DatabaseUtil.endTransactionScope(false);
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
         }
     }
 }
@@ -20,18 +20,28 @@ package org.wso2.bfsi.consent.management.service.util;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
 import org.wso2.bfsi.consent.management.common.persistence.JDBCPersistenceManager;
+import org.wso2.bfsi.consent.management.service.internal.ConsentManagementDataHolder;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEventBus;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility class for database operations.
+ * <p>
+ * A transaction scope shares one connection among the consent core service calls made on a thread. While a scope is
+ * active, the connection of the scope is returned for every connection request, and the commits, rollbacks and
+ * closes of the individual calls are deferred to the end of the scope.
  */
 public class DatabaseUtil {
 
     private static final Log log = LogFactory.getLog(DatabaseUtil.class);
+    private static final ThreadLocal<TransactionScope> transactionScope = new ThreadLocal<>();
 
     /**
      * Returns an database connection for Consent Management data source.
@@ -41,16 +51,121 @@ public class DatabaseUtil {
      */
     public static Connection getDBConnection() throws ConsentManagementRuntimeException {
 
+        TransactionScope scope = transactionScope.get();
+        if (scope != null) {
+            return scope.connection;
+        }
         return JDBCPersistenceManager.getInstance().getDBConnection();
     }
 
     /**
-     * Revoke the transaction when catch then sql transaction errors.
+     * Returns a read-only, auto-commit database connection for Consent Management data source. The connection
+     * must be closed with {@link #closeReadOnlyConnection(Connection)}. Within a transaction scope, the connection
+     * of the scope is returned so that the reads see the changes of the scope.
+     *
+     * @return Database connection.
+     * @throws ConsentManagementRuntimeException Exception occurred when getting the data source.
+     */
+    public static Connection getReadOnlyDBConnection() throws ConsentManagementRuntimeException {
+
+        TransactionScope scope = transactionScope.get();
+        if (scope != null) {
+            return scope.connection;
+        }
+        return JDBCPersistenceManager.getInstance().getReadOnlyDBConnection();
+    }
+
+    /**
+     * Begin a transaction scope on the current thread with the given connection.
+     *
+     * @param dbConnection database connection shared within the scope.
+     */
+    public static void beginTransactionScope(Connection dbConnection) {
+
+        if (transactionScope.get() != null) {
+            throw new IllegalStateException("A transaction scope is already active on the current thread");
+        }
+        transactionScope.set(new TransactionScope(dbConnection));
+    }
+
+    /**
+     * Check whether a transaction scope is active on the current thread.
+     *
+     * @return true if a transaction scope is active.
+     */
+    public static boolean isInTransactionScope() {
+
+        return transactionScope.get() != null;
+    }
+
+    /**
+     * End the transaction scope of the current thread. The transaction is committed if requested and no call
+     * within the scope rolled back, otherwise it is rolled back. The actions to run after the commit and the staged
+     * consent state change events are only run once the commit succeeds. The connection is not closed.
+     *
+     * @param commit whether to commit the transaction.
+     * @return true if the transaction was committed.
+     * @throws ConsentManagementException if the database failed to commit the transaction, which is rolled back.
+     */
+    public static boolean endTransactionScope(boolean commit) throws ConsentManagementException {
+
+        TransactionScope scope = transactionScope.get();
+        if (scope == null) {
+            return false;
+        }
+        transactionScope.remove();
+        if (!commit || scope.isRollbackOnly) {
+            rollbackTransaction(scope.connection);
+            return false;
+        }
+        try {
+            scope.connection.commit();
+        } catch (SQLException e) {
+            log.error("An error occurred while committing the transaction scope. ", e);
+            rollbackTransaction(scope.connection);
+            throw new ConsentManagementException("An error occurred while committing the transaction scope", e);
+        }
+        publishStagedStateChangeEvents();
+        for (Runnable action : scope.afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("An error occurred while running an action after the transaction committed. ", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run an action once the transaction of the current transaction scope commits. The action is run right away if
+     * no transaction scope is active, and discarded if the transaction rolls back.
+     *
+     * @param action action to run.
+     */
+    public static void runAfterCommit(Runnable action) {
+
+        TransactionScope scope = transactionScope.get();
+        if (scope == null) {
+            action.run();
+        } else {
+            scope.afterCommitActions.add(action);
+        }
+    }
+
+    /**
+     * Revoke the transaction when catch then sql transaction errors. Consent state change events staged in the
+     * transaction are discarded.
      *
      * @param dbConnection database connection.
      */
     public static void rollbackTransaction(Connection dbConnection) {
 
+        if (isScopeConnection(dbConnection)) {
+            // The whole scope is rolled back when it ends
+            transactionScope.get().isRollbackOnly = true;
+            return;
+        }
+        discardStagedStateChangeEvents();
         try {
             if (dbConnection != null) {
                 dbConnection.rollback();
@@ -61,15 +176,19 @@ public class DatabaseUtil {
     }
 
     /**
-     * Commit the transaction.
+     * Commit the transaction. Consent state change events staged in the transaction are published once it commits.
      *
      * @param dbConnection database connection.
      */
     public static void commitTransaction(Connection dbConnection) {
 
+        if (isScopeConnection(dbConnection)) {
+            return;
+        }
         try {
             if (dbConnection != null) {
                 dbConnection.commit();
+                publishStagedStateChangeEvents();
             }
         } catch (SQLException e) {
             log.error("An error occurred while commit transactions. ", e);
@@ -78,6 +197,11 @@ public class DatabaseUtil {
 
     public static void closeConnection(Connection dbConnection) {
 
+        if (isScopeConnection(dbConnection)) {
+            return;
+        }
+        // Events still staged at this point belong to a transaction which was never committed
+        discardStagedStateChangeEvents();
         if (dbConnection != null) {
             try {
                 dbConnection.close();
@@ -87,4 +211,66 @@ public class DatabaseUtil {
             }
         }
     }
+
+    /**
+     * Close a connection returned by {@link #getReadOnlyDBConnection()}. The connection is returned to the pool as a
+     * read-write connection.
+     *
+     * @param dbConnection database connection.
+     */
+    public static void closeReadOnlyConnection(Connection dbConnection) {
+
+        if (dbConnection == null || isScopeConnection(dbConnection)) {
+            return;
+        }
+        // No transaction is staged on a read-only connection, hence the staged events are left untouched
+        try {
+            dbConnection.setReadOnly(false);
+        } catch (SQLException e) {
+            log.error("An error occurred while resetting the read-only connection. ", e);
+        }
+        try {
+            dbConnection.close();
+        } catch (SQLException e) {
+            log.error(String.format("Database error. Could not close read-only connection. - %s",
+                    e.getMessage().replaceAll("[\r\n]", "")), e);
+        }
+    }
+
+    private static boolean isScopeConnection(Connection dbConnection) {
+
+        TransactionScope scope = transactionScope.get();
+        return scope != null && scope.connection == dbConnection;
+    }
+
+    private static void publishStagedStateChangeEvents() {
+
+        ConsentStateChangeEventBus eventBus = ConsentManagementDataHolder.getInstance().getConsentStateChangeEventBus();
+        if (eventBus != null) {
+            eventBus.publishStagedEvents();
+        }
+    }
+
+    private static void discardStagedStateChangeEvents() {
+
+        ConsentStateChangeEventBus eventBus = ConsentManagementDataHolder.getInstance().getConsentStateChangeEventBus();
+        if (eventBus != null) {
+            eventBus.discardStagedEvents();
+        }
+    }
+
+    /**
+     * Connection and state of a transaction scope.
+     */
+    private static class TransactionScope {
+
+        private final Connection connection;
+        private final List<Runnable> afterCommitActions = new ArrayList<>();
+        private boolean isRollbackOnly;
+
+        private TransactionScope(Connection connection) {
+
+            this.connection = connection;
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.cache;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.CacheBuilder;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.Status;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Test for the detailed consent cache.
+ */
+public class DetailedConsentCacheTests {
+
+    private MockedStatic<Caching> cachingMockedStatic;
+    private MockedStatic<ConsentManagementConfigParser> configParserMockedStatic;
+    private DetailedConsentCache detailedConsentCache;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+
+        Map<DetailedConsentCacheKey, DetailedConsentResource> cacheEntries = new ConcurrentHashMap<>();
+        Cache<DetailedConsentCacheKey, DetailedConsentResource> cacheMock = mock(Cache.class);
+        doReturn(Status.STARTED).when(cacheMock).getStatus();
+        doAnswer(invocation -> cacheEntries.get(invocation.getArgument(0))).when(cacheMock).get(any());
+        doAnswer(invocation -> cacheEntries.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(cacheMock).put(any(), any());
+
+        CacheBuilder<DetailedConsentCacheKey, DetailedConsentResource> cacheBuilderMock =
+                mock(CacheBuilder.class, Mockito.RETURNS_SELF);
+        doReturn(cacheMock).when(cacheBuilderMock).build();
+        CacheManager cacheManagerMock = mock(CacheManager.class);
+        doReturn(new ArrayList<Cache<?, ?>>()).when(cacheManagerMock).getCaches();
+        doReturn(cacheBuilderMock).when(cacheManagerMock).createCacheBuilder(anyString());
+        cachingMockedStatic = mockStatic(Caching.class);
+        cachingMockedStatic.when(() -> Caching.getCacheManager(anyString())).thenReturn(cacheManagerMock);
+
+        ConsentManagementConfigParser configParserMock = mock(ConsentManagementConfigParser.class);
+        doReturn(60).when(configParserMock).getDetailedConsentCacheAccessExpiry();
+        doReturn(60).when(configParserMock).getDetailedConsentCacheModifiedExpiry();
+        configParserMockedStatic = mockStatic(ConsentManagementConfigParser.class);
+        configParserMockedStatic.when(ConsentManagementConfigParser::getInstance).thenReturn(configParserMock);
+
+        detailedConsentCache = new DetailedConsentCache();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        cachingMockedStatic.close();
+        configParserMockedStatic.close();
+    }
+
+    @Test
+    public void testCachedReadsShareParsedReceipt() throws Exception {
+
+        AtomicInteger retrievals = new AtomicInteger();
+        DetailedConsentCache.OnDemandRetriever retriever = () -> {
+            retrievals.incrementAndGet();
+            return ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+        };
+
+        DetailedConsentResource firstRead = detailedConsentCache.getDetailedConsent(
+                ConsentMgtServiceTestData.CONSENT_ID, retriever);
+        DetailedConsentResource secondRead = detailedConsentCache.getDetailedConsent(
+                ConsentMgtServiceTestData.CONSENT_ID, retriever);
+
+        // Each read is a copy of the cached consent, sharing the receipt parsed before the consent was cached
+        Assert.assertEquals(retrievals.get(), 1);
+        Assert.assertNotSame(firstRead, secondRead);
+        Assert.assertTrue(firstRead.getParsedReceipt().isValid());
+        Assert.assertSame(secondRead.getParsedReceipt(), firstRead.getParsedReceipt());
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.expiry;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.constants.ConsentMgtDAOConstants;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataUpdationException;
+import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.cache.DetailedConsentCache;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for the scheduled consent expiry service.
+ */
+public class ConsentExpiryServiceTests {
+
+    private static final String EXPIRED_CONSENT_ID = "1111";
+    private static final String ACTIVE_CONSENT_ID = "2222";
+    private ConsentExpiryService consentExpiryService;
+    private ConsentCoreDAO mockedConsentCoreDAO;
+    private Connection connectionMock;
+    MockedStatic<DatabaseUtil> databaseUtilMockedStatic;
+    MockedStatic<ConsentStoreInitializer> consentStoreInitializerMockedStatic;
+    MockedStatic<DetailedConsentCache> detailedConsentCacheMockedStatic;
+
+    @BeforeClass
+    public void initTest() {
+
+        connectionMock = Mockito.mock(Connection.class);
+
+        ConsentManagementConfigParser configParserMock = Mockito.mock(ConsentManagementConfigParser.class);
+        doReturn(2).when(configParserMock).getConsentExpiryBatchSize();
+        doReturn(ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS).when(configParserMock)
+                .getConsentExpiryEligibleStatuses();
+        doReturn("Expired").when(configParserMock).getConsentExpiryExpiredStatus();
+        doReturn(true).when(configParserMock).isConsentExpiryTokenRevocationEnabled();
+        doReturn(300L).when(configParserMock).getConsentExpiryLeaseDuration();
+        consentExpiryService = new ConsentExpiryService(configParserMock);
+
+        databaseUtilMockedStatic = mockStatic(DatabaseUtil.class);
+        databaseUtilMockedStatic.when(DatabaseUtil::getDBConnection).thenReturn(connectionMock);
+        consentStoreInitializerMockedStatic = mockStatic(ConsentStoreInitializer.class);
+        detailedConsentCacheMockedStatic = mockStatic(DetailedConsentCache.class);
+    }
+
+    @BeforeMethod
+    public void initDAO() throws Exception {
+
+        mockedConsentCoreDAO = Mockito.mock(ConsentCoreDAO.class);
+        consentStoreInitializerMockedStatic.when(ConsentStoreInitializer::getInitializedConsentCoreDAOImpl)
+                .thenReturn(mockedConsentCoreDAO);
+        doReturn(true).when(mockedConsentCoreDAO).acquireConsentLease(any(), anyString(), anyString(), anyLong());
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        databaseUtilMockedStatic.close();
+        consentStoreInitializerMockedStatic.close();
+        detailedConsentCacheMockedStatic.close();
+    }
+
+    @Test
+    public void testRunExpiryCheck() throws Exception {
+
+        ArrayList<DetailedConsentResource> candidates = new ArrayList<>(List.of(
+                getSampleConsent(EXPIRED_CONSENT_ID, "1632918113"),
+                getSampleConsent(ACTIVE_CONSENT_ID, "2999-01-01T00:00:00+00:00")));
+        doReturn(candidates).when(mockedConsentCoreDAO).getExpiringConsents(any(), anyString(), anyLong(), any(),
+                anyInt());
+        doReturn(new ArrayList<>()).when(mockedConsentCoreDAO).getExpiringConsents(any(), anyString(),
+                anyLong(), eq(ACTIVE_CONSENT_ID), anyInt());
+        doReturn(new ArrayList<>(List.of(EXPIRED_CONSENT_ID))).when(mockedConsentCoreDAO)
+                .updateConsentStatuses(any(), any(), anyString());
+
+        long previousTotal = consentExpiryService.getMetrics().getTotalExpiredCount();
+        int expiredCount = consentExpiryService.runExpiryCheck();
+
+        Assert.assertEquals(expiredCount, 1);
+        Assert.assertEquals(consentExpiryService.getMetrics().getLastRunExpiredCount(), 1);
+        Assert.assertEquals(consentExpiryService.getMetrics().getTotalExpiredCount(), previousTotal + 1);
+        verify(mockedConsentCoreDAO, times(2)).getExpiringConsents(any(), anyString(), anyLong(), any(),
+                anyInt());
+        verify(mockedConsentCoreDAO).storeConsentStatusAuditRecords(any(), any());
+        verify(mockedConsentCoreDAO).updateConsentMappingStatus(any(), any(),
+                eq(ConsentCoreServiceConstants.INACTIVE_MAPPING_STATUS));
+        verify(mockedConsentCoreDAO).releaseConsentLease(any(), anyString(), anyString());
+        // Tokens are revoked after the commit, only the revocation is stored in the expiry transaction
+        verify(mockedConsentCoreDAO).storeTokenRevocationRecords(any(), argThat(records -> records.size() == 1
+                && EXPIRED_CONSENT_ID.equals(records.get(0).getConsentID())
+                && ConsentMgtServiceTestData.SAMPLE_USER_ID.equals(records.get(0).getUserID())));
+    }
+
+    @Test
+    public void testRunExpiryCheckWithoutExpiredConsents() throws Exception {
+
+        ArrayList<DetailedConsentResource> candidates = new ArrayList<>(List.of(
+                getSampleConsent(ACTIVE_CONSENT_ID, "2999-01-01T00:00:00+00:00")));
+        doReturn(candidates).when(mockedConsentCoreDAO).getExpiringConsents(any(), anyString(), anyLong(), any(),
+                anyInt());
+
+        Assert.assertEquals(consentExpiryService.runExpiryCheck(), 0);
+        verify(mockedConsentCoreDAO, never()).updateConsentStatuses(any(), any(), anyString());
+    }
+
+    @Test
+    public void testRunExpiryCheckWithoutLease() throws Exception {
+
+        doReturn(false).when(mockedConsentCoreDAO).acquireConsentLease(any(), anyString(), anyString(), anyLong());
+
+        Assert.assertEquals(consentExpiryService.runExpiryCheck(), 0);
+        verify(mockedConsentCoreDAO, never()).getExpiringConsents(any(), anyString(), anyLong(), any(),
+                anyInt());
+        verify(mockedConsentCoreDAO, never()).releaseConsentLease(any(), anyString(), anyString());
+    }
+
+    @Test
+    public void testRunExpiryCheckUpdateError() throws Exception {
+
+        ArrayList<DetailedConsentResource> candidates = new ArrayList<>(List.of(
+                getSampleConsent(EXPIRED_CONSENT_ID, "1632918113")));
+        doReturn(candidates).when(mockedConsentCoreDAO).getExpiringConsents(any(), anyString(), anyLong(), any(),
+                anyInt());
+        doThrow(ConsentDataUpdationException.class).when(mockedConsentCoreDAO)
+                .updateConsentStatuses(any(), any(), anyString());
+
+        Assert.assertEquals(consentExpiryService.runExpiryCheck(), 0);
+        verify(mockedConsentCoreDAO, never()).storeConsentStatusAuditRecords(any(), any());
+        verify(mockedConsentCoreDAO, never()).storeTokenRevocationRecords(any(), any());
+        verify(mockedConsentCoreDAO).releaseConsentLease(any(), anyString(), anyString());
+    }
+
+    @Test
+    public void testIsExpired() {
+
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        Assert.assertTrue(ConsentExpiryService.isExpired(getSampleConsent(EXPIRED_CONSENT_ID,
+                String.valueOf(currentTime - 1)), currentTime));
+        Assert.assertTrue(ConsentExpiryService.isExpired(getSampleConsent(EXPIRED_CONSENT_ID,
+                "2021-09-29T12:21:53+05:30"), currentTime));
+        Assert.assertFalse(ConsentExpiryService.isExpired(getSampleConsent(ACTIVE_CONSENT_ID,
+                String.valueOf(currentTime + 60)), currentTime));
+        Assert.assertFalse(ConsentExpiryService.isExpired(getSampleConsent(ACTIVE_CONSENT_ID,
+                "invalid"), currentTime));
+    }
+
+    private DetailedConsentResource getSampleConsent(String consentID, String expirationTime) {
+
+        DetailedConsentResource consent = ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+        consent.setConsentID(consentID);
+        Map<String, String> consentAttributes = new HashMap<>();
+        consentAttributes.put(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE, expirationTime);
+        consent.setConsentAttributes(consentAttributes);
+        return consent;
+    }
+}
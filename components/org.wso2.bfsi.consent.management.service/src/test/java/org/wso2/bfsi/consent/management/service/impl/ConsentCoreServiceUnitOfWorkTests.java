@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.impl;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.persistence.JDBCPersistenceManager;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.exceptions.ConsentDataInsertionException;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.internal.ConsentManagementDataHolder;
+import org.wso2.bfsi.consent.management.service.listener.ConsentStateChangeEventBus;
+import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for the unit of work of the consent core service.
+ */
+public class ConsentCoreServiceUnitOfWorkTests {
+
+    private ConsentCoreServiceImpl consentCoreServiceImpl;
+    private JDBCPersistenceManager persistenceManagerMock;
+    private ConsentCoreDAO mockedConsentCoreDAO;
+    private Connection connectionMock;
+    private Connection readOnlyConnectionMock;
+    private ConsentManagementDataHolder dataHolderMock;
+    MockedStatic<JDBCPersistenceManager> persistenceManagerMockedStatic;
+    MockedStatic<ConsentStoreInitializer> consentStoreInitializerMockedStatic;
+    MockedStatic<ConsentManagementDataHolder> consentManagementDataHolderMockedStatic;
+
+    @BeforeClass
+    public void initTest() {
+
+        consentCoreServiceImpl = new ConsentCoreServiceImpl();
+        persistenceManagerMock = Mockito.mock(JDBCPersistenceManager.class);
+
+        persistenceManagerMockedStatic = mockStatic(JDBCPersistenceManager.class);
+        persistenceManagerMockedStatic.when(JDBCPersistenceManager::getInstance).thenReturn(persistenceManagerMock);
+        consentStoreInitializerMockedStatic = mockStatic(ConsentStoreInitializer.class);
+        consentManagementDataHolderMockedStatic = mockStatic(ConsentManagementDataHolder.class);
+        dataHolderMock = Mockito.mock(ConsentManagementDataHolder.class);
+        consentManagementDataHolderMockedStatic.when(ConsentManagementDataHolder::getInstance)
+                .thenReturn(dataHolderMock);
+    }
+
+    @BeforeMethod
+    public void initConnections() {
+
+        connectionMock = Mockito.mock(Connection.class);
+        readOnlyConnectionMock = Mockito.mock(Connection.class);
+        doReturn(connectionMock).when(persistenceManagerMock).getDBConnection();
+        doReturn(readOnlyConnectionMock).when(persistenceManagerMock).getReadOnlyDBConnection();
+
+        mockedConsentCoreDAO = Mockito.mock(ConsentCoreDAO.class);
+        consentStoreInitializerMockedStatic.when(ConsentStoreInitializer::getInitializedConsentCoreDAOImpl)
+                .thenReturn(mockedConsentCoreDAO);
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        persistenceManagerMockedStatic.close();
+        consentStoreInitializerMockedStatic.close();
+        consentManagementDataHolderMockedStatic.close();
+    }
+
+    @Test
+    public void testInTransactionSharesConnection() throws Exception {
+
+        doReturn(getSampleIdempotencyKeyRecord()).when(mockedConsentCoreDAO)
+                .storeIdempotencyKeyRecord(any(), any());
+        doReturn(getSampleIdempotencyKeyRecord()).when(mockedConsentCoreDAO)
+                .getIdempotencyKeyRecord(any(), anyString(), anyString());
+
+        IdempotencyKeyRecord idempotencyKeyRecord = consentCoreServiceImpl.inTransaction(() -> {
+            consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord());
+            consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord());
+            return consentCoreServiceImpl.getIdempotencyKey(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "key");
+        });
+
+        Assert.assertNotNull(idempotencyKeyRecord);
+        Assert.assertFalse(DatabaseUtil.isInTransactionScope());
+        verify(persistenceManagerMock, times(1)).getDBConnection();
+        verify(persistenceManagerMock, never()).getReadOnlyDBConnection();
+        verify(mockedConsentCoreDAO, times(2)).storeIdempotencyKeyRecord(eq(connectionMock), any());
+        verify(mockedConsentCoreDAO).getIdempotencyKeyRecord(eq(connectionMock), anyString(), anyString());
+        verify(connectionMock, times(1)).commit();
+        verify(connectionMock, never()).rollback();
+        verify(connectionMock, times(1)).close();
+    }
+
+    @Test
+    public void testInTransactionRollsBackOnError() throws Exception {
+
+        doReturn(getSampleIdempotencyKeyRecord()).doThrow(ConsentDataInsertionException.class)
+                .when(mockedConsentCoreDAO).storeIdempotencyKeyRecord(any(), any());
+
+        try {
+            consentCoreServiceImpl.inTransaction(() -> {
+                consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord());
+                return consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord());
+            });
+            Assert.fail("The unit of work should fail");
+        } catch (ConsentManagementException e) {
+            Assert.assertFalse(DatabaseUtil.isInTransactionScope());
+        }
+
+        verify(connectionMock, never()).commit();
+        verify(connectionMock, times(1)).rollback();
+        verify(connectionMock, times(1)).close();
+    }
+
+    @Test
+    public void testInTransactionRollsBackWhenInnerCallRolledBack() throws Exception {
+
+        doThrow(ConsentDataInsertionException.class).when(mockedConsentCoreDAO)
+                .storeIdempotencyKeyRecord(any(), any());
+
+        try {
+            consentCoreServiceImpl.inTransaction(() -> {
+                try {
+                    consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord());
+                } catch (ConsentManagementException e) {
+                    // Swallow the error of the inner call
+                }
+                return null;
+            });
+            Assert.fail("The unit of work should be rolled back");
+        } catch (ConsentManagementException e) {
+            Assert.assertFalse(DatabaseUtil.isInTransactionScope());
+        }
+
+        verify(connectionMock, never()).commit();
+        verify(connectionMock, times(1)).rollback();
+        verify(connectionMock, times(1)).close();
+    }
+
+    @Test
+    public void testInTransactionJoinsEnclosingUnitOfWork() throws Exception {
+
+        doReturn(getSampleIdempotencyKeyRecord()).when(mockedConsentCoreDAO)
+                .storeIdempotencyKeyRecord(any(), any());
+
+        consentCoreServiceImpl.inTransaction(() -> consentCoreServiceImpl.inTransaction(
+                () -> consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord())));
+
+        verify(persistenceManagerMock, times(1)).getDBConnection();
+        verify(connectionMock, times(1)).commit();
+        verify(connectionMock, times(1)).close();
+    }
+
+    @Test
+    public void testRunAfterCommit() throws Exception {
+
+        AtomicBoolean isRun = new AtomicBoolean(false);
+
+        consentCoreServiceImpl.inTransaction(() -> {
+            DatabaseUtil.runAfterCommit(() -> isRun.set(true));
+            Assert.assertFalse(isRun.get());
+            return null;
+        });
+        Assert.assertTrue(isRun.get());
+
+        isRun.set(false);
+        try {
+            consentCoreServiceImpl.inTransaction(() -> {
+                DatabaseUtil.runAfterCommit(() -> isRun.set(true));
+                throw new ConsentManagementException("Unit of work failed");
+            });
+        } catch (ConsentManagementException e) {
+            Assert.assertFalse(isRun.get());
+        }
+    }
+
+    @Test
+    public void testInTransactionFailsWhenCommitFails() throws Exception {
+
+        ConsentStateChangeEventBus eventBusMock = Mockito.mock(ConsentStateChangeEventBus.class);
+        doReturn(eventBusMock).when(dataHolderMock).getConsentStateChangeEventBus();
+        doThrow(SQLException.class).when(connectionMock).commit();
+        AtomicBoolean isRun = new AtomicBoolean(false);
+
+        try {
+            consentCoreServiceImpl.inTransaction(() -> {
+                DatabaseUtil.runAfterCommit(() -> isRun.set(true));
+                return consentCoreServiceImpl.storeIdempotencyKey(getSampleIdempotencyKeyRecord());
+            });
+            Assert.fail("The unit of work should fail when the commit fails");
+        } catch (ConsentManagementException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+            Assert.assertFalse(DatabaseUtil.isInTransactionScope());
+        } finally {
+            doReturn(null).when(dataHolderMock).getConsentStateChangeEventBus();
+        }
+
+        // The rejected transaction is rolled back without running its after commit actions or publishing its events
+        Assert.assertFalse(isRun.get());
+        verify(connectionMock, times(1)).rollback();
+        verify(connectionMock, times(1)).close();
+        verify(eventBusMock, never()).publishStagedEvents();
+        verify(eventBusMock, atLeastOnce()).discardStagedEvents();
+    }
+
+    @Test
+    public void testReadOutsideUnitOfWorkUsesReadOnlyConnection() throws Exception {
+
+        doReturn(getSampleIdempotencyKeyRecord()).when(mockedConsentCoreDAO)
+                .getIdempotencyKeyRecord(any(), anyString(), anyString());
+
+        consentCoreServiceImpl.getIdempotencyKey(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "key");
+
+        verify(persistenceManagerMock, never()).getDBConnection();
+        verify(mockedConsentCoreDAO).getIdempotencyKeyRecord(eq(readOnlyConnectionMock), anyString(), anyString());
+        verify(readOnlyConnectionMock, never()).commit();
+        verify(readOnlyConnectionMock).setReadOnly(false);
+        verify(readOnlyConnectionMock).close();
+    }
+
+    private static IdempotencyKeyRecord getSampleIdempotencyKeyRecord() {
+
+        return new IdempotencyKeyRecord(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "key",
+                UUID.randomUUID().toString(), "hash");
+    }
+}
@@ -38,9 +38,13 @@ import org.wso2.bfsi.consent.management.dao.models.ConsentFile;
 import org.wso2.bfsi.consent.management.dao.models.ConsentHistoryResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentMappingResource;
 import org.wso2.bfsi.consent.management.dao.models.ConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchCursor;
+import org.wso2.bfsi.consent.management.dao.models.ConsentSearchPage;
 import org.wso2.bfsi.consent.management.dao.models.ConsentStatusAuditRecord;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
+import org.wso2.bfsi.consent.management.dao.models.IdempotencyKeyRecord;
 import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.cache.DetailedConsentCache;
 import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
 import org.wso2.bfsi.consent.management.service.internal.ConsentManagementDataHolder;
 import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
@@ -52,9 +56,11 @@ import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -86,6 +92,7 @@ public class ConsentMgtCoreServiceTests {
     MockedStatic<ConsentStoreInitializer> consentStoreInitializerMockedStatic;
     MockedStatic<ConsentManagementDataHolder> consentManagementDataHolderMockedStatic;
     MockedStatic<TokenRevocationUtil> tokenRevocationUtilMockedStatic;
+    MockedStatic<DetailedConsentCache> detailedConsentCacheMockedStatic;
 
     @BeforeClass
     public void initTest() {
@@ -108,6 +115,7 @@ public class ConsentMgtCoreServiceTests {
 
         databaseUtilMockedStatic = mockStatic(DatabaseUtil.class);
         databaseUtilMockedStatic.when(DatabaseUtil::getDBConnection).thenReturn(connectionMock);
+        databaseUtilMockedStatic.when(DatabaseUtil::getReadOnlyDBConnection).thenReturn(connectionMock);
 
         consentStoreInitializerMockedStatic = mockStatic(ConsentStoreInitializer.class);
         consentStoreInitializerMockedStatic.when(ConsentStoreInitializer::getInitializedConsentCoreDAOImpl)
@@ -124,6 +132,9 @@ public class ConsentMgtCoreServiceTests {
                 .thenReturn(new HashSet<AccessTokenDO>());
         tokenRevocationUtilMockedStatic.when(() -> TokenRevocationUtil.revokeTokenByClient(any(), any()))
                 .thenReturn(new OAuthRevocationResponseDTO());
+
+        detailedConsentCacheMockedStatic = mockStatic(DetailedConsentCache.class);
+        detailedConsentCacheMockedStatic.when(DetailedConsentCache::isDetailedConsentCacheEnabled).thenReturn(false);
     }
 
     @AfterClass
@@ -133,6 +144,7 @@ public class ConsentMgtCoreServiceTests {
         consentStoreInitializerMockedStatic.close();
         consentManagementDataHolderMockedStatic.close();
         tokenRevocationUtilMockedStatic.close();
+        detailedConsentCacheMockedStatic.close();
     }
 
     @Test(priority = 2)
@@ -586,6 +598,44 @@ public class ConsentMgtCoreServiceTests {
                 .getSampleStoredConsentResource().getConsentID());
     }
 
+    @Test
+    public void testGetDetailedConsentFromCache() throws Exception {
+
+        DetailedConsentCache detailedConsentCacheMock = Mockito.mock(DetailedConsentCache.class);
+        doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
+                .when(detailedConsentCacheMock).getDetailedConsent(anyString(), any());
+        detailedConsentCacheMockedStatic.when(DetailedConsentCache::isDetailedConsentCacheEnabled).thenReturn(true);
+        detailedConsentCacheMockedStatic.when(DetailedConsentCache::getInstance).thenReturn(detailedConsentCacheMock);
+
+        try {
+            DetailedConsentResource retrievedConsentResource = consentCoreServiceImpl
+                    .getDetailedConsent(ConsentMgtServiceTestData.CONSENT_ID);
+
+            Assert.assertNotNull(retrievedConsentResource);
+            Mockito.verify(detailedConsentCacheMock).getDetailedConsent(anyString(), any());
+        } finally {
+            detailedConsentCacheMockedStatic.when(DetailedConsentCache::isDetailedConsentCacheEnabled)
+                    .thenReturn(false);
+        }
+    }
+
+    @Test
+    public void testUpdateConsentStatusEvictsDetailedConsentCache() throws Exception {
+
+        doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
+                .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
+        doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(), anyString());
+        doReturn(ConsentMgtServiceTestData.getSampleTestConsentStatusAuditRecord(sampleID,
+                ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS)).when(mockedConsentCoreDAO)
+                .storeConsentStatusAuditRecord(any(), any(ConsentStatusAuditRecord.class));
+
+        consentCoreServiceImpl.updateConsentStatus(ConsentMgtServiceTestData.CONSENT_ID,
+                ConsentMgtServiceTestData.SAMPLE_CONSUMED_STATUS);
+
+        detailedConsentCacheMockedStatic.verify(() -> DetailedConsentCache
+                .removeDetailedConsentFromCache(ConsentMgtServiceTestData.CONSENT_ID));
+    }
+
     @Test
     public void testCreateConsentFile() throws Exception {
 
@@ -986,10 +1036,9 @@ public class ConsentMgtCoreServiceTests {
                 anyString());
         doNothing().when(mockedConsentCoreDAO).updateAuthorizationStatus(any(), anyString(),
                 anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
                 anyString());
         doReturn(ConsentMgtServiceTestData
@@ -1013,10 +1062,9 @@ public class ConsentMgtCoreServiceTests {
                 anyString());
         doNothing().when(mockedConsentCoreDAO).updateAuthorizationStatus(any(), anyString(),
                 anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
                 anyString());
         doReturn(ConsentMgtServiceTestData
@@ -1222,13 +1270,18 @@ public class ConsentMgtCoreServiceTests {
         ConsentMappingResource storedConsentMappingResource =
                 ConsentMgtServiceTestData.getSampleStoredTestConsentMappingResource(sampleID);
 
-        doReturn(storedConsentMappingResource).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(any(), any());
+        doReturn(storedAuthorizationResource).when(mockedConsentCoreDAO).getAuthorizationResource(any(),
+                anyString());
+        doReturn(new ArrayList<>(Collections.singletonList(storedConsentMappingResource))).when(mockedConsentCoreDAO)
+                .storeConsentMappingResources(any(), any());
 
         ArrayList<ConsentMappingResource> storedConsentMappingResources =
                 consentCoreServiceImpl.createConsentAccountMappings(storedAuthorizationResource.getAuthorizationID(),
                         ConsentMgtServiceTestData.SAMPLE_ACCOUNT_IDS_AND_PERMISSIONS_MAP);
 
+        detailedConsentCacheMockedStatic.verify(() -> DetailedConsentCache
+                .removeDetailedConsentFromCache(storedAuthorizationResource.getConsentID()));
+
         Assert.assertNotNull(storedConsentMappingResources);
         for (ConsentMappingResource resource : storedConsentMappingResources) {
             Assert.assertNotNull(resource.getAccountID());
@@ -1244,8 +1297,10 @@ public class ConsentMgtCoreServiceTests {
         AuthorizationResource storedAuthorizationResource =
                 ConsentMgtServiceTestData.getSampleStoredTestAuthorizationResource();
 
+        doReturn(storedAuthorizationResource).when(mockedConsentCoreDAO).getAuthorizationResource(any(),
+                anyString());
         doThrow(ConsentDataInsertionException.class).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(any(), any());
+                .storeConsentMappingResources(any(), any());
 
         consentCoreServiceImpl.createConsentAccountMappings(storedAuthorizationResource.getAuthorizationID(),
                 ConsentMgtServiceTestData.SAMPLE_ACCOUNT_IDS_AND_PERMISSIONS_MAP);
@@ -1267,10 +1322,15 @@ public class ConsentMgtCoreServiceTests {
     @Test
     public void testDeactivateAccountMappings() throws Exception {
 
+        Set<String> consentIDs = Collections.singleton(sampleID);
+        doReturn(consentIDs).when(mockedConsentCoreDAO).getConsentIDsByMappingIDs(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), any());
         Assert.assertTrue(consentCoreServiceImpl
                 .deactivateAccountMappings(ConsentMgtServiceTestData.UNMATCHED_MAPPING_IDS));
+
+        detailedConsentCacheMockedStatic.verify(() -> DetailedConsentCache
+                .removeDetailedConsentsFromCache(consentIDs));
     }
 
     @Test (expectedExceptions = ConsentManagementException.class)
@@ -1450,6 +1510,27 @@ public class ConsentMgtCoreServiceTests {
 
     }
 
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testRevokeConsentAndTokensRevocationStoreError() throws Exception {
+
+        DetailedConsentResource retrievedDetailedConsentResource =
+                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+
+        doReturn(retrievedDetailedConsentResource).when(mockedConsentCoreDAO)
+                .getDetailedConsentResource(any(), any());
+        doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
+                anyString());
+        doThrow(ConsentDataInsertionException.class).when(mockedConsentCoreDAO)
+                .storeTokenRevocationRecords(any(), any());
+        try {
+            consentCoreServiceImpl.revokeConsent(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID,
+                    ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS, ConsentMgtServiceTestData.SAMPLE_USER_ID,
+                    true);
+        } finally {
+            doReturn(new ArrayList<>()).when(mockedConsentCoreDAO).storeTokenRevocationRecords(any(), any());
+        }
+    }
+
     @Test
     public void testRevokeConsentWithoutConsentAttributes() throws Exception {
 
@@ -1600,9 +1681,10 @@ public class ConsentMgtCoreServiceTests {
                         any(), anyLong(), anyLong(),  anyInt(), anyInt());
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
                 anyString());
-        doReturn(ConsentMgtServiceTestData.getSampleStoredTestConsentStatusAuditRecord(sampleID,
-                        ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS)).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(any(), any(ConsentStatusAuditRecord.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                .getSampleStoredTestConsentStatusAuditRecord(sampleID,
+                        ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS))))
+                .when(mockedConsentCoreDAO).storeConsentStatusAuditRecords(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), any());
 
@@ -1623,9 +1705,10 @@ public class ConsentMgtCoreServiceTests {
                         any(), anyLong(), anyLong(), anyInt(), anyInt());
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
                 anyString());
-        doReturn(ConsentMgtServiceTestData.getSampleStoredTestConsentStatusAuditRecord(sampleID,
-                        ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS)).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(any(), any(ConsentStatusAuditRecord.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                .getSampleStoredTestConsentStatusAuditRecord(sampleID,
+                        ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS))))
+                .when(mockedConsentCoreDAO).storeConsentStatusAuditRecords(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), any());
 
@@ -1650,9 +1733,10 @@ public class ConsentMgtCoreServiceTests {
                         any(), anyLong(), anyLong(), anyInt(), anyInt());
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
                 anyString());
-        doReturn(ConsentMgtServiceTestData.getSampleStoredTestConsentStatusAuditRecord(sampleID,
-                        ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS)).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(any(), any(ConsentStatusAuditRecord.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                .getSampleStoredTestConsentStatusAuditRecord(sampleID,
+                        ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS))))
+                .when(mockedConsentCoreDAO).storeConsentStatusAuditRecords(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), any());
 
@@ -1661,6 +1745,30 @@ public class ConsentMgtCoreServiceTests {
                 ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS, false);
     }
 
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testRevokeExistingApplicableConsentsRevocationStoreError() throws Exception {
+
+        ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
+        detailedConsentResources.add(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource());
+
+        doReturn(detailedConsentResources).when(mockedConsentCoreDAO)
+                .searchConsents(any(), any(), any(), any(), any(),
+                        any(), any(), any(), any(), any());
+        doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
+                anyString());
+        doReturn(new ArrayList<>()).when(mockedConsentCoreDAO).storeConsentStatusAuditRecords(any(), any());
+        doThrow(ConsentDataInsertionException.class).when(mockedConsentCoreDAO)
+                .storeTokenRevocationRecords(any(), any());
+        try {
+            consentCoreServiceImpl.revokeExistingApplicableConsents(sampleID,
+                    ConsentMgtServiceTestData.SAMPLE_USER_ID, ConsentMgtServiceTestData.SAMPLE_CONSENT_TYPE,
+                    ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS, ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS,
+                    true);
+        } finally {
+            doReturn(new ArrayList<>()).when(mockedConsentCoreDAO).storeTokenRevocationRecords(any(), any());
+        }
+    }
+
     @Test (expectedExceptions = ConsentManagementException.class)
     public void testRevokeExistingApplicableConsentsRetrieveError() throws Exception {
 
@@ -1702,7 +1810,7 @@ public class ConsentMgtCoreServiceTests {
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
                 anyString());
         doThrow(ConsentDataInsertionException.class).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(any(), any());
+                .storeConsentStatusAuditRecords(any(), any());
 
         consentCoreServiceImpl.revokeExistingApplicableConsents(sampleID, ConsentMgtServiceTestData.SAMPLE_USER_ID,
                 ConsentMgtServiceTestData.SAMPLE_CONSENT_TYPE, ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS,
@@ -1758,10 +1866,9 @@ public class ConsentMgtCoreServiceTests {
         ConsentResource consentResource = ConsentMgtServiceTestData.getSampleStoredConsentResource();
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
         Assert.assertTrue(consentCoreServiceImpl
@@ -1788,10 +1895,9 @@ public class ConsentMgtCoreServiceTests {
         ConsentResource consentResource = ConsentMgtServiceTestData.getSampleStoredConsentResource();
         doReturn(detailedConsentResource)
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
         Assert.assertTrue(consentCoreServiceImpl
@@ -1808,10 +1914,9 @@ public class ConsentMgtCoreServiceTests {
         ConsentResource consentResource = ConsentMgtServiceTestData.getSampleStoredConsentResource();
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
         Assert.assertTrue(consentCoreServiceImpl
@@ -1828,10 +1933,9 @@ public class ConsentMgtCoreServiceTests {
         ConsentResource consentResource = ConsentMgtServiceTestData.getSampleStoredConsentResource();
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResourceWithMultipleAccountIDs())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
         Assert.assertTrue(consentCoreServiceImpl
@@ -1924,8 +2028,7 @@ public class ConsentMgtCoreServiceTests {
                         .getSampleConsentMappingResourcesList(ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST))
                 .when(mockedConsentCoreDAO).getConsentMappingResources(any(), anyString());
         doThrow(ConsentDataInsertionException.class)
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         consentCoreServiceImpl.reAuthorizeExistingAuthResource(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID,
                 ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID, ConsentMgtServiceTestData.SAMPLE_USER_ID,
                 ConsentMgtServiceTestData.SAMPLE_ACCOUNT_IDS_AND_PERMISSIONS_MAP,
@@ -1966,10 +2069,9 @@ public class ConsentMgtCoreServiceTests {
                 any(AuthorizationResource.class));
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(sampleID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(sampleID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
         doNothing().when(mockedConsentCoreDAO).updateConsentStatus(any(), anyString(),
@@ -2038,8 +2140,7 @@ public class ConsentMgtCoreServiceTests {
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
         doThrow(ConsentDataInsertionException.class)
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
 
         consentCoreServiceImpl.reAuthorizeConsentWithNewAuthResource(sampleID, sampleID,
                 ConsentMgtServiceTestData.SAMPLE_ACCOUNT_IDS_AND_PERMISSIONS_MAP,
@@ -2719,6 +2820,142 @@ public class ConsentMgtCoreServiceTests {
                 12345L, 23456L, 1, 0);
     }
 
+    @Test
+    public void testCountConsents() throws Exception {
+
+        doReturn(5).when(mockedConsentCoreDAO).countConsents(any(), any(), any(), any(), any(), any(), any(),
+                any());
+
+        int consentCount = consentCoreServiceImpl.countConsents(ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST,
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, ConsentMgtServiceTestData.SAMPLE_CONSENT_TYPES_LIST,
+                ConsentMgtServiceTestData.SAMPLE_CONSENT_STATUSES_LIST,
+                ConsentMgtServiceTestData.SAMPLE_USER_IDS_LIST, 12345L, 23456L);
+
+        Assert.assertEquals(consentCount, 5);
+    }
+
+    @Test
+    public void testCountConsentsUsesReadOnlyConnectionWithoutCommit() throws Exception {
+
+        doReturn(5).when(mockedConsentCoreDAO).countConsents(any(), any(), any(), any(), any(), any(), any(),
+                any());
+        databaseUtilMockedStatic.clearInvocations();
+
+        consentCoreServiceImpl.countConsents(null, ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                null, null, null);
+
+        databaseUtilMockedStatic.verify(DatabaseUtil::getReadOnlyDBConnection);
+        databaseUtilMockedStatic.verify(() -> DatabaseUtil.closeReadOnlyConnection(connectionMock));
+        databaseUtilMockedStatic.verify(DatabaseUtil::getDBConnection, Mockito.never());
+        databaseUtilMockedStatic.verify(() -> DatabaseUtil.commitTransaction(any()), Mockito.never());
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testCountConsentsRetrieveError() throws Exception {
+
+        doThrow(ConsentDataRetrievalException.class).when(mockedConsentCoreDAO).countConsents(any(), any(), any(),
+                any(), any(), any(), any(), any());
+
+        consentCoreServiceImpl.countConsents(null, ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                null, null, null);
+    }
+
+    @Test
+    public void testSearchDetailedConsentsByCursor() throws Exception {
+
+        ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
+        detailedConsentResources.add(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource());
+        ConsentSearchCursor cursor = new ConsentSearchCursor(12345L, sampleID);
+
+        doReturn(new ConsentSearchPage<>(detailedConsentResources, cursor)).when(mockedConsentCoreDAO)
+                .searchConsentsByCursor(any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any());
+
+        ConsentSearchPage<DetailedConsentResource> consentSearchPage = consentCoreServiceImpl
+                .searchDetailedConsentsByCursor(null, ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, null, null,
+                        null, null, null, 1, cursor);
+
+        Assert.assertEquals(consentSearchPage.getResults().size(), 1);
+        Assert.assertEquals(consentSearchPage.getNextContinuationToken(), cursor.toContinuationToken());
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchDetailedConsentsByCursorLimitAboveMaximum() throws Exception {
+
+        consentCoreServiceImpl.searchDetailedConsentsByCursor(null, null, null, null, null, null, null,
+                Integer.MAX_VALUE, null);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchDetailedConsentsByCursorInvalidLimit() throws Exception {
+
+        consentCoreServiceImpl.searchDetailedConsentsByCursor(null, null, null, null, null, null, null, 0, null);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchDetailedConsentsByCursorRetrieveError() throws Exception {
+
+        doThrow(ConsentDataRetrievalException.class).when(mockedConsentCoreDAO).searchConsentsByCursor(any(), any(),
+                any(), any(), any(), any(), any(), any(), anyInt(), any());
+
+        consentCoreServiceImpl.searchDetailedConsentsByCursor(null, null, null, null, null, null, null, 10, null);
+    }
+
+    @Test
+    public void testStreamDetailedConsents() throws Exception {
+
+        ArrayList<DetailedConsentResource> streamedConsents = new ArrayList<>();
+        doReturn(1).when(mockedConsentCoreDAO).streamConsents(any(), any(), any(), any(), any(), any(), any(),
+                any(), anyInt(), any());
+
+        int streamedConsentCount = consentCoreServiceImpl.streamDetailedConsents(null,
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, null, null, null, null, null, 100,
+                streamedConsents::add);
+
+        Assert.assertEquals(streamedConsentCount, 1);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testStreamDetailedConsentsWithoutConsumer() throws Exception {
+
+        consentCoreServiceImpl.streamDetailedConsents(null, null, null, null, null, null, null, 100, null);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testStreamDetailedConsentsRetrieveError() throws Exception {
+
+        doThrow(ConsentDataRetrievalException.class).when(mockedConsentCoreDAO).streamConsents(any(), any(), any(),
+                any(), any(), any(), any(), any(), anyInt(), any());
+
+        consentCoreServiceImpl.streamDetailedConsents(null, null, null, null, null, null, null, 100,
+                consent -> { });
+    }
+
+    @Test
+    public void testGetConsentStatusAuditRecordsByCursor() throws Exception {
+
+        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
+        consentStatusAuditRecords.add(ConsentMgtServiceTestData.getSampleStoredTestConsentStatusAuditRecord(sampleID,
+                ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS));
+
+        doReturn(new ConsentSearchPage<>(consentStatusAuditRecords, null)).when(mockedConsentCoreDAO)
+                .getConsentStatusAuditRecordsByCursor(any(), any(), anyInt(), any());
+
+        ConsentSearchPage<ConsentStatusAuditRecord> auditRecordsPage = consentCoreServiceImpl
+                .getConsentStatusAuditRecordsByCursor(new ArrayList<>(), 10, null);
+
+        Assert.assertEquals(auditRecordsPage.getResults().size(), 1);
+        Assert.assertNull(auditRecordsPage.getNextContinuationToken());
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testGetConsentStatusAuditRecordsByCursorRetrieveError() throws Exception {
+
+        doThrow(ConsentDataRetrievalException.class).when(mockedConsentCoreDAO)
+                .getConsentStatusAuditRecordsByCursor(any(), any(), anyInt(), any());
+
+        consentCoreServiceImpl.getConsentStatusAuditRecordsByCursor(new ArrayList<>(), 10, null);
+    }
+
     @Test
     public void testAmendConsentData() throws Exception {
 
@@ -2983,8 +3220,8 @@ public class ConsentMgtCoreServiceTests {
         setInitialDataForAmendDetailedConsentSuccessFlow();
         doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
                 .storeAuthorizationResource(any(), any(AuthorizationResource.class));
-        doReturn(new ConsentMappingResource()).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(any(), any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(new ConsentMappingResource())))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
 
         DetailedConsentResource detailedConsentResource =
                 consentCoreServiceImpl.amendDetailedConsent(sampleID, ConsentMgtServiceTestData
@@ -3109,10 +3346,9 @@ public class ConsentMgtCoreServiceTests {
 
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
 
@@ -3130,6 +3366,76 @@ public class ConsentMgtCoreServiceTests {
                 new HashMap<>());
     }
 
+    @Test
+    public void testStoreIdempotencyKey() throws Exception {
+
+        IdempotencyKeyRecord idempotencyKeyRecord = new IdempotencyKeyRecord(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, sampleID, sampleID, "samplePayloadHash");
+        doReturn(idempotencyKeyRecord).when(mockedConsentCoreDAO).storeIdempotencyKeyRecord(any(),
+                any(IdempotencyKeyRecord.class));
+
+        Assert.assertEquals(consentCoreServiceImpl.storeIdempotencyKey(idempotencyKeyRecord), idempotencyKeyRecord);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testStoreIdempotencyKeyWithoutPayloadHash() throws Exception {
+
+        consentCoreServiceImpl.storeIdempotencyKey(new IdempotencyKeyRecord(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, sampleID, sampleID, null));
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testStoreIdempotencyKeyDataInsertError() throws Exception {
+
+        doThrow(ConsentDataInsertionException.class).when(mockedConsentCoreDAO).storeIdempotencyKeyRecord(any(),
+                any(IdempotencyKeyRecord.class));
+        consentCoreServiceImpl.storeIdempotencyKey(new IdempotencyKeyRecord(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, sampleID, sampleID, "samplePayloadHash"));
+    }
+
+    @Test
+    public void testGetIdempotencyKey() throws Exception {
+
+        IdempotencyKeyRecord idempotencyKeyRecord = new IdempotencyKeyRecord(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, sampleID, sampleID, "samplePayloadHash");
+        doReturn(idempotencyKeyRecord).when(mockedConsentCoreDAO).getIdempotencyKeyRecord(any(),
+                anyString(), anyString());
+
+        Assert.assertEquals(consentCoreServiceImpl.getIdempotencyKey(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID,
+                sampleID), idempotencyKeyRecord);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testGetIdempotencyKeyWithoutClientID() throws Exception {
+
+        consentCoreServiceImpl.getIdempotencyKey(null, sampleID);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testGetIdempotencyKeyDataRetrieveError() throws Exception {
+
+        doThrow(ConsentDataRetrievalException.class).when(mockedConsentCoreDAO).getIdempotencyKeyRecord(any(),
+                anyString(), anyString());
+        consentCoreServiceImpl.getIdempotencyKey(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, sampleID);
+    }
+
+    @Test
+    public void testDeleteExpiredIdempotencyKeys() throws Exception {
+
+        doReturn(2).when(mockedConsentCoreDAO).deleteExpiredIdempotencyKeyRecords(any(), anyLong());
+
+        Assert.assertEquals(consentCoreServiceImpl.deleteExpiredIdempotencyKeys(
+                System.currentTimeMillis() / 1000), 2);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testDeleteExpiredIdempotencyKeysDataDeleteError() throws Exception {
+
+        doThrow(ConsentDataDeletionException.class).when(mockedConsentCoreDAO)
+                .deleteExpiredIdempotencyKeyRecords(any(), anyLong());
+        consentCoreServiceImpl.deleteExpiredIdempotencyKeys(System.currentTimeMillis() / 1000);
+    }
+
     private void setInitialDataForAmendDetailedConsentSuccessFlow() throws Exception {
 
         doNothing().when(mockedConsentCoreDAO).updateConsentReceipt(any(),
@@ -3145,10 +3451,9 @@ public class ConsentMgtCoreServiceTests {
 
         doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource())
                 .when(mockedConsentCoreDAO).getDetailedConsentResource(any(), anyString());
-        doReturn(ConsentMgtServiceTestData
-                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))
-                .when(mockedConsentCoreDAO).storeConsentMappingResource(any(),
-                        any(ConsentMappingResource.class));
+        doReturn(new ArrayList<>(Collections.singletonList(ConsentMgtServiceTestData
+                        .getSampleTestConsentMappingResource(ConsentMgtServiceTestData.UNMATCHED_AUTHORIZATION_ID))))
+                .when(mockedConsentCoreDAO).storeConsentMappingResources(any(), any());
         doNothing().when(mockedConsentCoreDAO).updateConsentMappingStatus(any(),
                 any(), anyString());
 
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.util.ConsentManagementConstants;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Test for the consent state change event bus.
+ */
+public class ConsentStateChangeEventBusTests {
+
+    @Test
+    public void testSynchronousDelivery() {
+
+        CollectingListener listener = new CollectingListener(1);
+        ConsentStateChangeEventBus eventBus = getEventBus(true, 10, 5,
+                ConsentManagementConstants.BLOCK_BACK_PRESSURE, listener);
+        eventBus.start();
+
+        eventBus.stage(getSampleEvent());
+        Assert.assertTrue(listener.getEvents().isEmpty());
+        eventBus.publishStagedEvents();
+
+        Assert.assertTrue(eventBus.isSynchronous());
+        Assert.assertEquals(listener.getEvents().size(), 1);
+        Assert.assertEquals(listener.getThreads().get(0), Thread.currentThread());
+        eventBus.stop();
+    }
+
+    @Test
+    public void testAsynchronousBatchedDelivery() throws Exception {
+
+        CollectingListener listener = new CollectingListener(6);
+        ConsentStateChangeEventBus eventBus = getEventBus(false, 10, 5,
+                ConsentManagementConstants.BLOCK_BACK_PRESSURE, listener);
+        eventBus.start();
+        try {
+            for (int i = 0; i < 6; i++) {
+                eventBus.stage(getSampleEvent());
+            }
+            eventBus.publishStagedEvents();
+
+            Assert.assertTrue(listener.await());
+            Assert.assertEquals(listener.getEvents().size(), 6);
+            Assert.assertNotEquals(listener.getThreads().get(0), Thread.currentThread());
+            for (List<ConsentStateChangeEvent> batch : listener.getBatches()) {
+                Assert.assertTrue(batch.size() <= 5);
+            }
+        } finally {
+            eventBus.stop();
+        }
+    }
+
+    @Test
+    public void testDiscardStagedEvents() {
+
+        CollectingListener listener = new CollectingListener(1);
+        ConsentStateChangeEventBus eventBus = getEventBus(true, 10, 5,
+                ConsentManagementConstants.BLOCK_BACK_PRESSURE, listener);
+
+        eventBus.stage(getSampleEvent());
+        eventBus.discardStagedEvents();
+        eventBus.publishStagedEvents();
+
+        Assert.assertTrue(listener.getEvents().isEmpty());
+    }
+
+    @Test
+    public void testDropBackPressure() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CollectingListener listener = new CollectingListener(1) {
+            @Override
+            public void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException {
+
+                super.onStateChange(events);
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ConsentStateChangeEventBus eventBus = getEventBus(false, 1, 1,
+                ConsentManagementConstants.DROP_BACK_PRESSURE, listener);
+        eventBus.start();
+        try {
+            // The first event blocks the dispatcher, the second fills the queue and the third is dropped
+            eventBus.publish(Collections.singletonList(getSampleEvent()));
+            Assert.assertTrue(listener.await());
+            eventBus.publish(Collections.singletonList(getSampleEvent()));
+            eventBus.publish(Collections.singletonList(getSampleEvent()));
+
+            Assert.assertEquals(eventBus.getDroppedEventCount(), 1);
+        } finally {
+            release.countDown();
+            eventBus.stop();
+        }
+    }
+
+    @Test
+    public void testCallerRunsBackPressure() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CollectingListener listener = new CollectingListener(1) {
+            @Override
+            public void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException {
+
+                super.onStateChange(events);
+                if (Thread.currentThread().getName().equals("consent-state-change-events")) {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        ConsentStateChangeEventBus eventBus = getEventBus(false, 1, 1,
+                ConsentManagementConstants.CALLER_RUNS_BACK_PRESSURE, listener);
+        eventBus.start();
+        try {
+            eventBus.publish(Collections.singletonList(getSampleEvent()));
+            Assert.assertTrue(listener.await());
+            eventBus.publish(Collections.singletonList(getSampleEvent()));
+            eventBus.publish(Collections.singletonList(getSampleEvent()));
+
+            Assert.assertEquals(eventBus.getDroppedEventCount(), 0);
+            Assert.assertTrue(listener.getThreads().contains(Thread.currentThread()));
+        } finally {
+            release.countDown();
+            eventBus.stop();
+        }
+    }
+
+    @Test
+    public void testListenerFailureIsolation() {
+
+        ConsentStateChangeListener failingListener = events -> {
+            throw new ConsentManagementException("Listener failure");
+        };
+        CollectingListener listener = new CollectingListener(1);
+        List<ConsentStateChangeListener> listeners = new ArrayList<>();
+        listeners.add(failingListener);
+        listeners.add(listener);
+        ConsentStateChangeEventBus eventBus = new ConsentStateChangeEventBus(
+                getConfigParser(true, 10, 5, ConsentManagementConstants.BLOCK_BACK_PRESSURE), listeners);
+
+        eventBus.publish(Collections.singletonList(getSampleEvent()));
+
+        Assert.assertEquals(listener.getEvents().size(), 1);
+    }
+
+    private static ConsentStateChangeEventBus getEventBus(boolean synchronous, int queueSize, int batchSize,
+                                                          String backPressure, ConsentStateChangeListener listener) {
+
+        return new ConsentStateChangeEventBus(getConfigParser(synchronous, queueSize, batchSize, backPressure),
+                Collections.singletonList(listener));
+    }
+
+    private static ConsentManagementConfigParser getConfigParser(boolean synchronous, int queueSize, int batchSize,
+                                                                 String backPressure) {
+
+        ConsentManagementConfigParser configParserMock = Mockito.mock(ConsentManagementConfigParser.class);
+        doReturn(synchronous).when(configParserMock).isStateChangeEventsSynchronous();
+        doReturn(queueSize).when(configParserMock).getStateChangeEventsQueueSize();
+        doReturn(batchSize).when(configParserMock).getStateChangeEventsBatchSize();
+        doReturn(backPressure).when(configParserMock).getStateChangeEventsBackPressure();
+        return configParserMock;
+    }
+
+    private static ConsentStateChangeEvent getSampleEvent() {
+
+        return new ConsentStateChangeEvent(UUID.randomUUID().toString(), ConsentMgtServiceTestData.SAMPLE_USER_ID,
+                ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS, ConsentMgtServiceTestData.SAMPLE_PREVIOUS_STATUS,
+                ConsentCoreServiceConstants.CREATE_CONSENT_REASON, ConsentMgtServiceTestData.SAMPLE_CLIENT_ID,
+                null);
+    }
+
+    private static class CollectingListener implements ConsentStateChangeListener {
+
+        private final List<List<ConsentStateChangeEvent>> batches = new CopyOnWriteArrayList<>();
+        private final List<ConsentStateChangeEvent> events = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        CollectingListener(int expectedEvents) {
+
+            this.latch = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onStateChange(List<ConsentStateChangeEvent> events) throws ConsentManagementException {
+
+            batches.add(events);
+            this.events.addAll(events);
+            threads.add(Thread.currentThread());
+            events.forEach(event -> latch.countDown());
+        }
+
+        boolean await() throws InterruptedException {
+
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+
+        List<List<ConsentStateChangeEvent>> getBatches() {
+
+            return batches;
+        }
+
+        List<ConsentStateChangeEvent> getEvents() {
+
+            return events;
+        }
+
+        List<Thread> getThreads() {
+
+            return threads;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.listener;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+import net.minidev.json.parser.JSONParser;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
+import org.wso2.bfsi.consent.management.common.http.HttpClientHolder;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.constants.ConsentCoreServiceConstants;
+import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for the built-in consent state change listeners.
+ */
+public class ConsentStateChangeListenerTests {
+
+    private static final String NOTIFICATION_URL = "https://localhost:8443/consent/notifications";
+
+    @Test
+    public void testNotifierPostsBatch() throws Exception {
+
+        CloseableHttpClient httpClient = getHttpClient(200);
+        ConsentStateChangeEvent event = getSampleEvent();
+
+        new ConsentStateChangeNotifier(NOTIFICATION_URL, getHttpClientHolder(httpClient))
+                .onStateChange(Collections.singletonList(event));
+
+        ArgumentCaptor<HttpUriRequest> requestCaptor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpClient).execute(requestCaptor.capture());
+        HttpPost request = (HttpPost) requestCaptor.getValue();
+        Assert.assertEquals(request.getURI().toString(), NOTIFICATION_URL);
+
+        JSONArray payload = (JSONArray) new JSONParser(JSONParser.MODE_PERMISSIVE)
+                .parse(EntityUtils.toString(request.getEntity()));
+        Assert.assertEquals(payload.size(), 1);
+        JSONObject notification = (JSONObject) payload.get(0);
+        Assert.assertEquals(notification.get("consentId"), event.getConsentID());
+        Assert.assertEquals(notification.get("newStatus"), event.getNewConsentStatus());
+        Assert.assertEquals(notification.get("previousStatus"), event.getPreviousConsentStatus());
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testNotifierFailsOnErrorStatus() throws Exception {
+
+        new ConsentStateChangeNotifier(NOTIFICATION_URL, getHttpClientHolder(getHttpClient(500)))
+                .onStateChange(Collections.singletonList(getSampleEvent()));
+    }
+
+    @Test
+    public void testAuditRecordWriterClosesConnectionWhenDAOUnavailable() throws Exception {
+
+        Connection connection = mock(Connection.class);
+        try (MockedStatic<DatabaseUtil> databaseUtilMockedStatic = mockStatic(DatabaseUtil.class);
+             MockedStatic<ConsentStoreInitializer> consentStoreInitializerMockedStatic =
+                     mockStatic(ConsentStoreInitializer.class)) {
+            databaseUtilMockedStatic.when(DatabaseUtil::getDBConnection).thenReturn(connection);
+            consentStoreInitializerMockedStatic.when(ConsentStoreInitializer::getInitializedConsentCoreDAOImpl)
+                    .thenThrow(new ConsentManagementException("DAO unavailable"));
+
+            List<ConsentStateChangeEvent> events = Collections.singletonList(getSampleEvent());
+            Assert.assertThrows(ConsentManagementException.class,
+                    () -> new ConsentAuditRecordWriter().onStateChange(events));
+
+            databaseUtilMockedStatic.verify(() -> DatabaseUtil.closeConnection(connection));
+        }
+    }
+
+    private static HttpClientHolder getHttpClientHolder(CloseableHttpClient httpClient) {
+
+        HttpClientHolder httpClientHolder = mock(HttpClientHolder.class);
+        doReturn(httpClient).when(httpClientHolder).getHttpClient();
+        return httpClientHolder;
+    }
+
+    private static CloseableHttpClient getHttpClient(int statusCode) throws Exception {
+
+        StatusLine statusLine = mock(StatusLine.class);
+        doReturn(statusCode).when(statusLine).getStatusCode();
+        CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+        doReturn(statusLine).when(response).getStatusLine();
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        doReturn(response).when(httpClient).execute(any(HttpUriRequest.class));
+        return httpClient;
+    }
+
+    private static ConsentStateChangeEvent getSampleEvent() {
+
+        return new ConsentStateChangeEvent(UUID.randomUUID().toString(), ConsentMgtServiceTestData.SAMPLE_USER_ID,
+                ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS, ConsentMgtServiceTestData.SAMPLE_PREVIOUS_STATUS,
+                ConsentCoreServiceConstants.CREATE_CONSENT_REASON, ConsentMgtServiceTestData.SAMPLE_CLIENT_ID,
+                null);
+    }
+}
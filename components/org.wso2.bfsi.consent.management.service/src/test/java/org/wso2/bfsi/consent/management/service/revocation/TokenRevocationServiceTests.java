@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.service.revocation;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+import org.wso2.bfsi.consent.management.dao.ConsentCoreDAO;
+import org.wso2.bfsi.consent.management.dao.models.TokenRevocationRecord;
+import org.wso2.bfsi.consent.management.dao.persistence.ConsentStoreInitializer;
+import org.wso2.bfsi.consent.management.service.util.ConsentMgtServiceTestData;
+import org.wso2.bfsi.consent.management.service.util.DatabaseUtil;
+import org.wso2.bfsi.consent.management.service.util.TokenRevocationUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for the token revocation outbox service.
+ */
+public class TokenRevocationServiceTests {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private TokenRevocationService tokenRevocationService;
+    private ConsentCoreDAO mockedConsentCoreDAO;
+    MockedStatic<DatabaseUtil> databaseUtilMockedStatic;
+    MockedStatic<ConsentStoreInitializer> consentStoreInitializerMockedStatic;
+    MockedStatic<TokenRevocationUtil> tokenRevocationUtilMockedStatic;
+
+    @BeforeClass
+    public void initTest() {
+
+        ConsentManagementConfigParser configParserMock = Mockito.mock(ConsentManagementConfigParser.class);
+        doReturn(1).when(configParserMock).getTokenRevocationPoolSize();
+        doReturn(10).when(configParserMock).getTokenRevocationQueueSize();
+        doReturn(MAX_ATTEMPTS).when(configParserMock).getTokenRevocationMaxAttempts();
+        doReturn(60L).when(configParserMock).getTokenRevocationRetryInterval();
+        doReturn(60L).when(configParserMock).getTokenRevocationPollInterval();
+        doReturn(10).when(configParserMock).getTokenRevocationBatchSize();
+        tokenRevocationService = new TokenRevocationService(configParserMock);
+
+        databaseUtilMockedStatic = mockStatic(DatabaseUtil.class);
+        databaseUtilMockedStatic.when(DatabaseUtil::getDBConnection).thenReturn(Mockito.mock(Connection.class));
+        consentStoreInitializerMockedStatic = mockStatic(ConsentStoreInitializer.class);
+        tokenRevocationUtilMockedStatic = mockStatic(TokenRevocationUtil.class);
+    }
+
+    @BeforeMethod
+    public void initDAO() {
+
+        mockedConsentCoreDAO = Mockito.mock(ConsentCoreDAO.class);
+        consentStoreInitializerMockedStatic.when(ConsentStoreInitializer::getInitializedConsentCoreDAOImpl)
+                .thenReturn(mockedConsentCoreDAO);
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        databaseUtilMockedStatic.close();
+        consentStoreInitializerMockedStatic.close();
+        tokenRevocationUtilMockedStatic.close();
+    }
+
+    @Test
+    public void testProcess() throws Exception {
+
+        TokenRevocationRecord tokenRevocationRecord = getSampleTokenRevocationRecord(0);
+        doReturn(true).when(mockedConsentCoreDAO).claimTokenRevocationRecord(any(), any(), anyLong());
+        tokenRevocationUtilMockedStatic.when(() -> TokenRevocationUtil.revokeTokens(any(), anyString()))
+                .thenAnswer(invocation -> null);
+
+        long previousSuccessCount = tokenRevocationService.getMetrics().getSuccessCount();
+
+        Assert.assertTrue(tokenRevocationService.process(tokenRevocationRecord));
+        Assert.assertEquals(tokenRevocationService.getMetrics().getSuccessCount(), previousSuccessCount + 1);
+        verify(mockedConsentCoreDAO).deleteTokenRevocationRecord(any(), eq(tokenRevocationRecord.getRevocationID()));
+    }
+
+    @Test
+    public void testProcessClaimedRevocation() throws Exception {
+
+        TokenRevocationRecord tokenRevocationRecord = getSampleTokenRevocationRecord(0);
+        doReturn(false).when(mockedConsentCoreDAO).claimTokenRevocationRecord(any(), any(), anyLong());
+
+        Assert.assertFalse(tokenRevocationService.process(tokenRevocationRecord));
+        verify(mockedConsentCoreDAO, never()).deleteTokenRevocationRecord(any(), anyString());
+        verify(mockedConsentCoreDAO, never()).updateTokenRevocationRecordAttempt(any(), anyString(), anyInt(),
+                anyLong(), any());
+    }
+
+    @Test
+    public void testProcessRevocationError() throws Exception {
+
+        TokenRevocationRecord tokenRevocationRecord = getSampleTokenRevocationRecord(0);
+        doReturn(true).when(mockedConsentCoreDAO).claimTokenRevocationRecord(any(), any(), anyLong());
+        tokenRevocationUtilMockedStatic.when(() -> TokenRevocationUtil.revokeTokens(any(), anyString()))
+                .thenThrow(new IdentityOAuth2Exception("Token revocation failed"));
+
+        long previousFailureCount = tokenRevocationService.getMetrics().getFailureCount();
+
+        Assert.assertFalse(tokenRevocationService.process(tokenRevocationRecord));
+        Assert.assertEquals(tokenRevocationService.getMetrics().getFailureCount(), previousFailureCount + 1);
+        verify(mockedConsentCoreDAO).updateTokenRevocationRecordAttempt(any(),
+                eq(tokenRevocationRecord.getRevocationID()), eq(1), anyLong(), eq("Token revocation failed"));
+        verify(mockedConsentCoreDAO, never()).deleteTokenRevocationRecord(any(), anyString());
+    }
+
+    @Test
+    public void testProcessRevocationErrorAfterMaxAttempts() throws Exception {
+
+        TokenRevocationRecord tokenRevocationRecord = getSampleTokenRevocationRecord(MAX_ATTEMPTS - 1);
+        doReturn(true).when(mockedConsentCoreDAO).claimTokenRevocationRecord(any(), any(), anyLong());
+        tokenRevocationUtilMockedStatic.when(() -> TokenRevocationUtil.revokeTokens(any(), anyString()))
+                .thenThrow(new IdentityOAuth2Exception("Token revocation failed"));
+
+        long previousAbandonedCount = tokenRevocationService.getMetrics().getAbandonedCount();
+
+        Assert.assertFalse(tokenRevocationService.process(tokenRevocationRecord));
+        Assert.assertEquals(tokenRevocationService.getMetrics().getAbandonedCount(), previousAbandonedCount + 1);
+        verify(mockedConsentCoreDAO).updateTokenRevocationRecordAttempt(any(),
+                eq(tokenRevocationRecord.getRevocationID()), eq(MAX_ATTEMPTS), anyLong(), anyString());
+    }
+
+    @Test
+    public void testPollDueRevocations() throws Exception {
+
+        ArrayList<TokenRevocationRecord> dueRecords = new ArrayList<>(List.of(getSampleTokenRevocationRecord(0),
+                getSampleTokenRevocationRecord(1)));
+        doReturn(dueRecords).when(mockedConsentCoreDAO).getDueTokenRevocationRecords(any(), anyLong(),
+                eq(MAX_ATTEMPTS), anyInt());
+        doReturn(5).when(mockedConsentCoreDAO).countPendingTokenRevocationRecords(any(), eq(MAX_ATTEMPTS));
+
+        // The revocations stay in the outbox while the service is not started
+        Assert.assertEquals(tokenRevocationService.pollDueRevocations(), 2);
+        Assert.assertEquals(tokenRevocationService.getMetrics().getPendingCount(), 5);
+        Assert.assertEquals(tokenRevocationService.getMetrics().getQueueDepth(), 0);
+        verify(mockedConsentCoreDAO, never()).claimTokenRevocationRecord(any(), any(), anyLong());
+    }
+
+    private TokenRevocationRecord getSampleTokenRevocationRecord(int attemptCount) {
+
+        TokenRevocationRecord tokenRevocationRecord = new TokenRevocationRecord(
+                ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID, ConsentMgtServiceTestData.SAMPLE_CLIENT_ID,
+                ConsentMgtServiceTestData.SAMPLE_USER_ID);
+        tokenRevocationRecord.setRevocationID(UUID.randomUUID().toString());
+        tokenRevocationRecord.setAttemptCount(attemptCount);
+        return tokenRevocationRecord;
+    }
+}
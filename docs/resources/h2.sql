@@ -81,3 +81,55 @@ CREATE TABLE IF NOT EXISTS BFSI_CONSENT_ATTRIBUTE (
   PRIMARY KEY(CONSENT_ID, ATT_KEY),
   CONSTRAINT FK_BFSI_CONSENT_ATTRIBUTE FOREIGN KEY (CONSENT_ID) REFERENCES BFSI_CONSENT (CONSENT_ID)
 );
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_LEASE (
+  LEASE_NAME        VARCHAR(255) NOT NULL,
+  OWNER_ID          VARCHAR(255) NOT NULL,
+  EXPIRY_TIME       BIGINT NOT NULL,
+  PRIMARY KEY(LEASE_NAME)
+);
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_TOKEN_REVOCATION (
+  REVOCATION_ID     VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  USER_ID           VARCHAR(255) NOT NULL,
+  ATTEMPT_COUNT     INT NOT NULL,
+  NEXT_ATTEMPT_TIME BIGINT NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  LAST_ERROR        VARCHAR(1024),
+  PRIMARY KEY(REVOCATION_ID)
+);
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_IDEMPOTENCY_KEY (
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  IDEMPOTENCY_KEY   VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  PAYLOAD_HASH      VARCHAR(64) NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  PRIMARY KEY(CLIENT_ID, IDEMPOTENCY_KEY)
+);
+
+-- Secondary indexes used by the consent attribute lookups (ATT_KEY / ATT_KEY and ATT_VALUE), consent search
+-- (CLIENT_ID, CONSENT_TYPE, CURRENT_STATUS ordered by UPDATED_TIME), authorization resource lookups by consent and
+-- user, consent mapping lookups by authorization and status audit lookups by consent.
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_CONSENT_ATT_KEY_VAL ON BFSI_CONSENT_ATTRIBUTE (ATT_KEY, ATT_VALUE);
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_CONSENT_CLIENT_STATUS ON BFSI_CONSENT (CLIENT_ID, CONSENT_TYPE, CURRENT_STATUS, UPDATED_TIME);
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_AUTH_RES_CONSENT_ID ON BFSI_CONSENT_AUTH_RESOURCE (CONSENT_ID);
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_AUTH_RES_USER_ID ON BFSI_CONSENT_AUTH_RESOURCE (USER_ID);
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_MAPPING_AUTH_ID ON BFSI_CONSENT_MAPPING (AUTH_ID);
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_STATUS_AUDIT_CONSENT ON BFSI_CONSENT_STATUS_AUDIT (CONSENT_ID, ACTION_TIME);
+
+-- Token revocation outbox lookup of the revocations due for an attempt.
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_TOKEN_REVOCATION_NEXT ON BFSI_CONSENT_TOKEN_REVOCATION (NEXT_ATTEMPT_TIME);
+
+-- Idempotency key cleanup of the keys older than the allowed time.
+
+CREATE INDEX IF NOT EXISTS IDX_BFSI_IDEMPOTENCY_KEY_CREATED ON BFSI_CONSENT_IDEMPOTENCY_KEY (CREATED_TIME);
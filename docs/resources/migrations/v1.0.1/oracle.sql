@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+-- Migration script to add the schema changes introduced in v1.0.1 to an existing consent database.
+-- Secondary indexes used by the consent attribute lookups (ATT_KEY / ATT_KEY and ATT_VALUE), consent search
+-- (CLIENT_ID, CONSENT_TYPE, CURRENT_STATUS ordered by UPDATED_TIME), authorization resource lookups by consent and
+-- user, consent mapping lookups by authorization and status audit lookups by consent.
+-- Each statement is skipped if its object already exists, so the script can be run again.
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_CONSENT_ATT_KEY_VAL ON BFSI_CONSENT_ATTRIBUTE (ATT_KEY, ATT_VALUE)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_CONSENT_CLIENT_STATUS ON BFSI_CONSENT (CLIENT_ID, CONSENT_TYPE, CURRENT_STATUS, UPDATED_TIME)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_AUTH_RES_CONSENT_ID ON BFSI_CONSENT_AUTH_RESOURCE (CONSENT_ID)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_AUTH_RES_USER_ID ON BFSI_CONSENT_AUTH_RESOURCE (USER_ID)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_MAPPING_AUTH_ID ON BFSI_CONSENT_MAPPING (AUTH_ID)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_STATUS_AUDIT_CONSENT ON BFSI_CONSENT_STATUS_AUDIT (CONSENT_ID, ACTION_TIME)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
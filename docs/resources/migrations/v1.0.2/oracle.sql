@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+-- Migration script to add the schema changes introduced in v1.0.2 to an existing consent database. Run the
+-- migration scripts of the earlier versions first. Each statement is skipped if its object already exists, so the
+-- script can be run again.
+
+-- Lease table used to make sure only one node runs the scheduled consent expiry batch at a time.
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE TABLE BFSI_CONSENT_LEASE (
+      LEASE_NAME        VARCHAR(255) NOT NULL,
+      OWNER_ID          VARCHAR(255) NOT NULL,
+      EXPIRY_TIME       NUMBER NOT NULL,
+      PRIMARY KEY(LEASE_NAME)
+    )';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
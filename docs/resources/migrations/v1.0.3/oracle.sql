@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+-- Migration script to add the schema changes introduced in v1.0.3 to an existing consent database. Run the
+-- migration scripts of the earlier versions first. Each statement is skipped if its object already exists, so the
+-- script can be run again.
+
+-- Outbox of the token revocations of revoked and expired consents, which are executed after the consent changes
+-- are committed and retried until they succeed.
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE TABLE BFSI_CONSENT_TOKEN_REVOCATION (
+      REVOCATION_ID     VARCHAR(255) NOT NULL,
+      CONSENT_ID        VARCHAR(255) NOT NULL,
+      CLIENT_ID         VARCHAR(255) NOT NULL,
+      USER_ID           VARCHAR(255) NOT NULL,
+      ATTEMPT_COUNT     NUMBER NOT NULL,
+      NEXT_ATTEMPT_TIME NUMBER NOT NULL,
+      CREATED_TIME      NUMBER NOT NULL,
+      LAST_ERROR        VARCHAR(1024),
+      PRIMARY KEY(REVOCATION_ID)
+    )';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BFSI_TOKEN_REVOCATION_NEXT ON BFSI_CONSENT_TOKEN_REVOCATION (NEXT_ATTEMPT_TIME)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN
+      RAISE;
+    END IF;
+END;
+/
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+-- Migration script to add the schema changes introduced in v1.0.4 to an existing consent database. Run the
+-- migration scripts of the earlier versions first. Each statement is skipped if its object already exists, so the
+-- script can be run again.
+
+-- Idempotency keys used by clients, holding the consent created by the request and a hash of the request
+-- payload. Keys are deleted once they are older than the idempotency allowed time.
+
+CREATE TABLE IF NOT EXISTS BFSI_CONSENT_IDEMPOTENCY_KEY (
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  IDEMPOTENCY_KEY   VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  PAYLOAD_HASH      VARCHAR(64) NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  PRIMARY KEY(CLIENT_ID, IDEMPOTENCY_KEY)
+)
+ENGINE INNODB;
+
+SET @CREATE_INDEX = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX IDX_BFSI_IDEMPOTENCY_KEY_CREATED ON BFSI_CONSENT_IDEMPOTENCY_KEY (CREATED_TIME)', 'DO 0')
+  FROM INFORMATION_SCHEMA.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'BFSI_CONSENT_IDEMPOTENCY_KEY' AND INDEX_NAME = 'IDX_BFSI_IDEMPOTENCY_KEY_CREATED');
+PREPARE CREATE_INDEX_STMT FROM @CREATE_INDEX;
+EXECUTE CREATE_INDEX_STMT;
+DEALLOCATE PREPARE CREATE_INDEX_STMT;
@@ -25,14 +25,14 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.bfsi.authentication.endpoint.util.AuthenticationUtils;
 import org.wso2.bfsi.authentication.endpoint.util.Constants;
+import org.wso2.bfsi.consent.management.common.http.HttpClientHolder;
 import org.wso2.bfsi.consent.management.common.util.Generated;
 import org.wso2.bfsi.consent.management.extensions.authservlet.BFSIAuthServletInterface;
 
@@ -45,6 +45,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -59,6 +60,19 @@ public class BFSIConsentConfirmServlet extends HttpServlet {
     static BFSIAuthServletInterface bfsiAuthServletTK;
     private static final long serialVersionUID = 6106269597832678046L;
     private static Logger log = LoggerFactory.getLogger(BFSIConsentConfirmServlet.class);
+    private transient HttpClientHolder httpClientHolder;
+
+    @Override
+    public void init() throws ServletException {
+
+        httpClientHolder = HttpClientHolder.acquire();
+    }
+
+    @Override
+    public void destroy() {
+
+        HttpClientHolder.release();
+    }
 
     @SuppressFBWarnings("COOKIE_USAGE")
     // Suppressed content - browserCookies.put(cookie.getName(), cookie.getValue())
@@ -126,14 +140,18 @@ public class BFSIConsentConfirmServlet extends HttpServlet {
         String persistenceBaseURL = servletContext.getInitParameter(Constants.PERSISTENCE_BASE_URL);
         String persistenceUrl = persistenceBaseURL + Constants.SLASH + sessionDataKey;
 
-        try (CloseableHttpClient client = HttpClientBuilder.create().build()) {
+        HttpResponse dataResponse = null;
+        try {
             HttpPatch dataRequest = new HttpPatch(persistenceUrl);
             dataRequest.addHeader(Constants.ACCEPT, Constants.JSON);
             dataRequest.addHeader(Constants.AUTHORIZATION, Constants.BASIC +
                     AuthenticationUtils.getConsentApiCredentials());
             StringEntity body = new StringEntity(consentData.toString(), ContentType.APPLICATION_JSON);
             dataRequest.setEntity(body);
-            HttpResponse dataResponse = client.execute(dataRequest);
+            dataResponse = httpClientHolder.getHttpClient().execute(dataRequest);
+            if (log.isDebugEnabled()) {
+                log.debug("Consent API connection pool statistics: " + httpClientHolder.getPoolStats());
+            }
 
             if (dataResponse.getStatusLine().getStatusCode() == HttpURLConnection.HTTP_MOVED_TEMP &&
                     dataResponse.getLastHeader(Constants.LOCATION) != null) {
@@ -153,6 +171,11 @@ public class BFSIConsentConfirmServlet extends HttpServlet {
         } catch (IOException | JSONException | URISyntaxException e) {
             log.error("Exception while calling persistence endpoint", e);
             return null;
+        } finally {
+            // Consume the remaining response so that the connection is returned to the pool
+            if (dataResponse != null) {
+                EntityUtils.consumeQuietly(dataResponse.getEntity());
+            }
         }
     }
 }
@@ -23,8 +23,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.owasp.encoder.Encode;
@@ -32,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.bfsi.authentication.endpoint.util.AuthenticationUtils;
 import org.wso2.bfsi.authentication.endpoint.util.Constants;
+import org.wso2.bfsi.consent.management.common.http.HttpClientHolder;
 import org.wso2.bfsi.consent.management.extensions.authservlet.BFSIAuthServletInterface;
 
 import java.io.IOException;
@@ -60,6 +60,19 @@ public class BFSIConsentServlet extends HttpServlet {
     static BFSIAuthServletInterface bfsiAuthServletTK;
     private static final long serialVersionUID = 6106269076132678046L;
     private static Logger log = LoggerFactory.getLogger(BFSIConsentServlet.class);
+    private transient HttpClientHolder httpClientHolder;
+
+    @Override
+    public void init() throws ServletException {
+
+        httpClientHolder = HttpClientHolder.acquire();
+    }
+
+    @Override
+    public void destroy() {
+
+        HttpClientHolder.release();
+    }
 
     @SuppressFBWarnings({"REQUESTDISPATCHER_FILE_DISCLOSURE", "TRUST_BOUNDARY_VIOLATION"})
     // Suppressed content - obAuthServlet.getJSPPath()
@@ -106,6 +119,9 @@ public class BFSIConsentServlet extends HttpServlet {
         } catch (JSONException e) {
             log.error("Error while parsing the response", e);
             dataSet.put(Constants.IS_ERROR, "Error while parsing the response");
+        } finally {
+            // Consume the remaining response so that the connection is returned to the pool
+            EntityUtils.consumeQuietly(consentDataResponse.getEntity());
         }
         if (dataSet.has(Constants.IS_ERROR)) {
             String isError = (String) dataSet.get(Constants.IS_ERROR);
@@ -172,12 +188,15 @@ public class BFSIConsentServlet extends HttpServlet {
         String retrieveUrl = (retrievalBaseURL.endsWith(Constants.SLASH)) ? retrievalBaseURL + sessionDataKeyConsent :
                 retrievalBaseURL + Constants.SLASH + sessionDataKeyConsent;
 
-        CloseableHttpClient client = HttpClientBuilder.create().build();
         HttpGet dataRequest = new HttpGet(retrieveUrl);
         dataRequest.addHeader(Constants.AUTHORIZATION, Constants.BASIC +
                 AuthenticationUtils.getConsentApiCredentials());
 
-        return client.execute(dataRequest);
+        HttpResponse response = httpClientHolder.getHttpClient().execute(dataRequest);
+        if (log.isDebugEnabled()) {
+            log.debug("Consent API connection pool statistics: " + httpClientHolder.getPoolStats());
+        }
+        return response;
 
     }
 
@@ -38,6 +38,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 /**
@@ -79,7 +80,8 @@ public class ConsentAdminEndpoint {
     }
 
     /**
-     * Search consent data.
+     * Search consent data. When the stream query param is set to true, the matching consents are written to the
+     * response incrementally instead of being collected in memory.
      */
     @GET
     @Path("/search")
@@ -165,7 +167,11 @@ public class ConsentAdminEndpoint {
      * @return Response
      */
     private Response sendResponse(ConsentAdminData consentAdminData) {
-        if (consentAdminData.getPayload() != null || consentAdminData.getResponseStatus() != null) {
+        if (consentAdminData.getResponseStreamWriter() != null && consentAdminData.getResponseStatus() != null) {
+            ConsentAdminData.ResponseStreamWriter responseStreamWriter = consentAdminData.getResponseStreamWriter();
+            return Response.status(consentAdminData.getResponseStatus().getStatusCode())
+                    .entity((StreamingOutput) responseStreamWriter::write).build();
+        } else if (consentAdminData.getPayload() != null || consentAdminData.getResponseStatus() != null) {
             return Response.status(consentAdminData.getResponseStatus().getStatusCode()).
                     entity(consentAdminData.getResponsePayload().toString()).build();
         } else {
@@ -35,6 +35,7 @@ import org.wso2.bfsi.consent.management.endpoint.utils.PATCH;
 import org.wso2.bfsi.consent.management.extensions.authorize.ConsentPersistStep;
 import org.wso2.bfsi.consent.management.extensions.authorize.ConsentRetrievalStep;
 import org.wso2.bfsi.consent.management.extensions.authorize.builder.ConsentStepsBuilder;
+import org.wso2.bfsi.consent.management.extensions.authorize.executor.ConsentStepsExecutor;
 import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentData;
 import org.wso2.bfsi.consent.management.extensions.authorize.model.ConsentPersistData;
 import org.wso2.bfsi.consent.management.extensions.common.AuthErrorCode;
@@ -84,6 +85,7 @@ public class ConsentAuthorizeEndpoint {
     private static final Log log = LogFactory.getLog(ConsentAuthorizeEndpoint.class);
     private static List<ConsentPersistStep> consentPersistSteps = null;
     private static List<ConsentRetrievalStep> consentRetrievalSteps = null;
+    private static ConsentStepsExecutor consentStepsExecutor = null;
     private static final ConsentCoreServiceImpl consentCoreService = new ConsentCoreServiceImpl();
 
     public ConsentAuthorizeEndpoint() {
@@ -98,6 +100,7 @@ public class ConsentAuthorizeEndpoint {
             if (consentStepsBuilder != null) {
                 consentRetrievalSteps = consentStepsBuilder.getConsentRetrievalSteps();
                 consentPersistSteps = consentStepsBuilder.getConsentPersistSteps();
+                consentStepsExecutor = consentStepsBuilder.getConsentStepsExecutor();
             }
 
             if (consentRetrievalSteps != null && !consentRetrievalSteps.isEmpty()) {
@@ -349,13 +352,7 @@ public class ConsentAuthorizeEndpoint {
      */
     private void executeRetrieval(ConsentData consentData, JSONObject jsonObject) {
 
-        for (ConsentRetrievalStep step : consentRetrievalSteps) {
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Executing retrieval step %s",
-                        step.getClass().toString().replaceAll("\n\r", "")));
-            }
-            step.execute(consentData, jsonObject);
-        }
+        consentStepsExecutor.executeRetrieval(consentData, jsonObject);
     }
 
     /**
@@ -366,12 +363,6 @@ public class ConsentAuthorizeEndpoint {
      */
     private void executePersistence(ConsentPersistData consentPersistData) throws ConsentException {
 
-        for (ConsentPersistStep step : consentPersistSteps) {
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Executing persistence step %s",
-                        step.getClass().toString().replaceAll("\n\r", "")));
-            }
-            step.execute(consentPersistData);
-        }
+        consentStepsExecutor.executePersistence(consentPersistData);
     }
 }
@@ -18,13 +18,13 @@
 
 package org.wso2.bfsi.consent.management.endpoint.api;
 
+import com.nimbusds.jwt.SignedJWT;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementException;
-import org.wso2.bfsi.consent.management.common.util.CommonUtils;
 import org.wso2.bfsi.consent.management.dao.models.DetailedConsentResource;
 import org.wso2.bfsi.consent.management.endpoint.utils.ConsentUtils;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
@@ -112,9 +112,13 @@ public class ConsentValidationEndpoint {
 
         if (ConsentUtils.getConsentJWTPayloadValidatorConfigEnabled()) {
             try {
-                ConsentExtensionUtils.validateJWTSignatureWithPublicKey(payload, requestSignatureAlias);
-                String decodedRequest = CommonUtils.decodeRequestJWT(payload, ConsentExtensionConstants.BODY) != null ?
-                        CommonUtils.decodeRequestJWT(payload, ConsentExtensionConstants.BODY).toJSONString() : null;
+                // Parse the JWT once, both the signature validation and the request data use the parsed object
+                SignedJWT signedJWT = SignedJWT.parse(payload);
+                if (!ConsentExtensionUtils.validateJWTSignatureWithPublicKey(signedJWT, requestSignatureAlias)) {
+                    log.error("Invalid JWT signature in the validation request");
+                    throw new ConsentException(ResponseStatus.UNAUTHORIZED, "Invalid JWT signature");
+                }
+                String decodedRequest = signedJWT.getPayload() != null ? signedJWT.getPayload().toString() : null;
                 if (Objects.nonNull(decodedRequest)) {
                     requestData = new JSONObject(decodedRequest);
                 } else {
@@ -194,7 +198,8 @@ public class ConsentValidationEndpoint {
         try {
             responsePayload = validationResult.generatePayload();
             responsePayload.put(ConsentExtensionConstants.CONSENT_INFO,
-                    ConsentUtils.signJWTWithDefaultKey(validationResult.getConsentInformation().toString()));
+                    ConsentUtils.signConsentInformation(consentValidateData.getComprehensiveConsent(),
+                            validationResult.isValid(), validationResult.getConsentInformation().toString()));
         } catch (Exception e) {
             log.error("Error occurred while getting private key", e);
             throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, "Error while getting private key");
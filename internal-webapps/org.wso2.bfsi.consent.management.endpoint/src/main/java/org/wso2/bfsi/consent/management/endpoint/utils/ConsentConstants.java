@@ -39,4 +39,6 @@ public class ConsentConstants {
             "properly or invalid";
     public static final String PRESERVE_CONSENT = ConsentManagementConfigParser.getInstance().getPreserveConsent();
     public static final boolean STORE_CONSENT = Boolean.parseBoolean(PRESERVE_CONSENT);
+    public static final boolean SIGNED_CONSENT_INFO_CACHE_ENABLED =
+            ConsentManagementConfigParser.getInstance().isSignedConsentInformationCacheEnabled();
 }
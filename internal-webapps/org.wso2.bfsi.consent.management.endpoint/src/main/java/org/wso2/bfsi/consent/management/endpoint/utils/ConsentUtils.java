@@ -24,7 +24,6 @@ import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -58,7 +57,6 @@ import org.wso2.bfsi.consent.management.extensions.common.ConsentException;
 import org.wso2.bfsi.consent.management.extensions.common.ConsentExtensionConstants;
 import org.wso2.bfsi.consent.management.extensions.common.ResponseStatus;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
-import org.wso2.carbon.core.util.KeyStoreManager;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.local.auth.api.core.ParameterResolverService;
 import org.wso2.carbon.utils.HTTPClientUtils;
@@ -68,7 +66,6 @@ import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.Key;
-import java.security.interfaces.RSAPrivateKey;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -408,9 +405,36 @@ public class ConsentUtils {
      * @throws Exception error if the tenant is invalid
      */
     public static String signJWTWithDefaultKey(String body) throws Exception {
-        KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(-1234);
-        Key privateKey = keyStoreManager.getDefaultPrivateKey();
-        return generateJWT(body, privateKey);
+
+        return generateJWT(body, DefaultKeySignerHolder.getSigner());
+    }
+
+    /**
+     * Sign the consent information of a consent validation response using the carbon default key pair. The signed
+     * consent information is reused while the consent and the validation result are unchanged, if the signed consent
+     * information cache is enabled.
+     *
+     * @param consentResource    validated consent
+     * @param valid              validation result
+     * @param consentInformation consent information to be signed
+     * @return string value of the signed JWT
+     * @throws Exception error if the tenant is invalid
+     */
+    public static String signConsentInformation(DetailedConsentResource consentResource, boolean valid,
+                                                String consentInformation) throws Exception {
+
+        if (consentResource == null || !ConsentConstants.SIGNED_CONSENT_INFO_CACHE_ENABLED) {
+            return signJWTWithDefaultKey(consentInformation);
+        }
+        SignedConsentInformationCache cache = SignedConsentInformationCache.getInstance();
+        String signedConsentInformation = cache.get(consentResource.getConsentID(),
+                consentResource.getUpdatedTime(), valid, consentInformation);
+        if (signedConsentInformation == null) {
+            signedConsentInformation = signJWTWithDefaultKey(consentInformation);
+            cache.put(consentResource.getConsentID(), consentResource.getUpdatedTime(), valid, consentInformation,
+                    signedConsentInformation);
+        }
+        return signedConsentInformation;
     }
 
     /**
@@ -427,11 +451,23 @@ public class ConsentUtils {
             throw new ConsentManagementRuntimeException("Payload and key cannot be null");
         }
 
-        if (!(privateKey instanceof RSAPrivateKey)) {
-            throw new ConsentManagementRuntimeException("Private key should be an instance of RSAPrivateKey");
+        return generateJWT(payload, DefaultKeySignerHolder.createSigner(privateKey));
+    }
+
+    /**
+     * Util method to generate JWT using a payload and a signer. RS256 is the algorithm used
+     *
+     * @param payload The payload body to be signed
+     * @param signer  The signer for the JWT to be signed with
+     * @return String signed JWT
+     */
+    public static String generateJWT(String payload, JWSSigner signer) {
+
+        if (payload == null) {
+            log.debug("Null value passed for payload. Cannot generate JWT");
+            throw new ConsentManagementRuntimeException("Payload and key cannot be null");
         }
 
-        JWSSigner signer = new RSASSASigner((RSAPrivateKey) privateKey);
         JWSHeader.Builder headerBuilder = new JWSHeader.Builder(JWSAlgorithm.RS256);
 
         SignedJWT signedJWT = null;
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.endpoint.utils;
+
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
+import org.wso2.carbon.core.util.KeyStoreManager;
+
+import java.security.Key;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the JWS signer of the carbon default private key.
+ * <p>
+ * Retrieving the private key from the key store decrypts it, so the key is only retrieved again once the refresh
+ * interval elapses. The signer is rebuilt when the retrieved key differs from the one it was built with, i.e. when
+ * the key is rotated.
+ */
+public class DefaultKeySignerHolder {
+
+    private static final Log log = LogFactory.getLog(DefaultKeySignerHolder.class);
+    private static final long KEY_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final int SUPER_TENANT_ID = -1234;
+    private static volatile SignerEntry signerEntry;
+
+    private DefaultKeySignerHolder() {
+    }
+
+    /**
+     * Get the signer of the carbon default private key.
+     *
+     * @return JWS signer
+     * @throws Exception error if the tenant is invalid
+     */
+    public static JWSSigner getSigner() throws Exception {
+
+        SignerEntry entry = signerEntry;
+        long currentTime = System.currentTimeMillis();
+        if (entry == null || currentTime >= entry.refreshTime) {
+            synchronized (DefaultKeySignerHolder.class) {
+                entry = signerEntry;
+                if (entry == null || currentTime >= entry.refreshTime) {
+                    Key privateKey = KeyStoreManager.getInstance(SUPER_TENANT_ID).getDefaultPrivateKey();
+                    JWSSigner signer;
+                    if (entry != null && entry.privateKey.equals(privateKey)) {
+                        signer = entry.signer;
+                    } else {
+                        if (entry != null) {
+                            log.info("Default private key rotation detected, rebuilding the JWT signer");
+                        }
+                        signer = createSigner(privateKey);
+                    }
+                    entry = new SignerEntry(privateKey, signer, currentTime + KEY_REFRESH_INTERVAL);
+                    signerEntry = entry;
+                }
+            }
+        }
+        return entry.signer;
+    }
+
+    /**
+     * Discard the held signer, so that the key is retrieved on the next signing.
+     */
+    public static void refresh() {
+
+        signerEntry = null;
+    }
+
+    /**
+     * Create an RS256 signer for a private key.
+     *
+     * @param privateKey private key
+     * @return JWS signer
+     */
+    static JWSSigner createSigner(Key privateKey) {
+
+        if (privateKey == null) {
+            log.debug("Null value passed for key. Cannot generate JWT");
+            throw new ConsentManagementRuntimeException("Payload and key cannot be null");
+        }
+        if (!(privateKey instanceof RSAPrivateKey)) {
+            throw new ConsentManagementRuntimeException("Private key should be an instance of RSAPrivateKey");
+        }
+        return new RSASSASigner((RSAPrivateKey) privateKey);
+    }
+
+    private static final class SignerEntry {
+
+        private final Key privateKey;
+        private final JWSSigner signer;
+        private final long refreshTime;
+
+        private SignerEntry(Key privateKey, JWSSigner signer, long refreshTime) {
+
+            this.privateKey = privateKey;
+            this.signer = signer;
+            this.refreshTime = refreshTime;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.endpoint.utils;
+
+import org.wso2.bfsi.consent.management.common.config.ConsentManagementConfigParser;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short lived cache of the signed consent information of the consent validation responses.
+ * <p>
+ * Entries are keyed by the consent ID, the consent updated time and the validation result, and hold the consent
+ * information they were signed for. An entry is only used when the consent information to be signed is identical to
+ * it, so that changes to a consent which do not change its updated time, such as account mapping changes, are never
+ * served from the cache.
+ */
+public class SignedConsentInformationCache {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    private static volatile SignedConsentInformationCache instance;
+
+    private final ConcurrentHashMap<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final long expiryMillis;
+    private final int maxEntries;
+    private volatile long nextSweepTime;
+
+    SignedConsentInformationCache(long expirySeconds, int maxEntries) {
+
+        this.expiryMillis = TimeUnit.SECONDS.toMillis(expirySeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get signed consent information cache instance.
+     *
+     * @return signed consent information cache instance
+     */
+    public static SignedConsentInformationCache getInstance() {
+
+        if (instance == null) {
+            synchronized (SignedConsentInformationCache.class) {
+                if (instance == null) {
+                    ConsentManagementConfigParser configParser = ConsentManagementConfigParser.getInstance();
+                    instance = new SignedConsentInformationCache(
+                            configParser.getSignedConsentInformationCacheExpiry(),
+                            configParser.getSignedConsentInformationCacheMaxEntries());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the signed consent information cached for a consent.
+     *
+     * @param consentId          consent ID
+     * @param updatedTime        consent updated time
+     * @param valid              validation result
+     * @param consentInformation consent information to be signed
+     * @return signed consent information or null if not cached
+     */
+    public String get(String consentId, long updatedTime, boolean valid, String consentInformation) {
+
+        CacheKey key = new CacheKey(consentId, updatedTime, valid);
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiryTime <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.consentInformation.equals(consentInformation) ? entry.signedConsentInformation : null;
+    }
+
+    /**
+     * Cache the signed consent information of a consent. Nothing is cached while the cache is full of entries which
+     * have not expired.
+     *
+     * @param consentId                consent ID
+     * @param updatedTime              consent updated time
+     * @param valid                    validation result
+     * @param consentInformation       consent information which was signed
+     * @param signedConsentInformation signed consent information
+     */
+    public void put(String consentId, long updatedTime, boolean valid, String consentInformation,
+                    String signedConsentInformation) {
+
+        long currentTime = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            removeExpiredEntries(currentTime);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(new CacheKey(consentId, updatedTime, valid),
+                new CacheEntry(consentInformation, signedConsentInformation, currentTime + expiryMillis));
+    }
+
+    private void removeExpiredEntries(long currentTime) {
+
+        if (currentTime < nextSweepTime) {
+            return;
+        }
+        nextSweepTime = currentTime + SWEEP_INTERVAL;
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().expiryTime <= currentTime) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final String consentId;
+        private final long updatedTime;
+        private final boolean valid;
+
+        private CacheKey(String consentId, long updatedTime, boolean valid) {
+
+            this.consentId = consentId;
+            this.updatedTime = updatedTime;
+            this.valid = valid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return updatedTime == that.updatedTime && valid == that.valid && consentId.equals(that.consentId);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(consentId, updatedTime, valid);
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final String consentInformation;
+        private final String signedConsentInformation;
+        private final long expiryTime;
+
+        private CacheEntry(String consentInformation, String signedConsentInformation, long expiryTime) {
+
+            this.consentInformation = consentInformation;
+            this.signedConsentInformation = signedConsentInformation;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.endpoint.utils;
+
+import com.nimbusds.jose.JWSSigner;
+import org.mockito.MockedStatic;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.bfsi.consent.management.common.exceptions.ConsentManagementRuntimeException;
+import org.wso2.carbon.core.util.KeyStoreManager;
+
+import java.security.Key;
+import java.security.KeyPairGenerator;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for the default key signer holder.
+ */
+public class DefaultKeySignerHolderTests {
+
+    private Key privateKey;
+    private Key rotatedPrivateKey;
+    private KeyStoreManager keyStoreManager;
+    private MockedStatic<KeyStoreManager> keyStoreManagerMockedStatic;
+
+    @BeforeClass
+    public void initClass() throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        privateKey = keyPairGenerator.generateKeyPair().getPrivate();
+        rotatedPrivateKey = keyPairGenerator.generateKeyPair().getPrivate();
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        DefaultKeySignerHolder.refresh();
+        keyStoreManager = mock(KeyStoreManager.class);
+        doReturn(privateKey).when(keyStoreManager).getDefaultPrivateKey();
+        keyStoreManagerMockedStatic = mockStatic(KeyStoreManager.class);
+        keyStoreManagerMockedStatic.when(() -> KeyStoreManager.getInstance(anyInt())).thenReturn(keyStoreManager);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        keyStoreManagerMockedStatic.close();
+        DefaultKeySignerHolder.refresh();
+    }
+
+    @Test
+    public void testSignerReused() throws Exception {
+
+        JWSSigner signer = DefaultKeySignerHolder.getSigner();
+
+        Assert.assertNotNull(signer);
+        Assert.assertSame(DefaultKeySignerHolder.getSigner(), signer);
+        verify(keyStoreManager, times(1)).getDefaultPrivateKey();
+    }
+
+    @Test
+    public void testSignerReusedAfterRefreshWithSameKey() throws Exception {
+
+        JWSSigner signer = DefaultKeySignerHolder.getSigner();
+        DefaultKeySignerHolder.refresh();
+
+        Assert.assertSame(DefaultKeySignerHolder.getSigner(), signer);
+        verify(keyStoreManager, times(2)).getDefaultPrivateKey();
+    }
+
+    @Test
+    public void testSignerRebuiltAfterKeyRotation() throws Exception {
+
+        JWSSigner signer = DefaultKeySignerHolder.getSigner();
+        doReturn(rotatedPrivateKey).when(keyStoreManager).getDefaultPrivateKey();
+        DefaultKeySignerHolder.refresh();
+
+        JWSSigner rotatedSigner = DefaultKeySignerHolder.getSigner();
+        Assert.assertNotSame(rotatedSigner, signer);
+        Assert.assertSame(DefaultKeySignerHolder.getSigner(), rotatedSigner);
+    }
+
+    @Test (expectedExceptions = ConsentManagementRuntimeException.class)
+    public void testCreateSignerWithoutKey() {
+
+        DefaultKeySignerHolder.createSigner(null);
+    }
+
+    @Test (expectedExceptions = ConsentManagementRuntimeException.class)
+    public void testCreateSignerWithNonRSAKey() throws Exception {
+
+        DefaultKeySignerHolder.createSigner(KeyPairGenerator.getInstance("EC").generateKeyPair().getPrivate());
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ * <p>
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.bfsi.consent.management.endpoint.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test for the signed consent information cache.
+ */
+public class SignedConsentInformationCacheTests {
+
+    private static final String CONSENT_ID = "c3f9a5e2-7d61-4b8e-9f0a-2b1d4c6e8a10";
+    private static final long UPDATED_TIME = 1700000000L;
+    private static final String CONSENT_INFORMATION = "{\"consentId\":\"" + CONSENT_ID + "\",\"accounts\":[\"1\"]}";
+    private static final String SIGNED_CONSENT_INFORMATION = "eyJhbGciOiJSUzI1NiJ9.e30.c2lnbmF0dXJl";
+
+    @Test
+    public void testCachedEntryReturned() {
+
+        SignedConsentInformationCache cache = new SignedConsentInformationCache(60, 10);
+        cache.put(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION, SIGNED_CONSENT_INFORMATION);
+
+        Assert.assertEquals(cache.get(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION),
+                SIGNED_CONSENT_INFORMATION);
+    }
+
+    @Test
+    public void testEntryNotCachedReturnsNull() {
+
+        SignedConsentInformationCache cache = new SignedConsentInformationCache(60, 10);
+
+        Assert.assertNull(cache.get(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION));
+    }
+
+    @Test
+    public void testEntryNotReturnedForChangedConsent() {
+
+        SignedConsentInformationCache cache = new SignedConsentInformationCache(60, 10);
+        cache.put(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION, SIGNED_CONSENT_INFORMATION);
+
+        // An updated consent, a different validation result or changed consent information is not served
+        Assert.assertNull(cache.get(CONSENT_ID, UPDATED_TIME + 1, true, CONSENT_INFORMATION));
+        Assert.assertNull(cache.get(CONSENT_ID, UPDATED_TIME, false, CONSENT_INFORMATION));
+        Assert.assertNull(cache.get(CONSENT_ID, UPDATED_TIME, true,
+                "{\"consentId\":\"" + CONSENT_ID + "\",\"accounts\":[\"2\"]}"));
+    }
+
+    @Test
+    public void testExpiredEntryNotReturned() {
+
+        SignedConsentInformationCache cache = new SignedConsentInformationCache(0, 10);
+        cache.put(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION, SIGNED_CONSENT_INFORMATION);
+
+        Assert.assertNull(cache.get(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION));
+    }
+
+    @Test
+    public void testEntryNotCachedWhenFull() {
+
+        SignedConsentInformationCache cache = new SignedConsentInformationCache(60, 1);
+        cache.put(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION, SIGNED_CONSENT_INFORMATION);
+        cache.put(CONSENT_ID, UPDATED_TIME + 1, true, CONSENT_INFORMATION, SIGNED_CONSENT_INFORMATION);
+
+        Assert.assertNull(cache.get(CONSENT_ID, UPDATED_TIME + 1, true, CONSENT_INFORMATION));
+        Assert.assertEquals(cache.get(CONSENT_ID, UPDATED_TIME, true, CONSENT_INFORMATION),
+                SIGNED_CONSENT_INFORMATION);
+    }
+}